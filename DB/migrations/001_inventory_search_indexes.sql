@@ -0,0 +1,22 @@
+-- Indexed search for /api/inventory/search and /api/inventory/search/suggest
+-- Run once against the Batcave database after the application has created its tables:
+--   psql -U postgres -d Batcave -f DB/migrations/001_inventory_search_indexes.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- trigram indexes let ILIKE '%term%' use an index instead of a sequential scan
+CREATE INDEX IF NOT EXISTS idx_inventory_serial_trgm
+    ON public.inventory_items USING gin (serial_number gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_product_types_name_trgm
+    ON public.product_types USING gin (name gin_trgm_ops);
+
+-- btree pattern indexes for prefix / typeahead lookups on the lower-cased value
+CREATE INDEX IF NOT EXISTS idx_inventory_serial_prefix
+    ON public.inventory_items (lower(serial_number) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_product_types_name_prefix
+    ON public.product_types (lower(name) text_pattern_ops);
+
+ANALYZE public.inventory_items;
+ANALYZE public.product_types;
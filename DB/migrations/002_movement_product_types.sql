@@ -0,0 +1,10 @@
+-- Product type on ledger rows written before inventory_movements had the column, so the stock
+-- history rollup can count them per product type. Rows of items deleted since stay NULL.
+-- Run once against the Batcave database after upgrading, before the first history rollup:
+--   psql -U postgres -d Batcave -f DB/migrations/002_movement_product_types.sql
+
+UPDATE public.inventory_movements m
+   SET product_type_id = i.product_type_id
+  FROM public.inventory_items i
+ WHERE m.item_id = i.id
+   AND m.product_type_id IS NULL;
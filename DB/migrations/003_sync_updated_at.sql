@@ -0,0 +1,62 @@
+-- Delta sync support for ?since on /api/warehouses, /api/products and /api/inventory.
+-- Run once against the Batcave database after upgrading:
+--   psql -U postgres -d Batcave -f DB/migrations/003_sync_updated_at.sql
+
+-- the capacity trigger now also stamps updated_at, so a warehouse whose current_capacity
+-- moved shows up in the next delta like any other changed warehouse
+CREATE OR REPLACE FUNCTION public.update_warehouse_capacity_junction() RETURNS trigger
+    LANGUAGE plpgsql
+    AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        -- Check capacity before insert
+        IF (SELECT current_capacity + NEW.quantity FROM warehouses WHERE id = NEW.warehouse_id) > 
+           (SELECT max_capacity FROM warehouses WHERE id = NEW.warehouse_id) THEN
+            RAISE EXCEPTION 'Warehouse capacity exceeded. Cannot add % units.', NEW.quantity;
+        END IF;
+        
+        -- Update capacity
+        UPDATE warehouses 
+        SET current_capacity = current_capacity + NEW.quantity,
+            updated_at = localtimestamp
+        WHERE id = NEW.warehouse_id;
+        
+    ELSIF TG_OP = 'UPDATE' THEN
+        -- Calculate difference
+        DECLARE
+            quantity_diff INTEGER := NEW.quantity - OLD.quantity;
+        BEGIN
+            -- Check if increase exceeds capacity
+            IF quantity_diff > 0 THEN
+                IF (SELECT current_capacity + quantity_diff FROM warehouses WHERE id = NEW.warehouse_id) > 
+                   (SELECT max_capacity FROM warehouses WHERE id = NEW.warehouse_id) THEN
+                    RAISE EXCEPTION 'Warehouse capacity exceeded. Cannot add % units.', quantity_diff;
+                END IF;
+            END IF;
+            
+            -- Update capacity, an unchanged quantity leaves the warehouse alone
+            IF quantity_diff <> 0 THEN
+                UPDATE warehouses 
+                SET current_capacity = current_capacity + quantity_diff,
+                    updated_at = localtimestamp
+                WHERE id = NEW.warehouse_id;
+            END IF;
+        END;
+        
+    ELSIF TG_OP = 'DELETE' THEN
+        -- Reduce capacity
+        UPDATE warehouses 
+        SET current_capacity = current_capacity - OLD.quantity,
+            updated_at = localtimestamp
+        WHERE id = OLD.warehouse_id;
+    END IF;
+    
+    RETURN NULL;
+END;
+$$;
+
+-- ?since reads and the version check scan these columns
+CREATE INDEX IF NOT EXISTS idx_warehouses_updated_at ON public.warehouses (updated_at);
+CREATE INDEX IF NOT EXISTS idx_product_types_updated_at ON public.product_types (updated_at);
+CREATE INDEX IF NOT EXISTS idx_inventory_items_updated_at ON public.inventory_items (updated_at);
+CREATE INDEX IF NOT EXISTS idx_warehouse_inventory_updated_at ON public.warehouse_inventory (updated_at);
@@ -18,8 +18,42 @@ document.addEventListener('DOMContentLoaded', function() {
     setupForms();
     setupSearchAndFilter();
     initializeLocationModal();
+    setupChangeFeed();
 });
 
+// Live capacity updates pushed by the server instead of re-polling the warehouse list
+function setupChangeFeed() {
+    if (!window.EventSource) {
+        return;
+    }
+    let renderPending = false;
+    const feed = new EventSource(`${API_BASE_URL}/events`);
+    feed.addEventListener('capacity', function(e) {
+        const change = JSON.parse(e.data);
+        const warehouse = warehouses.find(w => w.id === change.warehouseId);
+        if (!warehouse) {
+            return;
+        }
+        warehouse.currentCapacity = change.currentCapacity;
+        warehouse.maxCapacity = change.maxCapacity;
+        warehouse.capacityPercentage = change.maxCapacity === 0 ? 0 : (change.currentCapacity / change.maxCapacity) * 100;
+        
+        // a batch of changes redraws once
+        if (!renderPending) {
+            renderPending = true;
+            requestAnimationFrame(() => {
+                renderPending = false;
+                if (currentSection === 'dashboard') {
+                    displayWarehouseCapacity(warehouses);
+                    displayAlerts(warehouses);
+                } else if (currentSection === 'warehouses') {
+                    displayWarehouses();
+                }
+            });
+        }
+    });
+}
+
 // Initialize location modal
 function initializeLocationModal() {
     const modalElement = document.getElementById('locationModal');
@@ -215,33 +249,38 @@ async function performSearch() {
 //*************************************************************************************************************** */
 async function loadDashboard() {
     try {
-        await Promise.all([
+        // the totals come precomputed in one call instead of loading every inventory item
+        const [stats] = await Promise.all([
+            fetch(`${API_BASE_URL}/dashboard`).then(response => {
+                if (!response.ok) {
+                    throw new Error('Dashboard request failed');
+                }
+                return response.json();
+            }),
             loadWarehouses(),
-            loadInventoryItems(),
             loadProductTypes()
         ]);
         
-        updateDashboardStats();
-        displayWarehouseCapacity();
-        displayAlerts();
+        updateDashboardStats(stats);
+        displayWarehouseCapacity(stats.warehouses);
+        displayAlerts(stats.warehouses);
     } catch (error) {
         console.error('Error loading dashboard:', error);
         showAlert('Failed to load dashboard data', 'danger');
     }
 }
 
-function updateDashboardStats() {
-    document.getElementById('totalWarehouses').textContent = warehouses.length;
-    document.getElementById('totalItems').textContent = inventoryItems.length;
-    document.getElementById('totalProductTypes').textContent = productTypes.length;
-    
-    if (warehouses.length > 0) {
-        const avgCapacity = warehouses.reduce((sum, w) => sum + w.capacityPercentage, 0) / warehouses.length;
-        document.getElementById('avgCapacity').textContent = avgCapacity.toFixed(1) + '%';
+function updateDashboardStats(stats) {
+    document.getElementById('totalWarehouses').textContent = stats.totalWarehouses;
+    document.getElementById('totalItems').textContent = stats.totalItems;
+    document.getElementById('totalProductTypes').textContent = stats.totalProductTypes;
+    
+    if (stats.totalWarehouses > 0) {
+        document.getElementById('avgCapacity').textContent = stats.averageUtilization.toFixed(1) + '%';
     }
 }
 
-function displayWarehouseCapacity() {
+function displayWarehouseCapacity(warehouses) {
     const container = document.getElementById('warehouseCapacityList');
     
     if (warehouses.length === 0) {
@@ -273,7 +312,7 @@ function displayWarehouseCapacity() {
     container.innerHTML = html;
 }
 
-function displayAlerts() {
+function displayAlerts(warehouses) {
     const container = document.getElementById('alertsList');
 
     // filter warehouse by capacity thresholds
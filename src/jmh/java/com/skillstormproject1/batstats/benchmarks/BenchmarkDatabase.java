@@ -0,0 +1,240 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import com.skillstormproject1.batstats.BatstatsApplication;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.services.InventoryItemService;
+import com.skillstormproject1.batstats.services.ProductTypeService;
+import com.skillstormproject1.batstats.services.WarehouseService;
+
+/**
+ * A seeded PostgreSQL database plus a running application context, shared by the benchmarks.
+ *
+ * Every dataset size gets its own database (batstats_bench_1000, batstats_bench_100000, ...)
+ * on the server given by -Dbench.jdbc.url, so a 1M run doesn't slow down the 1k numbers and
+ * seeding only happens the first time. A new database gets the schema and triggers from
+ * DB/BatStats-database.sql when pg_restore is on the PATH, then the application creates its
+ * own tables and DB/migrations is applied, so the indexes match production.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final String CATEGORY = "Bench";
+    static final String CREATED_CATEGORY = "BenchCreated";
+    static final int WAREHOUSES = 10;
+    static final int PRODUCT_TYPES = 20;
+
+    private static final int SEED_CHUNK = 10_000;
+    private static final int WAREHOUSE_CAPACITY = 1_000_000_000;
+
+    // number of inventory items seeded before any benchmark runs
+    @Param({"1000", "100000", "1000000"})
+    public int datasetSize;
+
+    ConfigurableApplicationContext context;
+    InventoryItemService inventoryItemService;
+    // connection settings of the seeded database, for contexts started next to this one
+    String jdbcUrl;
+    String username;
+    String password;
+    JdbcTemplate jdbcTemplate;
+
+    final List<Integer> warehouseIds = new ArrayList<>();
+    final List<Integer> productTypeIds = new ArrayList<>();
+    Integer createdProductTypeId;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        String serverUrl = System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/");
+        username = System.getProperty("bench.jdbc.username", "postgres");
+        password = System.getProperty("bench.jdbc.password", "skillstorm");
+        String database = "batstats_bench_" + datasetSize;
+        jdbcUrl = serverUrl + database + "?reWriteBatchedInserts=true";
+
+        boolean created = createDatabaseIfMissing(serverUrl + "postgres", username, password, database);
+        if (created) {
+            restoreSchema(serverUrl, username, password, database);
+        }
+
+        context = new SpringApplicationBuilder(BatstatsApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=" + jdbcUrl,
+                "spring.datasource.username=" + username,
+                "spring.datasource.password=" + password,
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.devtools.restart.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+
+        inventoryItemService = context.getBean(InventoryItemService.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+
+        applyMigrations();
+        seedReferenceData();
+        seedItems();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        // drop what the create benchmarks added so the next trial starts from the same dataset
+        jdbcTemplate.update("DELETE FROM inventory_items WHERE product_type_id = ?", createdProductTypeId);
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // serial number of some seeded item, picked by position
+    String serialAt(int position) {
+        return jdbcTemplate.queryForObject(
+            "SELECT serial_number FROM inventory_items ORDER BY id OFFSET ? LIMIT 1", String.class, position);
+    }
+
+    private boolean createDatabaseIfMissing(String adminUrl, String username, String password, String database)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet exists = statement.executeQuery(
+                    "SELECT 1 FROM pg_database WHERE datname = '" + database + "'")) {
+                if (exists.next()) {
+                    return false;
+                }
+            }
+            statement.execute("CREATE DATABASE " + database);
+            return true;
+        }
+    }
+
+    // schema, functions and triggers from the project dump, without its sample rows
+    private void restoreSchema(String serverUrl, String username, String password, String database)
+            throws IOException, InterruptedException {
+        File dump = new File("DB/BatStats-database.sql");
+        String host = serverUrl.replaceFirst("^jdbc:postgresql://", "").replaceFirst("/.*$", "");
+        String[] hostAndPort = host.split(":");
+        ProcessBuilder restore = new ProcessBuilder("pg_restore", "--schema-only", "--no-owner",
+            "-h", hostAndPort[0], "-p", hostAndPort.length > 1 ? hostAndPort[1] : "5432",
+            "-U", username, "-d", database, dump.getPath()).inheritIO();
+        restore.environment().put("PGPASSWORD", password);
+        try {
+            int exit = restore.start().waitFor();
+            if (exit != 0) {
+                System.err.println("pg_restore exited with " + exit + ", continuing with the tables hibernate creates");
+            }
+        } catch (IOException ex) {
+            System.err.println("pg_restore not available (" + ex.getMessage()
+                + "), the benchmark database will have no capacity triggers");
+        }
+    }
+
+    private void applyMigrations() throws IOException, SQLException {
+        Path migrations = Paths.get("DB/migrations");
+        if (!Files.isDirectory(migrations)) {
+            return;
+        }
+        List<Path> scripts;
+        try (Stream<Path> files = Files.list(migrations)) {
+            scripts = files.filter(file -> file.toString().endsWith(".sql")).sorted().toList();
+        }
+        for (Path script : scripts) {
+            runScript(script);
+        }
+    }
+
+    // the whole file goes to the server as one statement: splitting at ; would cut plpgsql bodies apart
+    void runScript(Path script) throws SQLException {
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(new FileSystemResource(script)), false, false,
+                ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+        }
+    }
+
+    private void seedReferenceData() {
+        WarehouseService warehouseService = context.getBean(WarehouseService.class);
+        ProductTypeService productTypeService = context.getBean(ProductTypeService.class);
+
+        for (int i = 0; i < WAREHOUSES; i++) {
+            String name = "Bench Warehouse " + i;
+            List<Integer> existing = jdbcTemplate.queryForList(
+                "SELECT id FROM warehouses WHERE name = ?", Integer.class, name);
+            warehouseIds.add(existing.isEmpty()
+                ? warehouseService.createWarehouse(new WarehouseDTO(name, "Bench Bay", WAREHOUSE_CAPACITY, "ACTIVE")).getId()
+                : existing.get(0));
+        }
+        for (int i = 0; i < PRODUCT_TYPES; i++) {
+            productTypeIds.add(productType(productTypeService, "Bench Gadget " + i, CATEGORY));
+        }
+        createdProductTypeId = productType(productTypeService, "Bench Created Gadget", CREATED_CATEGORY);
+    }
+
+    private Integer productType(ProductTypeService productTypeService, String name, String category) {
+        List<Integer> existing = jdbcTemplate.queryForList(
+            "SELECT id FROM product_types WHERE name = ?", Integer.class, name);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        ProductType type = new ProductType();
+        type.setName(name);
+        type.setCategory(category);
+        type.setUnitOfMeasure("unit");
+        return productTypeService.createProductType(type).getId();
+    }
+
+    // top the database up to datasetSize items, spread over the bench warehouses and product types
+    private void seedItems() {
+        int existing = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM inventory_items WHERE product_type_id <> ?", Integer.class, createdProductTypeId);
+        int seeded = existing;
+        while (seeded < datasetSize) {
+            int chunk = Math.min(SEED_CHUNK, datasetSize - seeded);
+            List<InventoryItemDTO> items = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                int n = seeded + i;
+                InventoryItemDTO dto = new InventoryItemDTO(null, productTypeIds.get(n % PRODUCT_TYPES));
+                dto.setInitialWarehouseId(warehouseIds.get(n % WAREHOUSES));
+                dto.setInitialQuantity(1 + n % 5);
+                items.add(dto);
+            }
+            inventoryItemService.createInventoryItems(items);
+            seeded += chunk;
+        }
+        if (seeded > existing) {
+            jdbcTemplate.execute("ANALYZE");
+            System.out.println("Seeded " + (seeded - existing) + " items into batstats_bench_" + datasetSize);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+
+// a 10k-row JDBC batch into warehouse_inventory under the old per-row capacity trigger and the
+// statement-level ones from DB/migrations/004, rolled back so every invocation starts the same
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CapacityTriggerBenchmarks {
+
+    private static final int BATCH_ROWS = 10_000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+        "VALUES (?, ?, 1, localtimestamp, localtimestamp)";
+
+    @Param({"row", "statement"})
+    public String trigger;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final List<Object[]> rows = new ArrayList<>(BATCH_ROWS);
+
+    @Setup(Level.Trial)
+    public void prepare(BenchmarkDatabase database) {
+        this.database = database;
+        jdbcTemplate = database.jdbcTemplate;
+        transactionTemplate = new TransactionTemplate(database.bean(PlatformTransactionManager.class));
+
+        // items with no location yet, spread over the bench warehouses in the batch
+        List<Integer> itemIds = unstockedItems();
+        if (itemIds.size() < BATCH_ROWS) {
+            List<InventoryItemDTO> items = new ArrayList<>();
+            for (int i = itemIds.size(); i < BATCH_ROWS; i++) {
+                items.add(new InventoryItemDTO(null, database.createdProductTypeId));
+            }
+            database.inventoryItemService.createInventoryItems(items);
+            itemIds = unstockedItems();
+        }
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            rows.add(new Object[] { database.warehouseIds.get(i % database.warehouseIds.size()), itemIds.get(i) });
+        }
+
+        if (trigger.equals("row")) {
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS warehouse_capacity_insert ON warehouse_inventory");
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS warehouse_capacity_update ON warehouse_inventory");
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS warehouse_capacity_delete ON warehouse_inventory");
+            jdbcTemplate.execute("CREATE TRIGGER manage_warehouse_capacity AFTER INSERT OR DELETE OR UPDATE " +
+                "ON warehouse_inventory FOR EACH ROW EXECUTE FUNCTION update_warehouse_capacity_junction()");
+        }
+    }
+
+    // the migration drops the row trigger again and recreates the statement ones
+    @TearDown(Level.Trial)
+    public void restoreTriggers() throws Exception {
+        database.runScript(Paths.get("DB/migrations/004_statement_capacity_triggers.sql"));
+    }
+
+    @Benchmark
+    public int[] insertBatch() {
+        return transactionTemplate.execute(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            status.setRollbackOnly();
+            return inserted;
+        });
+    }
+
+    private List<Integer> unstockedItems() {
+        return jdbcTemplate.queryForList(
+            "SELECT i.id FROM inventory_items i WHERE i.product_type_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM warehouse_inventory w WHERE w.inventory_item_id = i.id) " +
+            "ORDER BY i.id LIMIT ?", Integer.class, database.createdProductTypeId, BATCH_ROWS);
+    }
+}
@@ -0,0 +1,141 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+// hashCode, equals and toString of entities with growing collections, no database needed
+// each score should stay flat across locationCount; the old value-based versions walked the
+// collections and recursed between Warehouse and WarehouseInventory until the stack ran out
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityIdentityBenchmarks {
+
+    // locations of the warehouse, each of a different item with its own location
+    @Param({"10", "1000", "100000"})
+    public int locationCount;
+
+    private Warehouse warehouse;
+    private Warehouse sameWarehouse;
+    private ProductType productType;
+    private InventoryItem item;
+    private InventoryItem sameItem;
+    private WarehouseInventory location;
+    private List<InventoryItem> items;
+    private List<Warehouse> warehouses;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        LocalDateTime now = LocalDateTime.now();
+        warehouse = new Warehouse("Bench Warehouse", "Bench Bay", Integer.MAX_VALUE);
+        warehouse.setId(1);
+        sameWarehouse = new Warehouse("Bench Warehouse", "Bench Bay", Integer.MAX_VALUE);
+        sameWarehouse.setId(1);
+        productType = new ProductType();
+        productType.setId(1);
+        productType.setName("Bench Gadget");
+
+        items = new ArrayList<>(locationCount);
+        for (int i = 0; i < locationCount; i++) {
+            InventoryItem next = new InventoryItem(String.format("BEN-%06d", i), productType);
+            next.setId(i + 1);
+            WarehouseInventory nextLocation = new WarehouseInventory(warehouse, next, 1);
+            nextLocation.setId(i + 1);
+            nextLocation.setCreatedAt(now);
+            nextLocation.setUpdatedAt(now);
+            next.getWarehouseLocations().add(nextLocation);
+            warehouse.getInventoryItems().add(nextLocation);
+            productType.getInventoryItems().add(next);
+            items.add(next);
+        }
+        item = items.get(locationCount / 2);
+        location = item.getWarehouseLocations().get(0);
+        sameItem = new InventoryItem(item.getSerialNumber(), productType);
+        sameItem.setId(item.getId());
+
+        warehouses = new ArrayList<>(locationCount);
+        for (int i = 0; i < locationCount; i++) {
+            Warehouse next = new Warehouse(String.format("Bench Warehouse %06d", i), "Bench Bay", Integer.MAX_VALUE);
+            next.setId(i + 1);
+            warehouses.add(next);
+        }
+    }
+
+    @Benchmark
+    public int hashWarehouse() {
+        return warehouse.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsWarehouse() {
+        return warehouse.equals(sameWarehouse);
+    }
+
+    @Benchmark
+    public int hashProductType() {
+        return productType.hashCode();
+    }
+
+    @Benchmark
+    public int hashItem() {
+        return item.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsItem() {
+        return item.equals(sameItem);
+    }
+
+    @Benchmark
+    public int hashLocation() {
+        return location.hashCode();
+    }
+
+    @Benchmark
+    public String toStringWarehouse() {
+        return warehouse.toString();
+    }
+
+    @Benchmark
+    public String toStringItem() {
+        return item.toString();
+    }
+
+    // per item: the whole set is rebuilt, so divide the score by locationCount to compare sizes
+    @Benchmark
+    public Set<InventoryItem> collectItems() {
+        return new HashSet<>(items);
+    }
+
+    // per warehouse as well; with one hash for every warehouse each insert walked the whole bucket,
+    // so this grew with the square of locationCount
+    @Benchmark
+    public Set<Warehouse> collectWarehouses() {
+        return new HashSet<>(warehouses);
+    }
+}
@@ -0,0 +1,79 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.services.InventoryItemService;
+import com.skillstormproject1.batstats.services.SerialNumberAllocator;
+
+// item creation, serial allocation and search against the seeded database
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InventoryItemBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Search {
+
+        // exact: a seeded serial number, broad: matches every product name, miss: matches nothing
+        @Param({"exact", "broad", "miss"})
+        public String kind;
+
+        String term;
+
+        @Setup(Level.Trial)
+        public void pickTerm(BenchmarkDatabase database) {
+            term = switch (kind) {
+                case "exact" -> database.serialAt(database.datasetSize / 2);
+                case "broad" -> "Bench Gadget";
+                default -> "no-such-item";
+            };
+        }
+    }
+
+    @Benchmark
+    public InventoryItem createInventoryItem(BenchmarkDatabase database) {
+        InventoryItemDTO dto = new InventoryItemDTO(null, database.createdProductTypeId);
+        dto.setInitialWarehouseId(database.warehouseIds.get(0));
+        dto.setInitialQuantity(1);
+        return database.inventoryItemService.createInventoryItem(dto);
+    }
+
+    // what generateSerialNumber delegates to, one thread
+    @Benchmark
+    public String generateSerialNumber(BenchmarkDatabase database) {
+        return database.bean(SerialNumberAllocator.class).nextSerialNumber("BEN");
+    }
+
+    // same call from 8 threads, shows how much the per-prefix block refill serializes
+    @Benchmark
+    @Threads(8)
+    public String generateSerialNumberContended(BenchmarkDatabase database) {
+        return database.bean(SerialNumberAllocator.class).nextSerialNumber("BEN");
+    }
+
+    // sampled rather than averaged, so the run reports p99 and the worst searches next to the mean
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public List<InventoryItem> searchItems(BenchmarkDatabase database, Search search) {
+        return database.bean(InventoryItemService.class).searchItems(search.term, 100);
+    }
+}
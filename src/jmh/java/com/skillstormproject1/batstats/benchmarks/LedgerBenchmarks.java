@@ -0,0 +1,97 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstormproject1.batstats.dtos.TransferRequestDTO;
+import com.skillstormproject1.batstats.services.WarehouseInventoryService;
+
+// write latency with and without the movement ledger: each pair differs only in batstats.ledger.enabled,
+// set per fork so both run against the same seeded database
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class LedgerBenchmarks {
+
+    private static final int BATCH_MOVES = 50;
+
+    // the two-row write the ledger adds to most: one transfer, two movements in one batch
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbatstats.ledger.enabled=true")
+    public void transferWithLedger(TransferBenchmarks.StockedItem stock, TransferBenchmarks.Direction direction) {
+        transfer(stock, direction);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbatstats.ledger.enabled=false")
+    public void transferWithoutLedger(TransferBenchmarks.StockedItem stock, TransferBenchmarks.Direction direction) {
+        transfer(stock, direction);
+    }
+
+    // many locations in one transaction, where batching the movement inserts matters most
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbatstats.ledger.enabled=true")
+    public void batchTransferWithLedger(BatchMoves moves, TransferBenchmarks.Direction direction) {
+        batchTransfer(moves, direction);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dbatstats.ledger.enabled=false")
+    public void batchTransferWithoutLedger(BatchMoves moves, TransferBenchmarks.Direction direction) {
+        batchTransfer(moves, direction);
+    }
+
+    // one unit of each of BATCH_MOVES seeded items between the first two warehouses, both ways
+    @State(Scope.Benchmark)
+    public static class BatchMoves {
+
+        List<TransferRequestDTO> forward;
+        List<TransferRequestDTO> back;
+        WarehouseInventoryService warehouseInventoryService;
+
+        @Setup(Level.Trial)
+        public void plan(BenchmarkDatabase database) {
+            warehouseInventoryService = database.bean(WarehouseInventoryService.class);
+            Integer first = database.warehouseIds.get(0);
+            Integer second = database.warehouseIds.get(1);
+            // seeded items sit in warehouse (n % WAREHOUSES) with at least one unit
+            List<Integer> itemIds = database.jdbcTemplate.queryForList(
+                "SELECT inventory_item_id FROM warehouse_inventory WHERE warehouse_id = ? ORDER BY id LIMIT ?",
+                Integer.class, first, BATCH_MOVES);
+            forward = new ArrayList<>();
+            back = new ArrayList<>();
+            for (Integer itemId : itemIds) {
+                forward.add(new TransferRequestDTO(itemId, first, second, 1));
+                back.add(new TransferRequestDTO(itemId, second, first, 1));
+            }
+        }
+    }
+
+    private void transfer(TransferBenchmarks.StockedItem stock, TransferBenchmarks.Direction direction) {
+        direction.forward = !direction.forward;
+        if (direction.forward) {
+            stock.warehouseInventoryService.transferBetweenWarehouses(stock.itemId, stock.first, stock.second, 1);
+        } else {
+            stock.warehouseInventoryService.transferBetweenWarehouses(stock.itemId, stock.second, stock.first, 1);
+        }
+    }
+
+    private void batchTransfer(BatchMoves moves, TransferBenchmarks.Direction direction) {
+        direction.forward = !direction.forward;
+        moves.warehouseInventoryService.transferBatch(direction.forward ? moves.forward : moves.back);
+    }
+}
@@ -0,0 +1,247 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.skillstormproject1.batstats.BatstatsApplication;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.services.WarehouseInventoryService;
+
+/**
+ * Closed-loop HTTP load test comparing platform and virtual request threads.
+ *
+ * Seeds the same database as the JMH benchmarks, then starts the web application once per
+ * thread mode with the same Hikari pool size and drives it with load.clients concurrent
+ * clients. Each client loops over location lookups (one JDBC read each) and, now and then,
+ * a transfer that takes two warehouse row locks. Prints throughput and latency percentiles
+ * per mode.
+ *
+ * Run with: ./mvnw -Pjmh compile exec:exec@load-test -Dload.args="-Dload.clients=2000"
+ * Add -Djdk.tracePinnedThreads=short to load.args to have the JVM report pinned virtual threads.
+ */
+public class LoadTest {
+
+    private static final int STOCKED_ITEMS = 100;
+    private static final int STOCK = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("load.clients", 1000);
+        int poolSize = Integer.getInteger("load.pool-size", 10);
+        int transferPercent = Integer.getInteger("load.transfer-percent", 10);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        database.datasetSize = Integer.getInteger("load.dataset-size", 100_000);
+        database.start();
+        try {
+            Workload workload = Workload.prepare(database, transferPercent);
+            List<Result> results = new ArrayList<>();
+            for (String mode : modes) {
+                results.add(run(database, workload, mode.trim(), clients, poolSize, warmup, duration));
+            }
+            System.out.println();
+            System.out.printf("%-9s %8s %5s %10s %10s %9s %9s %9s %7s%n",
+                "mode", "clients", "pool", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            results.forEach(result -> System.out.println(result.format(clients, poolSize)));
+        } finally {
+            database.stop();
+        }
+    }
+
+    private static Result run(BenchmarkDatabase database, Workload workload, String mode, int clients,
+                              int poolSize, Duration warmup, Duration duration) throws Exception {
+        boolean virtual = mode.equals("virtual");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(BatstatsApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtual,
+                "spring.datasource.url=" + database.jdbcUrl,
+                "spring.datasource.username=" + database.username,
+                "spring.datasource.password=" + database.password,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.devtools.restart.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+        try {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port") + "/api";
+            System.out.println("Running " + mode + " request threads with " + clients + " clients");
+            // the client side always uses virtual threads so it is never the bottleneck
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+                drive(http, executor, baseUrl, workload, clients, warmup);
+                long started = System.nanoTime();
+                List<Client> finished = drive(http, executor, baseUrl, workload, clients, duration);
+                return Result.of(mode, finished, System.nanoTime() - started);
+            }
+        } finally {
+            app.close();
+        }
+    }
+
+    private static List<Client> drive(HttpClient http, ExecutorService executor, String baseUrl, Workload workload,
+                                      int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Client>> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, baseUrl, workload);
+            running.add(executor.submit(() -> client.runUntil(deadline)));
+        }
+        List<Client> finished = new ArrayList<>(clients);
+        for (Future<Client> client : running) {
+            finished.add(client.get());
+        }
+        return finished;
+    }
+
+    // the item ids the clients read and the stocked items they transfer
+    private record Workload(int minItemId, int maxItemId, List<Integer> stockedItems, List<Integer> warehouseIds,
+                            int transferPercent) {
+
+        static Workload prepare(BenchmarkDatabase database, int transferPercent) {
+            int minItemId = database.jdbcTemplate.queryForObject("SELECT min(id) FROM inventory_items", Integer.class);
+            int maxItemId = database.jdbcTemplate.queryForObject("SELECT max(id) FROM inventory_items", Integer.class);
+            // each stocked item sits in two neighbouring warehouses, so transfers spread over every row lock
+            WarehouseInventoryService warehouseInventoryService = database.bean(WarehouseInventoryService.class);
+            List<Integer> stocked = new ArrayList<>();
+            for (int i = 0; i < STOCKED_ITEMS; i++) {
+                InventoryItemDTO dto = new InventoryItemDTO(null, database.createdProductTypeId);
+                dto.setInitialWarehouseId(warehouseAt(database.warehouseIds, i));
+                dto.setInitialQuantity(STOCK);
+                Integer itemId = database.inventoryItemService.createInventoryItem(dto).getId();
+                warehouseInventoryService.addItemToWarehouse(
+                    new AddItemToWarehouseDTO(itemId, warehouseAt(database.warehouseIds, i + 1), STOCK));
+                stocked.add(itemId);
+            }
+            return new Workload(minItemId, maxItemId, stocked, database.warehouseIds, transferPercent);
+        }
+
+        private static Integer warehouseAt(List<Integer> warehouseIds, int index) {
+            return warehouseIds.get(index % warehouseIds.size());
+        }
+    }
+
+    // one closed-loop client: sends the next request as soon as the previous one answered
+    private static final class Client {
+
+        private final HttpClient http;
+        private final String baseUrl;
+        private final Workload workload;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private boolean forward;
+
+        private Client(HttpClient http, String baseUrl, Workload workload) {
+            this.http = http;
+            this.baseUrl = baseUrl;
+            this.workload = workload;
+        }
+
+        private Client runUntil(long deadline) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = random.nextInt(100) < workload.transferPercent()
+                    ? transfer(random)
+                    : lookup(random);
+                long started = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        errors++;
+                    }
+                } catch (IOException ex) {
+                    errors++;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                record(System.nanoTime() - started);
+            }
+            return this;
+        }
+
+        private HttpRequest lookup(ThreadLocalRandom random) {
+            int itemId = random.nextInt(workload.minItemId(), workload.maxItemId() + 1);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/warehouse-inventory/item/" + itemId + "/summary"))
+                .GET()
+                .build();
+        }
+
+        private HttpRequest transfer(ThreadLocalRandom random) {
+            int index = random.nextInt(workload.stockedItems().size());
+            Integer first = workload.warehouseIds().get(index % workload.warehouseIds().size());
+            Integer second = workload.warehouseIds().get((index + 1) % workload.warehouseIds().size());
+            // alternate direction per client so the stock stays level
+            forward = !forward;
+            String body = String.format(
+                "{\"itemId\":%d,\"sourceWarehouseId\":%d,\"destinationWarehouseId\":%d,\"quantity\":1}",
+                workload.stockedItems().get(index), forward ? first : second, forward ? second : first);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/warehouse-inventory/transfer"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(String mode, long requests, double perSecond, double p50, double p99, double max,
+                          long errors) {
+
+        static Result of(String mode, List<Client> clients, long elapsedNanos) {
+            int total = clients.stream().mapToInt(client -> client.count).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            long errors = 0;
+            for (Client client : clients) {
+                System.arraycopy(client.latencies, 0, all, offset, client.count);
+                offset += client.count;
+                errors += client.errors;
+            }
+            Arrays.sort(all);
+            return new Result(mode, total, total / (elapsedNanos / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6, errors);
+        }
+
+        private static double percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+
+        String format(int clients, int poolSize) {
+            return String.format("%-9s %8d %5d %10d %10.0f %9.1f %9.1f %9.1f %7d",
+                mode, clients, poolSize, requests, perSecond, p50, p99, max, errors);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+import com.skillstormproject1.batstats.services.ReactiveReadService;
+import com.skillstormproject1.batstats.services.WarehouseInventoryService;
+
+// listing one warehouse (a tenth of the dataset) through the JPA List and the R2DBC stream
+// run with -prof gc: the stream consumes rows one at a time, the List holds every entity until the end
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class ReadPathBenchmarks {
+
+    @Benchmark
+    public int warehouseContentsJpa(BenchmarkDatabase database) {
+        List<WarehouseInventory> locations = database.bean(WarehouseInventoryService.class)
+            .getItemsInWarehouse(database.warehouseIds.get(0));
+        return locations.size();
+    }
+
+    @Benchmark
+    public void warehouseContentsStream(BenchmarkDatabase database, Blackhole blackhole) {
+        database.bean(ReactiveReadService.class)
+            .streamWarehouseContents(database.warehouseIds.get(0))
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+}
@@ -0,0 +1,128 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.skillstormproject1.batstats.dtos.ItemRowDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+import com.skillstormproject1.batstats.services.InventoryListingAssembler;
+
+// json for InventoryItem graphs the way the listing endpoints write them, no database needed
+// the lean benchmarks include building the listing; run with -prof gc to compare allocation per item
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+
+    @Param({"100", "1000"})
+    public int itemCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper blackbirdMapper;
+    private InventoryListingAssembler assembler;
+    private Set<String> fewFields;
+    private List<InventoryItem> items;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        // same settings as spring.jackson in application.yml and JsonConfig, with and without blackbird
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .filters(new SimpleFilterProvider().addFilter(ItemRowDTO.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+        objectMapper = builder.build();
+        blackbirdMapper = builder.modulesToInstall(new BlackbirdModule()).build();
+        assembler = new InventoryListingAssembler();
+        fewFields = assembler.parseFields("id,serialNumber,totalQuantity");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Warehouse warehouse = new Warehouse("Bench Warehouse " + i, "Bench Bay", 100_000);
+            warehouse.setId(i + 1);
+            warehouse.setCreatedAt(now);
+            warehouse.setUpdatedAt(now);
+            warehouses.add(warehouse);
+        }
+        ProductType productType = new ProductType();
+        productType.setId(1);
+        productType.setName("Bench Gadget");
+        productType.setCategory("Bench");
+        productType.setUnitOfMeasure("unit");
+        productType.setCreatedAt(now);
+        productType.setUpdatedAt(now);
+
+        items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            InventoryItem item = new InventoryItem(String.format("BEN-%06d", i), productType);
+            item.setId(i + 1);
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            // two locations per item, like a typical multi-warehouse listing
+            for (int j = 0; j < 2; j++) {
+                WarehouseInventory location = new WarehouseInventory(warehouses.get((i + j) % warehouses.size()), item, 5);
+                location.setId(i * 2 + j + 1);
+                location.setCreatedAt(now);
+                location.setUpdatedAt(now);
+                item.getWarehouseLocations().add(location);
+            }
+            items.add(item);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeItemsBlackbird() throws JsonProcessingException {
+        return blackbirdMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeLean() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(assembler.assemble(items, InventoryListingAssembler.ITEM_FIELDS));
+    }
+
+    @Benchmark
+    public byte[] serializeLeanBlackbird() throws JsonProcessingException {
+        return blackbirdMapper.writeValueAsBytes(assembler.assemble(items, InventoryListingAssembler.ITEM_FIELDS));
+    }
+
+    // ?fields=id,serialNumber,totalQuantity
+    @Benchmark
+    public byte[] serializeLeanFewFieldsBlackbird() throws JsonProcessingException {
+        ObjectWriter writer = blackbirdMapper.writer(assembler.filters(fewFields));
+        return writer.writeValueAsBytes(assembler.assemble(items, fewFields));
+    }
+}
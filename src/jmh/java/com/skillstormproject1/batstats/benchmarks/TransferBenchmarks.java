@@ -0,0 +1,80 @@
+package com.skillstormproject1.batstats.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.services.WarehouseInventoryService;
+
+// transfers between two warehouses, single threaded and with both directions fighting for the row locks
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferBenchmarks {
+
+    private static final int STOCK = 1_000_000;
+
+    // one item stocked in two warehouses, deep enough that transfers never run it dry
+    @State(Scope.Benchmark)
+    public static class StockedItem {
+
+        Integer itemId;
+        Integer first;
+        Integer second;
+        WarehouseInventoryService warehouseInventoryService;
+
+        @Setup(Level.Trial)
+        public void stock(BenchmarkDatabase database) {
+            first = database.warehouseIds.get(1);
+            second = database.warehouseIds.get(2);
+            warehouseInventoryService = database.bean(WarehouseInventoryService.class);
+
+            InventoryItemDTO dto = new InventoryItemDTO(null, database.createdProductTypeId);
+            dto.setInitialWarehouseId(first);
+            dto.setInitialQuantity(STOCK);
+            itemId = database.inventoryItemService.createInventoryItem(dto).getId();
+            warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(itemId, second, STOCK));
+        }
+    }
+
+    // each thread alternates direction so the stock stays level
+    @State(Scope.Thread)
+    public static class Direction {
+        boolean forward;
+    }
+
+    @Benchmark
+    public void transferBetweenWarehouses(StockedItem stock, Direction direction) {
+        transfer(stock, direction);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void transferBetweenWarehousesContended(StockedItem stock, Direction direction) {
+        transfer(stock, direction);
+    }
+
+    private void transfer(StockedItem stock, Direction direction) {
+        direction.forward = !direction.forward;
+        if (direction.forward) {
+            stock.warehouseInventoryService.transferBetweenWarehouses(stock.itemId, stock.first, stock.second, 1);
+        } else {
+            stock.warehouseInventoryService.transferBetweenWarehouses(stock.itemId, stock.second, stock.first, 1);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.skillstormproject1.batstats.aspect;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate's statistics, plus per-thread counts of entity loads and second-level cache hits.
+ *
+ * Hibernate's own counters are shared by the whole session factory, so the difference between two
+ * readings taken around one request also counts every other request that ran meanwhile.
+ * This subclass keeps the global numbers (and so the hibernate.* metrics) and also counts the
+ * same events in a static thread local. MetricsAspect reads those before and after a controller
+ * call, the same way it reads SqlStatementCounter. It's registered through hibernate.stats.factory
+ * and only sees anything while hibernate.generate_statistics is on.
+ */
+public class EntityLoadCounter extends StatisticsImpl {
+
+    // [entity loads, second-level cache hits]
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    public EntityLoadCounter(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        COUNTS.get()[0]++;
+    }
+
+    // entity and collection hits, the two Hibernate adds up as getSecondLevelCacheHitCount
+    @Override
+    public void entityCacheHit(NavigableRole entityName, String regionName) {
+        super.entityCacheHit(entityName, regionName);
+        COUNTS.get()[1]++;
+    }
+
+    @Override
+    public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+        super.collectionCacheHit(collectionRole, regionName);
+        COUNTS.get()[1]++;
+    }
+
+    // entities read from the database on this thread so far
+    public static long entityLoads() {
+        return COUNTS.get()[0];
+    }
+
+    // entities and collections served from the second-level cache on this thread so far
+    public static long cacheHits() {
+        return COUNTS.get()[1];
+    }
+
+    // hibernate.stats.factory takes a StatisticsFactory class and calls its no-arg constructor
+    public static class Factory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new EntityLoadCounter(sessionFactory);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.skillstormproject1.batstats.aspect;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency timers for every controller and repository call, plus the number of SQL statements,
+ * entity loads and second-level cache hits each controller call caused.
+ *
+ * Runs outside RestExceptionHandlerAspect so the status tag is the one the client actually got.
+ * Everything is published through actuator, see /actuator/prometheus.
+ */
+@Aspect
+@Component
+@Order(0)
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    // spring data proxies report JpaRepository as the declaring type, remember the real repository name
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.skillstormproject1.batstats.controller..*(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        String controller = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        long statementsBefore = SqlStatementCounter.current();
+        long loadsBefore = EntityLoadCounter.entityLoads();
+        long cacheHitsBefore = EntityLoadCounter.cacheHits();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "200";
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof ResponseEntity<?> response) {
+                status = String.valueOf(response.getStatusCode().value());
+            }
+            return result;
+        } catch (Throwable ex) {
+            status = "500";
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("batstats.controller")
+                .description("Controller method latency")
+                .tags("controller", controller, "method", method, "status", status, "exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+            DistributionSummary.builder("batstats.controller.statements")
+                .description("SQL statements run by one controller call")
+                .baseUnit("statements")
+                .tags("controller", controller, "method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(SqlStatementCounter.current() - statementsBefore);
+            DistributionSummary.builder("batstats.controller.entity.loads")
+                .description("Entities read from the database by one controller call")
+                .baseUnit("entities")
+                .tags("controller", controller, "method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(EntityLoadCounter.entityLoads() - loadsBefore);
+            DistributionSummary.builder("batstats.controller.cache.hits")
+                .description("Second-level cache hits of one controller call")
+                .baseUnit("hits")
+                .tags("controller", controller, "method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(EntityLoadCounter.cacheHits() - cacheHitsBefore);
+        }
+    }
+
+    // our own repository classes plus every spring data repository, including inherited methods like findAll
+    @Around("execution(* com.skillstormproject1.batstats.repositories..*(..)) "
+          + "|| this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getThis());
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("batstats.repository")
+                .description("Repository method latency")
+                .tags("repository", repository, "method", method, "exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> {
+            if (proxy instanceof Repository) {
+                for (Class<?> userInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+                    if (userInterface.getPackageName().startsWith("com.skillstormproject1.batstats")) {
+                        return userInterface.getSimpleName();
+                    }
+                }
+            }
+            return AopProxyUtils.ultimateTargetClass(proxy).getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.skillstormproject1.batstats.aspect;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Registered through hibernate.session_factory.statement_inspector, so Hibernate creates it
+ * itself and the count lives in a static thread local. MetricsAspect reads it before and after
+ * a controller call to get the statements that request ran. Statements sent through
+ * JdbcTemplate (bulk inserts) don't pass through Hibernate and aren't counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    // statements prepared on this thread so far, subtract two readings to count a stretch of work
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,36 @@
+package com.skillstormproject1.batstats.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.skillstormproject1.batstats.dtos.ItemRowDTO;
+
+/**
+ * Additions to the ObjectMapper Spring Boot builds from spring.jackson.
+ *
+ * Blackbird replaces the reflective getter and setter calls of every bean (de)serializer with
+ * lambdas generated at startup, which the JIT can inline. Boot registers any Module bean on its
+ * own. batstats.json.blackbird=false turns it off to compare.
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "batstats.json.blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // ?fields sets its own filter per response, everywhere else an ItemRowDTO is written whole
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer itemRowFilterDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+            .addFilter(ItemRowDTO.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.skillstormproject1.batstats.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * R2DBC connection pool for the streaming /api/v2 reads.
+ *
+ * Spring Boot's R2DBC auto-configuration is excluded in application.yml, because its reactive
+ * transaction manager would sit next to the JPA one and make every @Transactional ambiguous.
+ * The pool here is used only through DatabaseClient for reads, and all writes still go through
+ * JPA and Hikari. It points at the same database as spring.datasource.url unless
+ * batstats.r2dbc.url says otherwise.
+ */
+@Configuration
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool readConnectionPool(@Value("${batstats.r2dbc.url:}") String url,
+                                             @Value("${spring.datasource.url}") String jdbcUrl,
+                                             @Value("${spring.datasource.username}") String username,
+                                             @Value("${spring.datasource.password}") String password,
+                                             @Value("${batstats.r2dbc.pool-size:10}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url.isBlank() ? toR2dbcUrl(jdbcUrl) : url)
+            .mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("batstats-reads")
+            .maxSize(poolSize)
+            .build());
+    }
+
+    @Bean
+    public DatabaseClient readDatabaseClient(ConnectionPool readConnectionPool) {
+        return DatabaseClient.create(readConnectionPool);
+    }
+
+    // jdbc:postgresql://host:port/db?jdbcOptions -> r2dbc:postgresql://host:port/db (JDBC driver options don't apply)
+    static String toR2dbcUrl(String jdbcUrl) {
+        int query = jdbcUrl.indexOf('?');
+        String base = query < 0 ? jdbcUrl : jdbcUrl.substring(0, query);
+        return "r2dbc:" + base.substring("jdbc:".length());
+    }
+}
@@ -0,0 +1,100 @@
+package com.skillstormproject1.batstats.config;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read replicas for read-only transactions, on when batstats.datasource.replica-urls lists any.
+ *
+ * spring.datasource stays the primary and keeps its Hikari settings. The DataSource everything
+ * else sees is a LazyConnectionDataSourceProxy over ReplicaRoutingDataSource, so JPA, the
+ * JdbcTemplate repositories and their shared transactions all route the same way. Replicas
+ * have to be physical standbys of the primary (streaming replication), their replay position
+ * is what ReplicaLagTracker compares against the primary's writes.
+ *
+ * Hibernate normally holds a connection for the whole request once open-in-view has opened
+ * the session, which would pin a request to whichever server its first transaction went to.
+ * Here connections are released after each transaction, so every transaction routes on its own.
+ */
+@Configuration
+@ConditionalOnExpression("!'${batstats.datasource.replica-urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("batstats-primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagTracker replicaLagTracker(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                               @Value("${batstats.datasource.replica-urls}") String[] urls,
+                                               @Value("${batstats.datasource.replica-pool-size:10}") int poolSize) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("batstats-replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            // a replica that is down at startup just isn't routed to until the tracker reaches it
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaLagTracker(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagTracker replicaLagTracker) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+        List<DataSource> replicas = replicaLagTracker.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(ReplicaRoutingDataSource.replicaKey(i), replicas.get(i));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagTracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // the driver defaults, so the proxy doesn't open a connection at startup to find them out
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
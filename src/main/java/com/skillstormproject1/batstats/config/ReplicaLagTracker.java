@@ -0,0 +1,215 @@
+package com.skillstormproject1.batstats.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes bookkeeping for the replica routing.
+ *
+ * After every committed read-write transaction the primary's WAL position is read and kept as
+ * this node's last write, before the transaction's AFTER_COMMIT listeners run. A scheduled check reads how far each replica has replayed, and a
+ * read-only transaction only goes to a replica that has replayed past the last write, so
+ * nothing written through this node is missing from a read that follows it. Until a replica
+ * catches up reads stay on the primary.
+ *
+ * Clients that talk to more than one node can carry the guarantee across them: a write
+ * response has the position in the BatStats-Read-After header, and a request that sends it
+ * back is only served by a replica that has replayed that far.
+ */
+public class ReplicaLagTracker implements TransactionExecutionListener {
+
+    public static final String READ_AFTER_HEADER = "BatStats-Read-After";
+
+    // replay position of a replica that is down or not a standby
+    static final long UNAVAILABLE = -1;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagTracker.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicLongArray replayed;
+    private final AtomicLong lastWrite = new AtomicLong();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagTracker(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replayed = new AtomicLongArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            replayed.set(i, UNAVAILABLE);
+        }
+    }
+
+    // index of a replica that has replayed this node's last write and the request's read-after, -1 for the primary
+    public int chooseReplica() {
+        long required = Math.max(lastWrite.get(), requestedReadAfter());
+        int count = replayed.length();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            int replica = (start + i) % count;
+            if (replayed.get(replica) >= required) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    // listeners are told about a commit only after the AFTER_COMMIT event listeners ran, so the position is
+    // recorded by a synchronization that runs ahead of them: nothing they publish (ETags, the change feed,
+    // cache updates) can be seen before reads stop going to replicas that lack the write
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WriteSynchronization());
+    }
+
+    // the primary's current WAL position becomes this node's last write, returns it or -1 when it can't be read
+    public long recordPrimaryPosition() {
+        long position = queryPosition(primary, "SELECT pg_current_wal_lsn()");
+        if (position == UNAVAILABLE) {
+            // the write can't be placed, keep every read on the primary until the next one can
+            logger.warn("Could not read the primary's WAL position, reads stay on the primary");
+            lastWrite.set(Long.MAX_VALUE);
+            return UNAVAILABLE;
+        }
+        recordWrite(position);
+        return position;
+    }
+
+    // records a committed read-write transaction before any other afterCommit callback
+    private final class WriteSynchronization implements TransactionSynchronization {
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            long position = recordPrimaryPosition();
+            if (position != UNAVAILABLE
+                    && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                HttpServletResponse response = attributes.getResponse();
+                if (response != null && !response.isCommitted()) {
+                    response.setHeader(READ_AFTER_HEADER, formatLsn(position));
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${batstats.datasource.replica-check-interval:PT1S}")
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            // null when the server isn't a standby, its positions don't compare with the primary's
+            long position = queryPosition(replicas.get(i), "SELECT pg_last_wal_replay_lsn()");
+            long previous = replayed.getAndSet(i, position);
+            if (position == UNAVAILABLE && previous != UNAVAILABLE) {
+                logger.warn("Replica {} is unavailable, its reads go to the primary", i);
+            } else if (position != UNAVAILABLE && previous == UNAVAILABLE) {
+                logger.info("Replica {} is available at {}", i, formatLsn(position));
+            }
+        }
+    }
+
+    public long getLastWrite() {
+        return lastWrite.get();
+    }
+
+    // replayed position of each replica, -1 while unavailable
+    public long[] getReplayed() {
+        long[] positions = new long[replayed.length()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = replayed.get(i);
+        }
+        return positions;
+    }
+
+    List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // the replica pools are created for this tracker and closed with it
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    void recordReplayed(int replica, long position) {
+        replayed.set(replica, position);
+    }
+
+    // a position read after an unplaced write is past that write too
+    void recordWrite(long position) {
+        lastWrite.accumulateAndGet(position, (last, latest) -> last == Long.MAX_VALUE ? latest : Math.max(last, latest));
+    }
+
+    // 16/B374D848 -> 0x16B374D848
+    static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Not a WAL position: " + lsn);
+        }
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    static String formatLsn(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+
+    // read-after position sent with the current request, 0 outside a request or when it's missing or garbled
+    private long requestedReadAfter() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return 0;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String header = request.getHeader(READ_AFTER_HEADER);
+        if (header == null || header.isBlank()) {
+            return 0;
+        }
+        try {
+            return parseLsn(header.trim());
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private long queryPosition(DataSource dataSource, String sql) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            String lsn = rs.next() ? rs.getString(1) : null;
+            return lsn == null ? UNAVAILABLE : parseLsn(lsn);
+        } catch (SQLException e) {
+            logger.debug("WAL position query failed: {}", e.getMessage());
+            return UNAVAILABLE;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.skillstormproject1.batstats.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica that has caught up with this node's writes and
+ * everything else to the primary.
+ *
+ * The key is looked up when a connection is taken, so this has to sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for a connection before the
+ * read-only flag is bound, the proxy only takes the real one at the first statement.
+ * Statements outside a transaction (lazy loads while rendering, the scheduled jobs) go to
+ * the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaLagTracker replicaLagTracker;
+
+    public ReplicaRoutingDataSource(ReplicaLagTracker replicaLagTracker) {
+        this.replicaLagTracker = replicaLagTracker;
+    }
+
+    static String replicaKey(int replica) {
+        return "replica-" + replica;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int replica = replicaLagTracker.chooseReplica();
+        return replica < 0 ? PRIMARY : replicaKey(replica);
+    }
+}
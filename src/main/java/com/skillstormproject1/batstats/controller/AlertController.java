@@ -0,0 +1,39 @@
+package com.skillstormproject1.batstats.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstormproject1.batstats.dtos.StockAlertDTO;
+import com.skillstormproject1.batstats.events.AlertTransitionEvent;
+import com.skillstormproject1.batstats.models.AlertLevel;
+import com.skillstormproject1.batstats.services.StockAlertEngine;
+
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class AlertController {
+
+    private final StockAlertEngine stockAlertEngine;
+
+    public AlertController(StockAlertEngine stockAlertEngine) {
+        this.stockAlertEngine = stockAlertEngine;
+    }
+
+    // open capacity and low-stock alerts, e.g. ?level=CRITICAL for the critical ones only
+    @GetMapping
+    public ResponseEntity<List<StockAlertDTO>> getAlerts(@RequestParam(defaultValue = "WARNING") String level) {
+        return ResponseEntity.ok(stockAlertEngine.getAlerts(AlertLevel.valueOf(level.trim().toUpperCase())));
+    }
+
+    // latest alert level changes, newest first
+    @GetMapping("/transitions")
+    public ResponseEntity<List<AlertTransitionEvent>> getTransitions(@RequestParam(defaultValue = "50") Integer limit) {
+        return ResponseEntity.ok(stockAlertEngine.getTransitions(limit));
+    }
+}
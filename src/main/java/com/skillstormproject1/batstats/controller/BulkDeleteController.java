@@ -0,0 +1,37 @@
+package com.skillstormproject1.batstats.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.services.BulkDeleteService;
+
+@RestController
+@RequestMapping("/api/delete-jobs")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class BulkDeleteController {
+
+    private final BulkDeleteService bulkDeleteService;
+
+    public BulkDeleteController(BulkDeleteService bulkDeleteService) {
+        this.bulkDeleteService = bulkDeleteService;
+    }
+
+    // running and recently finished background deletes, newest first
+    @GetMapping
+    public ResponseEntity<List<BulkDeleteJobDTO>> getJobs() {
+        return ResponseEntity.ok(bulkDeleteService.getJobs());
+    }
+
+    // progress of one background delete
+    @GetMapping("/{id}")
+    public ResponseEntity<BulkDeleteJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(bulkDeleteService.getJob(id));
+    }
+}
@@ -0,0 +1,32 @@
+package com.skillstormproject1.batstats.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.skillstormproject1.batstats.services.ChangeFeedBroadcaster;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class ChangeFeedController {
+
+    private final ChangeFeedBroadcaster changeFeedBroadcaster;
+
+    public ChangeFeedController(ChangeFeedBroadcaster changeFeedBroadcaster) {
+        this.changeFeedBroadcaster = changeFeedBroadcaster;
+    }
+
+    // server-sent stream of committed stock and capacity changes
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges() {
+        return changeFeedBroadcaster.subscribe()
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.skillstormproject1.batstats.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstormproject1.batstats.dtos.DashboardConsistencyDTO;
+import com.skillstormproject1.batstats.dtos.DashboardDTO;
+import com.skillstormproject1.batstats.services.DashboardStatsService;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class DashboardController {
+
+    private final DashboardStatsService dashboardStatsService;
+
+    public DashboardController(DashboardStatsService dashboardStatsService) {
+        this.dashboardStatsService = dashboardStatsService;
+    }
+
+    // every number the dashboard shows in one response, served from the kept totals
+    @GetMapping
+    public ResponseEntity<DashboardDTO> getDashboard() {
+        return ResponseEntity.ok(dashboardStatsService.getDashboard());
+    }
+
+    // recount everything with GROUP BY queries and list where the kept totals differ
+    @GetMapping("/verify")
+    public ResponseEntity<DashboardConsistencyDTO> verifyDashboard() {
+        return ResponseEntity.ok(dashboardStatsService.verify());
+    }
+}
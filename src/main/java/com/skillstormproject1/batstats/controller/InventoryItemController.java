@@ -1,9 +1,19 @@
 package com.skillstormproject1.batstats.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,13 +21,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skillstormproject1.batstats.dtos.BulkCreateResultDTO;
 import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemPageDTO;
+import com.skillstormproject1.batstats.dtos.SyncDeltaDTO;
 import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.services.DeltaSyncService;
 import com.skillstormproject1.batstats.services.InventoryItemService;
+import com.skillstormproject1.batstats.services.InventoryListingAssembler;
+import com.skillstormproject1.batstats.services.TableVersionRegistry;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -25,15 +49,81 @@ import com.skillstormproject1.batstats.services.InventoryItemService;
 public class InventoryItemController {
     
    private final InventoryItemService inventoryItemService;
+   private final ObjectMapper objectMapper;
+   private final TableVersionRegistry tableVersions;
+   private final DeltaSyncService deltaSyncService;
+   private final InventoryListingAssembler listingAssembler;
 
-   public InventoryItemController(InventoryItemService inventoryItemService) {
+   public InventoryItemController(InventoryItemService inventoryItemService, ObjectMapper objectMapper,
+                                  TableVersionRegistry tableVersions, DeltaSyncService deltaSyncService,
+                                  InventoryListingAssembler listingAssembler) {
       this.inventoryItemService = inventoryItemService;
+      this.objectMapper = objectMapper;
+      this.tableVersions = tableVersions;
+      this.deltaSyncService = deltaSyncService;
+      this.listingAssembler = listingAssembler;
    }
 
-   // get a list of all inventory items
+   // get a list of all inventory items, 304 when the If-None-Match ETag is still current
    @GetMapping
-    public ResponseEntity<List<InventoryItem>> getAllInventoryItems() {
-      return ResponseEntity.ok(inventoryItemService.getAllInventoryItems());
+    public ResponseEntity<List<InventoryItem>> getAllInventoryItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+      String etag = listingEtag();
+      if (tableVersions.matches(ifNoneMatch, etag)) {
+         return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+      return ResponseEntity.ok().eTag(etag).body(inventoryItemService.getAllInventoryItems());
+   }
+
+   // same items as flat rows, each warehouse and product type written once and referred to by id
+   // fields=id,serialNumber,... writes only those item properties
+   @GetMapping("/lean")
+   public ResponseEntity<MappingJacksonValue> getInventoryListing(@RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+      Set<String> selected = listingAssembler.parseFields(fields);
+      String etag = listingEtag();
+      if (tableVersions.matches(ifNoneMatch, etag)) {
+         return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+      MappingJacksonValue body = new MappingJacksonValue(
+         listingAssembler.assemble(inventoryItemService.getAllInventoryItems(), selected));
+      body.setFilters(listingAssembler.filters(selected));
+      return ResponseEntity.ok().eTag(etag).body(body);
+   }
+
+   // items changed and ids deleted after since, pass syncedAt back as the next since
+   @GetMapping(params = "since")
+   public ResponseEntity<SyncDeltaDTO<InventoryItem>> getInventoryItemChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+      return ResponseEntity.ok(deltaSyncService.getInventoryItemChanges(since));
+   }
+
+   // get a page of inventory items after the given id, pass nextCursor back as "after" for the next page
+   @GetMapping("/page")
+   public ResponseEntity<InventoryItemPageDTO> getInventoryItemPage(@RequestParam(defaultValue = "0") Integer after,
+                                                                    @RequestParam(defaultValue = "100") Integer limit) {
+      return ResponseEntity.ok(inventoryItemService.getInventoryItemPage(after, limit));
+   }
+
+   // stream every inventory item as one json array, items are written as they come off the cursor
+   @GetMapping("/stream")
+   public ResponseEntity<StreamingResponseBody> streamInventoryItems() {
+      // let the generator buffer decide when to flush instead of flushing after every item
+      ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+      StreamingResponseBody body = outputStream -> {
+         try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            inventoryItemService.streamAllInventoryItems(item -> {
+               try {
+                  writer.writeValue(generator, item);
+               } catch (IOException ex) {
+                  throw new UncheckedIOException(ex);
+               }
+            });
+            generator.writeEndArray();
+         }
+      };
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
    }
 
    // get to find inventory by id
@@ -44,8 +134,16 @@ public class InventoryItemController {
    
    // search items 
    @GetMapping("/search")
-   public ResponseEntity<List<InventoryItem>> searchItems(@RequestParam String term) {
-      return ResponseEntity.ok(inventoryItemService.searchItems(term));
+   public ResponseEntity<List<InventoryItem>> searchItems(@RequestParam String term,
+                                                          @RequestParam(defaultValue = "100") Integer limit) {
+      return ResponseEntity.ok(inventoryItemService.searchItems(term, limit));
+   }
+
+   // typeahead suggestions (serial numbers and product names) for the search box
+   @GetMapping("/search/suggest")
+   public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                               @RequestParam(defaultValue = "10") Integer limit) {
+      return ResponseEntity.ok(inventoryItemService.suggest(prefix, limit));
    }
 
    /**
@@ -61,6 +159,24 @@ public class InventoryItemController {
       return ResponseEntity.status(HttpStatus.CREATED).body(created);
    }
    
+   // create a whole shipment at once from a json array of items
+   @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+   public ResponseEntity<BulkCreateResultDTO> createItems(@RequestBody List<InventoryItemDTO> dtos) {
+      return ResponseEntity.status(HttpStatus.CREATED).body(inventoryItemService.createInventoryItems(dtos));
+   }
+
+   // same as above but one json item per line (NDJSON), handy for piping a file straight from a scanner export
+   @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+   public ResponseEntity<BulkCreateResultDTO> createItemsFromNdjson(InputStream body) throws IOException {
+      List<InventoryItemDTO> dtos = new ArrayList<>();
+      try (MappingIterator<InventoryItemDTO> lines = objectMapper.readerFor(InventoryItemDTO.class).readValues(body)) {
+         while (lines.hasNextValue()) {
+            dtos.add(lines.nextValue());
+         }
+      }
+      return ResponseEntity.status(HttpStatus.CREATED).body(inventoryItemService.createInventoryItems(dtos));
+   }
+   
    @PutMapping("/{id}")
     public ResponseEntity<InventoryItem> updateItem(@PathVariable Integer id, @RequestBody InventoryItemDTO dto) {
       return ResponseEntity.ok(inventoryItemService.updateInventoryItem(id, dto));
@@ -76,4 +192,10 @@ public class InventoryItemController {
     public ResponseEntity<List<InventoryItem>> getMultiLocationItems() {
       return ResponseEntity.ok(inventoryItemService.getItemsInMultipleWarehouses());
    }
+
+   // items embed their product type and locations with warehouses, so all four tables make up the version
+   private String listingEtag() {
+      return tableVersions.etag(SyncTable.INVENTORY_ITEMS, SyncTable.WAREHOUSE_INVENTORY,
+         SyncTable.PRODUCT_TYPES, SyncTable.WAREHOUSES);
+   }
 }
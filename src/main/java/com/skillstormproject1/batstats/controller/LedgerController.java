@@ -0,0 +1,61 @@
+package com.skillstormproject1.batstats.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstormproject1.batstats.dtos.StockLevelDTO;
+import com.skillstormproject1.batstats.models.InventoryMovement;
+import com.skillstormproject1.batstats.models.InventorySnapshot;
+import com.skillstormproject1.batstats.services.InventoryLedgerService;
+
+@RestController
+@RequestMapping("/api/ledger")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class LedgerController {
+
+    private final InventoryLedgerService inventoryLedgerService;
+
+    public LedgerController(InventoryLedgerService inventoryLedgerService) {
+        this.inventoryLedgerService = inventoryLedgerService;
+    }
+
+    // audit trail of an item, newest movement first
+    @GetMapping("/movements")
+    public ResponseEntity<List<InventoryMovement>> getMovements(@RequestParam Integer itemId,
+                                                                @RequestParam(required = false) Integer warehouseId,
+                                                                @RequestParam(defaultValue = "100") Integer limit) {
+        return ResponseEntity.ok(inventoryLedgerService.getMovements(itemId, warehouseId, limit));
+    }
+
+    // stock as it was at a point in time, e.g. ?warehouseId=3&at=2025-01-31T18:00:00
+    @GetMapping("/stock")
+    public ResponseEntity<List<StockLevelDTO>> getStockAt(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) Integer warehouseId,
+            @RequestParam(required = false) Integer itemId) {
+        return ResponseEntity.ok(inventoryLedgerService.getStockAt(at, warehouseId, itemId));
+    }
+
+    @GetMapping("/snapshots")
+    public ResponseEntity<List<InventorySnapshot>> getSnapshots() {
+        return ResponseEntity.ok(inventoryLedgerService.getSnapshots());
+    }
+
+    // compact now instead of waiting for the schedule, 204 when nothing new was recorded
+    @PostMapping("/snapshots")
+    public ResponseEntity<InventorySnapshot> takeSnapshot() {
+        return inventoryLedgerService.takeSnapshot()
+            .map(snapshot -> ResponseEntity.status(HttpStatus.CREATED).body(snapshot))
+            .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+}
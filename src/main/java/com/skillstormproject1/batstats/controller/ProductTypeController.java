@@ -1,7 +1,10 @@
 package com.skillstormproject1.batstats.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,12 +14,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.dtos.StockHistoryPointDTO;
+import com.skillstormproject1.batstats.dtos.SyncDeltaDTO;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
 import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.services.DeltaSyncService;
 import com.skillstormproject1.batstats.services.ProductTypeService;
+import com.skillstormproject1.batstats.services.StockHistoryService;
+import com.skillstormproject1.batstats.services.TableVersionRegistry;
 
 
 
@@ -26,17 +39,36 @@ import com.skillstormproject1.batstats.services.ProductTypeService;
 public class ProductTypeController {
 
     private final ProductTypeService productTypeService;
+    private final StockHistoryService stockHistoryService;
+    private final TableVersionRegistry tableVersions;
+    private final DeltaSyncService deltaSyncService;
 
-    public ProductTypeController(ProductTypeService productTypeService) {
+    public ProductTypeController(ProductTypeService productTypeService, StockHistoryService stockHistoryService,
+                                 TableVersionRegistry tableVersions, DeltaSyncService deltaSyncService) {
         this.productTypeService = productTypeService;
+        this.stockHistoryService = stockHistoryService;
+        this.tableVersions = tableVersions;
+        this.deltaSyncService = deltaSyncService;
     }
 
     //mapping out all the services for the api controller
 
-    // retreive and list all product types
+    // retreive and list all product types, 304 when the If-None-Match ETag is still current
     @GetMapping
-    public ResponseEntity<List<ProductType>> getAllProductTypes() {
-        return ResponseEntity.ok(productTypeService.getAllProductTypes());
+    public ResponseEntity<List<ProductType>> getAllProductTypes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = tableVersions.etag(SyncTable.PRODUCT_TYPES);
+        if (tableVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(productTypeService.getAllProductTypes());
+    }
+
+    // product types changed and ids deleted after since, pass syncedAt back as the next since
+    @GetMapping(params = "since")
+    public ResponseEntity<SyncDeltaDTO<ProductType>> getProductTypeChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return ResponseEntity.ok(deltaSyncService.getProductTypeChanges(since));
     }
     
     // find a product type of a specific id
@@ -45,6 +77,15 @@ public class ProductTypeController {
         return ResponseEntity.ok(productTypeService.getProductTypeById(id));
     }
 
+    // units of this product type across all warehouses per hour, day or month
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<StockHistoryPointDTO>> getProductTypeHistory(@PathVariable int id,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(stockHistoryService.getProductTypeHistory(id, HistoryGranularity.fromParam(granularity), from, to));
+    }
+
     // get all the product types of a specific category
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductType>> getProductTypeByCategory(@PathVariable String category) {
@@ -73,4 +114,10 @@ public class ProductTypeController {
         return ResponseEntity.noContent().build();
     }
 
+    // ?background=true deletes the type and its items in the background, poll /api/delete-jobs/{jobId} for progress
+    @DeleteMapping(value = "/{id}", params = "background=true")
+    public ResponseEntity<BulkDeleteJobDTO> startProductTypeDelete(@PathVariable int id) {
+        return ResponseEntity.accepted().body(productTypeService.startProductTypeDelete(id));
+    }
+
 }
@@ -0,0 +1,54 @@
+package com.skillstormproject1.batstats.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstormproject1.batstats.dtos.ItemSummaryDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
+import com.skillstormproject1.batstats.services.ReactiveReadService;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only v2 endpoints that stream rows as newline-delimited JSON.
+ *
+ * Spring MVC writes each element of the Flux as soon as it arrives and only asks R2DBC for
+ * the next one after the previous write has gone out, so a request holds a few rows instead
+ * of a full List. The v1 endpoints and every write stay on JPA.
+ */
+@RestController
+@RequestMapping("/api/v2")
+@CrossOrigin(origins = "http://127.0.0.1:5500")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    public ReactiveReadController(ReactiveReadService reactiveReadService) {
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    // every item in a warehouse with its quantity there
+    @GetMapping(value = "/warehouses/{id}/inventory", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<ItemSummaryDTO>> streamWarehouseContents(@PathVariable Integer id) {
+        return ResponseEntity.ok(reactiveReadService.streamWarehouseContents(id));
+    }
+
+    // every warehouse holding an item
+    @GetMapping(value = "/inventory/{id}/locations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<WarehouseLocationDTO>> streamItemLocations(@PathVariable Integer id) {
+        return ResponseEntity.ok(reactiveReadService.streamItemLocations(id));
+    }
+
+    // ranked search, best match first
+    @GetMapping(value = "/inventory/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<ItemSummaryDTO>> search(@RequestParam String term,
+                                                       @RequestParam(defaultValue = "100") Integer limit) {
+        return ResponseEntity.ok(reactiveReadService.search(term, limit));
+    }
+}
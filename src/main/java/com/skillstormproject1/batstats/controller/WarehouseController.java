@@ -2,12 +2,25 @@ package com.skillstormproject1.batstats.controller;
 
 import org.springframework.web.bind.annotation.RestController;
 
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.dtos.CapacityCacheStatsDTO;
+import com.skillstormproject1.batstats.dtos.StockHistoryPointDTO;
+import com.skillstormproject1.batstats.dtos.SyncDeltaDTO;
 import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
+import com.skillstormproject1.batstats.models.SyncTable;
 import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.services.DeltaSyncService;
+import com.skillstormproject1.batstats.services.StockHistoryService;
+import com.skillstormproject1.batstats.services.TableVersionRegistry;
+import com.skillstormproject1.batstats.services.WarehouseCapacityCache;
 import com.skillstormproject1.batstats.services.WarehouseService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -17,6 +30,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -27,15 +41,34 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final StockHistoryService stockHistoryService;
+    private final TableVersionRegistry tableVersions;
+    private final DeltaSyncService deltaSyncService;
 
-    public WarehouseController(WarehouseService warehouseService) {
+    public WarehouseController(WarehouseService warehouseService, StockHistoryService stockHistoryService,
+                               TableVersionRegistry tableVersions, DeltaSyncService deltaSyncService) {
         this.warehouseService = warehouseService;
+        this.stockHistoryService = stockHistoryService;
+        this.tableVersions = tableVersions;
+        this.deltaSyncService = deltaSyncService;
     }
 
-    // get a list of all warehouses
+    // get a list of all warehouses, 304 when the If-None-Match ETag is still current
     @GetMapping
-    public ResponseEntity<List<Warehouse>> getAllWarehouses() {
-        return ResponseEntity.ok(warehouseService.getAllWarehouses());
+    public ResponseEntity<List<Warehouse>> getAllWarehouses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = tableVersions.etag(SyncTable.WAREHOUSES);
+        if (tableVersions.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(warehouseService.getAllWarehouses());
+    }
+
+    // warehouses changed and ids deleted after since, pass syncedAt back as the next since
+    @GetMapping(params = "since")
+    public ResponseEntity<SyncDeltaDTO<Warehouse>> getWarehouseChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return ResponseEntity.ok(deltaSyncService.getWarehouseChanges(since));
     }
 
     // get a warehouse by its id
@@ -55,6 +88,32 @@ public class WarehouseController {
         return ResponseEntity.ok(warehouseService.getWarehousesNearCapacity(threshold));
     }
 
+    // capacity of every warehouse from the in-memory cache, cheap enough for dashboard refreshes
+    @GetMapping("/capacity")
+    public ResponseEntity<List<WarehouseCapacityCache.Snapshot>> getWarehouseCapacities() {
+        return ResponseEntity.ok(warehouseService.getWarehouseCapacities());
+    }
+
+    @GetMapping("/{id}/capacity")
+    public ResponseEntity<WarehouseCapacityCache.Snapshot> getWarehouseCapacity(@PathVariable int id) {
+        return ResponseEntity.ok(warehouseService.getWarehouseCapacity(id));
+    }
+
+    // hit/miss and drift counters for the capacity cache
+    @GetMapping("/capacity/stats")
+    public ResponseEntity<CapacityCacheStatsDTO> getCapacityCacheStats() {
+        return ResponseEntity.ok(warehouseService.getCapacityCacheStats());
+    }
+
+    // stock level of the warehouse per hour, day or month, from the rolled up history
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<StockHistoryPointDTO>> getWarehouseHistory(@PathVariable int id,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(stockHistoryService.getWarehouseHistory(id, HistoryGranularity.fromParam(granularity), from, to));
+    }
+
     /**
      * createWarehouse PostMapping
      * updateWarehouse PutMapping
@@ -76,4 +135,10 @@ public class WarehouseController {
         warehouseService.deleteWarehouse(id);
         return ResponseEntity.noContent().build();
     }
+
+    // ?background=true deletes in the background, poll /api/delete-jobs/{jobId} for progress
+    @DeleteMapping(value = "/{id}", params = "background=true")
+    public ResponseEntity<BulkDeleteJobDTO> startWarehouseDelete(@PathVariable int id) {
+        return ResponseEntity.accepted().body(warehouseService.startWarehouseDelete(id));
+    }
 }
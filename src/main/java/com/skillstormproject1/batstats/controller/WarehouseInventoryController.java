@@ -16,7 +16,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.BatchTransferResultDTO;
 import com.skillstormproject1.batstats.dtos.TransferRequestDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
 import com.skillstormproject1.batstats.models.WarehouseInventory;
 import com.skillstormproject1.batstats.services.WarehouseInventoryService;
 
@@ -45,6 +47,12 @@ public class WarehouseInventoryController {
         return ResponseEntity.ok(locations);
     }
 
+    // get a flat warehouse id/name/location/quantity summary for an item
+    @GetMapping("/item/{id}/summary")
+    public ResponseEntity<List<WarehouseLocationDTO>> getLocationSummariesForItem(@PathVariable Integer id) {
+        return ResponseEntity.ok(warehouseInventoryService.getLocationSummariesForItem(id));
+    }
+
     // get total quantity across all warehouses 
     @GetMapping("/item/{id}/total")
     public ResponseEntity<Map<String, Integer>> getTotalQuantity(@PathVariable Integer id) {
@@ -85,5 +93,11 @@ public class WarehouseInventoryController {
         );
         return ResponseEntity.ok().build();
     }
+
+    // post a list of moves to apply them all in one transaction
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResultDTO> transferBatch(@RequestBody List<TransferRequestDTO> transfers) {
+        return ResponseEntity.ok(warehouseInventoryService.transferBatch(transfers));
+    }
     
 }
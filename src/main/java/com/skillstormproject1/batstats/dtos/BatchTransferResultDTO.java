@@ -0,0 +1,90 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class BatchTransferResultDTO {
+
+    private Integer transferCount;
+    private Integer locationsWritten;
+
+    // net units gained (positive) or lost (negative) per warehouse id
+    private Map<Integer, Integer> warehouseNetChanges = new HashMap<>();
+
+    public BatchTransferResultDTO() {
+    }
+
+    public BatchTransferResultDTO(Integer transferCount, Integer locationsWritten, Map<Integer, Integer> warehouseNetChanges) {
+        this.transferCount = transferCount;
+        this.locationsWritten = locationsWritten;
+        this.warehouseNetChanges = warehouseNetChanges;
+    }
+
+    public Integer getTransferCount() {
+        return transferCount;
+    }
+
+    public void setTransferCount(Integer transferCount) {
+        this.transferCount = transferCount;
+    }
+
+    public Integer getLocationsWritten() {
+        return locationsWritten;
+    }
+
+    public void setLocationsWritten(Integer locationsWritten) {
+        this.locationsWritten = locationsWritten;
+    }
+
+    public Map<Integer, Integer> getWarehouseNetChanges() {
+        return warehouseNetChanges;
+    }
+
+    public void setWarehouseNetChanges(Map<Integer, Integer> warehouseNetChanges) {
+        this.warehouseNetChanges = warehouseNetChanges;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((transferCount == null) ? 0 : transferCount.hashCode());
+        result = prime * result + ((locationsWritten == null) ? 0 : locationsWritten.hashCode());
+        result = prime * result + ((warehouseNetChanges == null) ? 0 : warehouseNetChanges.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        BatchTransferResultDTO other = (BatchTransferResultDTO) obj;
+        if (transferCount == null) {
+            if (other.transferCount != null)
+                return false;
+        } else if (!transferCount.equals(other.transferCount))
+            return false;
+        if (locationsWritten == null) {
+            if (other.locationsWritten != null)
+                return false;
+        } else if (!locationsWritten.equals(other.locationsWritten))
+            return false;
+        if (warehouseNetChanges == null) {
+            if (other.warehouseNetChanges != null)
+                return false;
+        } else if (!warehouseNetChanges.equals(other.warehouseNetChanges))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchTransferResultDTO [transferCount=" + transferCount + ", locationsWritten=" + locationsWritten
+                + ", warehouseNetChanges=" + warehouseNetChanges + "]";
+    }
+
+}
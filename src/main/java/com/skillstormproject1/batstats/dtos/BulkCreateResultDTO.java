@@ -0,0 +1,87 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkCreateResultDTO {
+
+    private Integer createdCount;
+    private Integer locationCount;
+    private List<String> serialNumbers = new ArrayList<>();
+
+    public BulkCreateResultDTO() {
+    }
+
+    public BulkCreateResultDTO(Integer createdCount, Integer locationCount, List<String> serialNumbers) {
+        this.createdCount = createdCount;
+        this.locationCount = locationCount;
+        this.serialNumbers = serialNumbers;
+    }
+
+    public Integer getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(Integer createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public Integer getLocationCount() {
+        return locationCount;
+    }
+
+    public void setLocationCount(Integer locationCount) {
+        this.locationCount = locationCount;
+    }
+
+    public List<String> getSerialNumbers() {
+        return serialNumbers;
+    }
+
+    public void setSerialNumbers(List<String> serialNumbers) {
+        this.serialNumbers = serialNumbers;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((createdCount == null) ? 0 : createdCount.hashCode());
+        result = prime * result + ((locationCount == null) ? 0 : locationCount.hashCode());
+        result = prime * result + ((serialNumbers == null) ? 0 : serialNumbers.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        BulkCreateResultDTO other = (BulkCreateResultDTO) obj;
+        if (createdCount == null) {
+            if (other.createdCount != null)
+                return false;
+        } else if (!createdCount.equals(other.createdCount))
+            return false;
+        if (locationCount == null) {
+            if (other.locationCount != null)
+                return false;
+        } else if (!locationCount.equals(other.locationCount))
+            return false;
+        if (serialNumbers == null) {
+            if (other.serialNumbers != null)
+                return false;
+        } else if (!serialNumbers.equals(other.serialNumbers))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkCreateResultDTO [createdCount=" + createdCount + ", locationCount=" + locationCount + "]";
+    }
+
+}
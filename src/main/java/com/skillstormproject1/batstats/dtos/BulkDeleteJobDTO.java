@@ -0,0 +1,196 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+
+import com.skillstormproject1.batstats.models.BulkDeleteStatus;
+import com.skillstormproject1.batstats.models.BulkDeleteTarget;
+
+// progress of a chunked delete: chunks committed so far and the rows they removed, error set once it failed
+public class BulkDeleteJobDTO {
+
+    private Long id;
+    private BulkDeleteTarget target;
+    private Integer targetId;
+    private BulkDeleteStatus status;
+    private int chunks;
+    private long locationsDeleted;
+    private long itemsDeleted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public BulkDeleteJobDTO() {
+    }
+
+    public BulkDeleteJobDTO(Long id, BulkDeleteTarget target, Integer targetId, BulkDeleteStatus status, int chunks, long locationsDeleted, long itemsDeleted, LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.id = id;
+        this.target = target;
+        this.targetId = targetId;
+        this.status = status;
+        this.chunks = chunks;
+        this.locationsDeleted = locationsDeleted;
+        this.itemsDeleted = itemsDeleted;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BulkDeleteTarget getTarget() {
+        return target;
+    }
+
+    public void setTarget(BulkDeleteTarget target) {
+        this.target = target;
+    }
+
+    public Integer getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Integer targetId) {
+        this.targetId = targetId;
+    }
+
+    public BulkDeleteStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BulkDeleteStatus status) {
+        this.status = status;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getLocationsDeleted() {
+        return locationsDeleted;
+    }
+
+    public void setLocationsDeleted(long locationsDeleted) {
+        this.locationsDeleted = locationsDeleted;
+    }
+
+    public long getItemsDeleted() {
+        return itemsDeleted;
+    }
+
+    public void setItemsDeleted(long itemsDeleted) {
+        this.itemsDeleted = itemsDeleted;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((target == null) ? 0 : target.hashCode());
+        result = prime * result + ((targetId == null) ? 0 : targetId.hashCode());
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        result = prime * result + chunks;
+        result = prime * result + (int) (locationsDeleted ^ (locationsDeleted >>> 32));
+        result = prime * result + (int) (itemsDeleted ^ (itemsDeleted >>> 32));
+        result = prime * result + ((startedAt == null) ? 0 : startedAt.hashCode());
+        result = prime * result + ((finishedAt == null) ? 0 : finishedAt.hashCode());
+        result = prime * result + ((error == null) ? 0 : error.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        BulkDeleteJobDTO other = (BulkDeleteJobDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (target == null) {
+            if (other.target != null)
+                return false;
+        } else if (!target.equals(other.target))
+            return false;
+        if (targetId == null) {
+            if (other.targetId != null)
+                return false;
+        } else if (!targetId.equals(other.targetId))
+            return false;
+        if (status == null) {
+            if (other.status != null)
+                return false;
+        } else if (!status.equals(other.status))
+            return false;
+        if (chunks != other.chunks)
+            return false;
+        if (locationsDeleted != other.locationsDeleted)
+            return false;
+        if (itemsDeleted != other.itemsDeleted)
+            return false;
+        if (startedAt == null) {
+            if (other.startedAt != null)
+                return false;
+        } else if (!startedAt.equals(other.startedAt))
+            return false;
+        if (finishedAt == null) {
+            if (other.finishedAt != null)
+                return false;
+        } else if (!finishedAt.equals(other.finishedAt))
+            return false;
+        if (error == null) {
+            if (other.error != null)
+                return false;
+        } else if (!error.equals(other.error))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkDeleteJobDTO [id=" + id + ", target=" + target + ", targetId=" + targetId
+                + ", status=" + status + ", chunks=" + chunks + ", locationsDeleted=" + locationsDeleted
+                + ", itemsDeleted=" + itemsDeleted + ", startedAt=" + startedAt + ", finishedAt=" + finishedAt
+                + ", error=" + error + "]";
+    }
+
+}
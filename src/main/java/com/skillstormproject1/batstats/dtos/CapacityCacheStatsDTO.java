@@ -0,0 +1,177 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+
+public class CapacityCacheStatsDTO {
+
+    private Long hits;
+    private Long misses;
+    private Long writes;
+    private Long evictions;
+    private Long reconciliations;
+
+    // cached rows the last sweeps found out of step with the database
+    private Long driftCorrections;
+    private Integer size;
+    private LocalDateTime lastReconciledAt;
+
+    public CapacityCacheStatsDTO() {
+    }
+
+    public CapacityCacheStatsDTO(Long hits, Long misses, Long writes, Long evictions, Long reconciliations,
+            Long driftCorrections, Integer size, LocalDateTime lastReconciledAt) {
+        this.hits = hits;
+        this.misses = misses;
+        this.writes = writes;
+        this.evictions = evictions;
+        this.reconciliations = reconciliations;
+        this.driftCorrections = driftCorrections;
+        this.size = size;
+        this.lastReconciledAt = lastReconciledAt;
+    }
+
+    public Long getHits() {
+        return hits;
+    }
+
+    public void setHits(Long hits) {
+        this.hits = hits;
+    }
+
+    public Long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(Long misses) {
+        this.misses = misses;
+    }
+
+    public Long getWrites() {
+        return writes;
+    }
+
+    public void setWrites(Long writes) {
+        this.writes = writes;
+    }
+
+    public Long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(Long evictions) {
+        this.evictions = evictions;
+    }
+
+    public Long getReconciliations() {
+        return reconciliations;
+    }
+
+    public void setReconciliations(Long reconciliations) {
+        this.reconciliations = reconciliations;
+    }
+
+    public Long getDriftCorrections() {
+        return driftCorrections;
+    }
+
+    public void setDriftCorrections(Long driftCorrections) {
+        this.driftCorrections = driftCorrections;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public void setLastReconciledAt(LocalDateTime lastReconciledAt) {
+        this.lastReconciledAt = lastReconciledAt;
+    }
+
+    // share of lookups answered from memory
+    public Double getHitRatio() {
+        long lookups = (hits == null ? 0 : hits) + (misses == null ? 0 : misses);
+        return lookups == 0 ? 0.0 : (hits == null ? 0 : hits) / (double) lookups;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((hits == null) ? 0 : hits.hashCode());
+        result = prime * result + ((misses == null) ? 0 : misses.hashCode());
+        result = prime * result + ((writes == null) ? 0 : writes.hashCode());
+        result = prime * result + ((evictions == null) ? 0 : evictions.hashCode());
+        result = prime * result + ((reconciliations == null) ? 0 : reconciliations.hashCode());
+        result = prime * result + ((driftCorrections == null) ? 0 : driftCorrections.hashCode());
+        result = prime * result + ((size == null) ? 0 : size.hashCode());
+        result = prime * result + ((lastReconciledAt == null) ? 0 : lastReconciledAt.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        CapacityCacheStatsDTO other = (CapacityCacheStatsDTO) obj;
+        if (hits == null) {
+            if (other.hits != null)
+                return false;
+        } else if (!hits.equals(other.hits))
+            return false;
+        if (misses == null) {
+            if (other.misses != null)
+                return false;
+        } else if (!misses.equals(other.misses))
+            return false;
+        if (writes == null) {
+            if (other.writes != null)
+                return false;
+        } else if (!writes.equals(other.writes))
+            return false;
+        if (evictions == null) {
+            if (other.evictions != null)
+                return false;
+        } else if (!evictions.equals(other.evictions))
+            return false;
+        if (reconciliations == null) {
+            if (other.reconciliations != null)
+                return false;
+        } else if (!reconciliations.equals(other.reconciliations))
+            return false;
+        if (driftCorrections == null) {
+            if (other.driftCorrections != null)
+                return false;
+        } else if (!driftCorrections.equals(other.driftCorrections))
+            return false;
+        if (size == null) {
+            if (other.size != null)
+                return false;
+        } else if (!size.equals(other.size))
+            return false;
+        if (lastReconciledAt == null) {
+            if (other.lastReconciledAt != null)
+                return false;
+        } else if (!lastReconciledAt.equals(other.lastReconciledAt))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CapacityCacheStatsDTO [hits=" + hits + ", misses=" + misses + ", writes=" + writes + ", evictions="
+                + evictions + ", reconciliations=" + reconciliations + ", driftCorrections=" + driftCorrections
+                + ", size=" + size + ", lastReconciledAt=" + lastReconciledAt + "]";
+    }
+
+}
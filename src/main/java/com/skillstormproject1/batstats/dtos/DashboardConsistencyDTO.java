@@ -0,0 +1,88 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DashboardConsistencyDTO {
+
+    private boolean consistent;
+
+    // one line per total that didn't match the GROUP BY result
+    private List<String> differences = new ArrayList<>();
+    private LocalDateTime checkedAt;
+
+    public DashboardConsistencyDTO() {
+    }
+
+    public DashboardConsistencyDTO(boolean consistent, List<String> differences, LocalDateTime checkedAt) {
+        this.consistent = consistent;
+        this.differences = differences;
+        this.checkedAt = checkedAt;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+
+    public List<String> getDifferences() {
+        return differences;
+    }
+
+    public void setDifferences(List<String> differences) {
+        this.differences = differences;
+    }
+
+    public LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(LocalDateTime checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + (consistent ? 1231 : 1237);
+        result = prime * result + ((differences == null) ? 0 : differences.hashCode());
+        result = prime * result + ((checkedAt == null) ? 0 : checkedAt.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        DashboardConsistencyDTO other = (DashboardConsistencyDTO) obj;
+        if (consistent != other.consistent)
+            return false;
+        if (differences == null) {
+            if (other.differences != null)
+                return false;
+        } else if (!differences.equals(other.differences))
+            return false;
+        if (checkedAt == null) {
+            if (other.checkedAt != null)
+                return false;
+        } else if (!checkedAt.equals(other.checkedAt))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardConsistencyDTO [consistent=" + consistent + ", differences=" + differences + ", checkedAt="
+                + checkedAt + "]";
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.skillstormproject1.batstats.services.WarehouseCapacityCache;
+
+public class DashboardDTO {
+
+    private Long totalItems;
+    private Long totalUnits;
+    private Long totalProductTypes;
+    private Integer totalWarehouses;
+    private Map<String, Long> unitsByCategory = new HashMap<>();
+    private Long itemsWithoutLocation;
+    private Long multiLocationItems;
+
+    // mean capacity percentage over all warehouses
+    private Double averageUtilization;
+    private List<WarehouseCapacityCache.Snapshot> warehouses = new ArrayList<>();
+
+    // last time the totals were recounted from the database, they are kept incrementally in between
+    private LocalDateTime totalsRebuiltAt;
+
+    public DashboardDTO() {
+    }
+
+    public DashboardDTO(Long totalItems, Long totalUnits, Long totalProductTypes, Integer totalWarehouses,
+            Map<String, Long> unitsByCategory, Long itemsWithoutLocation, Long multiLocationItems,
+            Double averageUtilization, List<WarehouseCapacityCache.Snapshot> warehouses, LocalDateTime totalsRebuiltAt) {
+        this.totalItems = totalItems;
+        this.totalUnits = totalUnits;
+        this.totalProductTypes = totalProductTypes;
+        this.totalWarehouses = totalWarehouses;
+        this.unitsByCategory = unitsByCategory;
+        this.itemsWithoutLocation = itemsWithoutLocation;
+        this.multiLocationItems = multiLocationItems;
+        this.averageUtilization = averageUtilization;
+        this.warehouses = warehouses;
+        this.totalsRebuiltAt = totalsRebuiltAt;
+    }
+
+    public Long getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(Long totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public Long getTotalUnits() {
+        return totalUnits;
+    }
+
+    public void setTotalUnits(Long totalUnits) {
+        this.totalUnits = totalUnits;
+    }
+
+    public Long getTotalProductTypes() {
+        return totalProductTypes;
+    }
+
+    public void setTotalProductTypes(Long totalProductTypes) {
+        this.totalProductTypes = totalProductTypes;
+    }
+
+    public Integer getTotalWarehouses() {
+        return totalWarehouses;
+    }
+
+    public void setTotalWarehouses(Integer totalWarehouses) {
+        this.totalWarehouses = totalWarehouses;
+    }
+
+    public Map<String, Long> getUnitsByCategory() {
+        return unitsByCategory;
+    }
+
+    public void setUnitsByCategory(Map<String, Long> unitsByCategory) {
+        this.unitsByCategory = unitsByCategory;
+    }
+
+    public Long getItemsWithoutLocation() {
+        return itemsWithoutLocation;
+    }
+
+    public void setItemsWithoutLocation(Long itemsWithoutLocation) {
+        this.itemsWithoutLocation = itemsWithoutLocation;
+    }
+
+    public Long getMultiLocationItems() {
+        return multiLocationItems;
+    }
+
+    public void setMultiLocationItems(Long multiLocationItems) {
+        this.multiLocationItems = multiLocationItems;
+    }
+
+    public Double getAverageUtilization() {
+        return averageUtilization;
+    }
+
+    public void setAverageUtilization(Double averageUtilization) {
+        this.averageUtilization = averageUtilization;
+    }
+
+    public List<WarehouseCapacityCache.Snapshot> getWarehouses() {
+        return warehouses;
+    }
+
+    public void setWarehouses(List<WarehouseCapacityCache.Snapshot> warehouses) {
+        this.warehouses = warehouses;
+    }
+
+    public LocalDateTime getTotalsRebuiltAt() {
+        return totalsRebuiltAt;
+    }
+
+    public void setTotalsRebuiltAt(LocalDateTime totalsRebuiltAt) {
+        this.totalsRebuiltAt = totalsRebuiltAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((totalItems == null) ? 0 : totalItems.hashCode());
+        result = prime * result + ((totalUnits == null) ? 0 : totalUnits.hashCode());
+        result = prime * result + ((totalProductTypes == null) ? 0 : totalProductTypes.hashCode());
+        result = prime * result + ((totalWarehouses == null) ? 0 : totalWarehouses.hashCode());
+        result = prime * result + ((unitsByCategory == null) ? 0 : unitsByCategory.hashCode());
+        result = prime * result + ((itemsWithoutLocation == null) ? 0 : itemsWithoutLocation.hashCode());
+        result = prime * result + ((multiLocationItems == null) ? 0 : multiLocationItems.hashCode());
+        result = prime * result + ((averageUtilization == null) ? 0 : averageUtilization.hashCode());
+        result = prime * result + ((warehouses == null) ? 0 : warehouses.hashCode());
+        result = prime * result + ((totalsRebuiltAt == null) ? 0 : totalsRebuiltAt.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        DashboardDTO other = (DashboardDTO) obj;
+        if (totalItems == null) {
+            if (other.totalItems != null)
+                return false;
+        } else if (!totalItems.equals(other.totalItems))
+            return false;
+        if (totalUnits == null) {
+            if (other.totalUnits != null)
+                return false;
+        } else if (!totalUnits.equals(other.totalUnits))
+            return false;
+        if (totalProductTypes == null) {
+            if (other.totalProductTypes != null)
+                return false;
+        } else if (!totalProductTypes.equals(other.totalProductTypes))
+            return false;
+        if (totalWarehouses == null) {
+            if (other.totalWarehouses != null)
+                return false;
+        } else if (!totalWarehouses.equals(other.totalWarehouses))
+            return false;
+        if (unitsByCategory == null) {
+            if (other.unitsByCategory != null)
+                return false;
+        } else if (!unitsByCategory.equals(other.unitsByCategory))
+            return false;
+        if (itemsWithoutLocation == null) {
+            if (other.itemsWithoutLocation != null)
+                return false;
+        } else if (!itemsWithoutLocation.equals(other.itemsWithoutLocation))
+            return false;
+        if (multiLocationItems == null) {
+            if (other.multiLocationItems != null)
+                return false;
+        } else if (!multiLocationItems.equals(other.multiLocationItems))
+            return false;
+        if (averageUtilization == null) {
+            if (other.averageUtilization != null)
+                return false;
+        } else if (!averageUtilization.equals(other.averageUtilization))
+            return false;
+        if (warehouses == null) {
+            if (other.warehouses != null)
+                return false;
+        } else if (!warehouses.equals(other.warehouses))
+            return false;
+        if (totalsRebuiltAt == null) {
+            if (other.totalsRebuiltAt != null)
+                return false;
+        } else if (!totalsRebuiltAt.equals(other.totalsRebuiltAt))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardDTO [totalItems=" + totalItems + ", totalUnits=" + totalUnits + ", totalProductTypes="
+                + totalProductTypes + ", totalWarehouses=" + totalWarehouses + ", unitsByCategory=" + unitsByCategory
+                + ", itemsWithoutLocation=" + itemsWithoutLocation + ", multiLocationItems=" + multiLocationItems
+                + ", averageUtilization=" + averageUtilization + ", warehouseCount="
+                + (warehouses == null ? 0 : warehouses.size()) + ", totalsRebuiltAt=" + totalsRebuiltAt + "]";
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.skillstormproject1.batstats.models.InventoryItem;
+
+public class InventoryItemPageDTO {
+
+    private List<InventoryItem> items = new ArrayList<>();
+
+    // id of the last item on this page, pass it back as the "after" cursor for the next page
+    private Integer nextCursor;
+    private boolean hasMore;
+
+    public InventoryItemPageDTO() {
+    }
+
+    public InventoryItemPageDTO(List<InventoryItem> items, Integer nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<InventoryItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<InventoryItem> items) {
+        this.items = items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((items == null) ? 0 : items.hashCode());
+        result = prime * result + ((nextCursor == null) ? 0 : nextCursor.hashCode());
+        result = prime * result + (hasMore ? 1231 : 1237);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        InventoryItemPageDTO other = (InventoryItemPageDTO) obj;
+        if (items == null) {
+            if (other.items != null)
+                return false;
+        } else if (!items.equals(other.items))
+            return false;
+        if (nextCursor == null) {
+            if (other.nextCursor != null)
+                return false;
+        } else if (!nextCursor.equals(other.nextCursor))
+            return false;
+        if (hasMore != other.hasMore)
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryItemPageDTO [itemCount=" + (items == null ? 0 : items.size()) + ", nextCursor=" + nextCursor
+                + ", hasMore=" + hasMore + "]";
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+// lean /api/inventory listing: items refer to warehouses and product types by id, each of those is written once
+public class InventoryListingDTO {
+
+    private List<ItemRowDTO> items;
+    private Map<Integer, WarehouseRowDTO> warehouses;
+    private Map<Integer, ProductTypeRowDTO> productTypes;
+
+    public InventoryListingDTO() {
+    }
+
+    public InventoryListingDTO(List<ItemRowDTO> items, Map<Integer, WarehouseRowDTO> warehouses, Map<Integer, ProductTypeRowDTO> productTypes) {
+        this.items = items;
+        this.warehouses = warehouses;
+        this.productTypes = productTypes;
+    }
+
+    public List<ItemRowDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ItemRowDTO> items) {
+        this.items = items;
+    }
+
+    public Map<Integer, WarehouseRowDTO> getWarehouses() {
+        return warehouses;
+    }
+
+    public void setWarehouses(Map<Integer, WarehouseRowDTO> warehouses) {
+        this.warehouses = warehouses;
+    }
+
+    public Map<Integer, ProductTypeRowDTO> getProductTypes() {
+        return productTypes;
+    }
+
+    public void setProductTypes(Map<Integer, ProductTypeRowDTO> productTypes) {
+        this.productTypes = productTypes;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((items == null) ? 0 : items.hashCode());
+        result = prime * result + ((warehouses == null) ? 0 : warehouses.hashCode());
+        result = prime * result + ((productTypes == null) ? 0 : productTypes.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        InventoryListingDTO other = (InventoryListingDTO) obj;
+        if (items == null) {
+            if (other.items != null)
+                return false;
+        } else if (!items.equals(other.items))
+            return false;
+        if (warehouses == null) {
+            if (other.warehouses != null)
+                return false;
+        } else if (!warehouses.equals(other.warehouses))
+            return false;
+        if (productTypes == null) {
+            if (other.productTypes != null)
+                return false;
+        } else if (!productTypes.equals(other.productTypes))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryListingDTO [items=" + items + ", warehouses=" + warehouses
+                + ", productTypes=" + productTypes + "]";
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+// flat inventory item of the lean listing, ?fields picks which of these are written
+@JsonFilter(ItemRowDTO.FILTER)
+public class ItemRowDTO {
+
+    public static final String FILTER = "itemRowFields";
+
+    private Integer id;
+    private String serialNumber;
+    private Integer productTypeId;
+    private Integer totalQuantity;
+    private Integer locationCount;
+    private List<LocationRowDTO> locations;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public ItemRowDTO() {
+    }
+
+    public ItemRowDTO(Integer id, String serialNumber, Integer productTypeId, Integer totalQuantity, Integer locationCount, List<LocationRowDTO> locations, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.serialNumber = serialNumber;
+        this.productTypeId = productTypeId;
+        this.totalQuantity = totalQuantity;
+        this.locationCount = locationCount;
+        this.locations = locations;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    public Integer getProductTypeId() {
+        return productTypeId;
+    }
+
+    public void setProductTypeId(Integer productTypeId) {
+        this.productTypeId = productTypeId;
+    }
+
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(Integer totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public Integer getLocationCount() {
+        return locationCount;
+    }
+
+    public void setLocationCount(Integer locationCount) {
+        this.locationCount = locationCount;
+    }
+
+    public List<LocationRowDTO> getLocations() {
+        return locations;
+    }
+
+    public void setLocations(List<LocationRowDTO> locations) {
+        this.locations = locations;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((serialNumber == null) ? 0 : serialNumber.hashCode());
+        result = prime * result + ((productTypeId == null) ? 0 : productTypeId.hashCode());
+        result = prime * result + ((totalQuantity == null) ? 0 : totalQuantity.hashCode());
+        result = prime * result + ((locationCount == null) ? 0 : locationCount.hashCode());
+        result = prime * result + ((locations == null) ? 0 : locations.hashCode());
+        result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
+        result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ItemRowDTO other = (ItemRowDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (serialNumber == null) {
+            if (other.serialNumber != null)
+                return false;
+        } else if (!serialNumber.equals(other.serialNumber))
+            return false;
+        if (productTypeId == null) {
+            if (other.productTypeId != null)
+                return false;
+        } else if (!productTypeId.equals(other.productTypeId))
+            return false;
+        if (totalQuantity == null) {
+            if (other.totalQuantity != null)
+                return false;
+        } else if (!totalQuantity.equals(other.totalQuantity))
+            return false;
+        if (locationCount == null) {
+            if (other.locationCount != null)
+                return false;
+        } else if (!locationCount.equals(other.locationCount))
+            return false;
+        if (locations == null) {
+            if (other.locations != null)
+                return false;
+        } else if (!locations.equals(other.locations))
+            return false;
+        if (createdAt == null) {
+            if (other.createdAt != null)
+                return false;
+        } else if (!createdAt.equals(other.createdAt))
+            return false;
+        if (updatedAt == null) {
+            if (other.updatedAt != null)
+                return false;
+        } else if (!updatedAt.equals(other.updatedAt))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemRowDTO [id=" + id + ", serialNumber=" + serialNumber + ", productTypeId=" + productTypeId
+                + ", totalQuantity=" + totalQuantity + ", locationCount=" + locationCount
+                + ", locations=" + locations + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + "]";
+    }
+
+}
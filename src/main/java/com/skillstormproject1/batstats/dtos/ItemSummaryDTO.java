@@ -0,0 +1,118 @@
+package com.skillstormproject1.batstats.dtos;
+
+// flat row for streamed listings: an item, its product type and a quantity (at one warehouse or in total)
+public class ItemSummaryDTO {
+
+    private Integer id;
+    private String serialNumber;
+    private String productTypeName;
+    private String category;
+    private Integer quantity;
+
+    public ItemSummaryDTO() {
+    }
+
+    public ItemSummaryDTO(Integer id, String serialNumber, String productTypeName, String category, Integer quantity) {
+        this.id = id;
+        this.serialNumber = serialNumber;
+        this.productTypeName = productTypeName;
+        this.category = category;
+        this.quantity = quantity;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    public String getProductTypeName() {
+        return productTypeName;
+    }
+
+    public void setProductTypeName(String productTypeName) {
+        this.productTypeName = productTypeName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((serialNumber == null) ? 0 : serialNumber.hashCode());
+        result = prime * result + ((productTypeName == null) ? 0 : productTypeName.hashCode());
+        result = prime * result + ((category == null) ? 0 : category.hashCode());
+        result = prime * result + ((quantity == null) ? 0 : quantity.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ItemSummaryDTO other = (ItemSummaryDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (serialNumber == null) {
+            if (other.serialNumber != null)
+                return false;
+        } else if (!serialNumber.equals(other.serialNumber))
+            return false;
+        if (productTypeName == null) {
+            if (other.productTypeName != null)
+                return false;
+        } else if (!productTypeName.equals(other.productTypeName))
+            return false;
+        if (category == null) {
+            if (other.category != null)
+                return false;
+        } else if (!category.equals(other.category))
+            return false;
+        if (quantity == null) {
+            if (other.quantity != null)
+                return false;
+        } else if (!quantity.equals(other.quantity))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ItemSummaryDTO [id=" + id + ", serialNumber=" + serialNumber
+                + ", productTypeName=" + productTypeName + ", category=" + category + ", quantity=" + quantity + "]";
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.skillstormproject1.batstats.dtos;
+
+// one location of an item in the lean listing, the warehouse itself is in the listing's warehouses table
+public class LocationRowDTO {
+
+    private Integer id;
+    private Integer warehouseId;
+    private Integer quantity;
+
+    public LocationRowDTO() {
+    }
+
+    public LocationRowDTO(Integer id, Integer warehouseId, Integer quantity) {
+        this.id = id;
+        this.warehouseId = warehouseId;
+        this.quantity = quantity;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Integer warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((warehouseId == null) ? 0 : warehouseId.hashCode());
+        result = prime * result + ((quantity == null) ? 0 : quantity.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        LocationRowDTO other = (LocationRowDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (warehouseId == null) {
+            if (other.warehouseId != null)
+                return false;
+        } else if (!warehouseId.equals(other.warehouseId))
+            return false;
+        if (quantity == null) {
+            if (other.quantity != null)
+                return false;
+        } else if (!quantity.equals(other.quantity))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "LocationRowDTO [id=" + id + ", warehouseId=" + warehouseId + ", quantity=" + quantity + "]";
+    }
+
+}
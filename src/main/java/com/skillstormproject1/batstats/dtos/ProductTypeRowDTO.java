@@ -0,0 +1,118 @@
+package com.skillstormproject1.batstats.dtos;
+
+// a product type as written once per lean listing
+public class ProductTypeRowDTO {
+
+    private Integer id;
+    private String name;
+    private String category;
+    private String unitOfMeasure;
+    private String description;
+
+    public ProductTypeRowDTO() {
+    }
+
+    public ProductTypeRowDTO(Integer id, String name, String category, String unitOfMeasure, String description) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.unitOfMeasure = unitOfMeasure;
+        this.description = description;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getUnitOfMeasure() {
+        return unitOfMeasure;
+    }
+
+    public void setUnitOfMeasure(String unitOfMeasure) {
+        this.unitOfMeasure = unitOfMeasure;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((name == null) ? 0 : name.hashCode());
+        result = prime * result + ((category == null) ? 0 : category.hashCode());
+        result = prime * result + ((unitOfMeasure == null) ? 0 : unitOfMeasure.hashCode());
+        result = prime * result + ((description == null) ? 0 : description.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ProductTypeRowDTO other = (ProductTypeRowDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (name == null) {
+            if (other.name != null)
+                return false;
+        } else if (!name.equals(other.name))
+            return false;
+        if (category == null) {
+            if (other.category != null)
+                return false;
+        } else if (!category.equals(other.category))
+            return false;
+        if (unitOfMeasure == null) {
+            if (other.unitOfMeasure != null)
+                return false;
+        } else if (!unitOfMeasure.equals(other.unitOfMeasure))
+            return false;
+        if (description == null) {
+            if (other.description != null)
+                return false;
+        } else if (!description.equals(other.description))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductTypeRowDTO [id=" + id + ", name=" + name + ", category=" + category
+                + ", unitOfMeasure=" + unitOfMeasure + ", description=" + description + "]";
+    }
+
+}
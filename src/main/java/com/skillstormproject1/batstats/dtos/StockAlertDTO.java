@@ -0,0 +1,139 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+
+import com.skillstormproject1.batstats.models.AlertKind;
+import com.skillstormproject1.batstats.models.AlertLevel;
+
+// an open alert: a warehouse fill percentage (no itemId) or the units at one location, at this level since `since`
+public class StockAlertDTO {
+
+    private AlertKind kind;
+    private Integer warehouseId;
+    private Integer itemId;
+    private AlertLevel level;
+    private Double value;
+    private LocalDateTime since;
+
+    public StockAlertDTO() {
+    }
+
+    public StockAlertDTO(AlertKind kind, Integer warehouseId, Integer itemId, AlertLevel level, Double value, LocalDateTime since) {
+        this.kind = kind;
+        this.warehouseId = warehouseId;
+        this.itemId = itemId;
+        this.level = level;
+        this.value = value;
+        this.since = since;
+    }
+
+    public AlertKind getKind() {
+        return kind;
+    }
+
+    public void setKind(AlertKind kind) {
+        this.kind = kind;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Integer warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public AlertLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(AlertLevel level) {
+        this.level = level;
+    }
+
+    public Double getValue() {
+        return value;
+    }
+
+    public void setValue(Double value) {
+        this.value = value;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((kind == null) ? 0 : kind.hashCode());
+        result = prime * result + ((warehouseId == null) ? 0 : warehouseId.hashCode());
+        result = prime * result + ((itemId == null) ? 0 : itemId.hashCode());
+        result = prime * result + ((level == null) ? 0 : level.hashCode());
+        result = prime * result + ((value == null) ? 0 : value.hashCode());
+        result = prime * result + ((since == null) ? 0 : since.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        StockAlertDTO other = (StockAlertDTO) obj;
+        if (kind == null) {
+            if (other.kind != null)
+                return false;
+        } else if (!kind.equals(other.kind))
+            return false;
+        if (warehouseId == null) {
+            if (other.warehouseId != null)
+                return false;
+        } else if (!warehouseId.equals(other.warehouseId))
+            return false;
+        if (itemId == null) {
+            if (other.itemId != null)
+                return false;
+        } else if (!itemId.equals(other.itemId))
+            return false;
+        if (level == null) {
+            if (other.level != null)
+                return false;
+        } else if (!level.equals(other.level))
+            return false;
+        if (value == null) {
+            if (other.value != null)
+                return false;
+        } else if (!value.equals(other.value))
+            return false;
+        if (since == null) {
+            if (other.since != null)
+                return false;
+        } else if (!since.equals(other.since))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "StockAlertDTO [kind=" + kind + ", warehouseId=" + warehouseId + ", itemId=" + itemId
+                + ", level=" + level + ", value=" + value + ", since=" + since + "]";
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+
+// one bucket of a stock history series: the level at its end and what moved during it
+public class StockHistoryPointDTO {
+
+    private LocalDateTime bucketStart;
+    private Long closingUnits;
+    private Long unitsIn;
+    private Long unitsOut;
+    private Long movements;
+
+    public StockHistoryPointDTO() {
+    }
+
+    public StockHistoryPointDTO(LocalDateTime bucketStart, Long closingUnits, Long unitsIn, Long unitsOut, Long movements) {
+        this.bucketStart = bucketStart;
+        this.closingUnits = closingUnits;
+        this.unitsIn = unitsIn;
+        this.unitsOut = unitsOut;
+        this.movements = movements;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getClosingUnits() {
+        return closingUnits;
+    }
+
+    public void setClosingUnits(Long closingUnits) {
+        this.closingUnits = closingUnits;
+    }
+
+    public Long getUnitsIn() {
+        return unitsIn;
+    }
+
+    public void setUnitsIn(Long unitsIn) {
+        this.unitsIn = unitsIn;
+    }
+
+    public Long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(Long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public Long getMovements() {
+        return movements;
+    }
+
+    public void setMovements(Long movements) {
+        this.movements = movements;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((bucketStart == null) ? 0 : bucketStart.hashCode());
+        result = prime * result + ((closingUnits == null) ? 0 : closingUnits.hashCode());
+        result = prime * result + ((unitsIn == null) ? 0 : unitsIn.hashCode());
+        result = prime * result + ((unitsOut == null) ? 0 : unitsOut.hashCode());
+        result = prime * result + ((movements == null) ? 0 : movements.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        StockHistoryPointDTO other = (StockHistoryPointDTO) obj;
+        if (bucketStart == null) {
+            if (other.bucketStart != null)
+                return false;
+        } else if (!bucketStart.equals(other.bucketStart))
+            return false;
+        if (closingUnits == null) {
+            if (other.closingUnits != null)
+                return false;
+        } else if (!closingUnits.equals(other.closingUnits))
+            return false;
+        if (unitsIn == null) {
+            if (other.unitsIn != null)
+                return false;
+        } else if (!unitsIn.equals(other.unitsIn))
+            return false;
+        if (unitsOut == null) {
+            if (other.unitsOut != null)
+                return false;
+        } else if (!unitsOut.equals(other.unitsOut))
+            return false;
+        if (movements == null) {
+            if (other.movements != null)
+                return false;
+        } else if (!movements.equals(other.movements))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "StockHistoryPointDTO [bucketStart=" + bucketStart + ", closingUnits=" + closingUnits
+                + ", unitsIn=" + unitsIn + ", unitsOut=" + unitsOut + ", movements=" + movements + "]";
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.skillstormproject1.batstats.dtos;
+
+// quantity of one item at one warehouse, as replayed from the movement ledger
+public class StockLevelDTO {
+
+    private Integer warehouseId;
+    private Integer itemId;
+    private Long quantity;
+
+    public StockLevelDTO() {
+    }
+
+    public StockLevelDTO(Integer warehouseId, Integer itemId, Long quantity) {
+        this.warehouseId = warehouseId;
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Integer warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((warehouseId == null) ? 0 : warehouseId.hashCode());
+        result = prime * result + ((itemId == null) ? 0 : itemId.hashCode());
+        result = prime * result + ((quantity == null) ? 0 : quantity.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        StockLevelDTO other = (StockLevelDTO) obj;
+        if (warehouseId == null) {
+            if (other.warehouseId != null)
+                return false;
+        } else if (!warehouseId.equals(other.warehouseId))
+            return false;
+        if (itemId == null) {
+            if (other.itemId != null)
+                return false;
+        } else if (!itemId.equals(other.itemId))
+            return false;
+        if (quantity == null) {
+            if (other.quantity != null)
+                return false;
+        } else if (!quantity.equals(other.quantity))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "StockLevelDTO [warehouseId=" + warehouseId + ", itemId=" + itemId + ", quantity=" + quantity + "]";
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.skillstormproject1.batstats.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// rows changed and ids deleted after ?since, pass syncedAt as the next since
+public class SyncDeltaDTO<T> {
+
+    private List<T> changed;
+    private List<Integer> deleted;
+    private LocalDateTime syncedAt;
+
+    public SyncDeltaDTO() {
+    }
+
+    public SyncDeltaDTO(List<T> changed, List<Integer> deleted, LocalDateTime syncedAt) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.syncedAt = syncedAt;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<T> changed) {
+        this.changed = changed;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Integer> deleted) {
+        this.deleted = deleted;
+    }
+
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((changed == null) ? 0 : changed.hashCode());
+        result = prime * result + ((deleted == null) ? 0 : deleted.hashCode());
+        result = prime * result + ((syncedAt == null) ? 0 : syncedAt.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        SyncDeltaDTO<?> other = (SyncDeltaDTO<?>) obj;
+        if (changed == null) {
+            if (other.changed != null)
+                return false;
+        } else if (!changed.equals(other.changed))
+            return false;
+        if (deleted == null) {
+            if (other.deleted != null)
+                return false;
+        } else if (!deleted.equals(other.deleted))
+            return false;
+        if (syncedAt == null) {
+            if (other.syncedAt != null)
+                return false;
+        } else if (!syncedAt.equals(other.syncedAt))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncDeltaDTO [changed=" + changed + ", deleted=" + deleted + ", syncedAt=" + syncedAt + "]";
+    }
+
+}
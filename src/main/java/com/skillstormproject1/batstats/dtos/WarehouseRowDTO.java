@@ -0,0 +1,168 @@
+package com.skillstormproject1.batstats.dtos;
+
+// a warehouse as written once per lean listing
+public class WarehouseRowDTO {
+
+    private Integer id;
+    private String name;
+    private String location;
+    private Integer maxCapacity;
+    private Integer currentCapacity;
+    private Integer availableCapacity;
+    private Double capacityPercentage;
+    private String status;
+
+    public WarehouseRowDTO() {
+    }
+
+    public WarehouseRowDTO(Integer id, String name, String location, Integer maxCapacity, Integer currentCapacity, Integer availableCapacity, Double capacityPercentage, String status) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.maxCapacity = maxCapacity;
+        this.currentCapacity = currentCapacity;
+        this.availableCapacity = availableCapacity;
+        this.capacityPercentage = capacityPercentage;
+        this.status = status;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(Integer maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public Integer getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public void setCurrentCapacity(Integer currentCapacity) {
+        this.currentCapacity = currentCapacity;
+    }
+
+    public Integer getAvailableCapacity() {
+        return availableCapacity;
+    }
+
+    public void setAvailableCapacity(Integer availableCapacity) {
+        this.availableCapacity = availableCapacity;
+    }
+
+    public Double getCapacityPercentage() {
+        return capacityPercentage;
+    }
+
+    public void setCapacityPercentage(Double capacityPercentage) {
+        this.capacityPercentage = capacityPercentage;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((name == null) ? 0 : name.hashCode());
+        result = prime * result + ((location == null) ? 0 : location.hashCode());
+        result = prime * result + ((maxCapacity == null) ? 0 : maxCapacity.hashCode());
+        result = prime * result + ((currentCapacity == null) ? 0 : currentCapacity.hashCode());
+        result = prime * result + ((availableCapacity == null) ? 0 : availableCapacity.hashCode());
+        result = prime * result + ((capacityPercentage == null) ? 0 : capacityPercentage.hashCode());
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        WarehouseRowDTO other = (WarehouseRowDTO) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        if (name == null) {
+            if (other.name != null)
+                return false;
+        } else if (!name.equals(other.name))
+            return false;
+        if (location == null) {
+            if (other.location != null)
+                return false;
+        } else if (!location.equals(other.location))
+            return false;
+        if (maxCapacity == null) {
+            if (other.maxCapacity != null)
+                return false;
+        } else if (!maxCapacity.equals(other.maxCapacity))
+            return false;
+        if (currentCapacity == null) {
+            if (other.currentCapacity != null)
+                return false;
+        } else if (!currentCapacity.equals(other.currentCapacity))
+            return false;
+        if (availableCapacity == null) {
+            if (other.availableCapacity != null)
+                return false;
+        } else if (!availableCapacity.equals(other.availableCapacity))
+            return false;
+        if (capacityPercentage == null) {
+            if (other.capacityPercentage != null)
+                return false;
+        } else if (!capacityPercentage.equals(other.capacityPercentage))
+            return false;
+        if (status == null) {
+            if (other.status != null)
+                return false;
+        } else if (!status.equals(other.status))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WarehouseRowDTO [id=" + id + ", name=" + name + ", location=" + location
+                + ", maxCapacity=" + maxCapacity + ", currentCapacity=" + currentCapacity
+                + ", availableCapacity=" + availableCapacity + ", capacityPercentage=" + capacityPercentage
+                + ", status=" + status + "]";
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.skillstormproject1.batstats.events;
+
+import java.time.LocalDateTime;
+
+import com.skillstormproject1.batstats.models.AlertKind;
+import com.skillstormproject1.batstats.models.AlertLevel;
+
+// published after commit when a warehouse or location alert changes level, itemId is null for capacity alerts
+public class AlertTransitionEvent {
+
+    private final AlertKind kind;
+    private final Integer warehouseId;
+    private final Integer itemId;
+    private final AlertLevel from;
+    private final AlertLevel to;
+    // fill percentage for capacity alerts, units at the location for low-stock alerts
+    private final double value;
+    private final LocalDateTime at;
+
+    public AlertTransitionEvent(AlertKind kind, Integer warehouseId, Integer itemId, AlertLevel from, AlertLevel to,
+                                double value, LocalDateTime at) {
+        this.kind = kind;
+        this.warehouseId = warehouseId;
+        this.itemId = itemId;
+        this.from = from;
+        this.to = to;
+        this.value = value;
+        this.at = at;
+    }
+
+    public AlertKind getKind() {
+        return kind;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public AlertLevel getFrom() {
+        return from;
+    }
+
+    public AlertLevel getTo() {
+        return to;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertTransitionEvent [kind=" + kind + ", warehouseId=" + warehouseId + ", itemId=" + itemId
+                + ", from=" + from + ", to=" + to + ", value=" + value + "]";
+    }
+
+}
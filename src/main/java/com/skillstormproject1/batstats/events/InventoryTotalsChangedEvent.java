@@ -0,0 +1,87 @@
+package com.skillstormproject1.batstats.events;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Net change a transaction made to the inventory totals the dashboard keeps.
+ *
+ * Publishers add the units they moved per category and every item whose number of locations
+ * changed. A location count of -1 means the item doesn't exist (created or deleted). Changes
+ * that can't be described this way (cascading deletes, category edits) publish rebuild() instead.
+ */
+public class InventoryTotalsChangedEvent {
+
+    private final boolean rebuild;
+    private final Map<String, Long> unitsByCategory = new HashMap<>();
+    private long itemDelta;
+    private long withoutLocationDelta;
+    private long multiLocationDelta;
+
+    public InventoryTotalsChangedEvent() {
+        this(false);
+    }
+
+    private InventoryTotalsChangedEvent(boolean rebuild) {
+        this.rebuild = rebuild;
+    }
+
+    // totals can't be updated incrementally, recount them from the database
+    public static InventoryTotalsChangedEvent rebuild() {
+        return new InventoryTotalsChangedEvent(true);
+    }
+
+    public InventoryTotalsChangedEvent addUnits(String category, long units) {
+        if (units != 0) {
+            unitsByCategory.merge(category, units, Long::sum);
+        }
+        return this;
+    }
+
+    // an item went from `before` locations to `after` locations
+    public InventoryTotalsChangedEvent itemLocations(int before, int after) {
+        if (before < 0) {
+            itemDelta++;
+        }
+        if (after < 0) {
+            itemDelta--;
+        }
+        withoutLocationDelta += (after == 0 ? 1 : 0) - (before == 0 ? 1 : 0);
+        multiLocationDelta += (after >= 2 ? 1 : 0) - (before >= 2 ? 1 : 0);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return !rebuild && unitsByCategory.isEmpty() && itemDelta == 0
+            && withoutLocationDelta == 0 && multiLocationDelta == 0;
+    }
+
+    public boolean isRebuild() {
+        return rebuild;
+    }
+
+    public Map<String, Long> getUnitsByCategory() {
+        return Collections.unmodifiableMap(unitsByCategory);
+    }
+
+    public long getItemDelta() {
+        return itemDelta;
+    }
+
+    public long getWithoutLocationDelta() {
+        return withoutLocationDelta;
+    }
+
+    public long getMultiLocationDelta() {
+        return multiLocationDelta;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryTotalsChangedEvent [rebuild=" + rebuild + ", unitsByCategory=" + unitsByCategory
+                + ", itemDelta=" + itemDelta + ", withoutLocationDelta=" + withoutLocationDelta
+                + ", multiLocationDelta=" + multiLocationDelta + "]";
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.skillstormproject1.batstats.events;
+
+import com.skillstormproject1.batstats.models.MovementType;
+
+// one warehouse location changed: the quantity it has now (0 once removed), by how much it moved and why
+public class StockChangedEvent {
+
+    private final MovementType type;
+    private final Integer warehouseId;
+    private final Integer itemId;
+    private final int quantity;
+    private final int delta;
+    // null means the item's current product type, only set when that is not the one to record
+    private final Integer productTypeId;
+    // the statement that moved the stock already wrote the ledger row
+    private final boolean recorded;
+
+    // taken when the event is made, which every service does with the warehouse row locked,
+    // so later changes to the same location always carry a larger value
+    private final long sequence;
+
+    public StockChangedEvent(MovementType type, Integer warehouseId, Integer itemId, int quantity, int delta) {
+        this(type, warehouseId, itemId, quantity, delta, null);
+    }
+
+    public StockChangedEvent(MovementType type, Integer warehouseId, Integer itemId, int quantity, int delta,
+                             Integer productTypeId) {
+        this(type, warehouseId, itemId, quantity, delta, productTypeId, false);
+    }
+
+    public StockChangedEvent(MovementType type, Integer warehouseId, Integer itemId, int quantity, int delta,
+                             Integer productTypeId, boolean recorded) {
+        this.type = type;
+        this.warehouseId = warehouseId;
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.delta = delta;
+        this.productTypeId = productTypeId;
+        this.recorded = recorded;
+        this.sequence = System.nanoTime();
+    }
+
+    public MovementType getType() {
+        return type;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public Integer getProductTypeId() {
+        return productTypeId;
+    }
+
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChangedEvent [type=" + type + ", warehouseId=" + warehouseId + ", itemId=" + itemId
+                + ", quantity=" + quantity + ", delta=" + delta + ", productTypeId=" + productTypeId
+                + ", recorded=" + recorded + ", sequence=" + sequence + "]";
+    }
+
+}
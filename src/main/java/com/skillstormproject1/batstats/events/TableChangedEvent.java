@@ -0,0 +1,37 @@
+package com.skillstormproject1.batstats.events;
+
+import com.skillstormproject1.batstats.models.SyncTable;
+
+// rows of a table were written, deletedId is set when one row was deleted and needs a tombstone
+public class TableChangedEvent {
+
+    private final SyncTable table;
+    private final Integer deletedId;
+
+    public TableChangedEvent(SyncTable table) {
+        this(table, null);
+    }
+
+    private TableChangedEvent(SyncTable table, Integer deletedId) {
+        this.table = table;
+        this.deletedId = deletedId;
+    }
+
+    public static TableChangedEvent deleted(SyncTable table, Integer id) {
+        return new TableChangedEvent(table, id);
+    }
+
+    public SyncTable getTable() {
+        return table;
+    }
+
+    public Integer getDeletedId() {
+        return deletedId;
+    }
+
+    @Override
+    public String toString() {
+        return "TableChangedEvent [table=" + table + ", deletedId=" + deletedId + "]";
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.skillstormproject1.batstats.events;
+
+// published while a warehouse row is locked, carries the capacity the row will have once the transaction commits
+public class WarehouseCapacityChangedEvent {
+
+    private final Integer warehouseId;
+    private final String name;
+    private final Integer maxCapacity;
+    private final Integer currentCapacity;
+    private final String status;
+
+    // taken under the row lock, so later changes to the same warehouse always carry a larger value
+    private final long sequence;
+
+    public WarehouseCapacityChangedEvent(Integer warehouseId, String name, Integer maxCapacity,
+                                         Integer currentCapacity, String status, long sequence) {
+        this.warehouseId = warehouseId;
+        this.name = name;
+        this.maxCapacity = maxCapacity;
+        this.currentCapacity = currentCapacity;
+        this.status = status;
+        this.sequence = sequence;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public Integer getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "WarehouseCapacityChangedEvent [warehouseId=" + warehouseId + ", currentCapacity=" + currentCapacity
+                + ", maxCapacity=" + maxCapacity + ", sequence=" + sequence + "]";
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.skillstormproject1.batstats.events;
+
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// published when a warehouse itself is created, edited or deleted (not when its stock changes)
+public class WarehouseChangedEvent {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Change change;
+    private final Integer warehouseId;
+    private final String name;
+    private final Integer maxCapacity;
+    private final Integer currentCapacity;
+    private final String status;
+
+    public WarehouseChangedEvent(Change change, Integer warehouseId, String name, Integer maxCapacity,
+                                 Integer currentCapacity, String status) {
+        this.change = change;
+        this.warehouseId = warehouseId;
+        this.name = name;
+        this.maxCapacity = maxCapacity;
+        this.currentCapacity = currentCapacity;
+        this.status = status;
+    }
+
+    public static WarehouseChangedEvent of(Change change, Warehouse warehouse) {
+        return new WarehouseChangedEvent(change, warehouse.getId(), warehouse.getName(),
+            warehouse.getMaxCapacity(), warehouse.getCurrentCapacity(), warehouse.getStatus());
+    }
+
+    public static WarehouseChangedEvent deleted(Integer warehouseId) {
+        return new WarehouseChangedEvent(Change.DELETED, warehouseId, null, null, null, null);
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public Integer getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return "WarehouseChangedEvent [change=" + change + ", warehouseId=" + warehouseId + "]";
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.skillstormproject1.batstats.models;
+
+// what an alert watches: a warehouse's fill percentage or the quantity at one location
+public enum AlertKind {
+    CAPACITY,
+    LOW_STOCK
+}
@@ -0,0 +1,23 @@
+package com.skillstormproject1.batstats.models;
+
+// severity of a capacity or low-stock alert, in increasing order
+public enum AlertLevel {
+
+    OK,
+    WARNING,
+    CRITICAL;
+
+    public boolean isWorseThan(AlertLevel other) {
+        return compareTo(other) > 0;
+    }
+
+    // the level to move to from this one, given the level the value reaches with the normal thresholds
+    // (raised) and with the thresholds relaxed by the clear margin (held)
+    public AlertLevel next(AlertLevel raised, AlertLevel held) {
+        if (!isWorseThan(raised)) {
+            return raised;
+        }
+        // falling: only leave a level once the value is past its threshold by the margin
+        return held.isWorseThan(this) ? this : held;
+    }
+}
@@ -0,0 +1,8 @@
+package com.skillstormproject1.batstats.models;
+
+// where a bulk delete is, the chunks it finished stay deleted when it fails
+public enum BulkDeleteStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.skillstormproject1.batstats.models;
+
+// what a bulk delete removes along with everything under it
+public enum BulkDeleteTarget {
+    // the warehouse and all of its locations
+    WAREHOUSE,
+    // the product type, its items and their locations
+    PRODUCT_TYPE
+}
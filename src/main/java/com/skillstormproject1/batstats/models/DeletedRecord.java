@@ -0,0 +1,84 @@
+package com.skillstormproject1.batstats.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Tombstone of a deleted row, so ?since deltas can report deletions as well as changes.
+ *
+ * Written in the deleting transaction by DeltaSyncService through JDBC and pruned after
+ * batstats.sync.tombstone-retention. Locations have no id of their own in the API, a removed
+ * location is recorded under WAREHOUSE_INVENTORY with the id of the item whose list it left.
+ */
+@Entity
+@Table(name = "deleted_records", indexes = {
+    @Index(name = "idx_deleted_records_table_deleted_at", columnList = "table_name, deleted_at")
+})
+public class DeletedRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "table_name", nullable = false, length = 30)
+    private SyncTable tableName;
+
+    @Column(name = "record_id", nullable = false)
+    private Integer recordId;
+
+    // application clock, the same one updated_at is written with
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public DeletedRecord() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SyncTable getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(SyncTable tableName) {
+        this.tableName = tableName;
+    }
+
+    public Integer getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Integer recordId) {
+        this.recordId = recordId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "DeletedRecord [id=" + id + ", tableName=" + tableName + ", recordId=" + recordId + ", deletedAt="
+                + deletedAt + "]";
+    }
+
+}
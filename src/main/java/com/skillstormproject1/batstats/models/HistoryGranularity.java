@@ -0,0 +1,53 @@
+package com.skillstormproject1.batstats.models;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// bucket sizes of the stock history, each kept as its own rollup
+public enum HistoryGranularity {
+
+    HOUR("hour"),
+    DAY("day"),
+    MONTH("month");
+
+    // the date_trunc field with the same meaning
+    private final String truncUnit;
+
+    HistoryGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    // request parameter value, any case, DAY when empty
+    public static HistoryGranularity fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        for (HistoryGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value.trim())) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("granularity must be one of HOUR, DAY or MONTH");
+    }
+
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+
+    // start of the bucket holding the given time, same result as date_trunc in the database
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
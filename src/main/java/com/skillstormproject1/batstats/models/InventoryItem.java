@@ -137,66 +137,34 @@ public class InventoryItem {
         this.updatedAt = updatedAt;
     }
 
+    // identity is the serial number: unique, set before the first save and never changed,
+    // so the hash holds from creation on and never reads the locations or the product type.
+    // Called on an uninitialized hibernate proxy it loads the item, the id alone can't give the serial number
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((serialNumber == null) ? 0 : serialNumber.hashCode());
-        result = prime * result + ((productType == null) ? 0 : productType.hashCode());
-        result = prime * result + ((warehouseLocations == null) ? 0 : warehouseLocations.hashCode());
-        result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
-        result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
-        return result;
+        return serialNumber == null ? 0 : serialNumber.hashCode();
     }
 
+    // saved items compare by id, which a hibernate proxy answers without loading the item;
+    // the serial number only decides when either side is unsaved
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
+        if (!(obj instanceof InventoryItem other))
             return false;
-        if (getClass() != obj.getClass())
-            return false;
-        InventoryItem other = (InventoryItem) obj;
-        if (id == null) {
-            if (other.id != null)
-                return false;
-        } else if (!id.equals(other.id))
-            return false;
-        if (serialNumber == null) {
-            if (other.serialNumber != null)
-                return false;
-        } else if (!serialNumber.equals(other.serialNumber))
-            return false;
-        if (productType == null) {
-            if (other.productType != null)
-                return false;
-        } else if (!productType.equals(other.productType))
-            return false;
-        if (warehouseLocations == null) {
-            if (other.warehouseLocations != null)
-                return false;
-        } else if (!warehouseLocations.equals(other.warehouseLocations))
-            return false;
-        if (createdAt == null) {
-            if (other.createdAt != null)
-                return false;
-        } else if (!createdAt.equals(other.createdAt))
-            return false;
-        if (updatedAt == null) {
-            if (other.updatedAt != null)
-                return false;
-        } else if (!updatedAt.equals(other.updatedAt))
-            return false;
-        return true;
+        Integer otherId = other.getId();
+        if (id != null && otherId != null)
+            return id.equals(otherId);
+        return serialNumber != null && serialNumber.equals(other.getSerialNumber());
     }
 
+    // ids only, printing the product type or the locations could load them
     @Override
     public String toString() {
-        return "InventoryItem [id=" + id + ", serialNumber=" + serialNumber + ", productType=" + productType
-                + ", warehouseLocations=" + warehouseLocations + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt
-                + "]";
+        return "InventoryItem [id=" + id + ", serialNumber=" + serialNumber + ", productTypeId="
+                + (productType == null ? null : productType.getId()) + ", createdAt=" + createdAt
+                + ", updatedAt=" + updatedAt + "]";
     }
 
    
@@ -0,0 +1,157 @@
+package com.skillstormproject1.batstats.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One append-only ledger row: a warehouse location's quantity moved by delta.
+ *
+ * Rows are written with JDBC batches by InventoryLedgerRepository and never updated. The
+ * warehouse and item are plain ids rather than foreign keys so the history outlives deleted
+ * items and warehouses.
+ */
+@Entity
+@Table(name = "inventory_movements", indexes = {
+    @Index(name = "idx_inventory_movements_recorded_at", columnList = "recorded_at"),
+    @Index(name = "idx_inventory_movements_item", columnList = "item_id, id")
+})
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Integer warehouseId;
+
+    @Column(name = "item_id", nullable = false)
+    private Integer itemId;
+
+    // product type the units counted towards, feeds the per product type history
+    @Column(name = "product_type_id")
+    private Integer productTypeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private MovementType movementType;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    // quantity at the location once this movement applied, 0 when the location went away
+    @Column(name = "quantity_after", nullable = false)
+    private Integer quantityAfter;
+
+    // start time of the writing transaction, which is what point-in-time replays compare against
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public InventoryMovement() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Integer warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getProductTypeId() {
+        return productTypeId;
+    }
+
+    public void setProductTypeId(Integer productTypeId) {
+        this.productTypeId = productTypeId;
+    }
+
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    public void setMovementType(MovementType movementType) {
+        this.movementType = movementType;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getQuantityAfter() {
+        return quantityAfter;
+    }
+
+    public void setQuantityAfter(Integer quantityAfter) {
+        this.quantityAfter = quantityAfter;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        InventoryMovement other = (InventoryMovement) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryMovement [id=" + id + ", warehouseId=" + warehouseId + ", itemId=" + itemId
+                + ", productTypeId=" + productTypeId + ", movementType=" + movementType + ", delta=" + delta
+                + ", quantityAfter=" + quantityAfter + ", recordedAt=" + recordedAt + "]";
+    }
+
+}
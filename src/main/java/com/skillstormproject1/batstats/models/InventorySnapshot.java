@@ -0,0 +1,138 @@
+package com.skillstormproject1.batstats.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+// a compacted copy of every location's quantity as of coversThrough, the rows are InventorySnapshotEntry
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+    @Index(name = "idx_inventory_snapshots_covers_through", columnList = "covers_through")
+})
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // every movement recorded at or before this time is folded into the entries
+    @Column(name = "covers_through", nullable = false)
+    private LocalDateTime coversThrough;
+
+    // the snapshot this one was compacted from, null for the first
+    @Column(name = "base_snapshot_id")
+    private Long baseSnapshotId;
+
+    // movements folded in on top of the base snapshot
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount;
+
+    @Column(name = "location_count", nullable = false)
+    private Long locationCount;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    public InventorySnapshot() {
+    }
+
+    public InventorySnapshot(LocalDateTime coversThrough, Long baseSnapshotId) {
+        this.coversThrough = coversThrough;
+        this.baseSnapshotId = baseSnapshotId;
+        this.movementCount = 0L;
+        this.locationCount = 0L;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        takenAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getCoversThrough() {
+        return coversThrough;
+    }
+
+    public void setCoversThrough(LocalDateTime coversThrough) {
+        this.coversThrough = coversThrough;
+    }
+
+    public Long getBaseSnapshotId() {
+        return baseSnapshotId;
+    }
+
+    public void setBaseSnapshotId(Long baseSnapshotId) {
+        this.baseSnapshotId = baseSnapshotId;
+    }
+
+    public Long getMovementCount() {
+        return movementCount;
+    }
+
+    public void setMovementCount(Long movementCount) {
+        this.movementCount = movementCount;
+    }
+
+    public Long getLocationCount() {
+        return locationCount;
+    }
+
+    public void setLocationCount(Long locationCount) {
+        this.locationCount = locationCount;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public void setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        InventorySnapshot other = (InventorySnapshot) obj;
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySnapshot [id=" + id + ", coversThrough=" + coversThrough + ", baseSnapshotId="
+                + baseSnapshotId + ", movementCount=" + movementCount + ", locationCount=" + locationCount
+                + ", takenAt=" + takenAt + "]";
+    }
+
+}
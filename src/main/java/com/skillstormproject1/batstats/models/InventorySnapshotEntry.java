@@ -0,0 +1,106 @@
+package com.skillstormproject1.batstats.models;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// one location's quantity inside a snapshot, locations at 0 are left out
+@Entity
+@Table(name = "inventory_snapshot_entries")
+@IdClass(InventorySnapshotEntry.Key.class)
+public class InventorySnapshotEntry {
+
+    // the primary key (snapshot, warehouse, item) is also the index replays read through
+    @Id
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Id
+    @Column(name = "warehouse_id")
+    private Integer warehouseId;
+
+    @Id
+    @Column(name = "item_id")
+    private Integer itemId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    public InventorySnapshotEntry() {
+    }
+
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(Long snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public Integer getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Integer warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long snapshotId;
+        private Integer warehouseId;
+        private Integer itemId;
+
+        public Key() {
+        }
+
+        public Key(Long snapshotId, Integer warehouseId, Integer itemId) {
+            this.snapshotId = snapshotId;
+            this.warehouseId = warehouseId;
+            this.itemId = itemId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(snapshotId, warehouseId, itemId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key other))
+                return false;
+            return Objects.equals(snapshotId, other.snapshotId) && Objects.equals(warehouseId, other.warehouseId)
+                    && Objects.equals(itemId, other.itemId);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySnapshotEntry [snapshotId=" + snapshotId + ", warehouseId=" + warehouseId + ", itemId="
+                + itemId + ", quantity=" + quantity + "]";
+    }
+
+}
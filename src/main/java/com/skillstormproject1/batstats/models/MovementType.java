@@ -0,0 +1,17 @@
+package com.skillstormproject1.batstats.models;
+
+// why a warehouse location's quantity moved, stored with every inventory_movements row
+public enum MovementType {
+    // stock that was already there when the ledger started
+    OPENING_BALANCE,
+    ITEM_CREATED,
+    ITEM_DELETED,
+    ADDED,
+    ADJUSTED,
+    REMOVED,
+    TRANSFERRED_OUT,
+    TRANSFERRED_IN,
+    WAREHOUSE_DELETED,
+    // the item moved to another product type, recorded as a pair that cancels out per location
+    RECLASSIFIED
+}
@@ -3,10 +3,14 @@ package com.skillstormproject1.batstats.models;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -19,6 +23,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "product_types")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-types")   // catalog rarely changes, see caffeine.conf
 public class ProductType {
     
     @Id
@@ -37,7 +43,8 @@ public class ProductType {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @OneToMany(mappedBy = "productType", cascade = CascadeType.ALL, orphanRemoval = true)
+    // read side only, deletes go through BulkDeleteService instead of loading every item to cascade
+    @OneToMany(mappedBy = "productType")
     @JsonIgnore
     private List<InventoryItem> inventoryItems = new ArrayList<>();
 
@@ -129,71 +136,23 @@ public class ProductType {
 
    
 
+    // hashed on the unique name: set before the first save, so saving doesn't move a product type in a set,
+    // and the items are never read. A rename does move it, so don't rename one held in a set
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        result = prime * result + ((category == null) ? 0 : category.hashCode());
-        result = prime * result + ((unitOfMeasure == null) ? 0 : unitOfMeasure.hashCode());
-        result = prime * result + ((description == null) ? 0 : description.hashCode());
-        result = prime * result + ((inventoryItems == null) ? 0 : inventoryItems.hashCode());
-        result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
-        result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
-        return result;
+        return name == null ? 0 : name.hashCode();
     }
 
+    // identity is the id, an unsaved product type only equals itself; the name has to match as well
+    // to keep equal product types on one hash, so a copy loaded before a rename no longer equals one loaded after.
+    // instanceof and the getters so a hibernate proxy equals its product type
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        ProductType other = (ProductType) obj;
-        if (id == null) {
-            if (other.id != null)
-                return false;
-        } else if (!id.equals(other.id))
-            return false;
-        if (name == null) {
-            if (other.name != null)
-                return false;
-        } else if (!name.equals(other.name))
-            return false;
-        if (category == null) {
-            if (other.category != null)
-                return false;
-        } else if (!category.equals(other.category))
-            return false;
-        if (unitOfMeasure == null) {
-            if (other.unitOfMeasure != null)
-                return false;
-        } else if (!unitOfMeasure.equals(other.unitOfMeasure))
-            return false;
-        if (description == null) {
-            if (other.description != null)
-                return false;
-        } else if (!description.equals(other.description))
-            return false;
-        if (inventoryItems == null) {
-            if (other.inventoryItems != null)
-                return false;
-        } else if (!inventoryItems.equals(other.inventoryItems))
-            return false;
-        if (createdAt == null) {
-            if (other.createdAt != null)
-                return false;
-        } else if (!createdAt.equals(other.createdAt))
-            return false;
-        if (updatedAt == null) {
-            if (other.updatedAt != null)
-                return false;
-        } else if (!updatedAt.equals(other.updatedAt))
+        if (!(obj instanceof ProductType other))
             return false;
-        return true;
+        return id != null && id.equals(other.getId()) && Objects.equals(name, other.getName());
     }
 
     @Override
@@ -0,0 +1,48 @@
+package com.skillstormproject1.batstats.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// single row: how far the ledger has been rolled up into stock_level_buckets
+@Entity
+@Table(name = "stock_history_progress")
+public class StockHistoryProgress {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    // every movement recorded at or before this time is in the buckets
+    @Column(name = "rolled_through", nullable = false)
+    private LocalDateTime rolledThrough;
+
+    public StockHistoryProgress() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getRolledThrough() {
+        return rolledThrough;
+    }
+
+    public void setRolledThrough(LocalDateTime rolledThrough) {
+        this.rolledThrough = rolledThrough;
+    }
+
+    @Override
+    public String toString() {
+        return "StockHistoryProgress [id=" + id + ", rolledThrough=" + rolledThrough + "]";
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.skillstormproject1.batstats.models;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Stock of one warehouse or one product type over one hour, day or month.
+ *
+ * Rows are rolled up from inventory_movements by StockHistoryRepository with upserts, never
+ * through JPA. The primary key (granularity, dimension, dimension id, bucket start) is the
+ * conflict target of those upserts and the index history queries range-scan.
+ */
+@Entity
+@Table(name = "stock_level_buckets")
+@IdClass(StockLevelBucket.Key.class)
+public class StockLevelBucket {
+
+    public enum Dimension {
+        WAREHOUSE, PRODUCT_TYPE
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 5)
+    private HistoryGranularity granularity;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 12)
+    private Dimension dimension;
+
+    @Id
+    @Column(name = "dimension_id")
+    private Integer dimensionId;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "units_in", nullable = false)
+    private Long unitsIn;
+
+    @Column(name = "units_out", nullable = false)
+    private Long unitsOut;
+
+    @Column(nullable = false)
+    private Long movements;
+
+    // stock at the end of the bucket, buckets without movements are not stored
+    @Column(name = "closing_units", nullable = false)
+    private Long closingUnits;
+
+    public StockLevelBucket() {
+    }
+
+    public HistoryGranularity getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(HistoryGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(Dimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public Integer getDimensionId() {
+        return dimensionId;
+    }
+
+    public void setDimensionId(Integer dimensionId) {
+        this.dimensionId = dimensionId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getUnitsIn() {
+        return unitsIn;
+    }
+
+    public void setUnitsIn(Long unitsIn) {
+        this.unitsIn = unitsIn;
+    }
+
+    public Long getUnitsOut() {
+        return unitsOut;
+    }
+
+    public void setUnitsOut(Long unitsOut) {
+        this.unitsOut = unitsOut;
+    }
+
+    public Long getMovements() {
+        return movements;
+    }
+
+    public void setMovements(Long movements) {
+        this.movements = movements;
+    }
+
+    public Long getClosingUnits() {
+        return closingUnits;
+    }
+
+    public void setClosingUnits(Long closingUnits) {
+        this.closingUnits = closingUnits;
+    }
+
+    public static class Key implements Serializable {
+
+        private HistoryGranularity granularity;
+        private Dimension dimension;
+        private Integer dimensionId;
+        private LocalDateTime bucketStart;
+
+        public Key() {
+        }
+
+        public Key(HistoryGranularity granularity, Dimension dimension, Integer dimensionId, LocalDateTime bucketStart) {
+            this.granularity = granularity;
+            this.dimension = dimension;
+            this.dimensionId = dimensionId;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, dimension, dimensionId, bucketStart);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key other))
+                return false;
+            return granularity == other.granularity && dimension == other.dimension
+                    && Objects.equals(dimensionId, other.dimensionId) && Objects.equals(bucketStart, other.bucketStart);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StockLevelBucket [granularity=" + granularity + ", dimension=" + dimension + ", dimensionId="
+                + dimensionId + ", bucketStart=" + bucketStart + ", unitsIn=" + unitsIn + ", unitsOut=" + unitsOut
+                + ", movements=" + movements + ", closingUnits=" + closingUnits + "]";
+    }
+
+}
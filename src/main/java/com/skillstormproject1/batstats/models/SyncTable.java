@@ -0,0 +1,20 @@
+package com.skillstormproject1.batstats.models;
+
+// tables behind the list endpoints that support ETags and ?since deltas
+public enum SyncTable {
+
+    WAREHOUSES("warehouses"),
+    PRODUCT_TYPES("product_types"),
+    INVENTORY_ITEMS("inventory_items"),
+    WAREHOUSE_INVENTORY("warehouse_inventory");
+
+    private final String tableName;
+
+    SyncTable(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -4,11 +4,11 @@ package com.skillstormproject1.batstats.models;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -21,6 +21,8 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "warehouses")
+// not second-level cached: the capacity trigger rewrites current_capacity and updated_at behind
+// Hibernate's back, capacity reads go through WarehouseCapacityCache instead
 public class Warehouse {
    
     @Id
@@ -36,7 +38,8 @@ public class Warehouse {
     @Column(name="max_capacity", nullable = false)
     private Integer maxCapacity;
 
-    @Column(name="current_capacity", nullable = false)
+    // maintained by the warehouse_inventory trigger, never written back from a stale entity
+    @Column(name="current_capacity", nullable = false, updatable = false)
     private Integer currentCapacity = 0;
     
     @Column(length = 20)
@@ -49,7 +52,8 @@ public class Warehouse {
     private LocalDateTime updatedAt;
 
     // Many-to-many relationship through junction table
-    @OneToMany(mappedBy = "warehouse", cascade = CascadeType.ALL, orphanRemoval = true)
+    // read side only, deletes go through BulkDeleteService instead of loading every location to cascade
+    @OneToMany(mappedBy = "warehouse")
     @JsonIgnore
     private List<WarehouseInventory> inventoryItems = new ArrayList<>();
     
@@ -101,6 +105,8 @@ public class Warehouse {
     }
 
     // get number of unique items in this warehouse
+    // not serialized, it would load the whole inventory collection for every warehouse in a list
+    @JsonIgnore
     public Integer getUniqueItemCount() {
         return inventoryItems.size();
     }
@@ -178,86 +184,31 @@ public class Warehouse {
         this.inventoryItems = inventoryItems;
     }
 
+    // hashed on the name: set before the first save, so saving doesn't move a warehouse in a set,
+    // and the locations are never read. A rename does move it, so don't rename one held in a set
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        result = prime * result + ((location == null) ? 0 : location.hashCode());
-        result = prime * result + ((maxCapacity == null) ? 0 : maxCapacity.hashCode());
-        result = prime * result + ((currentCapacity == null) ? 0 : currentCapacity.hashCode());
-        result = prime * result + ((status == null) ? 0 : status.hashCode());
-        result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
-        result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
-        result = prime * result + ((inventoryItems == null) ? 0 : inventoryItems.hashCode());
-        return result;
+        return name == null ? 0 : name.hashCode();
     }
 
-    // Hash code and Equals
+    // identity is the id, an unsaved warehouse only equals itself; the name has to match as well
+    // to keep equal warehouses on one hash, so a copy loaded before a rename no longer equals one loaded after.
+    // instanceof and the getters so a hibernate proxy equals its warehouse
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        Warehouse other = (Warehouse) obj;
-        if (id == null) {
-            if (other.id != null)
-                return false;
-        } else if (!id.equals(other.id))
-            return false;
-        if (name == null) {
-            if (other.name != null)
-                return false;
-        } else if (!name.equals(other.name))
-            return false;
-        if (location == null) {
-            if (other.location != null)
-                return false;
-        } else if (!location.equals(other.location))
-            return false;
-        if (maxCapacity == null) {
-            if (other.maxCapacity != null)
-                return false;
-        } else if (!maxCapacity.equals(other.maxCapacity))
-            return false;
-        if (currentCapacity == null) {
-            if (other.currentCapacity != null)
-                return false;
-        } else if (!currentCapacity.equals(other.currentCapacity))
-            return false;
-        if (status == null) {
-            if (other.status != null)
-                return false;
-        } else if (!status.equals(other.status))
-            return false;
-        if (createdAt == null) {
-            if (other.createdAt != null)
-                return false;
-        } else if (!createdAt.equals(other.createdAt))
-            return false;
-        if (updatedAt == null) {
-            if (other.updatedAt != null)
-                return false;
-        } else if (!updatedAt.equals(other.updatedAt))
-            return false;
-        if (inventoryItems == null) {
-            if (other.inventoryItems != null)
-                return false;
-        } else if (!inventoryItems.equals(other.inventoryItems))
+        if (!(obj instanceof Warehouse other))
             return false;
-        return true;
+        return id != null && id.equals(other.getId()) && Objects.equals(name, other.getName());
     }
 
-    // ToString
+    // ToString, without the locations
     @Override
     public String toString() {
         return "Warehouse [id=" + id + ", name=" + name + ", location=" + location + ", maxCapacity=" + maxCapacity
                 + ", currentCapacity=" + currentCapacity + ", status=" + status + ", createdAt=" + createdAt
-                + ", updatedAt=" + updatedAt + ", inventoryItems=" + inventoryItems + "]";
+                + ", updatedAt=" + updatedAt + "]";
     }
 
 
@@ -1,6 +1,7 @@
 package com.skillstormproject1.batstats.models;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -28,7 +29,8 @@ public class WarehouseInventory {
     @JoinColumn(name = "warehouse_id", nullable = false)
     private Warehouse warehouse;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // lazy, it is never serialized and the owning item is usually already loaded
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "inventory_item_id", nullable = false)
     @JsonIgnore
     private InventoryItem inventoryItem;
@@ -110,65 +112,40 @@ public class WarehouseInventory {
         this.updatedAt = updatedAt;
     }
 
+    // identity is the (warehouse, item) pair, unique in the table and set by the constructor before the first save
+    // both ids come through getId(), which a lazy item proxy answers without loading the item
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        result = prime * result + ((warehouse == null) ? 0 : warehouse.hashCode());
-        result = prime * result + ((inventoryItem == null) ? 0 : inventoryItem.hashCode());
-        result = prime * result + ((quantity == null) ? 0 : quantity.hashCode());
-        result = prime * result + ((createdAt == null) ? 0 : createdAt.hashCode());
-        result = prime * result + ((updatedAt == null) ? 0 : updatedAt.hashCode());
-        return result;
+        return 31 * Objects.hashCode(warehouseId(this)) + Objects.hashCode(itemId(this));
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        WarehouseInventory other = (WarehouseInventory) obj;
-        if (id == null) {
-            if (other.id != null)
-                return false;
-        } else if (!id.equals(other.id))
-            return false;
-        if (warehouse == null) {
-            if (other.warehouse != null)
-                return false;
-        } else if (!warehouse.equals(other.warehouse))
-            return false;
-        if (inventoryItem == null) {
-            if (other.inventoryItem != null)
-                return false;
-        } else if (!inventoryItem.equals(other.inventoryItem))
-            return false;
-        if (quantity == null) {
-            if (other.quantity != null)
-                return false;
-        } else if (!quantity.equals(other.quantity))
+        if (!(obj instanceof WarehouseInventory other))
             return false;
-        if (createdAt == null) {
-            if (other.createdAt != null)
-                return false;
-        } else if (!createdAt.equals(other.createdAt))
-            return false;
-        if (updatedAt == null) {
-            if (other.updatedAt != null)
-                return false;
-        } else if (!updatedAt.equals(other.updatedAt))
-            return false;
-        return true;
+        Integer warehouseId = warehouseId(this);
+        Integer itemId = itemId(this);
+        return warehouseId != null && itemId != null
+            && warehouseId.equals(warehouseId(other)) && itemId.equals(itemId(other));
     }
 
+    // ids only, the warehouse and item would print (and load) their own graphs
     @Override
     public String toString() {
-        return "WarehouseInventory [id=" + id + ", warehouse=" + warehouse + ", inventoryItem=" + inventoryItem
+        return "WarehouseInventory [id=" + id + ", warehouseId=" + warehouseId(this) + ", itemId=" + itemId(this)
                 + ", quantity=" + quantity + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + "]";
     }
 
+    private static Integer warehouseId(WarehouseInventory location) {
+        Warehouse warehouse = location.getWarehouse();
+        return warehouse == null ? null : warehouse.getId();
+    }
+
+    private static Integer itemId(WarehouseInventory location) {
+        InventoryItem item = location.getInventoryItem();
+        return item == null ? null : item.getId();
+    }
+
 }
@@ -0,0 +1,14 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.time.LocalDateTime;
+
+// an inserted location with the warehouse columns the capacity lock doesn't read, enough to answer without a reload
+public interface AddedLocationView extends LocationWriteView {
+
+    String getWarehouseLocation();
+
+    LocalDateTime getWarehouseCreatedAt();
+
+    // when the capacity trigger stamps the row, it runs after the statement's snapshot was taken
+    LocalDateTime getWarehouseUpdatedAt();
+}
@@ -0,0 +1,135 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository     // set-based chunk deletes for warehouses and product types, bypasses JPA so no child graph is loaded
+public class BulkDeleteRepository {
+
+    // the next chunk of a warehouse's locations, each leaving a tombstone for the ?since deltas and,
+    // unless the ledger is off, a WAREHOUSE_DELETED movement
+    private static final String DELETE_WAREHOUSE_LOCATIONS_SQL =
+        "WITH removed AS (" +
+        "DELETE FROM warehouse_inventory WHERE id IN (" +
+        "SELECT id FROM warehouse_inventory WHERE warehouse_id = ? ORDER BY id LIMIT ?) " +
+        "RETURNING warehouse_id, inventory_item_id, quantity), " +
+        "tombstones AS (" +
+        "INSERT INTO deleted_records (table_name, record_id, deleted_at) " +
+        "SELECT 'WAREHOUSE_INVENTORY', inventory_item_id, ? FROM removed), " +
+        "movements AS (" +
+        "INSERT INTO inventory_movements " +
+        "(warehouse_id, item_id, product_type_id, movement_type, delta, quantity_after, recorded_at) " +
+        "SELECT r.warehouse_id, r.inventory_item_id, i.product_type_id, 'WAREHOUSE_DELETED', -r.quantity, 0, " +
+        "localtimestamp FROM removed r JOIN inventory_items i ON i.id = r.inventory_item_id WHERE ?) " +
+        "SELECT warehouse_id, inventory_item_id, quantity FROM removed";
+
+    private static final String FIND_ITEM_IDS_SQL =
+        "SELECT id FROM inventory_items WHERE product_type_id = ? ORDER BY id LIMIT ?";
+
+    private static final String FIND_WAREHOUSE_IDS_SQL =
+        "SELECT DISTINCT warehouse_id FROM warehouse_inventory WHERE inventory_item_id = ANY (?)";
+
+    // FOR UPDATE conflicts with the key share lock a new location takes on its item
+    private static final String LOCK_ITEMS_SQL =
+        "SELECT id FROM inventory_items WHERE id = ANY (?) AND product_type_id = ? ORDER BY id FOR UPDATE";
+
+    // an ITEM_DELETED movement per location unless the ledger is off, under the product type being deleted
+    private static final String DELETE_ITEM_LOCATIONS_SQL =
+        "WITH removed AS (" +
+        "DELETE FROM warehouse_inventory WHERE inventory_item_id = ANY (?) " +
+        "RETURNING warehouse_id, inventory_item_id, quantity), " +
+        "movements AS (" +
+        "INSERT INTO inventory_movements " +
+        "(warehouse_id, item_id, product_type_id, movement_type, delta, quantity_after, recorded_at) " +
+        "SELECT warehouse_id, inventory_item_id, ?, 'ITEM_DELETED', -quantity, 0, localtimestamp FROM removed WHERE ?) " +
+        "SELECT warehouse_id, inventory_item_id, quantity FROM removed";
+
+    private static final String DELETE_ITEMS_SQL =
+        "WITH removed AS (DELETE FROM inventory_items WHERE id = ANY (?) RETURNING id) " +
+        "INSERT INTO deleted_records (table_name, record_id, deleted_at) " +
+        "SELECT 'INVENTORY_ITEMS', id, ? FROM removed";
+
+    // item creation takes a key share lock on its product type, so this keeps new items out
+    private static final String LOCK_PRODUCT_TYPE_SQL =
+        "SELECT id FROM product_types WHERE id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkDeleteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // one location a chunk removed
+    public static class RemovedLocation {
+
+        private final Integer warehouseId;
+        private final Integer itemId;
+        private final int quantity;
+
+        public RemovedLocation(Integer warehouseId, Integer itemId, int quantity) {
+            this.warehouseId = warehouseId;
+            this.itemId = itemId;
+            this.quantity = quantity;
+        }
+
+        public Integer getWarehouseId() {
+            return warehouseId;
+        }
+
+        public Integer getItemId() {
+            return itemId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    // call with the warehouse locked, the capacity trigger runs once for the whole chunk
+    public List<RemovedLocation> deleteWarehouseLocations(Integer warehouseId, int limit, LocalDateTime deletedAt,
+                                                          boolean recordMovements) {
+        return jdbcTemplate.query(DELETE_WAREHOUSE_LOCATIONS_SQL, (rs, row) -> new RemovedLocation(
+            rs.getInt("warehouse_id"), rs.getInt("inventory_item_id"), rs.getInt("quantity")),
+            warehouseId, limit, Timestamp.valueOf(deletedAt), recordMovements);
+    }
+
+    public List<Integer> findItemIds(Integer productTypeId, int limit) {
+        return jdbcTemplate.queryForList(FIND_ITEM_IDS_SQL, Integer.class, productTypeId, limit);
+    }
+
+    // warehouses holding any of the items
+    public List<Integer> findWarehouseIds(List<Integer> itemIds) {
+        return jdbcTemplate.queryForList(FIND_WAREHOUSE_IDS_SQL, Integer.class, (Object) toArray(itemIds));
+    }
+
+    // the items that are still of this product type, locked until commit
+    public List<Integer> lockItems(List<Integer> itemIds, Integer productTypeId) {
+        return jdbcTemplate.queryForList(LOCK_ITEMS_SQL, Integer.class, toArray(itemIds), productTypeId);
+    }
+
+    // call with every warehouse holding the items locked
+    public List<RemovedLocation> deleteItemLocations(List<Integer> itemIds, Integer productTypeId,
+                                                     boolean recordMovements) {
+        return jdbcTemplate.query(DELETE_ITEM_LOCATIONS_SQL, (rs, row) -> new RemovedLocation(
+            rs.getInt("warehouse_id"), rs.getInt("inventory_item_id"), rs.getInt("quantity")),
+            toArray(itemIds), productTypeId, recordMovements);
+    }
+
+    // delete items without locations, each leaving a tombstone, returns how many went
+    public int deleteItems(List<Integer> itemIds, LocalDateTime deletedAt) {
+        return jdbcTemplate.update(DELETE_ITEMS_SQL, toArray(itemIds), Timestamp.valueOf(deletedAt));
+    }
+
+    // false when the product type doesn't exist
+    public boolean lockProductType(Integer productTypeId) {
+        return !jdbcTemplate.queryForList(LOCK_PRODUCT_TYPE_SQL, Integer.class, productTypeId).isEmpty();
+    }
+
+    private static Integer[] toArray(List<Integer> ids) {
+        return ids.toArray(Integer[]::new);
+    }
+}
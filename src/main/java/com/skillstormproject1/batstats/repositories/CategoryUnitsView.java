@@ -0,0 +1,9 @@
+package com.skillstormproject1.batstats.repositories;
+
+// units on hand for one product category, from a GROUP BY over warehouse_inventory
+public interface CategoryUnitsView {
+
+    String getCategory();
+
+    Long getUnits();
+}
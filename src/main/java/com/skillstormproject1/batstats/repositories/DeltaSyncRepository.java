@@ -0,0 +1,77 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.models.SyncTable;
+
+@Repository     // JDBC access to deleted_records tombstones and the change markers ?since deltas and ETags are built on
+public class DeltaSyncRepository {
+
+    private static final String INSERT_TOMBSTONE_SQL =
+        "INSERT INTO deleted_records (table_name, record_id, deleted_at) VALUES (?, ?, ?)";
+
+    // an item changed when its own row, one of its locations or its location list did
+    private static final String CHANGED_ITEM_IDS_SQL =
+        "SELECT id FROM inventory_items WHERE updated_at > ? " +
+        "UNION SELECT inventory_item_id FROM warehouse_inventory WHERE updated_at > ? " +
+        "UNION SELECT record_id FROM deleted_records WHERE table_name = 'WAREHOUSE_INVENTORY' AND deleted_at > ?";
+
+    // newest write per table: max(updated_at) catches inserts and updates, the newest tombstone catches deletes
+    private static final String LATEST_CHANGES_SQL =
+        "SELECT 'WAREHOUSES' AS sync_table, max(updated_at)::text AS latest FROM warehouses " +
+        "UNION ALL SELECT 'PRODUCT_TYPES', max(updated_at)::text FROM product_types " +
+        "UNION ALL SELECT 'INVENTORY_ITEMS', max(updated_at)::text FROM inventory_items " +
+        "UNION ALL SELECT 'WAREHOUSE_INVENTORY', max(updated_at)::text FROM warehouse_inventory " +
+        "UNION ALL SELECT table_name, max(id)::text FROM deleted_records GROUP BY table_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeltaSyncRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertTombstone(SyncTable table, Integer recordId, LocalDateTime deletedAt) {
+        jdbcTemplate.update(INSERT_TOMBSTONE_SQL, table.name(), recordId, Timestamp.valueOf(deletedAt));
+    }
+
+    // the database clock less the settle window; localtimestamp is fixed when the transaction starts, so inside
+    // the reading transaction this is taken before any of its rows
+    public LocalDateTime findWatermark(Duration settle) {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp - make_interval(secs => ?)",
+            LocalDateTime.class, settle.toMillis() / 1000.0);
+    }
+
+    // ids of rows of the table deleted after since
+    public List<Integer> findDeletedIds(SyncTable table, LocalDateTime since) {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT record_id FROM deleted_records WHERE table_name = ? AND deleted_at > ? ORDER BY record_id",
+            Integer.class, table.name(), Timestamp.valueOf(since));
+    }
+
+    public List<Integer> findChangedItemIds(LocalDateTime since) {
+        Timestamp after = Timestamp.valueOf(since);
+        return jdbcTemplate.queryForList(CHANGED_ITEM_IDS_SQL, Integer.class, after, after, after);
+    }
+
+    // one marker per table that changes whenever a row of it is written or deleted, from any node
+    public Map<SyncTable, String> findLatestChanges() {
+        Map<SyncTable, String> latest = new EnumMap<>(SyncTable.class);
+        jdbcTemplate.query(LATEST_CHANGES_SQL, rs -> {
+            SyncTable table = SyncTable.valueOf(rs.getString("sync_table"));
+            latest.merge(table, String.valueOf(rs.getString("latest")), (rows, tombstones) -> rows + "/" + tombstones);
+        });
+        return latest;
+    }
+
+    public int deleteTombstonesBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM deleted_records WHERE deleted_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
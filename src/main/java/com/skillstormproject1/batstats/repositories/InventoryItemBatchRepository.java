@@ -0,0 +1,116 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository     // set-based JDBC writes for bulk item ingestion, bypasses JPA so inserts are not held back by IDENTITY ids
+public class InventoryItemBatchRepository {
+
+    // rows per JDBC batch or lookup, with reWriteBatchedInserts the driver folds each batch into multi-row inserts
+    public static final int BATCH_SIZE = 1000;
+
+    // every item in one statement, the ids come back with their serial numbers
+    private static final String INSERT_ITEMS_SQL =
+        "INSERT INTO inventory_items (serial_number, product_type_id, created_at, updated_at) " +
+        "SELECT t.serial_number, t.product_type_id, ?, ? FROM unnest(?::varchar[], ?::int[]) AS t(serial_number, product_type_id) " +
+        "RETURNING id, serial_number";
+
+    // every location in one statement, so the statement-level capacity trigger runs once
+    private static final String INSERT_LOCATIONS_SQL =
+        "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+        "SELECT t.warehouse_id, t.item_id, t.quantity, ?, ? FROM unnest(?::int[], ?::int[], ?::int[]) AS t(warehouse_id, item_id, quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryItemBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // one row to write for a bulk created item
+    public static class NewItemRow {
+
+        private final String serialNumber;
+        private final Integer productTypeId;
+        private final Integer warehouseId;
+        private final Integer quantity;
+        // set once the item is inserted
+        private Integer id;
+
+        public NewItemRow(String serialNumber, Integer productTypeId, Integer warehouseId, Integer quantity) {
+            this.serialNumber = serialNumber;
+            this.productTypeId = productTypeId;
+            this.warehouseId = warehouseId;
+            this.quantity = quantity;
+        }
+
+        public String getSerialNumber() {
+            return serialNumber;
+        }
+
+        public Integer getProductTypeId() {
+            return productTypeId;
+        }
+
+        public Integer getWarehouseId() {
+            return warehouseId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public boolean hasLocation() {
+            return warehouseId != null && quantity != null;
+        }
+    }
+
+    // insert the items and set the id of every row
+    public void insertItems(List<NewItemRow> rows, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Map<String, NewItemRow> bySerial = new HashMap<>();
+        rows.forEach(row -> bySerial.put(row.getSerialNumber(), row));
+        jdbcTemplate.query(INSERT_ITEMS_SQL, ps -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar",
+                rows.stream().map(NewItemRow::getSerialNumber).toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("int4",
+                rows.stream().map(NewItemRow::getProductTypeId).toArray()));
+        }, rs -> {
+            bySerial.get(rs.getString("serial_number")).setId(rs.getInt("id"));
+        });
+    }
+
+    // insert the initial warehouse locations for the rows that have one, after insertItems
+    public void insertLocations(List<NewItemRow> rows, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<NewItemRow> withLocation = rows.stream().filter(NewItemRow::hasLocation).toList();
+        if (withLocation.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_LOCATIONS_SQL, ps -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setTimestamp(2, timestamp);
+            ps.setArray(3, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getWarehouseId).toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getId).toArray()));
+            ps.setArray(5, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getQuantity).toArray()));
+        });
+    }
+}
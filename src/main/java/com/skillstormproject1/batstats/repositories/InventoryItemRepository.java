@@ -1,15 +1,23 @@
 package com.skillstormproject1.batstats.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.skillstormproject1.batstats.models.InventoryItem;
 
+import jakarta.persistence.QueryHint;
+
 @Repository     // Repository Interface for InventoryItems
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Integer> {
 
@@ -20,33 +28,125 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, In
      *      findByProductType
      *      existsSerialNum
      *      search
+     *
+     *  Listing queries use the "item with locations" entity graph so the product type,
+     *  every location and each location's warehouse come back in the same select
+     *  instead of one extra select per item
      */
 
+    // find every item with its product type and locations in one select
+    @Override
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations", "warehouseLocations.warehouse"})
+    List<InventoryItem> findAll();
+
     // find a item by the serial num
     Optional<InventoryItem> findBySerialNumber(String serialNumber);
 
     // check if a serial num exists
     boolean existsBySerialNumber(String serialNumber);
 
+    // which of these serial numbers are already taken
+    @Query("SELECT i.serialNumber FROM InventoryItem i WHERE i.serialNumber IN :serialNumbers")
+    List<String> findExistingSerialNumbers(@Param("serialNumbers") Collection<String> serialNumbers);
+
     // find all inventory items of a certain product type
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations", "warehouseLocations.warehouse"})
     List<InventoryItem> findByProductTypeId(Integer productTypeId);
 
-    // search itesm by serial number or product name
-    @Query("SELECT DISTINCT i FROM InventoryItem i " +
-           "LEFT JOIN FETCH i.productType pt " +
-           "WHERE LOWER(i.serialNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
-           "OR LOWER(pt.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<InventoryItem> searchItems(@Param("searchTerm") String searchTerm);
+    // ranked search over serial numbers and product names, returns item ids best match first
+    // exact serial, then serial prefix, then product name prefix, then trigram similarity
+    // each branch of the union can use its pg_trgm index (DB/migrations/001_inventory_search_indexes.sql)
+    @Query(value = "SELECT i.id FROM inventory_items i " +
+                   "JOIN product_types pt ON pt.id = i.product_type_id " +
+                   "WHERE i.id IN (" +
+                   "    SELECT s.id FROM inventory_items s WHERE s.serial_number ILIKE :pattern " +
+                   "    UNION " +
+                   "    SELECT n.id FROM inventory_items n JOIN product_types np ON np.id = n.product_type_id " +
+                   "    WHERE np.name ILIKE :pattern) " +
+                   "ORDER BY CASE " +
+                   "    WHEN lower(i.serial_number) = lower(:term) THEN 0 " +
+                   "    WHEN lower(i.serial_number) LIKE :prefix THEN 1 " +
+                   "    WHEN lower(pt.name) LIKE :prefix THEN 2 " +
+                   "    ELSE 3 END, " +
+                   "GREATEST(similarity(i.serial_number, :term), similarity(pt.name, :term)) DESC, " +
+                   "i.id " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    List<Integer> searchItemIds(@Param("term") String term,
+                                @Param("pattern") String pattern,
+                                @Param("prefix") String prefix,
+                                @Param("limit") int limit);
+
+    // typeahead suggestions, serial numbers and product names starting with the prefix
+    @Query(value = "SELECT suggestion FROM (" +
+                   "    (SELECT serial_number AS suggestion FROM inventory_items " +
+                   "     WHERE lower(serial_number) LIKE :prefix ORDER BY lower(serial_number) LIMIT :limit) " +
+                   "    UNION ALL " +
+                   "    (SELECT name AS suggestion FROM product_types " +
+                   "     WHERE lower(name) LIKE :prefix ORDER BY lower(name) LIMIT :limit)" +
+                   ") suggestions ORDER BY length(suggestion), suggestion LIMIT :limit",
+           nativeQuery = true)
+    List<String> suggest(@Param("prefix") String prefix, @Param("limit") int limit);
 
     // find items with multiple warehouse locations
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations", "warehouseLocations.warehouse"})
     @Query("SELECT i FROM InventoryItem i " +
            "WHERE SIZE(i.warehouseLocations) > 1")
     List<InventoryItem> findItemsInMultipleWarehouses();
 
     // find items not in any warehouse 
+    // (the empty locations collection is still fetched, otherwise it is one select per item)
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations"})
     @Query("SELECT i FROM InventoryItem i " +
            "WHERE SIZE(i.warehouseLocations) = 0")
     List<InventoryItem> findItemsWithoutLocation();
 
+    // keyset page of item ids ordered by id, starting after the cursor id
+    // (ids first so the row limit is applied in SQL, not in memory after a collection fetch)
+    @Query("SELECT i.id FROM InventoryItem i WHERE i.id > :afterId ORDER BY i.id")
+    List<Integer> findIdsAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    // load a set of items with their product type and locations in one select
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations", "warehouseLocations.warehouse"})
+    @Query("SELECT i FROM InventoryItem i WHERE i.id IN :ids ORDER BY i.id")
+    List<InventoryItem> findAllWithLocationsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // stream every item in id order off a JDBC cursor instead of loading one big list
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = {"productType", "warehouseLocations", "warehouseLocations.warehouse"})
+    @Query("SELECT i FROM InventoryItem i ORDER BY i.id")
+    Stream<InventoryItem> streamAllOrderedById();
+
+    // category of one item without loading the item and its locations
+    @Query("SELECT i.productType.category FROM InventoryItem i WHERE i.id = :id")
+    Optional<String> findCategoryById(@Param("id") Integer id);
+
+    // lock an item row; FOR UPDATE also blocks the key share lock a new location's foreign key takes
+    @Query(value = "SELECT id FROM inventory_items WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockById(@Param("id") Integer id);
+
+    // lock several item rows in id order, after their warehouses
+    @Query(value = "SELECT id FROM inventory_items WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Integer> lockAllById(@Param("ids") Collection<Integer> ids);
+
+    // units on hand per category, used to build and check the dashboard totals
+    @Query(value = "SELECT pt.category AS category, SUM(wi.quantity) AS units " +
+                   "FROM warehouse_inventory wi " +
+                   "JOIN inventory_items i ON i.id = wi.inventory_item_id " +
+                   "JOIN product_types pt ON pt.id = i.product_type_id " +
+                   "GROUP BY pt.category",
+           nativeQuery = true)
+    List<CategoryUnitsView> sumUnitsByCategory();
 
+    // how many items have no location, and how many are in more than one warehouse
+    @Query(value = "SELECT count(*) AS totalItems, " +
+                   "count(*) FILTER (WHERE locations = 0) AS withoutLocation, " +
+                   "count(*) FILTER (WHERE locations >= 2) AS multiLocation " +
+                   "FROM (SELECT i.id, count(wi.id) AS locations FROM inventory_items i " +
+                   "LEFT JOIN warehouse_inventory wi ON wi.inventory_item_id = i.id GROUP BY i.id) counts",
+           nativeQuery = true)
+    ItemLocationTotalsView countItemsByLocationCount();
 }
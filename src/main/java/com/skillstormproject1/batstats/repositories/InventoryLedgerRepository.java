@@ -0,0 +1,196 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.dtos.StockLevelDTO;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.models.InventorySnapshot;
+import com.skillstormproject1.batstats.repositories.InventoryItemBatchRepository.NewItemRow;
+
+/**
+ * JDBC access to the inventory_movements ledger and its snapshots.
+ *
+ * Movements are stamped with localtimestamp, the start of the writing transaction. A snapshot
+ * only folds in movements up to a cutoff that lies before every transaction still open, so a
+ * movement can never commit behind a snapshot that claims to cover it.
+ */
+@Repository
+public class InventoryLedgerRepository {
+
+    // the product type is looked up by primary key unless the event names one
+    private static final String INSERT_MOVEMENT_SQL =
+        "INSERT INTO inventory_movements " +
+        "(warehouse_id, item_id, product_type_id, movement_type, delta, quantity_after, recorded_at) " +
+        "VALUES (?, ?, coalesce(?, (SELECT product_type_id FROM inventory_items WHERE id = ?)), ?, ?, ?, localtimestamp)";
+
+    // one statement for every location of a bulk create, like the location insert itself
+    private static final String INSERT_CREATED_SQL =
+        "INSERT INTO inventory_movements " +
+        "(warehouse_id, item_id, product_type_id, movement_type, delta, quantity_after, recorded_at) " +
+        "SELECT t.warehouse_id, t.item_id, t.product_type_id, 'ITEM_CREATED', t.quantity, t.quantity, localtimestamp " +
+        "FROM unnest(?::int[], ?::int[], ?::int[], ?::int[]) AS t(warehouse_id, item_id, product_type_id, quantity)";
+
+    // the self-conflicting lock keeps writers (and a second node starting up) out while the balances are copied
+    private static final String INSERT_OPENING_BALANCES_SQL =
+        "INSERT INTO inventory_movements " +
+        "(warehouse_id, item_id, product_type_id, movement_type, delta, quantity_after, recorded_at) " +
+        "SELECT wi.warehouse_id, wi.inventory_item_id, i.product_type_id, 'OPENING_BALANCE', wi.quantity, " +
+        "wi.quantity, localtimestamp FROM warehouse_inventory wi JOIN inventory_items i ON i.id = wi.inventory_item_id " +
+        "WHERE wi.quantity <> 0";
+
+    // older than the settle period and older than the start of every other open transaction
+    private static final String SAFE_CUTOFF_SQL =
+        "SELECT least(localtimestamp - make_interval(secs => ?), " +
+        "(SELECT min(xact_start)::timestamp - interval '1 microsecond' FROM pg_stat_activity " +
+        " WHERE datname = current_database() AND xact_start IS NOT NULL AND pid <> pg_backend_pid()))";
+
+    // previous snapshot plus everything recorded since, summed per location
+    private static final String COMPACT_SQL =
+        "INSERT INTO inventory_snapshot_entries (snapshot_id, warehouse_id, item_id, quantity) " +
+        "SELECT ?, warehouse_id, item_id, sum(quantity) FROM (" +
+        " SELECT warehouse_id, item_id, quantity FROM inventory_snapshot_entries WHERE snapshot_id = ?" +
+        " UNION ALL" +
+        " SELECT warehouse_id, item_id, delta FROM inventory_movements WHERE recorded_at > ? AND recorded_at <= ?" +
+        ") folded GROUP BY warehouse_id, item_id HAVING sum(quantity) <> 0";
+
+    private static final String COMPACT_FIRST_SQL =
+        "INSERT INTO inventory_snapshot_entries (snapshot_id, warehouse_id, item_id, quantity) " +
+        "SELECT ?, warehouse_id, item_id, sum(delta) FROM inventory_movements WHERE recorded_at <= ? " +
+        "GROUP BY warehouse_id, item_id HAVING sum(delta) <> 0";
+
+    // arbitrary advisory lock key for the snapshot job
+    private static final long SNAPSHOT_LOCK_KEY = 0x6261_7473_6c65_6467L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryLedgerRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // one JDBC batch for every movement of a transaction
+    public void insertMovements(List<StockChangedEvent> movements) {
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements, InventoryItemBatchRepository.BATCH_SIZE, (ps, movement) -> {
+            ps.setInt(1, movement.getWarehouseId());
+            ps.setInt(2, movement.getItemId());
+            ps.setObject(3, movement.getProductTypeId(), Types.INTEGER);
+            ps.setInt(4, movement.getItemId());
+            ps.setString(5, movement.getType().name());
+            ps.setInt(6, movement.getDelta());
+            ps.setInt(7, movement.getQuantity());
+        });
+    }
+
+    // the initial locations of bulk created items, after insertItems has set their ids
+    public void insertCreatedLocations(List<NewItemRow> rows) {
+        List<NewItemRow> withLocation = rows.stream().filter(NewItemRow::hasLocation).toList();
+        if (withLocation.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_CREATED_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getWarehouseId).toArray()));
+            ps.setArray(2, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getId).toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getProductTypeId).toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("int4",
+                withLocation.stream().map(NewItemRow::getQuantity).toArray()));
+        });
+    }
+
+    // copy the current stock into an empty ledger, returns -1 when the ledger already has rows
+    public int insertOpeningBalancesIfEmpty() {
+        if (ledgerStarted()) {
+            return -1;
+        }
+        jdbcTemplate.execute("LOCK TABLE warehouse_inventory IN SHARE ROW EXCLUSIVE MODE");
+        // check again, another node may have got the lock first
+        if (ledgerStarted()) {
+            return -1;
+        }
+        return jdbcTemplate.update(INSERT_OPENING_BALANCES_SQL);
+    }
+
+    private boolean ledgerStarted() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM inventory_movements)", Boolean.class));
+    }
+
+    // transaction-scoped advisory lock so only one node compacts at a time
+    public boolean tryLockSnapshots() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, SNAPSHOT_LOCK_KEY));
+    }
+
+    public LocalDateTime safeCutoff(Duration settle) {
+        return jdbcTemplate.queryForObject(SAFE_CUTOFF_SQL, LocalDateTime.class, settle.toMillis() / 1000.0);
+    }
+
+    // fold the base snapshot (if any) and the movements after it, up to coversThrough, into the snapshot's entries
+    public int insertSnapshotEntries(Long snapshotId, InventorySnapshot base, LocalDateTime coversThrough) {
+        Timestamp through = Timestamp.valueOf(coversThrough);
+        if (base == null) {
+            return jdbcTemplate.update(COMPACT_FIRST_SQL, snapshotId, through);
+        }
+        return jdbcTemplate.update(COMPACT_SQL, snapshotId, base.getId(),
+            Timestamp.valueOf(base.getCoversThrough()), through);
+    }
+
+    // movements recorded after from (all of them for null) up to through
+    public long countMovements(LocalDateTime from, LocalDateTime through) {
+        if (from == null) {
+            return jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_movements WHERE recorded_at <= ?",
+                Long.class, Timestamp.valueOf(through));
+        }
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM inventory_movements WHERE recorded_at > ? AND recorded_at <= ?",
+            Long.class, Timestamp.valueOf(from), Timestamp.valueOf(through));
+    }
+
+    public int deleteSnapshotEntries(Long snapshotId) {
+        return jdbcTemplate.update("DELETE FROM inventory_snapshot_entries WHERE snapshot_id = ?", snapshotId);
+    }
+
+    // replay: the snapshot's entries plus the movements recorded after it, up to at
+    public List<StockLevelDTO> stockAt(InventorySnapshot snapshot, LocalDateTime at, Integer warehouseId, Integer itemId) {
+        StringBuilder filter = new StringBuilder();
+        List<Object> filterArgs = new ArrayList<>();
+        if (warehouseId != null) {
+            filter.append(" AND warehouse_id = ?");
+            filterArgs.add(warehouseId);
+        }
+        if (itemId != null) {
+            filter.append(" AND item_id = ?");
+            filterArgs.add(itemId);
+        }
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT warehouse_id, item_id, sum(quantity) AS quantity FROM (");
+        if (snapshot != null) {
+            sql.append("SELECT warehouse_id, item_id, quantity FROM inventory_snapshot_entries WHERE snapshot_id = ?")
+                .append(filter).append(" UNION ALL ");
+            args.add(snapshot.getId());
+            args.addAll(filterArgs);
+        }
+        sql.append("SELECT warehouse_id, item_id, delta AS quantity FROM inventory_movements WHERE recorded_at <= ?");
+        args.add(Timestamp.valueOf(at));
+        if (snapshot != null) {
+            sql.append(" AND recorded_at > ?");
+            args.add(Timestamp.valueOf(snapshot.getCoversThrough()));
+        }
+        sql.append(filter)
+            .append(") replayed GROUP BY warehouse_id, item_id HAVING sum(quantity) <> 0 ORDER BY warehouse_id, item_id");
+        args.addAll(filterArgs);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new StockLevelDTO(
+            rs.getInt("warehouse_id"), rs.getInt("item_id"), rs.getLong("quantity")), args.toArray());
+    }
+}
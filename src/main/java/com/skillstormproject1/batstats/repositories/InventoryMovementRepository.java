@@ -0,0 +1,18 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.models.InventoryMovement;
+
+@Repository     // Repository Interface for reading the movement ledger, writes go through InventoryLedgerRepository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    // newest first, both use the (item_id, id) index
+    List<InventoryMovement> findByItemIdOrderByIdDesc(Integer itemId, Limit limit);
+
+    List<InventoryMovement> findByItemIdAndWarehouseIdOrderByIdDesc(Integer itemId, Integer warehouseId, Limit limit);
+}
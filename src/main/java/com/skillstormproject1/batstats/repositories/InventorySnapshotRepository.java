@@ -0,0 +1,23 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.models.InventorySnapshot;
+
+@Repository     // Repository Interface for the compacted ledger snapshots (the entries are written with SQL)
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    List<InventorySnapshot> findAllByOrderByCoversThroughDesc();
+
+    Optional<InventorySnapshot> findFirstByOrderByCoversThroughDesc();
+
+    // the snapshot a replay up to the given time starts from
+    Optional<InventorySnapshot> findFirstByCoversThroughLessThanEqualOrderByCoversThroughDesc(LocalDateTime at);
+
+    List<InventorySnapshot> findByTakenAtBeforeOrderByCoversThroughAsc(LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.skillstormproject1.batstats.repositories;
+
+// number of warehouse locations one item has
+public interface ItemLocationCountView {
+
+    Integer getItemId();
+
+    Long getLocations();
+}
@@ -0,0 +1,11 @@
+package com.skillstormproject1.batstats.repositories;
+
+// item counts bucketed by how many warehouses hold each item
+public interface ItemLocationTotalsView {
+
+    Long getTotalItems();
+
+    Long getWithoutLocation();
+
+    Long getMultiLocation();
+}
@@ -0,0 +1,11 @@
+package com.skillstormproject1.batstats.repositories;
+
+// quantity at one warehouse location, by ids
+public interface LocationQuantityView {
+
+    Integer getWarehouseId();
+
+    Integer getItemId();
+
+    Integer getQuantity();
+}
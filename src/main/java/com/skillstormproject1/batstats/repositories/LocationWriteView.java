@@ -0,0 +1,19 @@
+package com.skillstormproject1.batstats.repositories;
+
+// what a single-statement location write touched, read back through RETURNING
+public interface LocationWriteView {
+
+    Integer getLocationId();
+
+    // units at the location after the write, 0 once removed
+    Integer getQuantity();
+
+    // units before the write, null when the write created the location (an existing one can hold 0)
+    Integer getPreviousQuantity();
+
+    // the item's product type category, null where the write can't change category totals
+    String getCategory();
+
+    // locations the item had when the statement started
+    Long getItemLocations();
+}
@@ -1,11 +1,16 @@
 package com.skillstormproject1.batstats.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.skillstormproject1.batstats.models.ProductType;
 
 @Repository     // Repository Interface for ProductType
@@ -17,12 +22,25 @@ public interface ProductTypeRepository extends JpaRepository<ProductType, Intege
      *      check if a product exists
      */
 
+    // the catalog queries below are answered from the query cache until product_types changes
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-type-queries")})
+    List<ProductType> findAll();
+
     // finds a product by name
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-type-queries")})
     Optional<ProductType> findByName(String Name);
 
     // finds all product types of the specified category
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "product-type-queries")})
     List<ProductType> findByCategory(String category);
 
     // check if a product type exists by the name provided
     boolean existsByName(String name);
+
+    // product types written after a point in time, for ?since deltas (not query cached, since differs every call)
+    List<ProductType> findByUpdatedAtAfterOrderById(LocalDateTime since);
 }
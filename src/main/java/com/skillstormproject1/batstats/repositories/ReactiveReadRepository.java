@@ -0,0 +1,93 @@
+package com.skillstormproject1.batstats.repositories;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.dtos.ItemSummaryDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only queries over R2DBC that emit rows as the subscriber asks for them.
+ *
+ * Every statement sets a fetch size, so the driver pulls rows from PostgreSQL in batches of that
+ * size as demand comes in instead of buffering the whole result. A slow client therefore
+ * holds one batch in memory, not the whole warehouse. The SQL reads the same tables the JPA
+ * entities map to.
+ */
+@Repository
+public class ReactiveReadRepository {
+
+    // rows requested from the server per round trip
+    static final int FETCH_SIZE = 256;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(DatabaseClient readDatabaseClient) {
+        this.databaseClient = readDatabaseClient;
+    }
+
+    // every item stored in a warehouse with its quantity there, by item id
+    public Flux<ItemSummaryDTO> findWarehouseContents(Integer warehouseId) {
+        return databaseClient.sql(
+                "SELECT i.id, i.serial_number, pt.name AS product_type_name, pt.category, wi.quantity " +
+                "FROM warehouse_inventory wi " +
+                "JOIN inventory_items i ON i.id = wi.inventory_item_id " +
+                "JOIN product_types pt ON pt.id = i.product_type_id " +
+                "WHERE wi.warehouse_id = :warehouseId ORDER BY i.id")
+            .bind("warehouseId", warehouseId)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> itemSummary(row))
+            .all();
+    }
+
+    // same columns as WarehouseInventoryRepository.findLocationSummariesForItem
+    public Flux<WarehouseLocationDTO> findItemLocations(Integer itemId) {
+        return databaseClient.sql(
+                "SELECT w.id, w.name, w.location, wi.quantity " +
+                "FROM warehouse_inventory wi JOIN warehouses w ON w.id = wi.warehouse_id " +
+                "WHERE wi.inventory_item_id = :itemId ORDER BY w.name")
+            .bind("itemId", itemId)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> new WarehouseLocationDTO(row.get("id", Integer.class), row.get("name", String.class),
+                row.get("location", String.class), row.get("quantity", Integer.class)))
+            .all();
+    }
+
+    // same ranking as InventoryItemRepository.searchItemIds, returning rows with total quantity
+    public Flux<ItemSummaryDTO> search(String term, String pattern, String prefix, int limit) {
+        return databaseClient.sql(
+                "SELECT i.id, i.serial_number, pt.name AS product_type_name, pt.category, " +
+                "COALESCE((SELECT SUM(wi.quantity) FROM warehouse_inventory wi WHERE wi.inventory_item_id = i.id), 0)::int AS quantity " +
+                "FROM inventory_items i " +
+                "JOIN product_types pt ON pt.id = i.product_type_id " +
+                "WHERE i.id IN (" +
+                "    SELECT s.id FROM inventory_items s WHERE s.serial_number ILIKE :pattern " +
+                "    UNION " +
+                "    SELECT n.id FROM inventory_items n JOIN product_types np ON np.id = n.product_type_id " +
+                "    WHERE np.name ILIKE :pattern) " +
+                "ORDER BY CASE " +
+                "    WHEN lower(i.serial_number) = lower(:term) THEN 0 " +
+                "    WHEN lower(i.serial_number) LIKE :prefix THEN 1 " +
+                "    WHEN lower(pt.name) LIKE :prefix THEN 2 " +
+                "    ELSE 3 END, " +
+                "GREATEST(similarity(i.serial_number, :term), similarity(pt.name, :term)) DESC, " +
+                "i.id " +
+                "LIMIT :limit")
+            .bind("term", term)
+            .bind("pattern", pattern)
+            .bind("prefix", prefix)
+            .bind("limit", limit)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> itemSummary(row))
+            .all();
+    }
+
+    private static ItemSummaryDTO itemSummary(Row row) {
+        return new ItemSummaryDTO(row.get("id", Integer.class), row.get("serial_number", String.class),
+            row.get("product_type_name", String.class), row.get("category", String.class),
+            row.get("quantity", Integer.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.skillstormproject1.batstats.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.models.SerialNumberBlock;
+
+@Repository     // Repository Interface for the reserved serial number blocks
+public interface SerialNumberBlockRepository extends JpaRepository<SerialNumberBlock, String> {
+
+    /*
+     * Block reservations run on the caller's connection and leave the prefix row locked until the
+     * caller commits, so another node reserving the same prefix waits for that commit instead of
+     * being handed numbers a rollback would give back.
+     */
+
+    // move the prefix on by size numbers and return the first of them; null when the prefix has no row yet
+    @Query(value = "UPDATE serial_number_blocks SET next_value = next_value + :size, updated_at = localtimestamp " +
+                   "WHERE prefix = :prefix RETURNING next_value - :size",
+           nativeQuery = true)
+    Long reserve(@Param("prefix") String prefix, @Param("size") int size);
+
+    // first reservation of a prefix starts after the highest serial already in inventory_items;
+    // a node that seeded the row meanwhile turns this into a plain reservation
+    @Query(value = "INSERT INTO serial_number_blocks (prefix, next_value, updated_at) " +
+                   "SELECT :prefix, COALESCE(MAX(CAST(substring(serial_number FROM char_length(:prefix) + 2) AS BIGINT)), 0) " +
+                   "+ 1 + :size, localtimestamp " +
+                   "FROM inventory_items " +
+                   "WHERE left(serial_number, char_length(:prefix) + 1) = :prefix || '-' " +
+                   "AND substring(serial_number FROM char_length(:prefix) + 2) ~ '^[0-9]{1,9}$' " +
+                   "ON CONFLICT (prefix) DO UPDATE SET next_value = serial_number_blocks.next_value + :size, " +
+                   "updated_at = localtimestamp " +
+                   "RETURNING next_value - :size",
+           nativeQuery = true)
+    Long seedAndReserve(@Param("prefix") String prefix, @Param("size") int size);
+}
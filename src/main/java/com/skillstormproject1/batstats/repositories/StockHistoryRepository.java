@@ -0,0 +1,123 @@
+package com.skillstormproject1.batstats.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.skillstormproject1.batstats.dtos.StockHistoryPointDTO;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
+import com.skillstormproject1.batstats.models.StockHistoryProgress;
+import com.skillstormproject1.batstats.models.StockLevelBucket.Dimension;
+
+/**
+ * Rolls the movement ledger up into stock_level_buckets and reads the buckets back.
+ *
+ * Each rollup covers the movements recorded in (from, to]. They are grouped per dimension and
+ * bucket, and a window sum turns the deltas into closing levels on top of the newest bucket
+ * already stored for the dimension. The result is upserted, so a bucket that was partly
+ * rolled up before just gets the rest added.
+ */
+@Repository
+public class StockHistoryRepository {
+
+    // arbitrary advisory lock key for the rollup job
+    private static final long ROLLUP_LOCK_KEY = 0x6261_7473_6869_7374L;
+
+    private static final String ROLLUP_SQL =
+        "WITH moved AS (" +
+        " SELECT 'WAREHOUSE' AS dimension, warehouse_id AS dimension_id, date_trunc(?, recorded_at) AS bucket_start, delta" +
+        " FROM inventory_movements WHERE recorded_at > coalesce(?::timestamp, '-infinity') AND recorded_at <= ?" +
+        " UNION ALL" +
+        " SELECT 'PRODUCT_TYPE', product_type_id, date_trunc(?, recorded_at), delta" +
+        " FROM inventory_movements WHERE recorded_at > coalesce(?::timestamp, '-infinity') AND recorded_at <= ?" +
+        " AND product_type_id IS NOT NULL" +
+        "), bucketed AS (" +
+        " SELECT dimension, dimension_id, bucket_start, sum(greatest(delta, 0)) AS units_in," +
+        " sum(greatest(-delta, 0)) AS units_out, count(*) AS movements," +
+        " sum(sum(delta)) OVER (PARTITION BY dimension, dimension_id ORDER BY bucket_start) AS running_net" +
+        " FROM moved GROUP BY dimension, dimension_id, bucket_start" +
+        ") " +
+        "INSERT INTO stock_level_buckets" +
+        " (granularity, dimension, dimension_id, bucket_start, units_in, units_out, movements, closing_units) " +
+        "SELECT ?, b.dimension, b.dimension_id, b.bucket_start, b.units_in, b.units_out, b.movements," +
+        " coalesce((SELECT p.closing_units FROM stock_level_buckets p WHERE p.granularity = ?" +
+        "  AND p.dimension = b.dimension AND p.dimension_id = b.dimension_id" +
+        "  ORDER BY p.bucket_start DESC LIMIT 1), 0) + b.running_net " +
+        "FROM bucketed b " +
+        "ON CONFLICT (granularity, dimension, dimension_id, bucket_start) DO UPDATE SET" +
+        " units_in = stock_level_buckets.units_in + excluded.units_in," +
+        " units_out = stock_level_buckets.units_out + excluded.units_out," +
+        " movements = stock_level_buckets.movements + excluded.movements," +
+        " closing_units = excluded.closing_units";
+
+    // the newest bucket of each dimension stays, later rollups build their closing level on it
+    private static final String PRUNE_SQL =
+        "DELETE FROM stock_level_buckets b WHERE b.granularity = ? AND b.bucket_start < ? " +
+        "AND b.bucket_start < (SELECT max(l.bucket_start) FROM stock_level_buckets l " +
+        " WHERE l.granularity = b.granularity AND l.dimension = b.dimension AND l.dimension_id = b.dimension_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockHistoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // transaction-scoped advisory lock so only one node rolls up at a time
+    public boolean tryLockRollup() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ROLLUP_LOCK_KEY));
+    }
+
+    public Optional<LocalDateTime> findRolledThrough() {
+        return jdbcTemplate.queryForList("SELECT rolled_through FROM stock_history_progress WHERE id = ?",
+            LocalDateTime.class, StockHistoryProgress.ID).stream().findFirst();
+    }
+
+    public void saveRolledThrough(LocalDateTime rolledThrough) {
+        jdbcTemplate.update("INSERT INTO stock_history_progress (id, rolled_through) VALUES (?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET rolled_through = excluded.rolled_through",
+            StockHistoryProgress.ID, Timestamp.valueOf(rolledThrough));
+    }
+
+    // add the movements recorded after from (all of them for null) up to to, returns the buckets written
+    public int rollup(HistoryGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        Timestamp fromTimestamp = from != null ? Timestamp.valueOf(from) : null;
+        Timestamp toTimestamp = Timestamp.valueOf(to);
+        String unit = granularity.getTruncUnit();
+        return jdbcTemplate.update(ROLLUP_SQL,
+            unit, fromTimestamp, toTimestamp,
+            unit, fromTimestamp, toTimestamp,
+            granularity.name(), granularity.name());
+    }
+
+    public int deleteBucketsBefore(HistoryGranularity granularity, LocalDateTime cutoff) {
+        return jdbcTemplate.update(PRUNE_SQL, granularity.name(), Timestamp.valueOf(cutoff));
+    }
+
+    // stored buckets in [from, to), oldest first
+    public List<StockHistoryPointDTO> findBuckets(HistoryGranularity granularity, Dimension dimension, Integer dimensionId,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+            "SELECT bucket_start, closing_units, units_in, units_out, movements FROM stock_level_buckets " +
+            "WHERE granularity = ? AND dimension = ? AND dimension_id = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start",
+            (rs, rowNum) -> new StockHistoryPointDTO(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                rs.getLong("closing_units"), rs.getLong("units_in"), rs.getLong("units_out"), rs.getLong("movements")),
+            granularity.name(), dimension.name(), dimensionId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    // closing level of the newest bucket before from, the level a range starts at
+    public Optional<Long> findClosingBefore(HistoryGranularity granularity, Dimension dimension, Integer dimensionId,
+                                            LocalDateTime from) {
+        return jdbcTemplate.queryForList(
+            "SELECT closing_units FROM stock_level_buckets " +
+            "WHERE granularity = ? AND dimension = ? AND dimension_id = ? AND bucket_start < ? " +
+            "ORDER BY bucket_start DESC LIMIT 1",
+            Long.class, granularity.name(), dimension.name(), dimensionId, Timestamp.valueOf(from))
+            .stream().findFirst();
+    }
+}
@@ -0,0 +1,19 @@
+package com.skillstormproject1.batstats.repositories;
+
+// capacity columns of a warehouse row, read straight from the database (never a cached entity)
+public interface WarehouseCapacityView {
+
+    Integer getId();
+
+    String getName();
+
+    Integer getMaxCapacity();
+
+    Integer getCurrentCapacity();
+
+    String getStatus();
+
+    default int getAvailableCapacity() {
+        return getMaxCapacity() - getCurrentCapacity();
+    }
+}
@@ -1,27 +1,60 @@
 package com.skillstormproject1.batstats.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
 import com.skillstormproject1.batstats.models.WarehouseInventory;
 
 @Repository
 public interface WarehouseInventoryRepository extends JpaRepository<WarehouseInventory, Integer> {
     
     // find all items in a specific warehouse 
+    @EntityGraph(attributePaths = {"warehouse"})
     List<WarehouseInventory> findByWarehouseId(Integer warehouseId);
 
     // find all warehouse locations for a specific item
+    @EntityGraph(attributePaths = {"warehouse"})
     List<WarehouseInventory> findByInventoryItemId(Integer itemId);
 
+    // warehouses holding an item, ids only so nothing is loaded before the caller's locks
+    @Query("SELECT wi.warehouse.id FROM WarehouseInventory wi WHERE wi.inventoryItem.id = :itemId")
+    List<Integer> findWarehouseIdsByItemId(@Param("itemId") Integer itemId);
+
+    // flat projection of an item's locations, one select and no entities to manage
+    @Query("SELECT new com.skillstormproject1.batstats.dtos.WarehouseLocationDTO(w.id, w.name, w.location, wi.quantity) " +
+           "FROM WarehouseInventory wi JOIN wi.warehouse w " +
+           "WHERE wi.inventoryItem.id = :itemId ORDER BY w.name")
+    List<WarehouseLocationDTO> findLocationSummariesForItem(@Param("itemId") Integer itemId);
+
     // find specific warehouse item combination
     Optional<WarehouseInventory> findByWarehouseIdAndInventoryItemId(Integer warehouseId, Integer itemId);
 
+    // warehouse of a location without loading the location entity
+    @Query("SELECT wi.warehouse.id FROM WarehouseInventory wi WHERE wi.id = :locationId")
+    Optional<Integer> findWarehouseIdByLocationId(@Param("locationId") Integer locationId);
+
+    // every location for a set of warehouses and items in one select (used to plan batch transfers)
+    @EntityGraph(attributePaths = {"warehouse"})
+    List<WarehouseInventory> findByWarehouseIdInAndInventoryItemIdIn(Collection<Integer> warehouseIds,
+                                                                     Collection<Integer> itemIds);
+
+    // number of warehouses holding an item
+    long countByInventoryItemId(Integer itemId);
+
+    // number of warehouses holding each of the given items (items with none are left out)
+    @Query("SELECT wi.inventoryItem.id AS itemId, count(wi) AS locations FROM WarehouseInventory wi " +
+           "WHERE wi.inventoryItem.id IN :itemIds GROUP BY wi.inventoryItem.id")
+    List<ItemLocationCountView> countLocationsByItemIds(@Param("itemIds") Collection<Integer> itemIds);
+
     // check if an item exists in a warehouse
     boolean existsByWarehouseIdAndInventoryItemId(Integer warehouseId, Integer itemId);
     
@@ -34,7 +67,85 @@ public interface WarehouseInventoryRepository extends JpaRepository<WarehouseInv
     @Query("SELECT wi FROM WarehouseInventory wi " +
            "WHERE wi.warehouse.id = :warehouseId AND wi.quantity < :threshold")
     List<WarehouseInventory> findLowStockItems(@Param("warehouseId") Integer warehouseId, @Param("threshold") Integer threshold);
+
+    // every location below a quantity across all warehouses, ids only (loads the alert engine at startup)
+    @Query("SELECT wi.warehouse.id AS warehouseId, wi.inventoryItem.id AS itemId, wi.quantity AS quantity " +
+           "FROM WarehouseInventory wi WHERE wi.quantity < :threshold")
+    List<LocationQuantityView> findLocationsBelow(@Param("threshold") Integer threshold);
     
+    /*
+     * Single-statement location writes for WarehouseInventoryService. Each one changes the row and
+     * reads back what the caller needs for its events through RETURNING. The location count
+     * subqueries see the table as it was when the statement started, before its own write.
+     * Callers hold the warehouse lock, so the quantities read here can't move underneath them.
+     */
+
+    // add a location unless the item is already in the warehouse; empty when it is, or when the item doesn't exist
+    // also returns the warehouse columns the caller's capacity lock didn't read
+    @Query(value = "WITH added AS (" +
+                   "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+                   "SELECT :warehouseId, i.id, :quantity, :now, :now FROM inventory_items i WHERE i.id = :itemId " +
+                   "ON CONFLICT (warehouse_id, inventory_item_id) DO NOTHING " +
+                   "RETURNING id, inventory_item_id, quantity) " +
+                   "SELECT a.id AS locationId, a.quantity AS quantity, CAST(NULL AS integer) AS previousQuantity, " +
+                   "p.category AS category, " +
+                   "(SELECT count(*) FROM warehouse_inventory wi WHERE wi.inventory_item_id = a.inventory_item_id) AS itemLocations, " +
+                   "w.location AS warehouseLocation, w.created_at AS warehouseCreatedAt, " +
+                   "localtimestamp AS warehouseUpdatedAt " +
+                   "FROM added a JOIN inventory_items i ON i.id = a.inventory_item_id " +
+                   "JOIN product_types p ON p.id = i.product_type_id " +
+                   "JOIN warehouses w ON w.id = :warehouseId",
+           nativeQuery = true)
+    Optional<AddedLocationView> insertLocation(@Param("warehouseId") Integer warehouseId, @Param("itemId") Integer itemId,
+                                              @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
+
+    // delete a location and return what it held; empty when the item isn't in the warehouse
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM warehouse_inventory WHERE warehouse_id = :warehouseId AND inventory_item_id = :itemId " +
+                   "RETURNING id, inventory_item_id, quantity) " +
+                   "SELECT r.id AS locationId, 0 AS quantity, r.quantity AS previousQuantity, p.category AS category, " +
+                   "(SELECT count(*) FROM warehouse_inventory wi WHERE wi.inventory_item_id = r.inventory_item_id) AS itemLocations " +
+                   "FROM removed r JOIN inventory_items i ON i.id = r.inventory_item_id " +
+                   "JOIN product_types p ON p.id = i.product_type_id",
+           nativeQuery = true)
+    Optional<LocationWriteView> deleteLocation(@Param("warehouseId") Integer warehouseId, @Param("itemId") Integer itemId);
+
+    // take units out of a location, deleting it when they were all of them; nothing changes when the location
+    // holds fewer (previousQuantity tells), empty when the item isn't in the warehouse
+    @Query(value = "WITH source AS (" +
+                   "SELECT id, inventory_item_id, quantity FROM warehouse_inventory " +
+                   "WHERE warehouse_id = :warehouseId AND inventory_item_id = :itemId), " +
+                   "emptied AS (" +
+                   "DELETE FROM warehouse_inventory wi USING source s WHERE wi.id = s.id AND s.quantity = :quantity " +
+                   "RETURNING wi.id), " +
+                   "reduced AS (" +
+                   "UPDATE warehouse_inventory wi SET quantity = s.quantity - :quantity, updated_at = :now FROM source s " +
+                   "WHERE wi.id = s.id AND s.quantity > :quantity RETURNING wi.id) " +
+                   "SELECT s.id AS locationId, " +
+                   "CASE WHEN s.quantity >= :quantity THEN s.quantity - :quantity ELSE s.quantity END AS quantity, " +
+                   "s.quantity AS previousQuantity, CAST(NULL AS varchar) AS category, " +
+                   "(SELECT count(*) FROM warehouse_inventory wi WHERE wi.inventory_item_id = s.inventory_item_id) AS itemLocations " +
+                   "FROM source s",
+           nativeQuery = true)
+    Optional<LocationWriteView> takeFromLocation(@Param("warehouseId") Integer warehouseId, @Param("itemId") Integer itemId,
+                                                 @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
+
+    // put units into a location, creating it if the item isn't in the warehouse yet
+    @Query(value = "WITH moved AS (" +
+                   "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+                   "VALUES (:warehouseId, :itemId, :quantity, :now, :now) " +
+                   "ON CONFLICT (warehouse_id, inventory_item_id) " +
+                   "DO UPDATE SET quantity = warehouse_inventory.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at " +
+                   "RETURNING id, inventory_item_id, quantity, (xmax = 0) AS created) " +
+                   "SELECT m.id AS locationId, m.quantity AS quantity, " +
+                   "CASE WHEN m.created THEN NULL ELSE m.quantity - :quantity END AS previousQuantity, " +
+                   "CAST(NULL AS varchar) AS category, " +
+                   "(SELECT count(*) FROM warehouse_inventory wi WHERE wi.inventory_item_id = m.inventory_item_id) AS itemLocations " +
+                   "FROM moved m",
+           nativeQuery = true)
+    LocationWriteView addToLocation(@Param("warehouseId") Integer warehouseId, @Param("itemId") Integer itemId,
+                                    @Param("quantity") Integer quantity, @Param("now") LocalDateTime now);
+
     // get warehouses containing a specific product type
     @Query("SELECT wi FROM WarehouseInventory wi " +
            "WHERE wi.inventoryItem.productType.id = :productTypeId")
@@ -1,9 +1,13 @@
 package com.skillstormproject1.batstats.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.skillstormproject1.batstats.models.Warehouse;
@@ -20,6 +24,9 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Integer> {
     // find all the Warehouses that are active
     List<Warehouse> findByStatus(String status);
 
+    // warehouses written after a point in time, for ?since deltas
+    List<Warehouse> findByUpdatedAtAfterOrderById(LocalDateTime since);
+
     // find warehouses near a capacity based on the threshold variable passed
     @Query("SELECT w FROM Warehouse w WHERE (w.currentCapacity * 100.0 / w.maxCapacity) >= :threshold")
     List<Warehouse> findWarehousesNearCapacity(Double threshold);
@@ -28,4 +35,21 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Integer> {
     @Query("SELECT w FROM Warehouse w WHERE (w.maxCapacity - w.currentCapacity) >= :minCapacity")
     List<Warehouse> findWarehousesWithAvailableCapacity(Integer minCapacity);
 
+    // capacity columns without the entity, used to fill the capacity cache
+    @Query("SELECT w.id AS id, w.name AS name, w.maxCapacity AS maxCapacity, " +
+           "w.currentCapacity AS currentCapacity, w.status AS status FROM Warehouse w WHERE w.id = :id")
+    Optional<WarehouseCapacityView> findCapacityById(@Param("id") Integer id);
+
+    @Query("SELECT w.id AS id, w.name AS name, w.maxCapacity AS maxCapacity, " +
+           "w.currentCapacity AS currentCapacity, w.status AS status FROM Warehouse w ORDER BY w.id")
+    List<WarehouseCapacityView> findAllCapacities();
+
+    // lock warehouse rows before a capacity check and return their current capacity columns
+    // rows are always locked in id order so two requests touching the same warehouses can't deadlock
+    @Query(value = "SELECT w.id AS id, w.name AS name, w.max_capacity AS maxCapacity, " +
+                   "w.current_capacity AS currentCapacity, w.status AS status " +
+                   "FROM warehouses w WHERE w.id IN (:ids) ORDER BY w.id FOR UPDATE",
+           nativeQuery = true)
+    List<WarehouseCapacityView> lockCapacityRows(@Param("ids") Collection<Integer> ids);
+
 }
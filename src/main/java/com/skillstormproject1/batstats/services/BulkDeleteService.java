@@ -0,0 +1,363 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.TableChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.models.BulkDeleteStatus;
+import com.skillstormproject1.batstats.models.BulkDeleteTarget;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.repositories.BulkDeleteRepository;
+import com.skillstormproject1.batstats.repositories.BulkDeleteRepository.RemovedLocation;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Deletes a warehouse or a product type together with everything under it, in chunks.
+ *
+ * Each chunk is its own transaction that removes at most chunk-size locations (warehouses) or
+ * items (product types) with set-based SQL, so memory and lock time stay bounded however big
+ * the target is. The statement removing a chunk's locations also writes their ledger movements,
+ * and every removed location still publishes a StockChangedEvent, marked recorded, which keeps
+ * the capacity cache, the alerts and the change feed right. The capacity trigger runs once per
+ * chunk. The target row itself goes in the chunk that finds nothing left under
+ * it, while holding the lock that keeps new stock out.
+ *
+ * A delete can run on the caller's thread or in the background. Either way it's a job whose
+ * progress is kept for /api/delete-jobs. The chunks a failed job already committed stay
+ * deleted, and running the delete again carries on from there.
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    // a product type chunk starts over when a location appears in a warehouse it didn't lock
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private final BulkDeleteRepository bulkDeleteRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductTypeRepository productTypeRepository;
+    private final WarehouseCapacityService warehouseCapacityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int historySize;
+    private final boolean ledgerEnabled;
+    private final ExecutorService workers;
+
+    private final AtomicLong jobIds = new AtomicLong();
+    // newest last, finished jobs beyond historySize are dropped from the front
+    private final Deque<Job> jobs = new ArrayDeque<>();
+
+    public BulkDeleteService(BulkDeleteRepository bulkDeleteRepository,
+                             WarehouseRepository warehouseRepository,
+                             ProductTypeRepository productTypeRepository,
+                             WarehouseCapacityService warehouseCapacityService,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${batstats.bulk-delete.chunk-size:500}") int chunkSize,
+                             @Value("${batstats.bulk-delete.workers:1}") int workerThreads,
+                             @Value("${batstats.bulk-delete.history-size:50}") int historySize,
+                             @Value("${batstats.ledger.enabled:true}") boolean ledgerEnabled,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("batstats.bulk-delete.chunk-size must be greater than zero");
+        }
+        this.bulkDeleteRepository = bulkDeleteRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productTypeRepository = productTypeRepository;
+        this.warehouseCapacityService = warehouseCapacityService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.historySize = historySize;
+        this.ledgerEnabled = ledgerEnabled;
+        if (virtualThreads) {
+            // one thread per job, start() already allows only one running job per target
+            this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bulk-delete-", 1).factory());
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+                Thread thread = new Thread(runnable, "bulk-delete-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // delete on the caller's thread, call outside a transaction so each chunk commits on its own
+    public BulkDeleteJobDTO deleteWarehouse(Integer warehouseId) {
+        return runNow(register(BulkDeleteTarget.WAREHOUSE, warehouseId));
+    }
+
+    public BulkDeleteJobDTO deleteProductType(Integer productTypeId) {
+        return runNow(register(BulkDeleteTarget.PRODUCT_TYPE, productTypeId));
+    }
+
+    // start a background delete, or hand back the one already running for this warehouse
+    public BulkDeleteJobDTO startWarehouseDelete(Integer warehouseId) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse not found with id: " + warehouseId);
+        }
+        return start(BulkDeleteTarget.WAREHOUSE, warehouseId);
+    }
+
+    public BulkDeleteJobDTO startProductTypeDelete(Integer productTypeId) {
+        if (!productTypeRepository.existsById(productTypeId)) {
+            throw new ResourceNotFoundException("Product Type not found with id: " + productTypeId);
+        }
+        return start(BulkDeleteTarget.PRODUCT_TYPE, productTypeId);
+    }
+
+    public BulkDeleteJobDTO getJob(Long id) {
+        synchronized (jobs) {
+            for (Job job : jobs) {
+                if (job.id == id) {
+                    return job.toDTO();
+                }
+            }
+        }
+        throw new ResourceNotFoundException("Delete job not found with id: " + id);
+    }
+
+    // kept jobs, newest first
+    public List<BulkDeleteJobDTO> getJobs() {
+        List<BulkDeleteJobDTO> kept = new ArrayList<>();
+        synchronized (jobs) {
+            Iterator<Job> newestFirst = jobs.descendingIterator();
+            while (newestFirst.hasNext()) {
+                kept.add(newestFirst.next().toDTO());
+            }
+        }
+        return kept;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private BulkDeleteJobDTO start(BulkDeleteTarget target, Integer targetId) {
+        Job job;
+        synchronized (jobs) {
+            for (Job running : jobs) {
+                if (running.target == target && running.targetId.equals(targetId)
+                        && running.status == BulkDeleteStatus.RUNNING) {
+                    return running.toDTO();
+                }
+            }
+            job = register(target, targetId);
+        }
+        workers.execute(() -> {
+            try {
+                run(job);
+            } catch (RuntimeException e) {
+                // already on the job for /api/delete-jobs
+            }
+        });
+        return job.toDTO();
+    }
+
+    private BulkDeleteJobDTO runNow(Job job) {
+        run(job);
+        return job.toDTO();
+    }
+
+    private Job register(BulkDeleteTarget target, Integer targetId) {
+        Job job = new Job(jobIds.incrementAndGet(), target, targetId);
+        synchronized (jobs) {
+            jobs.addLast(job);
+            Iterator<Job> oldestFirst = jobs.iterator();
+            while (jobs.size() > historySize && oldestFirst.hasNext()) {
+                if (oldestFirst.next().status != BulkDeleteStatus.RUNNING) {
+                    oldestFirst.remove();
+                }
+            }
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        try {
+            boolean finished = false;
+            while (!finished) {
+                Chunk chunk = job.target == BulkDeleteTarget.WAREHOUSE
+                    ? deleteWarehouseChunk(job.targetId)
+                    : deleteProductTypeChunk(job.targetId);
+                job.chunks.incrementAndGet();
+                job.locations.addAndGet(chunk.locations);
+                job.items.addAndGet(chunk.items);
+                finished = chunk.last;
+            }
+            job.finish(BulkDeleteStatus.COMPLETED, null);
+            logger.info("Deleted {} {} in {} chunks: {} locations, {} items", job.target, job.targetId,
+                job.chunks.get(), job.locations.get(), job.items.get());
+        } catch (RuntimeException e) {
+            job.finish(BulkDeleteStatus.FAILED, e.getMessage());
+            logger.warn("Delete of {} {} failed after {} chunks: {}", job.target, job.targetId,
+                job.chunks.get(), e.getMessage());
+            throw e;
+        }
+    }
+
+    // the next chunk of the warehouse's locations, and the warehouse once none are left
+    private Chunk deleteWarehouseChunk(Integer warehouseId) {
+        return transactionTemplate.execute(status -> {
+            // also keeps new stock out of the warehouse until this chunk commits
+            WarehouseCapacityView warehouse = warehouseCapacityService.lock(warehouseId);
+            List<RemovedLocation> removed = bulkDeleteRepository.deleteWarehouseLocations(
+                warehouseId, chunkSize, LocalDateTime.now(), ledgerEnabled);
+            publishRemoved(removed, Map.of(warehouseId, warehouse), MovementType.WAREHOUSE_DELETED, null);
+            if (removed.size() == chunkSize) {
+                return new Chunk(false, removed.size(), 0);
+            }
+            warehouseRepository.deleteById(warehouseId);
+            eventPublisher.publishEvent(WarehouseChangedEvent.deleted(warehouseId));
+            eventPublisher.publishEvent(TableChangedEvent.deleted(SyncTable.WAREHOUSES, warehouseId));
+            return new Chunk(true, removed.size(), 0);
+        });
+    }
+
+    // the next chunk of the product type's items with their locations, and the product type once none are left
+    private Chunk deleteProductTypeChunk(Integer productTypeId) {
+        for (int attempt = 1; attempt <= CHUNK_ATTEMPTS; attempt++) {
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<Integer> itemIds = bulkDeleteRepository.findItemIds(productTypeId, chunkSize);
+                if (itemIds.isEmpty()) {
+                    return deleteEmptyProductType(productTypeId);
+                }
+
+                // warehouses first and in id order like every other stock mutation, then the items
+                Map<Integer, WarehouseCapacityView> locked = warehouseCapacityService.lockAll(
+                    bulkDeleteRepository.findWarehouseIds(itemIds));
+                List<Integer> lockedItems = bulkDeleteRepository.lockItems(itemIds, productTypeId);
+                if (lockedItems.isEmpty()) {
+                    return new Chunk(false, 0, 0);
+                }
+                // a location added before the items were locked could sit in a warehouse this chunk doesn't hold
+                if (!locked.keySet().containsAll(bulkDeleteRepository.findWarehouseIds(lockedItems))) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+
+                List<RemovedLocation> removed = bulkDeleteRepository.deleteItemLocations(
+                    lockedItems, productTypeId, ledgerEnabled);
+                int items = bulkDeleteRepository.deleteItems(lockedItems, LocalDateTime.now());
+                publishRemoved(removed, locked, MovementType.ITEM_DELETED, productTypeId);
+                eventPublisher.publishEvent(new TableChangedEvent(SyncTable.INVENTORY_ITEMS));
+                return new Chunk(false, removed.size(), items);
+            });
+            if (chunk != null) {
+                return chunk;
+            }
+            logger.debug("Product type {} chunk gained a location in an unlocked warehouse, retrying", productTypeId);
+        }
+        throw new IllegalStateException("Items of product type " + productTypeId
+            + " kept moving into other warehouses, delete stopped after " + CHUNK_ATTEMPTS + " attempts");
+    }
+
+    // runs in the chunk's transaction once the product type looked empty
+    private Chunk deleteEmptyProductType(Integer productTypeId) {
+        if (!bulkDeleteRepository.lockProductType(productTypeId)) {
+            throw new ResourceNotFoundException("Product Type not found with id: " + productTypeId);
+        }
+        // an item created before the lock was taken goes with the next chunk
+        if (!bulkDeleteRepository.findItemIds(productTypeId, 1).isEmpty()) {
+            return new Chunk(false, 0, 0);
+        }
+        productTypeRepository.deleteById(productTypeId);
+        eventPublisher.publishEvent(InventoryTotalsChangedEvent.rebuild());
+        eventPublisher.publishEvent(TableChangedEvent.deleted(SyncTable.PRODUCT_TYPES, productTypeId));
+        return new Chunk(true, 0, 0);
+    }
+
+    // capacity per locked warehouse, one stock event per location (its ledger row is already written), and a
+    // dashboard recount
+    private void publishRemoved(List<RemovedLocation> removed, Map<Integer, WarehouseCapacityView> locked,
+                                MovementType type, Integer productTypeId) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> freed = new HashMap<>();
+        for (RemovedLocation location : removed) {
+            freed.merge(location.getWarehouseId(), location.getQuantity(), Integer::sum);
+            eventPublisher.publishEvent(new StockChangedEvent(type, location.getWarehouseId(), location.getItemId(),
+                0, -location.getQuantity(), productTypeId, true));
+        }
+        freed.forEach((warehouseId, units) -> warehouseCapacityService.recordChange(locked.get(warehouseId), -units));
+        eventPublisher.publishEvent(InventoryTotalsChangedEvent.rebuild());
+    }
+
+    // what one committed chunk removed
+    private static final class Chunk {
+
+        private final boolean last;
+        private final int locations;
+        private final int items;
+
+        private Chunk(boolean last, int locations, int items) {
+            this.last = last;
+            this.locations = locations;
+            this.items = items;
+        }
+    }
+
+    private static final class Job {
+
+        private final long id;
+        private final BulkDeleteTarget target;
+        private final Integer targetId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicLong locations = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private volatile BulkDeleteStatus status = BulkDeleteStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(long id, BulkDeleteTarget target, Integer targetId) {
+            this.id = id;
+            this.target = target;
+            this.targetId = targetId;
+        }
+
+        private void finish(BulkDeleteStatus outcome, String failure) {
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            status = outcome;
+        }
+
+        private BulkDeleteJobDTO toDTO() {
+            return new BulkDeleteJobDTO(id, target, targetId, status, chunks.get(), locations.get(), items.get(),
+                startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.skillstormproject1.batstats.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstormproject1.batstats.events.AlertTransitionEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed stock and capacity changes, and alert transitions, to every open /api/events stream.
+ *
+ * Each change is encoded once, then offered to a bounded queue per subscriber, so publishing
+ * never waits on a client. A small sender pool drains the queues, at most one sender per
+ * subscriber at a time. A subscriber whose queue is full is too slow to keep up and is closed
+ * instead of being allowed to hold memory or a sender; EventSource reconnects on its own and
+ * the client reloads its view. All emitter calls happen on sender threads, so a stalled socket
+ * only ever blocks a sender, never a committing request.
+ *
+ * Eviction frees the queue but not a sender already blocked in emitter.send on that socket, which
+ * stays blocked until the write fails or the stream times out. With the fixed pool of
+ * batstats.events.sender-threads (default 4) platform threads, that many stalled sockets stall the
+ * feed for every subscriber. With spring.threads.virtual.enabled each subscriber drains on its own virtual
+ * thread and a stalled socket holds only that.
+ */
+@Service
+public class ChangeFeedBroadcaster implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedBroadcaster.class);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+
+    private final ConcurrentHashMap<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ChangeFeedBroadcaster(ObjectMapper objectMapper,
+                                 @Value("${batstats.events.buffer-size:256}") int bufferSize,
+                                 @Value("${batstats.events.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${batstats.events.timeout:PT30M}") Duration timeout,
+                                 @Value("${batstats.events.sender-threads:4}") int senderThreads,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        if (virtualThreads) {
+            // a stalled client only parks its own virtual thread, so there's no pool to size
+            this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-", 1).factory());
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+                Thread thread = new Thread(runnable, "change-feed-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // open a new stream, empty when the node already serves as many as it allows
+    public Optional<SseEmitter> subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber.id);
+            emitter.complete();
+        });
+        emitter.onError(ex -> subscribers.remove(subscriber.id));
+        subscribers.put(subscriber.id, subscriber);
+        // first frame commits the response headers so the browser sees the stream as open
+        subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(3000).build());
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCapacityChanged(WarehouseCapacityChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("warehouseId", event.getWarehouseId());
+        data.put("currentCapacity", event.getCurrentCapacity());
+        data.put("maxCapacity", event.getMaxCapacity());
+        broadcast("capacity", data);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockChanged(StockChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("type", event.getType());
+        data.put("warehouseId", event.getWarehouseId());
+        data.put("itemId", event.getItemId());
+        data.put("quantity", event.getQuantity());
+        data.put("delta", event.getDelta());
+        broadcast("stock", data);
+    }
+
+    // published by the alert engine from its own after-commit listeners
+    @EventListener
+    public void onAlertTransition(AlertTransitionEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("kind", event.getKind());
+        data.put("warehouseId", event.getWarehouseId());
+        data.put("itemId", event.getItemId());
+        data.put("from", event.getFrom());
+        data.put("to", event.getTo());
+        data.put("value", event.getValue());
+        broadcast("alert", data);
+    }
+
+    // keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(initialDelayString = "${batstats.events.heartbeat-interval:PT15S}",
+               fixedDelayString = "${batstats.events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("batstats.events.subscribers", subscribers, ConcurrentHashMap::size).register(registry);
+        FunctionCounter.builder("batstats.events.published", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("batstats.events.delivered", delivered, LongAdder::sum).register(registry);
+        FunctionCounter.builder("batstats.events.evicted", evicted, LongAdder::sum)
+            .description("Subscribers closed because their buffer filled up").register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void broadcast(String name, Map<String, Object> data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException ex) {
+            logger.error("Could not encode {} event {}", name, data, ex);
+            return;
+        }
+        // encoded once, every subscriber gets the same frame
+        Set<DataWithMediaType> frame = SseEmitter.event()
+            .id(Long.toString(eventIds.incrementAndGet()))
+            .name(name)
+            .data(json)
+            .build();
+        published.increment();
+        subscribers.values().forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    // one open stream with its own bounded buffer
+    private final class Subscriber implements Runnable {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        // true while a sender owns this subscriber
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                evicted.increment();
+                logger.info("Closing event stream {}, it fell {} events behind", id, bufferSize);
+                close();
+            }
+            schedule();
+        }
+
+        // the sender completes the emitter, so a stalled socket can't block the caller
+        private void close() {
+            closed = true;
+            subscribers.remove(id);
+            queue.clear();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    // shutting down
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Set<DataWithMediaType> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame);
+                    delivered.increment();
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // client went away or the emitter already completed
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // a frame offered after the loop ended but before the flag cleared still needs a sender
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
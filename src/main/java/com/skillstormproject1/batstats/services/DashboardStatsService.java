@@ -0,0 +1,254 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.skillstormproject1.batstats.dtos.DashboardConsistencyDTO;
+import com.skillstormproject1.batstats.dtos.DashboardDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.repositories.CategoryUnitsView;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ItemLocationTotalsView;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+
+/**
+ * Inventory totals for the dashboard, kept up to date instead of recounted per request.
+ *
+ * The totals are counted from the database once, then every committed mutation applies its
+ * InventoryTotalsChangedEvent to an immutable copy that replaces the current one, so reading
+ * the dashboard never touches the item tables. Per-warehouse utilization comes from
+ * WarehouseCapacityCache. A scheduled check recounts with GROUP BY queries and replaces the
+ * totals if anything drifted.
+ *
+ * Every event bumps a generation, and a count only replaces the totals if the generation didn't
+ * move while it ran: an event committed during the count would otherwise be dropped (no totals
+ * yet) or overwritten (counted totals put in place after it was applied).
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    // counts that saw an event arrive are retried this often before giving up until the next read or check
+    private static final int COUNT_ATTEMPTS = 3;
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final ProductTypeRepository productTypeRepository;
+    private final WarehouseCapacityCache warehouseCapacityCache;
+
+    // only serializes writers, readers just take the current totals
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    // null until first counted, or after a change that needs a full recount
+    private volatile Totals totals;
+
+    // bumped by every totals event, under updateLock
+    private final AtomicLong generation = new AtomicLong();
+
+    public DashboardStatsService(InventoryItemRepository inventoryItemRepository,
+                                 ProductTypeRepository productTypeRepository,
+                                 WarehouseCapacityCache warehouseCapacityCache) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.productTypeRepository = productTypeRepository;
+        this.warehouseCapacityCache = warehouseCapacityCache;
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardDTO getDashboard() {
+        Totals current = totals;
+        if (current == null) {
+            current = rebuild();
+        }
+        List<WarehouseCapacityCache.Snapshot> warehouses = warehouseCapacityCache.getAll();
+        double averageUtilization = warehouses.stream()
+            .mapToDouble(WarehouseCapacityCache.Snapshot::getCapacityPercentage)
+            .average()
+            .orElse(0.0);
+        return new DashboardDTO(current.totalItems, current.totalUnits, current.productTypes, warehouses.size(),
+            current.unitsByCategory, current.withoutLocation, current.multiLocation, averageUtilization,
+            warehouses, current.countedAt);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTotalsChanged(InventoryTotalsChangedEvent event) {
+        updateLock.lock();
+        try {
+            generation.incrementAndGet();
+            if (event.isRebuild()) {
+                totals = null;
+            } else if (totals != null) {
+                // nothing to update yet, a count running now starts over and includes this change
+                totals = totals.apply(event);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // deleting a warehouse cascades to its locations without going through the stock mutations
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWarehouseChanged(WarehouseChangedEvent event) {
+        if (event.getChange() == WarehouseChangedEvent.Change.DELETED) {
+            updateLock.lock();
+            try {
+                generation.incrementAndGet();
+                totals = null;
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    // compare the kept totals with a fresh GROUP BY count and report every difference
+    @Transactional(readOnly = true)
+    public DashboardConsistencyDTO verify() {
+        Totals kept = totals;
+        Totals counted = count();
+        List<String> differences = kept == null ? List.of() : kept.differencesFrom(counted);
+        return new DashboardConsistencyDTO(differences.isEmpty(), differences, counted.countedAt);
+    }
+
+    // scheduled version of verify that also puts the counted totals in place
+    @Scheduled(initialDelayString = "${batstats.dashboard.verify-interval:PT5M}",
+               fixedDelayString = "${batstats.dashboard.verify-interval:PT5M}")
+    public void verifyAndCorrect() {
+        for (int attempt = 1; attempt <= COUNT_ATTEMPTS; attempt++) {
+            long seen = generation.get();
+            Totals counted = count();
+            updateLock.lock();
+            try {
+                Totals kept = totals;
+                if (kept == null) {
+                    return;
+                }
+                // the kept totals moved on during the count, comparing them with it would report false drift
+                if (generation.get() != seen) {
+                    continue;
+                }
+                List<String> differences = kept.differencesFrom(counted);
+                if (!differences.isEmpty()) {
+                    logger.warn("Dashboard totals drifted, replacing them with counted values: {}", differences);
+                    totals = counted;
+                }
+                return;
+            } finally {
+                updateLock.unlock();
+            }
+        }
+        logger.debug("Dashboard totals kept changing during {} counts, checking again next time", COUNT_ATTEMPTS);
+    }
+
+    private Totals rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            long seen = generation.get();
+            Totals counted = count();
+            updateLock.lock();
+            try {
+                if (totals != null) {
+                    return totals;
+                }
+                if (generation.get() == seen) {
+                    totals = counted;
+                    return counted;
+                }
+                // answer this read with the count but leave the totals to a count no event overtook
+                if (attempt == COUNT_ATTEMPTS) {
+                    return counted;
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private Totals count() {
+        Map<String, Long> unitsByCategory = new HashMap<>();
+        long totalUnits = 0;
+        for (CategoryUnitsView row : inventoryItemRepository.sumUnitsByCategory()) {
+            unitsByCategory.put(row.getCategory(), row.getUnits());
+            totalUnits += row.getUnits();
+        }
+        ItemLocationTotalsView items = inventoryItemRepository.countItemsByLocationCount();
+        return new Totals(items.getTotalItems(), totalUnits, productTypeRepository.count(), unitsByCategory,
+            items.getWithoutLocation(), items.getMultiLocation(), LocalDateTime.now());
+    }
+
+    // one immutable set of totals, replaced as a whole on every change
+    private static final class Totals {
+
+        private final long totalItems;
+        private final long totalUnits;
+        private final long productTypes;
+        private final Map<String, Long> unitsByCategory;
+        private final long withoutLocation;
+        private final long multiLocation;
+        private final LocalDateTime countedAt;
+
+        private Totals(long totalItems, long totalUnits, long productTypes, Map<String, Long> unitsByCategory,
+                       long withoutLocation, long multiLocation, LocalDateTime countedAt) {
+            this.totalItems = totalItems;
+            this.totalUnits = totalUnits;
+            this.productTypes = productTypes;
+            this.unitsByCategory = Collections.unmodifiableMap(unitsByCategory);
+            this.withoutLocation = withoutLocation;
+            this.multiLocation = multiLocation;
+            this.countedAt = countedAt;
+        }
+
+        private Totals apply(InventoryTotalsChangedEvent event) {
+            Map<String, Long> units = new HashMap<>(unitsByCategory);
+            long unitDelta = 0;
+            for (Map.Entry<String, Long> change : event.getUnitsByCategory().entrySet()) {
+                unitDelta += change.getValue();
+                // drop categories that ran out, the GROUP BY doesn't return them either
+                units.merge(change.getKey(), change.getValue(), (a, b) -> a + b == 0 ? null : a + b);
+            }
+            return new Totals(totalItems + event.getItemDelta(), totalUnits + unitDelta, productTypes, units,
+                withoutLocation + event.getWithoutLocationDelta(), multiLocation + event.getMultiLocationDelta(),
+                countedAt);
+        }
+
+        private List<String> differencesFrom(Totals counted) {
+            List<String> differences = new ArrayList<>();
+            compare(differences, "totalItems", totalItems, counted.totalItems);
+            compare(differences, "totalUnits", totalUnits, counted.totalUnits);
+            compare(differences, "totalProductTypes", productTypes, counted.productTypes);
+            compare(differences, "itemsWithoutLocation", withoutLocation, counted.withoutLocation);
+            compare(differences, "multiLocationItems", multiLocation, counted.multiLocation);
+            Set<String> categories = new HashSet<>(unitsByCategory.keySet());
+            categories.addAll(counted.unitsByCategory.keySet());
+            for (String category : categories) {
+                Long kept = unitsByCategory.getOrDefault(category, 0L);
+                Long actual = counted.unitsByCategory.getOrDefault(category, 0L);
+                if (!Objects.equals(kept, actual)) {
+                    differences.add("unitsByCategory[" + category + "]: kept " + kept + ", counted " + actual);
+                }
+            }
+            return differences;
+        }
+
+        private static void compare(List<String> differences, String name, long kept, long counted) {
+            if (kept != counted) {
+                differences.add(name + ": kept " + kept + ", counted " + counted);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.skillstormproject1.batstats.dtos.SyncDeltaDTO;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.TableChangedEvent;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.repositories.DeltaSyncRepository;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+/**
+ * ?since deltas of the warehouse, product type and inventory listings.
+ *
+ * Changed rows are found by their updated_at column, deleted ones by the tombstones written
+ * here in the deleting transaction. updated_at is stamped at flush, not at commit, so a row
+ * written by a transaction still open during the read could carry a time the client has
+ * already passed. The syncedAt handed back therefore trails the read by a settle window and
+ * rows changed inside it come again in the next delta, clients should apply rows as upserts.
+ * It is read from the database clock, the one the capacity trigger stamps updated_at with,
+ * so a node whose clock runs ahead can't hand out a watermark past rows not yet written.
+ */
+@Service
+public class DeltaSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaSyncService.class);
+
+    private final DeltaSyncRepository deltaSyncRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductTypeRepository productTypeRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final Duration settle;
+    private final Duration tombstoneRetention;
+
+    public DeltaSyncService(DeltaSyncRepository deltaSyncRepository,
+                            WarehouseRepository warehouseRepository,
+                            ProductTypeRepository productTypeRepository,
+                            InventoryItemRepository inventoryItemRepository,
+                            @Value("${batstats.sync.settle:PT30S}") Duration settle,
+                            @Value("${batstats.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.deltaSyncRepository = deltaSyncRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productTypeRepository = productTypeRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.settle = settle;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    // runs inside the deleting transaction, so the tombstone commits or rolls back with the delete
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if (event.getDeletedId() != null) {
+            deltaSyncRepository.insertTombstone(event.getTable(), event.getDeletedId(), LocalDateTime.now());
+        }
+    }
+
+    // a location left an item's list: only an adjustment keeps a row at zero, a deleted item has its own tombstone
+    // and warehouse deletes write theirs with each chunk
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.getQuantity() == 0 && event.getType() != MovementType.ADJUSTED
+                && event.getType() != MovementType.ITEM_DELETED && event.getType() != MovementType.WAREHOUSE_DELETED) {
+            deltaSyncRepository.insertTombstone(SyncTable.WAREHOUSE_INVENTORY, event.getItemId(), LocalDateTime.now());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public SyncDeltaDTO<Warehouse> getWarehouseChanges(LocalDateTime since) {
+        LocalDateTime syncedAt = syncedAt(since);
+        return new SyncDeltaDTO<>(warehouseRepository.findByUpdatedAtAfterOrderById(since),
+            deltaSyncRepository.findDeletedIds(SyncTable.WAREHOUSES, since), syncedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public SyncDeltaDTO<ProductType> getProductTypeChanges(LocalDateTime since) {
+        LocalDateTime syncedAt = syncedAt(since);
+        return new SyncDeltaDTO<>(productTypeRepository.findByUpdatedAtAfterOrderById(since),
+            deltaSyncRepository.findDeletedIds(SyncTable.PRODUCT_TYPES, since), syncedAt);
+    }
+
+    // items whose own row or location list changed; embedded warehouses and product types are as of that change
+    @Transactional(readOnly = true)
+    public SyncDeltaDTO<InventoryItem> getInventoryItemChanges(LocalDateTime since) {
+        LocalDateTime syncedAt = syncedAt(since);
+        List<Integer> changedIds = deltaSyncRepository.findChangedItemIds(since);
+        List<InventoryItem> changed = changedIds.isEmpty()
+            ? List.of()
+            : inventoryItemRepository.findAllWithLocationsByIdIn(changedIds);
+        return new SyncDeltaDTO<>(changed, deltaSyncRepository.findDeletedIds(SyncTable.INVENTORY_ITEMS, since),
+            syncedAt);
+    }
+
+    @Scheduled(initialDelayString = "${batstats.sync.prune-interval:PT1H}",
+               fixedDelayString = "${batstats.sync.prune-interval:PT1H}")
+    public void pruneTombstones() {
+        int pruned = deltaSyncRepository.deleteTombstonesBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (pruned > 0) {
+            logger.info("Pruned {} tombstones older than {}", pruned, tombstoneRetention);
+        }
+    }
+
+    // taken in the reading transaction from the database clock, minus the settle window; deletions older than
+    // the retention are gone
+    private LocalDateTime syncedAt(LocalDateTime since) {
+        if (since == null) {
+            throw new IllegalArgumentException("since is required");
+        }
+        LocalDateTime syncedAt = deltaSyncRepository.findWatermark(settle);
+        if (since.isBefore(syncedAt.plus(settle).minus(tombstoneRetention))) {
+            throw new IllegalArgumentException("since is older than " + tombstoneRetention
+                + " and deletions before it are no longer known, reload the full list instead");
+        }
+        return syncedAt.isAfter(since) ? syncedAt : since;
+    }
+}
@@ -1,57 +1,151 @@
 package com.skillstormproject1.batstats.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.skillstormproject1.batstats.dtos.BulkCreateResultDTO;
 import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemPageDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.TableChangedEvent;
 import com.skillstormproject1.batstats.exceptions.DuplicateSerialNumberException;
 import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
-import com.skillstormproject1.batstats.exceptions.WarehouseCapacityExceededException;
 import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.MovementType;
 import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.SyncTable;
 import com.skillstormproject1.batstats.models.Warehouse;
 import com.skillstormproject1.batstats.models.WarehouseInventory;
+import com.skillstormproject1.batstats.repositories.InventoryItemBatchRepository;
+import com.skillstormproject1.batstats.repositories.InventoryItemBatchRepository.NewItemRow;
 import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
 import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
 import com.skillstormproject1.batstats.repositories.WarehouseInventoryRepository;
 import com.skillstormproject1.batstats.repositories.WarehouseRepository;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
 
 @Service
 @Transactional
 public class InventoryItemService {
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryItemService.class);
+
+    // upper bound on a single keyset page so one request can't pull the whole table
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    // upper bound on search and typeahead results
+    public static final int MAX_SEARCH_RESULTS = 500;
+
+    // upper bound on one bulk create request
+    public static final int MAX_BULK_ITEMS = 100_000;
+
     private final InventoryItemRepository inventoryItemRepository;
     private final ProductTypeRepository productTypeRepository;
     private final WarehouseRepository warehouseRepository;
     private final WarehouseInventoryRepository warehouseInventoryRepository;
+    private final InventoryItemBatchRepository inventoryItemBatchRepository;
+    private final SerialNumberAllocator serialNumberAllocator;
+    private final WarehouseCapacityService warehouseCapacityService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryLedgerService inventoryLedgerService;
     
     public InventoryItemService(InventoryItemRepository inventoryItemRepository,
                                ProductTypeRepository productTypeRepository,
                                WarehouseRepository warehouseRepository,
-                               WarehouseInventoryRepository warehouseInventoryRepository) {
+                               WarehouseInventoryRepository warehouseInventoryRepository,
+                               InventoryItemBatchRepository inventoryItemBatchRepository,
+                               SerialNumberAllocator serialNumberAllocator,
+                               WarehouseCapacityService warehouseCapacityService,
+                               EntityManager entityManager,
+                               ApplicationEventPublisher eventPublisher,
+                               InventoryLedgerService inventoryLedgerService) {
         this.inventoryItemRepository = inventoryItemRepository;
         this.productTypeRepository = productTypeRepository;
         this.warehouseRepository = warehouseRepository;
         this.warehouseInventoryRepository = warehouseInventoryRepository;
+        this.inventoryItemBatchRepository = inventoryItemBatchRepository;
+        this.serialNumberAllocator = serialNumberAllocator;
+        this.warehouseCapacityService = warehouseCapacityService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.inventoryLedgerService = inventoryLedgerService;
     }
 
     // finds all inventory items 
+    @Transactional(readOnly = true)
     public List<InventoryItem> getAllInventoryItems(){
         return inventoryItemRepository.findAll();
     }
 
+    // get one keyset page of items with ids greater than afterId
+    @Transactional(readOnly = true)
+    public InventoryItemPageDTO getInventoryItemPage(Integer afterId, Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Integer cursor = afterId != null ? afterId : 0;
+
+        // ask for one extra id so we know if there is another page without a count query
+        List<Integer> ids = inventoryItemRepository.findIdsAfter(cursor, Limit.of(limit + 1));
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids = ids.subList(0, limit);
+        }
+        if (ids.isEmpty()) {
+            return new InventoryItemPageDTO(List.of(), null, false);
+        }
+
+        // second statement loads the whole page graph at once; the last page has no cursor to follow
+        List<InventoryItem> items = inventoryItemRepository.findAllWithLocationsByIdIn(ids);
+        return new InventoryItemPageDTO(items, hasMore ? ids.get(ids.size() - 1) : null, hasMore);
+    }
+
+    // hand every item to the consumer one at a time, detaching each one afterwards
+    // so the persistence context (and the heap) stays flat no matter how big the table is
+    @Transactional(readOnly = true)
+    public void streamAllInventoryItems(Consumer<InventoryItem> consumer) {
+        try (Stream<InventoryItem> items = inventoryItemRepository.streamAllOrderedById()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
     // get item by inventory id
+    @Transactional(readOnly = true)
     public InventoryItem getInventoryItemById(Integer id){
         return inventoryItemRepository.findById(id).orElseThrow(() ->
             new ResponseStatusException(HttpStatus.NOT_FOUND, "Iventory item not found with id: " + id));
     }
 
     // get by serial number
+    @Transactional(readOnly = true)
     public InventoryItem getInventoryItemBySerialNumber(String serialNumber) {
         return inventoryItemRepository.findBySerialNumber(serialNumber)
             .orElseThrow(() -> new ResourceNotFoundException(
@@ -59,49 +153,79 @@ public class InventoryItemService {
     }
 
     // find and list all items of a product type
+    @Transactional(readOnly = true)
     public List<InventoryItem> getItemsByProductType(Integer productTypeId) {
         return inventoryItemRepository.findByProductTypeId(productTypeId);
     }
     
-    // search through the items
-    public List<InventoryItem> searchItems(String searchTerm) {
-        return inventoryItemRepository.searchItems(searchTerm);
+    // ranked search through serial numbers and product names, best matches first
+    @Transactional(readOnly = true)
+    public List<InventoryItem> searchItems(String searchTerm, Integer limit) {
+        validateSearchLimit(limit);
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        String escaped = escapeLikePattern(term.toLowerCase(Locale.ROOT));
+        List<Integer> rankedIds = inventoryItemRepository.searchItemIds(term, "%" + escaped + "%", escaped + "%", limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // load the graph in one select, then put the items back in rank order
+        Map<Integer, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        List<InventoryItem> items = inventoryItemRepository.findAllWithLocationsByIdIn(rankedIds);
+        items.sort(Comparator.comparing(item -> rank.get(item.getId())));
+        return items;
+    }
+
+    // typeahead suggestions for the search box
+    @Transactional(readOnly = true)
+    public List<String> suggest(String prefix, Integer limit) {
+        validateSearchLimit(limit);
+        String trimmed = prefix == null ? "" : prefix.trim();
+        if (trimmed.isEmpty()) {
+            return List.of();
+        }
+        return inventoryItemRepository.suggest(escapeLikePattern(trimmed.toLowerCase(Locale.ROOT)) + "%", limit);
+    }
+
+    static void validateSearchLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+    }
+
+    // escape LIKE wildcards so a user typing % or _ searches for the literal character
+    static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     // get items from multiple warehouses
+    @Transactional(readOnly = true)
     public List<InventoryItem> getItemsInMultipleWarehouses() {
         return inventoryItemRepository.findItemsInMultipleWarehouses();
     }
 
     // get the items without using the location 
+    @Transactional(readOnly = true)
     public List<InventoryItem> getItemsWithoutLocation() {
         return inventoryItemRepository.findItemsWithoutLocation();
     }
 
-    private String generateSerialNumber(ProductType productType) {
-        // Get product category prefix (first 3 letters uppercase)
-        String categoryPrefix = productType.getCategory().length() >= 3 
+    // product category prefix for serial numbers (first 3 letters uppercase)
+    private String categoryPrefix(ProductType productType) {
+        return productType.getCategory().length() >= 3 
             ? productType.getCategory().substring(0, 3).toUpperCase()
             : productType.getCategory().toUpperCase();
-        
-        // Count existing items of this product type to get next number
-        int existingCount = inventoryItemRepository.findByProductTypeId(productType.getId()).size();
-        int nextNumber = existingCount + 1;
-        
-        String serialNumber;
-        int attempts = 0;
-        
-        // Keep trying until we find a unique serial number
-        do {
-            serialNumber = String.format("%s-%03d", categoryPrefix, nextNumber + attempts);
-            attempts++;
-        } while (inventoryItemRepository.existsBySerialNumber(serialNumber) && attempts < 1000);
-        
-        if (attempts >= 1000) {
-            throw new IllegalStateException("Unable to generate unique serial number after 1000 attempts");
-        }
-        
-        return serialNumber;
+    }
+
+    // serials come from the block allocator, which skips numbers clients already used
+    private String generateSerialNumber(ProductType productType) {
+        return serialNumberAllocator.nextSerialNumber(categoryPrefix(productType));
     }
 
     /**
@@ -133,32 +257,160 @@ public class InventoryItemService {
         item.setSerialNumber(serialNumber);
         item.setProductType(productType);
         
-        // Save the item first
-        item = inventoryItemRepository.save(item);
+        // Save the item first; a client can take the same serial between the check above and this insert
+        try {
+            item = inventoryItemRepository.save(item);
+        } catch (DataIntegrityViolationException ex) {
+            throw new DuplicateSerialNumberException("Item with serial number " + serialNumber + " already exists");
+        }
+        
+        InventoryTotalsChangedEvent totals = new InventoryTotalsChangedEvent();
         
         // If warehouse assignment provided, add to warehouse
         if (itemDTO.getInitialWarehouseId() != null && itemDTO.getInitialQuantity() != null) {
-            Warehouse warehouse = warehouseRepository.findById(itemDTO.getInitialWarehouseId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                    "Warehouse not found with id: " + itemDTO.getInitialWarehouseId()));
-            
-            // Check warehouse capacity
-            if (!warehouse.hasCapacity(itemDTO.getInitialQuantity())) {
-                throw new WarehouseCapacityExceededException(
-                    String.format("Warehouse '%s' has insufficient capacity. Available: %d, Required: %d",
-                        warehouse.getName(), warehouse.getAvailableCapacity(), itemDTO.getInitialQuantity()));
-            }
+            // lock the warehouse row and check capacity against it
+            WarehouseCapacityView capacity = warehouseCapacityService.lock(itemDTO.getInitialWarehouseId());
+            warehouseCapacityService.requireCapacity(capacity, itemDTO.getInitialQuantity());
+            Warehouse warehouse = warehouseRepository.getReferenceById(capacity.getId());
             
             // Create warehouse location entry
             WarehouseInventory location = new WarehouseInventory(warehouse, item, itemDTO.getInitialQuantity());
             warehouseInventoryRepository.save(location);
+            warehouseCapacityService.recordChange(capacity, itemDTO.getInitialQuantity());
+            eventPublisher.publishEvent(new StockChangedEvent(MovementType.ITEM_CREATED, capacity.getId(), item.getId(),
+                itemDTO.getInitialQuantity(), itemDTO.getInitialQuantity()));
+            totals.addUnits(productType.getCategory(), itemDTO.getInitialQuantity()).itemLocations(-1, 1);
             
             // Database trigger will automatically update warehouse capacity
+        } else {
+            totals.itemLocations(-1, 0);
         }
+        eventPublisher.publishEvent(totals);
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.INVENTORY_ITEMS));
         
         return item;
     }
     
+    // create a whole shipment of items in one transaction with batched inserts
+    public BulkCreateResultDTO createInventoryItems(List<InventoryItemDTO> itemDTOs) {
+        if (itemDTOs == null || itemDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Bulk create needs at least one item");
+        }
+        if (itemDTOs.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("Bulk create is limited to " + MAX_BULK_ITEMS + " items per request");
+        }
+
+        // one lookup for every product type in the batch
+        Map<Integer, ProductType> productTypes = new HashMap<>();
+        Set<Integer> productTypeIds = new HashSet<>();
+        for (InventoryItemDTO dto : itemDTOs) {
+            if (dto.getProductTypeId() == null) {
+                throw new IllegalArgumentException("Every item needs a productTypeId");
+            }
+            productTypeIds.add(dto.getProductTypeId());
+        }
+        productTypeRepository.findAllById(productTypeIds).forEach(type -> productTypes.put(type.getId(), type));
+        for (Integer productTypeId : productTypeIds) {
+            if (!productTypes.containsKey(productTypeId)) {
+                throw new ResourceNotFoundException("Product type not found with id: " + productTypeId);
+            }
+        }
+
+        // add up the requested quantity per warehouse so capacity is checked once per warehouse
+        Map<Integer, Integer> requiredByWarehouse = new HashMap<>();
+        for (InventoryItemDTO dto : itemDTOs) {
+            if (dto.getInitialWarehouseId() != null && dto.getInitialQuantity() != null) {
+                if (dto.getInitialQuantity() <= 0) {
+                    throw new IllegalArgumentException("Initial quantity must be greater than zero");
+                }
+                requiredByWarehouse.merge(dto.getInitialWarehouseId(), dto.getInitialQuantity(), Integer::sum);
+            }
+        }
+
+        // provided serial numbers must be unique in the batch and in the database
+        Set<String> providedSerials = new HashSet<>();
+        for (InventoryItemDTO dto : itemDTOs) {
+            String serialNumber = dto.getSerialNumber();
+            if (serialNumber != null && !serialNumber.trim().isEmpty() && !providedSerials.add(serialNumber)) {
+                throw new DuplicateSerialNumberException(
+                    "Serial number " + serialNumber + " appears more than once in the request");
+            }
+        }
+        List<String> providedList = new ArrayList<>(providedSerials);
+        for (int start = 0; start < providedList.size(); start += InventoryItemBatchRepository.BATCH_SIZE) {
+            List<String> chunk = providedList.subList(start,
+                Math.min(start + InventoryItemBatchRepository.BATCH_SIZE, providedList.size()));
+            List<String> taken = inventoryItemRepository.findExistingSerialNumbers(chunk);
+            if (!taken.isEmpty()) {
+                throw new DuplicateSerialNumberException(
+                    "Item with serial number " + taken.get(0) + " already exists");
+            }
+        }
+
+        // serials per category prefix for the items that need one, clear of the provided ones and the table
+        Map<String, Integer> neededByPrefix = new HashMap<>();
+        for (InventoryItemDTO dto : itemDTOs) {
+            if (dto.getSerialNumber() == null || dto.getSerialNumber().trim().isEmpty()) {
+                neededByPrefix.merge(categoryPrefix(productTypes.get(dto.getProductTypeId())), 1, Integer::sum);
+            }
+        }
+        Map<String, Iterator<String>> serialsByPrefix = new HashMap<>();
+        neededByPrefix.forEach((prefix, needed) -> serialsByPrefix.put(prefix,
+            serialNumberAllocator.nextSerialNumbers(prefix, needed, providedSerials).iterator()));
+
+        // serial block rows first, then the target warehouses (in id order), like a single create
+        Map<Integer, WarehouseCapacityView> locked = Map.of();
+        if (!requiredByWarehouse.isEmpty()) {
+            // lock every target warehouse so the check holds until we commit
+            locked = warehouseCapacityService.lockAll(requiredByWarehouse.keySet());
+            for (Map.Entry<Integer, Integer> required : requiredByWarehouse.entrySet()) {
+                warehouseCapacityService.requireCapacity(locked.get(required.getKey()), required.getValue());
+            }
+        }
+
+        List<NewItemRow> rows = new ArrayList<>(itemDTOs.size());
+        InventoryTotalsChangedEvent totals = new InventoryTotalsChangedEvent();
+        for (InventoryItemDTO dto : itemDTOs) {
+            ProductType productType = productTypes.get(dto.getProductTypeId());
+            String serialNumber = dto.getSerialNumber();
+            if (serialNumber == null || serialNumber.trim().isEmpty()) {
+                serialNumber = serialsByPrefix.get(categoryPrefix(productType)).next();
+            }
+            NewItemRow row = new NewItemRow(serialNumber, productType.getId(),
+                dto.getInitialWarehouseId(), dto.getInitialQuantity());
+            if (row.hasLocation()) {
+                totals.addUnits(productType.getCategory(), row.getQuantity()).itemLocations(-1, 1);
+            } else {
+                totals.itemLocations(-1, 0);
+            }
+            rows.add(row);
+        }
+
+        // write everything with set-based JDBC inserts (the JPA context has nothing pending for these tables)
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            inventoryItemBatchRepository.insertItems(rows, now);
+        } catch (DuplicateKeyException ex) {
+            // a provided serial taken by another request since the check above
+            throw new DuplicateSerialNumberException("An item with one of the serial numbers already exists");
+        }
+        inventoryItemBatchRepository.insertLocations(rows, now);
+        inventoryLedgerService.recordCreatedLocations(rows);
+        for (Map.Entry<Integer, Integer> required : requiredByWarehouse.entrySet()) {
+            warehouseCapacityService.recordChange(locked.get(required.getKey()), required.getValue());
+        }
+        eventPublisher.publishEvent(totals);
+        // the JDBC inserts publish no per-row events
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.INVENTORY_ITEMS));
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.WAREHOUSE_INVENTORY));
+
+        int locationCount = (int) rows.stream().filter(NewItemRow::hasLocation).count();
+        logger.info("Bulk created {} items with {} initial locations", rows.size(), locationCount);
+
+        return new BulkCreateResultDTO(rows.size(), locationCount,
+            rows.stream().map(NewItemRow::getSerialNumber).toList());
+    }
+    
     public InventoryItem updateInventoryItem(Integer id, InventoryItemDTO itemDTO) {
         InventoryItem existing = getInventoryItemById(id);
         
@@ -167,10 +419,34 @@ public class InventoryItemService {
             ProductType productType = productTypeRepository.findById(itemDTO.getProductTypeId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                     "Product type not found with id: " + itemDTO.getProductTypeId()));
+            ProductType previousType = existing.getProductType();
+            String previousCategory = previousType.getCategory();
             existing.setProductType(productType);
+
+            // the ledger moves the units between product types, per location the pair cancels out
+            if (!previousType.getId().equals(productType.getId())) {
+                for (WarehouseInventory location : warehouseInventoryRepository.findByInventoryItemId(id)) {
+                    Integer warehouseId = location.getWarehouse().getId();
+                    eventPublisher.publishEvent(new StockChangedEvent(MovementType.RECLASSIFIED, warehouseId, id,
+                        location.getQuantity(), -location.getQuantity(), previousType.getId()));
+                    eventPublisher.publishEvent(new StockChangedEvent(MovementType.RECLASSIFIED, warehouseId, id,
+                        location.getQuantity(), location.getQuantity(), productType.getId()));
+                }
+            }
+
+            // the item's units now count towards the new category
+            if (!previousCategory.equals(productType.getCategory())) {
+                Integer total = warehouseInventoryRepository.getTotalQuantityForItem(id);
+                long units = total != null ? total : 0;
+                eventPublisher.publishEvent(new InventoryTotalsChangedEvent()
+                    .addUnits(previousCategory, -units)
+                    .addUnits(productType.getCategory(), units));
+            }
         }
         
-        return inventoryItemRepository.save(existing);
+        InventoryItem saved = inventoryItemRepository.save(existing);
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.INVENTORY_ITEMS));
+        return saved;
     }
     
     
@@ -179,7 +455,38 @@ public class InventoryItemService {
             throw new ResourceNotFoundException(
                 "Inventory item not found with id: " + id);
         }
+        // lock every warehouse holding the item (in id order), then the item itself so no new location
+        // can join; the cascade below frees their capacity
+        Map<Integer, WarehouseCapacityView> locked = new HashMap<>(warehouseCapacityService.lockAll(
+            warehouseInventoryRepository.findWarehouseIdsByItemId(id)));
+        if (inventoryItemRepository.lockById(id).isEmpty()) {
+            throw new ResourceNotFoundException(
+                "Inventory item not found with id: " + id);
+        }
+        // a location added before the item lock may sit in a warehouse not locked yet
+        List<Integer> unlocked = warehouseInventoryRepository.findWarehouseIdsByItemId(id).stream()
+            .filter(warehouseId -> !locked.containsKey(warehouseId))
+            .toList();
+        if (!unlocked.isEmpty()) {
+            locked.putAll(warehouseCapacityService.lockAll(unlocked));
+        }
+        // read only now, with every warehouse locked the quantities can't move
+        List<WarehouseInventory> locations = warehouseInventoryRepository.findByInventoryItemId(id);
+
+        String category = inventoryItemRepository.findCategoryById(id).orElseThrow();
+        // named explicitly, the item row may already be gone when the ledger writes
+        Integer productTypeId = inventoryItemRepository.getReferenceById(id).getProductType().getId();
+
         // cascade delete to handle the warehouse inventory items
         inventoryItemRepository.deleteById(id);
+        InventoryTotalsChangedEvent totals = new InventoryTotalsChangedEvent().itemLocations(locations.size(), -1);
+        for (WarehouseInventory location : locations) {
+            warehouseCapacityService.recordChange(locked.get(location.getWarehouse().getId()), -location.getQuantity());
+            totals.addUnits(category, -location.getQuantity());
+            eventPublisher.publishEvent(new StockChangedEvent(MovementType.ITEM_DELETED,
+                location.getWarehouse().getId(), id, 0, -location.getQuantity(), productTypeId));
+        }
+        eventPublisher.publishEvent(totals);
+        eventPublisher.publishEvent(TableChangedEvent.deleted(SyncTable.INVENTORY_ITEMS, id));
     }
 }
@@ -0,0 +1,227 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstormproject1.batstats.dtos.StockLevelDTO;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.models.InventoryMovement;
+import com.skillstormproject1.batstats.models.InventorySnapshot;
+import com.skillstormproject1.batstats.repositories.InventoryItemBatchRepository.NewItemRow;
+import com.skillstormproject1.batstats.repositories.InventoryLedgerRepository;
+import com.skillstormproject1.batstats.repositories.InventoryMovementRepository;
+import com.skillstormproject1.batstats.repositories.InventorySnapshotRepository;
+
+/**
+ * Append-only history of every warehouse_inventory quantity change.
+ *
+ * Stock mutations already publish a StockChangedEvent per location they touch. Inside a
+ * transaction those are collected and written as one JDBC batch just before commit, so the
+ * ledger commits or rolls back with the change it records and a transfer costs one extra
+ * round trip rather than one per row. Bulk item creation writes its movements with a single
+ * set-based statement instead.
+ *
+ * A scheduled job compacts the ledger into snapshots (the previous snapshot plus the movements
+ * since), so the stock at any point in time is rebuilt from the nearest snapshot before it
+ * instead of from the first movement.
+ */
+@Service
+public class InventoryLedgerService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedgerService.class);
+
+    // upper bound on movements returned in one request
+    public static final int MAX_MOVEMENTS = 500;
+
+    private final InventoryLedgerRepository ledgerRepository;
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration snapshotSettle;
+    private final Duration snapshotRetention;
+
+    // key the per-transaction buffer is bound under
+    private final Object pendingKey = new Object();
+
+    public InventoryLedgerService(InventoryLedgerRepository ledgerRepository,
+                                  InventoryMovementRepository movementRepository,
+                                  InventorySnapshotRepository snapshotRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${batstats.ledger.enabled:true}") boolean enabled,
+                                  @Value("${batstats.ledger.snapshot-settle:PT1M}") Duration snapshotSettle,
+                                  @Value("${batstats.ledger.snapshot-retention:P7D}") Duration snapshotRetention) {
+        this.ledgerRepository = ledgerRepository;
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.snapshotSettle = snapshotSettle;
+        this.snapshotRetention = snapshotRetention;
+    }
+
+    // before the web server starts: stock that predates the ledger becomes its opening balance
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            logger.warn("Inventory ledger is disabled, stock changes are not being recorded");
+            return;
+        }
+        Integer opened = transactionTemplate.execute(status -> ledgerRepository.insertOpeningBalancesIfEmpty());
+        if (opened != null && opened >= 0) {
+            logger.info("Started the inventory ledger with {} opening balances", opened);
+        }
+    }
+
+    // runs inside the publishing transaction, the rows are written by the buffer's beforeCommit
+    // bulk deletes write theirs in the deleting statement and mark the events recorded
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        if (!enabled || event.isRecorded()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ledgerRepository.insertMovements(List.of(event));
+            return;
+        }
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            pending = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(pendingKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.movements.add(event);
+    }
+
+    // initial locations of bulk created items, written in the caller's transaction
+    public void recordCreatedLocations(List<NewItemRow> rows) {
+        if (enabled) {
+            ledgerRepository.insertCreatedLocations(rows);
+        }
+    }
+
+    // newest movements of an item, optionally at one warehouse
+    @Transactional(readOnly = true)
+    public List<InventoryMovement> getMovements(Integer itemId, Integer warehouseId, Integer limit) {
+        if (itemId == null) {
+            throw new IllegalArgumentException("itemId is required");
+        }
+        int size = limit != null ? limit : 100;
+        if (size <= 0 || size > MAX_MOVEMENTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_MOVEMENTS);
+        }
+        return warehouseId != null
+            ? movementRepository.findByItemIdAndWarehouseIdOrderByIdDesc(itemId, warehouseId, Limit.of(size))
+            : movementRepository.findByItemIdOrderByIdDesc(itemId, Limit.of(size));
+    }
+
+    // stock as it was at the given time (now when null), replayed from the nearest snapshot before it
+    @Transactional(readOnly = true)
+    public List<StockLevelDTO> getStockAt(LocalDateTime at, Integer warehouseId, Integer itemId) {
+        if (warehouseId == null && itemId == null) {
+            throw new IllegalArgumentException("Give a warehouseId, an itemId or both");
+        }
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        InventorySnapshot snapshot = snapshotRepository
+            .findFirstByCoversThroughLessThanEqualOrderByCoversThroughDesc(pointInTime)
+            .orElse(null);
+        return ledgerRepository.stockAt(snapshot, pointInTime, warehouseId, itemId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<InventorySnapshot> getSnapshots() {
+        return snapshotRepository.findAllByOrderByCoversThroughDesc();
+    }
+
+    @Scheduled(initialDelayString = "${batstats.ledger.snapshot-interval:PT1H}",
+               fixedDelayString = "${batstats.ledger.snapshot-interval:PT1H}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        takeSnapshot();
+        pruneSnapshots();
+    }
+
+    // fold everything recorded since the last snapshot into a new one, empty when there was nothing to fold
+    public Optional<InventorySnapshot> takeSnapshot() {
+        return transactionTemplate.execute(status -> {
+            if (!ledgerRepository.tryLockSnapshots()) {
+                logger.info("Another node is taking a ledger snapshot, skipping");
+                return Optional.<InventorySnapshot>empty();
+            }
+            InventorySnapshot base = snapshotRepository.findFirstByOrderByCoversThroughDesc().orElse(null);
+            LocalDateTime from = base != null ? base.getCoversThrough() : null;
+            LocalDateTime cutoff = ledgerRepository.safeCutoff(snapshotSettle);
+            if (from != null && !cutoff.isAfter(from)) {
+                return Optional.<InventorySnapshot>empty();
+            }
+            long movements = ledgerRepository.countMovements(from, cutoff);
+            if (movements == 0) {
+                return Optional.<InventorySnapshot>empty();
+            }
+
+            InventorySnapshot snapshot = snapshotRepository.save(
+                new InventorySnapshot(cutoff, base != null ? base.getId() : null));
+            snapshot.setLocationCount((long) ledgerRepository.insertSnapshotEntries(snapshot.getId(), base, cutoff));
+            snapshot.setMovementCount(movements);
+            logger.info("Ledger snapshot {} covers {} with {} locations, folded {} movements",
+                snapshot.getId(), cutoff, snapshot.getLocationCount(), movements);
+            return Optional.of(snapshot);
+        });
+    }
+
+    // older snapshots only speed up old lookups, replays fall back to an earlier one or the start
+    public int pruneSnapshots() {
+        Integer pruned = transactionTemplate.execute(status -> {
+            Optional<InventorySnapshot> newest = snapshotRepository.findFirstByOrderByCoversThroughDesc();
+            List<InventorySnapshot> expired = new ArrayList<>(snapshotRepository
+                .findByTakenAtBeforeOrderByCoversThroughAsc(LocalDateTime.now().minus(snapshotRetention)));
+            newest.ifPresent(expired::remove);
+            for (InventorySnapshot snapshot : expired) {
+                ledgerRepository.deleteSnapshotEntries(snapshot.getId());
+                snapshotRepository.delete(snapshot);
+            }
+            return expired.size();
+        });
+        if (pruned != null && pruned > 0) {
+            logger.info("Pruned {} ledger snapshots older than {}", pruned, snapshotRetention);
+        }
+        return pruned != null ? pruned : 0;
+    }
+
+    // the movements of one transaction, flushed as a single batch before it commits
+    private final class PendingMovements implements TransactionSynchronization {
+
+        private final List<StockChangedEvent> movements = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!movements.isEmpty()) {
+                ledgerRepository.insertMovements(movements);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+        }
+    }
+}
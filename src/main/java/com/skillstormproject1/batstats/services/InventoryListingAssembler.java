@@ -0,0 +1,126 @@
+package com.skillstormproject1.batstats.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.skillstormproject1.batstats.dtos.InventoryListingDTO;
+import com.skillstormproject1.batstats.dtos.ItemRowDTO;
+import com.skillstormproject1.batstats.dtos.LocationRowDTO;
+import com.skillstormproject1.batstats.dtos.ProductTypeRowDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseRowDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+/**
+ * Builds the lean inventory listing out of loaded InventoryItem entities.
+ *
+ * Writing the entities directly repeats the whole warehouse, with its computed capacity
+ * fields, inside every location and walks the locations twice more for totalQuantity and
+ * locationCount. Here each item becomes a flat row in one pass over its locations, and every
+ * warehouse and product type is converted once into a lookup table the rows point into.
+ * Parts left out by ?fields are not built at all.
+ */
+@Component
+public class InventoryListingAssembler {
+
+    // names accepted by ?fields, the properties of ItemRowDTO
+    public static final Set<String> ITEM_FIELDS = Set.of("id", "serialNumber", "productTypeId", "totalQuantity",
+        "locationCount", "locations", "createdAt", "updatedAt");
+
+    // comma separated ?fields value, null or blank means every field
+    public Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ITEM_FIELDS;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ITEM_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field " + name + ", expected some of " + ITEM_FIELDS);
+            }
+            selected.add(name);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("fields lists no field");
+        }
+        return selected;
+    }
+
+    // jackson filters writing only the selected properties of each item row
+    public FilterProvider filters(Set<String> fields) {
+        SimpleBeanPropertyFilter filter = fields.containsAll(ITEM_FIELDS)
+            ? SimpleBeanPropertyFilter.serializeAll()
+            : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        return new SimpleFilterProvider().addFilter(ItemRowDTO.FILTER, filter);
+    }
+
+    public InventoryListingDTO assemble(List<InventoryItem> items, Set<String> fields) {
+        boolean withLocations = fields.contains("locations");
+        boolean withProductTypes = fields.contains("productTypeId");
+        Map<Integer, WarehouseRowDTO> warehouses = new HashMap<>();
+        Map<Integer, ProductTypeRowDTO> productTypes = new HashMap<>();
+        List<ItemRowDTO> rows = new ArrayList<>(items.size());
+
+        for (InventoryItem item : items) {
+            ItemRowDTO row = new ItemRowDTO();
+            row.setId(item.getId());
+            row.setSerialNumber(item.getSerialNumber());
+            row.setCreatedAt(item.getCreatedAt());
+            row.setUpdatedAt(item.getUpdatedAt());
+
+            ProductType productType = item.getProductType();
+            if (productType != null) {
+                row.setProductTypeId(productType.getId());
+                if (withProductTypes && !productTypes.containsKey(productType.getId())) {
+                    productTypes.put(productType.getId(), toRow(productType));
+                }
+            }
+
+            // totals and the location rows in the same pass
+            List<WarehouseInventory> locations = item.getWarehouseLocations();
+            int total = 0;
+            List<LocationRowDTO> locationRows = withLocations ? new ArrayList<>(locations.size()) : null;
+            for (WarehouseInventory location : locations) {
+                total += location.getQuantity();
+                if (withLocations) {
+                    Warehouse warehouse = location.getWarehouse();
+                    locationRows.add(new LocationRowDTO(location.getId(), warehouse.getId(), location.getQuantity()));
+                    if (!warehouses.containsKey(warehouse.getId())) {
+                        warehouses.put(warehouse.getId(), toRow(warehouse));
+                    }
+                }
+            }
+            row.setTotalQuantity(total);
+            row.setLocationCount(locations.size());
+            row.setLocations(locationRows);
+            rows.add(row);
+        }
+        return new InventoryListingDTO(rows, warehouses, productTypes);
+    }
+
+    // the computed capacity fields are worked out here, once per warehouse and listing
+    private WarehouseRowDTO toRow(Warehouse warehouse) {
+        return new WarehouseRowDTO(warehouse.getId(), warehouse.getName(), warehouse.getLocation(),
+            warehouse.getMaxCapacity(), warehouse.getCurrentCapacity(), warehouse.getAvailableCapacity(),
+            warehouse.getCapacityPercentage(), warehouse.getStatus());
+    }
+
+    private ProductTypeRowDTO toRow(ProductType productType) {
+        return new ProductTypeRowDTO(productType.getId(), productType.getName(), productType.getCategory(),
+            productType.getUnitOfMeasure(), productType.getDescription());
+    }
+}
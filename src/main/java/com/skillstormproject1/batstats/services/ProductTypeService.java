@@ -2,37 +2,50 @@ package com.skillstormproject1.batstats.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.TableChangedEvent;
 import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.SyncTable;
 import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 @Transactional
 public class ProductTypeService {
 
     private final ProductTypeRepository productTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkDeleteService bulkDeleteService;
 
-    public ProductTypeService(ProductTypeRepository productTypeRepository) {
+    public ProductTypeService(ProductTypeRepository productTypeRepository,
+                              ApplicationEventPublisher eventPublisher, BulkDeleteService bulkDeleteService) {
         this.productTypeRepository = productTypeRepository;
+        this.eventPublisher = eventPublisher;
+        this.bulkDeleteService = bulkDeleteService;
     }
 
     // finds all product types using built in findAll()
+    @Transactional(readOnly = true)
     public List<ProductType> getAllProductTypes(){
         return productTypeRepository.findAll();
     }
     
     // find a product by the id provided
+    @Transactional(readOnly = true)
     public ProductType getProductTypeById(Integer id){
         return productTypeRepository.findById(id).orElseThrow(() ->
             new ResponseStatusException(HttpStatus.NOT_FOUND, "Product Type not found with id: " + id));    // need to throw an exception if it doesn't find that id
     }
 
     // find a product by category name
+    @Transactional(readOnly = true)
     public List<ProductType> getProductTypeByCategory(String category) {
         return productTypeRepository.findByCategory(category);
     }
@@ -43,8 +56,12 @@ public class ProductTypeService {
      * deleteProductType - exists boolean and exception
      */
 
+    // product type edits can regroup every item's units, so the dashboard recounts after each one
     public ProductType createProductType(ProductType productType) {
-        return productTypeRepository.save(productType);
+        ProductType saved = productTypeRepository.save(productType);
+        eventPublisher.publishEvent(InventoryTotalsChangedEvent.rebuild());
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.PRODUCT_TYPES));
+        return saved;
     }
 
     public ProductType updateProductType(Integer id, ProductType productType) {
@@ -52,15 +69,26 @@ public class ProductTypeService {
         existing.setName(productType.getName());
         existing.setCategory(productType.getCategory());
         existing.setUnitOfMeasure(productType.getUnitOfMeasure());
-        return productTypeRepository.save(existing);
+        ProductType saved = productTypeRepository.save(existing);
+        eventPublisher.publishEvent(InventoryTotalsChangedEvent.rebuild());
+        eventPublisher.publishEvent(new TableChangedEvent(SyncTable.PRODUCT_TYPES));
+        return saved;
     }
     
+    // the items go in chunks that each commit on their own, so no transaction may be open around this
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteProductType(Integer id) {
         if (!productTypeRepository.existsById(id)) {
             throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND,"Product Type not found with id: " + id);
             }
-        productTypeRepository.deleteById(id);
+        bulkDeleteService.deleteProductType(id);
+    }
+
+    // same delete on a background thread, follow it through the returned job
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteJobDTO startProductTypeDelete(Integer id) {
+        return bulkDeleteService.startProductTypeDelete(id);
     }
 
 }
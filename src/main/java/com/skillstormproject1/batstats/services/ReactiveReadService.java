@@ -0,0 +1,41 @@
+package com.skillstormproject1.batstats.services;
+
+import java.util.Locale;
+
+import org.springframework.stereotype.Service;
+
+import com.skillstormproject1.batstats.dtos.ItemSummaryDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
+import com.skillstormproject1.batstats.repositories.ReactiveReadRepository;
+
+import reactor.core.publisher.Flux;
+
+// streaming counterparts of the listing reads, nothing here opens a JPA session or a Hikari connection
+@Service
+public class ReactiveReadService {
+
+    private final ReactiveReadRepository reactiveReadRepository;
+
+    public ReactiveReadService(ReactiveReadRepository reactiveReadRepository) {
+        this.reactiveReadRepository = reactiveReadRepository;
+    }
+
+    public Flux<ItemSummaryDTO> streamWarehouseContents(Integer warehouseId) {
+        return reactiveReadRepository.findWarehouseContents(warehouseId);
+    }
+
+    public Flux<WarehouseLocationDTO> streamItemLocations(Integer itemId) {
+        return reactiveReadRepository.findItemLocations(itemId);
+    }
+
+    // same validation and escaping as InventoryItemService.searchItems
+    public Flux<ItemSummaryDTO> search(String searchTerm, Integer limit) {
+        InventoryItemService.validateSearchLimit(limit);
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        if (term.isEmpty()) {
+            return Flux.empty();
+        }
+        String escaped = InventoryItemService.escapeLikePattern(term.toLowerCase(Locale.ROOT));
+        return reactiveReadRepository.search(term, "%" + escaped + "%", escaped + "%", limit);
+    }
+}
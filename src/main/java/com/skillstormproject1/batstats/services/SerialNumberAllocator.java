@@ -0,0 +1,176 @@
+package com.skillstormproject1.batstats.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.skillstormproject1.batstats.repositories.InventoryItemBatchRepository;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.SerialNumberBlockRepository;
+
+/**
+ * Hands out serial numbers per category prefix.
+ *
+ * Each node reserves a block of numbers from the serial_number_blocks table and then issues
+ * numbers from an in-memory AtomicLong, so the common case is a single getAndIncrement and an
+ * indexed existence check. A block is reserved with one UPDATE ... RETURNING on the caller's own
+ * connection, so a refill never waits for a second pooled connection while holding one. The rest
+ * of a block is only handed to other threads once the reserving transaction commits: a rolled
+ * back reservation is given out again by the database, so its numbers must not outlive it.
+ *
+ * Clients may also supply serials that look generated, e.g. "WEA-150", and a block reserved
+ * earlier, here or on another node, can contain one. Generated serials are therefore checked
+ * against inventory_items and taken ones are skipped.
+ */
+@Service
+public class SerialNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerialNumberAllocator.class);
+
+    private final SerialNumberBlockRepository serialNumberBlockRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final int blockSize;
+
+    // committed, partly used blocks per prefix, oldest first
+    private final ConcurrentMap<String, Queue<Range>> ranges = new ConcurrentHashMap<>();
+
+    public SerialNumberAllocator(SerialNumberBlockRepository serialNumberBlockRepository,
+                                 InventoryItemRepository inventoryItemRepository,
+                                 @Value("${batstats.serials.block-size:100}") int blockSize) {
+        this.serialNumberBlockRepository = serialNumberBlockRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.blockSize = blockSize;
+    }
+
+    // numbers [next, end) reserved for this node
+    private static final class Range {
+        private final AtomicLong next;
+        private final long end;
+
+        private Range(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+        // -1 once the range is used up
+        private long tryTake() {
+            long value = next.getAndIncrement();
+            return value < end ? value : -1;
+        }
+    }
+
+    // next free serial number for the prefix, e.g. "WEA-042"
+    @Transactional
+    public String nextSerialNumber(String prefix) {
+        while (true) {
+            String serialNumber = format(prefix, next(prefix));
+            if (!inventoryItemRepository.existsBySerialNumber(serialNumber)) {
+                return serialNumber;
+            }
+            logger.debug("Skipping serial number {}, a client already used it", serialNumber);
+        }
+    }
+
+    // next raw number for the prefix, not checked against inventory_items
+    @Transactional
+    public long next(String prefix) {
+        Queue<Range> queue = queue(prefix);
+        for (Range range = queue.peek(); range != null; range = queue.peek()) {
+            long value = range.tryTake();
+            if (value >= 0) {
+                return value;
+            }
+            queue.remove(range);
+        }
+        // threads that find nothing each reserve a block, nobody waits here while holding a connection
+        long start = reserve(prefix, blockSize);
+        if (blockSize > 1) {
+            publishAfterCommit(queue, new Range(start + 1, start + blockSize));
+        }
+        return start;
+    }
+
+    // count free serial numbers for the prefix (used by bulk creates), none of them in exclude
+    @Transactional
+    public List<String> nextSerialNumbers(String prefix, int count, Set<String> exclude) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Serial block size must be greater than zero");
+        }
+        List<String> serialNumbers = new ArrayList<>(count);
+        while (serialNumbers.size() < count) {
+            int needed = count - serialNumbers.size();
+            int before = serialNumbers.size();
+            long start = reserve(prefix, needed);
+            List<String> candidates = new ArrayList<>(needed);
+            for (long value = start; value < start + needed; value++) {
+                String serialNumber = format(prefix, value);
+                if (!exclude.contains(serialNumber)) {
+                    candidates.add(serialNumber);
+                }
+            }
+            Set<String> taken = findTaken(candidates);
+            for (String serialNumber : candidates) {
+                if (!taken.contains(serialNumber)) {
+                    serialNumbers.add(serialNumber);
+                }
+            }
+            int skipped = needed - (serialNumbers.size() - before);
+            if (skipped > 0) {
+                logger.debug("Skipped {} serial numbers for prefix {} that were already used", skipped, prefix);
+            }
+        }
+        return serialNumbers;
+    }
+
+    public String format(String prefix, long value) {
+        return String.format("%s-%03d", prefix, value);
+    }
+
+    // runs in the caller's transaction, the prefix row stays locked until it ends
+    private long reserve(String prefix, int size) {
+        Long start = serialNumberBlockRepository.reserve(prefix, size);
+        if (start == null) {
+            start = serialNumberBlockRepository.seedAndReserve(prefix, size);
+        }
+        logger.debug("Reserved serial numbers {}..{} for prefix {}", start, start + size - 1, prefix);
+        return start;
+    }
+
+    private Set<String> findTaken(List<String> serialNumbers) {
+        Set<String> taken = new HashSet<>();
+        for (int start = 0; start < serialNumbers.size(); start += InventoryItemBatchRepository.BATCH_SIZE) {
+            Collection<String> chunk = serialNumbers.subList(start,
+                Math.min(start + InventoryItemBatchRepository.BATCH_SIZE, serialNumbers.size()));
+            taken.addAll(inventoryItemRepository.findExistingSerialNumbers(chunk));
+        }
+        return taken;
+    }
+
+    private Queue<Range> queue(String prefix) {
+        return ranges.computeIfAbsent(prefix, key -> new ConcurrentLinkedQueue<>());
+    }
+
+    private void publishAfterCommit(Queue<Range> queue, Range range) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                queue.add(range);
+            }
+        });
+    }
+}
@@ -0,0 +1,377 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.skillstormproject1.batstats.dtos.StockAlertDTO;
+import com.skillstormproject1.batstats.events.AlertTransitionEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.models.AlertKind;
+import com.skillstormproject1.batstats.models.AlertLevel;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.repositories.LocationQuantityView;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
+import com.skillstormproject1.batstats.repositories.WarehouseInventoryRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Capacity and low-stock alerts kept up to date from committed changes instead of queried.
+ *
+ * Every warehouse has an OK / WARNING / CRITICAL state for its fill percentage (active
+ * warehouses only, like the capacity_alerts view) and every location one for its quantity.
+ * The states are moved by the capacity and stock events the services already publish, once
+ * their transaction commits, so reading the open alerts never touches the database. The
+ * database is read once at startup to seed the states.
+ *
+ * A level is entered at its threshold but only left once the value is clear of it by a margin,
+ * so a warehouse sitting right at 75% does not flip between OK and WARNING with every unit.
+ * Each change of level is published as an AlertTransitionEvent and the latest ones are kept.
+ *
+ * Listeners can run out of commit order, so both kinds of state keep the sequence of the event
+ * that set them and an older event is dropped. A location that went back to OK or was deleted
+ * keeps its sequence for one settle interval, long enough for any listener that is still late.
+ */
+@Service
+public class StockAlertEngine implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockAlertEngine.class);
+
+    // sequence of states seeded from the database, any capacity event wins over it
+    private static final long LOADED = Long.MIN_VALUE;
+
+    // upper bound on transitions returned in one request
+    public static final int MAX_TRANSITIONS = 500;
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseInventoryRepository warehouseInventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double capacityWarning;
+    private final double capacityCritical;
+    private final double capacityClearMargin;
+    private final int lowStockWarning;
+    private final int lowStockCritical;
+    private final int lowStockClearMargin;
+    private final int historySize;
+    private final Duration settleInterval;
+
+    // every warehouse, OK ones included since they carry the sequence of the last capacity applied
+    private final ConcurrentHashMap<Integer, WarehouseState> warehouses = new ConcurrentHashMap<>();
+    // locations that are not OK, and OK ones changed within the settle interval, keyed by locationKey
+    private final ConcurrentHashMap<Long, LocationState> locations = new ConcurrentHashMap<>();
+
+    // newest last, guarded by itself
+    private final Deque<AlertTransitionEvent> transitions = new ArrayDeque<>();
+    private final LongAdder transitionCount = new LongAdder();
+
+    public StockAlertEngine(WarehouseRepository warehouseRepository,
+                            WarehouseInventoryRepository warehouseInventoryRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${batstats.alerts.capacity-warning:75}") double capacityWarning,
+                            @Value("${batstats.alerts.capacity-critical:90}") double capacityCritical,
+                            @Value("${batstats.alerts.capacity-clear-margin:5}") double capacityClearMargin,
+                            @Value("${batstats.alerts.low-stock-warning:10}") int lowStockWarning,
+                            @Value("${batstats.alerts.low-stock-critical:3}") int lowStockCritical,
+                            @Value("${batstats.alerts.low-stock-clear-margin:2}") int lowStockClearMargin,
+                            @Value("${batstats.alerts.history-size:200}") int historySize,
+                            @Value("${batstats.alerts.settle-interval:PT1M}") Duration settleInterval) {
+        if (capacityCritical < capacityWarning || lowStockCritical > lowStockWarning) {
+            throw new IllegalArgumentException("Alert thresholds must get worse from warning to critical");
+        }
+        this.warehouseRepository = warehouseRepository;
+        this.warehouseInventoryRepository = warehouseInventoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.capacityWarning = capacityWarning;
+        this.capacityCritical = capacityCritical;
+        this.capacityClearMargin = capacityClearMargin;
+        this.lowStockWarning = lowStockWarning;
+        this.lowStockCritical = lowStockCritical;
+        this.lowStockClearMargin = lowStockClearMargin;
+        this.historySize = historySize;
+        this.settleInterval = settleInterval;
+    }
+
+    // before the web server starts: the only time the engine reads the tables
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (WarehouseCapacityView warehouse : warehouseRepository.findAllCapacities()) {
+            applyCapacity(warehouse.getId(), warehouse.getMaxCapacity(), warehouse.getCurrentCapacity(),
+                warehouse.getStatus(), LOADED, false);
+        }
+        for (LocationQuantityView location : warehouseInventoryRepository.findLocationsBelow(lowStockWarning)) {
+            applyQuantity(location.getWarehouseId(), location.getItemId(), location.getQuantity(), LOADED, false);
+        }
+        logger.info("Alert engine started with {} open alerts", getAlerts(AlertLevel.WARNING).size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCapacityChanged(WarehouseCapacityChangedEvent event) {
+        applyCapacity(event.getWarehouseId(), event.getMaxCapacity(), event.getCurrentCapacity(), event.getStatus(),
+            event.getSequence(), true);
+    }
+
+    // a new max capacity or status moves the fill state without any stock changing
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWarehouseChanged(WarehouseChangedEvent event) {
+        switch (event.getChange()) {
+            case CREATED -> applyCapacity(event.getWarehouseId(), event.getMaxCapacity(),
+                event.getCurrentCapacity(), event.getStatus(), LOADED, true);
+            case UPDATED -> {
+                // current capacity belongs to the trigger, keep the last one a capacity event gave us
+                WarehouseState known = warehouses.get(event.getWarehouseId());
+                Integer current = known != null ? known.currentCapacity : event.getCurrentCapacity();
+                long sequence = known != null ? known.sequence : LOADED;
+                applyCapacity(event.getWarehouseId(), event.getMaxCapacity(), current, event.getStatus(),
+                    sequence, true);
+            }
+            case DELETED -> removeWarehouse(event.getWarehouseId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockChanged(StockChangedEvent event) {
+        // a reclassification moves no units, and the quantity it carries was read without a warehouse lock
+        if (event.getType() == MovementType.RECLASSIFIED) {
+            return;
+        }
+        // only an adjustment leaves a location at zero, every other change to zero deleted the row
+        if (event.getQuantity() == 0 && event.getType() != MovementType.ADJUSTED) {
+            clearLocation(event.getWarehouseId(), event.getItemId(), event.getSequence());
+        } else {
+            applyQuantity(event.getWarehouseId(), event.getItemId(), event.getQuantity(), event.getSequence(), true);
+        }
+    }
+
+    // OK states are only kept to hold back late listeners, past the settle interval there are none
+    @Scheduled(initialDelayString = "${batstats.alerts.settle-interval:PT1M}",
+               fixedDelayString = "${batstats.alerts.settle-interval:PT1M}")
+    public void forgetSettledLocations() {
+        long settled = System.nanoTime() - settleInterval.toNanos();
+        locations.values().removeIf(state -> state.level == AlertLevel.OK && state.sequence - settled < 0);
+    }
+
+    // open alerts at or above the given level (WARNING when null), most severe first
+    public List<StockAlertDTO> getAlerts(AlertLevel minimum) {
+        AlertLevel floor = minimum != null && minimum != AlertLevel.OK ? minimum : AlertLevel.WARNING;
+        List<StockAlertDTO> alerts = new ArrayList<>();
+        warehouses.values().stream()
+            .filter(state -> !floor.isWorseThan(state.level))
+            .forEach(state -> alerts.add(new StockAlertDTO(AlertKind.CAPACITY, state.warehouseId, null,
+                state.level, state.percent, state.since)));
+        locations.values().stream()
+            .filter(state -> !floor.isWorseThan(state.level))
+            .forEach(state -> alerts.add(new StockAlertDTO(AlertKind.LOW_STOCK, state.warehouseId, state.itemId,
+                state.level, (double) state.quantity, state.since)));
+        alerts.sort(Comparator.comparing(StockAlertDTO::getLevel).reversed()
+            .thenComparing(StockAlertDTO::getKind)
+            .thenComparing(StockAlertDTO::getWarehouseId)
+            .thenComparing(StockAlertDTO::getItemId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return alerts;
+    }
+
+    // latest level changes, newest first
+    public List<AlertTransitionEvent> getTransitions(Integer limit) {
+        int size = limit != null ? limit : 50;
+        if (size <= 0 || size > MAX_TRANSITIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_TRANSITIONS);
+        }
+        List<AlertTransitionEvent> latest = new ArrayList<>(size);
+        synchronized (transitions) {
+            Iterator<AlertTransitionEvent> newestFirst = transitions.descendingIterator();
+            while (newestFirst.hasNext() && latest.size() < size) {
+                latest.add(newestFirst.next());
+            }
+        }
+        return latest;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AlertLevel level : List.of(AlertLevel.WARNING, AlertLevel.CRITICAL)) {
+            Gauge.builder("batstats.alerts.open", warehouses,
+                    states -> states.values().stream().filter(state -> state.level == level).count())
+                .tag("kind", AlertKind.CAPACITY.name()).tag("level", level.name()).register(registry);
+            Gauge.builder("batstats.alerts.open", locations,
+                    states -> states.values().stream().filter(state -> state.level == level).count())
+                .tag("kind", AlertKind.LOW_STOCK.name()).tag("level", level.name()).register(registry);
+        }
+        FunctionCounter.builder("batstats.alerts.transitions", transitionCount, LongAdder::sum).register(registry);
+    }
+
+    private void applyCapacity(Integer warehouseId, Integer maxCapacity, Integer currentCapacity, String status,
+                               long sequence, boolean publish) {
+        AlertTransitionEvent[] transition = new AlertTransitionEvent[1];
+        warehouses.compute(warehouseId, (id, previous) -> {
+            // listeners can run out of commit order, keep whichever change was made last
+            if (previous != null && previous.sequence > sequence) {
+                return previous;
+            }
+            double percent = percentage(currentCapacity, maxCapacity);
+            AlertLevel before = previous != null ? previous.level : AlertLevel.OK;
+            AlertLevel after = "ACTIVE".equalsIgnoreCase(status)
+                ? before.next(capacityLevel(percent, 0), capacityLevel(percent, capacityClearMargin))
+                : AlertLevel.OK;
+            LocalDateTime since = previous != null && before == after ? previous.since : LocalDateTime.now();
+            if (before != after) {
+                transition[0] = new AlertTransitionEvent(AlertKind.CAPACITY, id, null, before, after, percent, since);
+            }
+            return new WarehouseState(id, after, percent, currentCapacity, sequence, since);
+        });
+        record(transition[0], publish);
+    }
+
+    private void applyQuantity(Integer warehouseId, Integer itemId, int quantity, long sequence, boolean publish) {
+        AlertTransitionEvent[] transition = new AlertTransitionEvent[1];
+        locations.compute(locationKey(warehouseId, itemId), (key, previous) -> {
+            // listeners can run out of commit order, keep whichever change was made last
+            if (previous != null && previous.sequence > sequence) {
+                return previous;
+            }
+            AlertLevel before = previous != null ? previous.level : AlertLevel.OK;
+            AlertLevel after = before.next(stockLevel(quantity, 0), stockLevel(quantity, lowStockClearMargin));
+            LocalDateTime since = previous != null && before == after ? previous.since : LocalDateTime.now();
+            if (before != after) {
+                transition[0] = new AlertTransitionEvent(AlertKind.LOW_STOCK, warehouseId, itemId, before, after,
+                    quantity, since);
+            }
+            // a seeded OK location has nothing to hold back, it is not kept
+            return after == AlertLevel.OK && sequence == LOADED
+                ? null : new LocationState(warehouseId, itemId, after, quantity, sequence, since);
+        });
+        record(transition[0], publish);
+    }
+
+    // the location is gone, its alert resolves; the OK state left behind drops any older change arriving late
+    private void clearLocation(Integer warehouseId, Integer itemId, long sequence) {
+        AlertTransitionEvent[] transition = new AlertTransitionEvent[1];
+        locations.compute(locationKey(warehouseId, itemId), (key, previous) -> {
+            if (previous != null && previous.sequence > sequence) {
+                return previous;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (previous != null && previous.level != AlertLevel.OK) {
+                transition[0] = new AlertTransitionEvent(AlertKind.LOW_STOCK, warehouseId, itemId, previous.level,
+                    AlertLevel.OK, 0, now);
+            }
+            return new LocationState(warehouseId, itemId, AlertLevel.OK, 0, sequence, now);
+        });
+        record(transition[0], true);
+    }
+
+    private void removeWarehouse(Integer warehouseId) {
+        WarehouseState removed = warehouses.remove(warehouseId);
+        if (removed != null && removed.level != AlertLevel.OK) {
+            record(new AlertTransitionEvent(AlertKind.CAPACITY, warehouseId, null, removed.level, AlertLevel.OK,
+                0, LocalDateTime.now()), true);
+        }
+        // the deleted locations already published their own changes, this only catches stragglers
+        locations.values().removeIf(state -> state.warehouseId.equals(warehouseId));
+    }
+
+    // levels found while seeding are the starting state, not transitions
+    private void record(AlertTransitionEvent transition, boolean publish) {
+        if (transition == null || !publish) {
+            return;
+        }
+        transitionCount.increment();
+        synchronized (transitions) {
+            transitions.addLast(transition);
+            if (transitions.size() > historySize) {
+                transitions.removeFirst();
+            }
+        }
+        eventPublisher.publishEvent(transition);
+    }
+
+    // level of a fill percentage with the thresholds lowered by margin
+    private AlertLevel capacityLevel(double percent, double margin) {
+        if (percent >= capacityCritical - margin) {
+            return AlertLevel.CRITICAL;
+        }
+        return percent >= capacityWarning - margin ? AlertLevel.WARNING : AlertLevel.OK;
+    }
+
+    // level of a location quantity with the thresholds raised by margin, below a threshold counts as low
+    private AlertLevel stockLevel(int quantity, int margin) {
+        if (quantity < lowStockCritical + margin) {
+            return AlertLevel.CRITICAL;
+        }
+        return quantity < lowStockWarning + margin ? AlertLevel.WARNING : AlertLevel.OK;
+    }
+
+    // same calculation as Warehouse.getCapacityPercentage
+    private static double percentage(Integer currentCapacity, Integer maxCapacity) {
+        if (maxCapacity == null || maxCapacity == 0 || currentCapacity == null) {
+            return 0.0;
+        }
+        return (currentCapacity.doubleValue() / maxCapacity.doubleValue()) * 100;
+    }
+
+    private static long locationKey(Integer warehouseId, Integer itemId) {
+        return ((long) warehouseId << 32) | (itemId & 0xFFFF_FFFFL);
+    }
+
+    private static final class WarehouseState {
+
+        private final Integer warehouseId;
+        private final AlertLevel level;
+        private final double percent;
+        private final Integer currentCapacity;
+        private final long sequence;
+        private final LocalDateTime since;
+
+        private WarehouseState(Integer warehouseId, AlertLevel level, double percent, Integer currentCapacity,
+                               long sequence, LocalDateTime since) {
+            this.warehouseId = warehouseId;
+            this.level = level;
+            this.percent = percent;
+            this.currentCapacity = currentCapacity;
+            this.sequence = sequence;
+            this.since = since;
+        }
+    }
+
+    private static final class LocationState {
+
+        private final Integer warehouseId;
+        private final Integer itemId;
+        private final AlertLevel level;
+        private final int quantity;
+        private final long sequence;
+        private final LocalDateTime since;
+
+        private LocationState(Integer warehouseId, Integer itemId, AlertLevel level, int quantity, long sequence,
+                              LocalDateTime since) {
+            this.warehouseId = warehouseId;
+            this.itemId = itemId;
+            this.level = level;
+            this.quantity = quantity;
+            this.sequence = sequence;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstormproject1.batstats.dtos.StockHistoryPointDTO;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
+import com.skillstormproject1.batstats.models.StockLevelBucket.Dimension;
+import com.skillstormproject1.batstats.repositories.InventoryLedgerRepository;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.StockHistoryRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+/**
+ * Hourly, daily and monthly stock levels per warehouse and per product type.
+ *
+ * A scheduled job rolls the movements recorded in the ledger since its last run into
+ * stock_level_buckets, one row per dimension and bucket that saw movements. History queries
+ * are then a primary key range scan of at most a few hundred rows, with the buckets nothing
+ * moved in filled in here from the level before them.
+ *
+ * Hourly and daily buckets are pruned after their retention, monthly ones are kept.
+ */
+@Service
+public class StockHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHistoryService.class);
+
+    // upper bound on points returned in one request
+    public static final int MAX_POINTS = 10_000;
+
+    private final StockHistoryRepository historyRepository;
+    private final InventoryLedgerRepository ledgerRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductTypeRepository productTypeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rollupSettle;
+    private final Duration hourlyRetention;
+    private final Duration dailyRetention;
+
+    public StockHistoryService(StockHistoryRepository historyRepository,
+                               InventoryLedgerRepository ledgerRepository,
+                               WarehouseRepository warehouseRepository,
+                               ProductTypeRepository productTypeRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${batstats.history.rollup-settle:PT1M}") Duration rollupSettle,
+                               @Value("${batstats.history.hourly-retention:P31D}") Duration hourlyRetention,
+                               @Value("${batstats.history.daily-retention:P1096D}") Duration dailyRetention) {
+        this.historyRepository = historyRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productTypeRepository = productTypeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupSettle = rollupSettle;
+        this.hourlyRetention = hourlyRetention;
+        this.dailyRetention = dailyRetention;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockHistoryPointDTO> getWarehouseHistory(Integer warehouseId, HistoryGranularity granularity,
+                                                          LocalDateTime from, LocalDateTime to) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse not found with id: " + warehouseId);
+        }
+        return getHistory(Dimension.WAREHOUSE, warehouseId, granularity, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockHistoryPointDTO> getProductTypeHistory(Integer productTypeId, HistoryGranularity granularity,
+                                                            LocalDateTime from, LocalDateTime to) {
+        if (!productTypeRepository.existsById(productTypeId)) {
+            throw new ResourceNotFoundException("Product Type not found with id: " + productTypeId);
+        }
+        return getHistory(Dimension.PRODUCT_TYPE, productTypeId, granularity, from, to);
+    }
+
+    // one point per bucket in [from, to), defaults to the last year of days
+    private List<StockHistoryPointDTO> getHistory(Dimension dimension, Integer dimensionId, HistoryGranularity granularity,
+                                                  LocalDateTime from, LocalDateTime to) {
+        HistoryGranularity size = granularity != null ? granularity : HistoryGranularity.DAY;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = size.bucketStart(from != null ? from : end.minus(defaultRange(size)));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        Duration retention = retention(size);
+        if (retention != null && start.isBefore(size.bucketStart(LocalDateTime.now().minus(retention)))) {
+            throw new IllegalArgumentException(size + " history is only kept for " + retention
+                + ", use a coarser granularity for older ranges");
+        }
+
+        List<StockHistoryPointDTO> stored = historyRepository.findBuckets(size, dimension, dimensionId, start, end);
+        long closing = historyRepository.findClosingBefore(size, dimension, dimensionId, start).orElse(0L);
+        Iterator<StockHistoryPointDTO> buckets = stored.iterator();
+        StockHistoryPointDTO nextStored = buckets.hasNext() ? buckets.next() : null;
+
+        // buckets nothing moved in are not stored, they close at the level of the one before
+        List<StockHistoryPointDTO> points = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = size.next(bucket)) {
+            if (points.size() == MAX_POINTS) {
+                throw new IllegalArgumentException("Range holds more than " + MAX_POINTS + " " + size + " buckets");
+            }
+            if (nextStored != null && nextStored.getBucketStart().equals(bucket)) {
+                closing = nextStored.getClosingUnits();
+                points.add(nextStored);
+                nextStored = buckets.hasNext() ? buckets.next() : null;
+            } else {
+                points.add(new StockHistoryPointDTO(bucket, closing, 0L, 0L, 0L));
+            }
+        }
+        return points;
+    }
+
+    @Scheduled(initialDelayString = "${batstats.history.rollup-interval:PT1M}",
+               fixedDelayString = "${batstats.history.rollup-interval:PT1M}")
+    public void scheduledRollup() {
+        rollup();
+    }
+
+    // fold the movements recorded since the last rollup into every granularity, returns the buckets written
+    public int rollup() {
+        Integer written = transactionTemplate.execute(status -> {
+            if (!historyRepository.tryLockRollup()) {
+                return 0;
+            }
+            LocalDateTime from = historyRepository.findRolledThrough().orElse(null);
+            LocalDateTime to = ledgerRepository.safeCutoff(rollupSettle);
+            if (from != null && !to.isAfter(from)) {
+                return 0;
+            }
+            int buckets = 0;
+            for (HistoryGranularity granularity : HistoryGranularity.values()) {
+                buckets += historyRepository.rollup(granularity, from, to);
+            }
+            historyRepository.saveRolledThrough(to);
+            return buckets;
+        });
+        if (written != null && written > 0) {
+            logger.debug("Rolled {} stock history buckets", written);
+        }
+        return written != null ? written : 0;
+    }
+
+    @Scheduled(initialDelayString = "${batstats.history.prune-interval:PT1H}",
+               fixedDelayString = "${batstats.history.prune-interval:PT1H}")
+    public void prune() {
+        Integer pruned = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return historyRepository.deleteBucketsBefore(HistoryGranularity.HOUR, now.minus(hourlyRetention))
+                + historyRepository.deleteBucketsBefore(HistoryGranularity.DAY, now.minus(dailyRetention));
+        });
+        if (pruned != null && pruned > 0) {
+            logger.info("Pruned {} stock history buckets past retention", pruned);
+        }
+    }
+
+    private Duration retention(HistoryGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> hourlyRetention;
+            case DAY -> dailyRetention;
+            case MONTH -> null;
+        };
+    }
+
+    private static Duration defaultRange(HistoryGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> Duration.ofDays(2);
+            case DAY -> Duration.ofDays(365);
+            case MONTH -> Duration.ofDays(5 * 365);
+        };
+    }
+}
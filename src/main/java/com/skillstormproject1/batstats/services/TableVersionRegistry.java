@@ -0,0 +1,136 @@
+package com.skillstormproject1.batstats.services;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.skillstormproject1.batstats.config.ReplicaLagTracker;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.events.TableChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.repositories.DeltaSyncRepository;
+
+/**
+ * Monotonic version per table, the ETag of the list endpoints.
+ *
+ * Each committed write through the services bumps the versions of the tables it touched, so
+ * a matching If-None-Match is answered with 304 from memory. The ETag is the node's start time
+ * plus the summed versions of the tables a response is built from, so it never matches one
+ * issued by another node or before a restart.
+ *
+ * Writes made by other nodes or straight in the database publish no events here. A scheduled
+ * sweep compares each table's newest updated_at and tombstone against the last sweep and bumps
+ * the tables that moved, which bounds how long such a write can be answered with 304. With
+ * read replicas the primary's position is recorded first, so a read that follows the new ETag
+ * isn't served by a replica still missing the write.
+ */
+@Service
+public class TableVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableVersionRegistry.class);
+
+    private final DeltaSyncRepository deltaSyncRepository;
+    // only there when read replicas are configured
+    private final ObjectProvider<ReplicaLagTracker> replicaLagTracker;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<SyncTable, AtomicLong> versions = new EnumMap<>(SyncTable.class);
+
+    // markers seen by the last sweep, null until the first one ran
+    private volatile Map<SyncTable, String> lastChanges;
+
+    public TableVersionRegistry(DeltaSyncRepository deltaSyncRepository,
+                                ObjectProvider<ReplicaLagTracker> replicaLagTracker) {
+        this.deltaSyncRepository = deltaSyncRepository;
+        this.replicaLagTracker = replicaLagTracker;
+        for (SyncTable table : SyncTable.values()) {
+            versions.put(table, new AtomicLong(1));
+        }
+    }
+
+    // quoted ETag of a response built from the given tables
+    public String etag(SyncTable... tables) {
+        long sum = 0;
+        for (SyncTable table : tables) {
+            sum += versions.get(table).get();
+        }
+        return "\"" + epoch + "-" + sum + "\"";
+    }
+
+    // true when an If-None-Match header lists the ETag (weak or strong) or is *
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getVersion(SyncTable table) {
+        return versions.get(table).get();
+    }
+
+    public void bump(SyncTable table) {
+        versions.get(table).incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        bump(event.getTable());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWarehouseChanged(WarehouseChangedEvent event) {
+        bump(SyncTable.WAREHOUSES);
+    }
+
+    // current_capacity is part of every warehouse in the listings
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCapacityChanged(WarehouseCapacityChangedEvent event) {
+        bump(SyncTable.WAREHOUSES);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockChanged(StockChangedEvent event) {
+        bump(SyncTable.WAREHOUSE_INVENTORY);
+    }
+
+    // pick up writes that did not go through this node's services
+    @Scheduled(initialDelayString = "${batstats.sync.version-check-interval:PT15S}",
+               fixedDelayString = "${batstats.sync.version-check-interval:PT15S}")
+    public void checkForOutsideChanges() {
+        Map<SyncTable, String> latest = deltaSyncRepository.findLatestChanges();
+        Map<SyncTable, String> previous = lastChanges;
+        lastChanges = latest;
+        if (previous == null || previous.equals(latest)) {
+            return;
+        }
+        // the markers were read from the primary, its position now is past the writes behind them
+        replicaLagTracker.ifAvailable(ReplicaLagTracker::recordPrimaryPosition);
+        for (SyncTable table : SyncTable.values()) {
+            if (!Objects.equals(previous.get(table), latest.get(table))) {
+                bump(table);
+                logger.debug("{} changed since the last version check", table);
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.skillstormproject1.batstats.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.skillstormproject1.batstats.dtos.CapacityCacheStatsDTO;
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory copy of each warehouse's capacity columns for dashboards and listings.
+ *
+ * Stock mutations publish the capacity their locked row will have after commit and the cache
+ * applies it once the transaction commits (write-through). Warehouse edits update or drop the
+ * entry the same way. A scheduled sweep compares everything against the trigger-maintained
+ * current_capacity column and corrects drift, which also picks up changes made by other nodes
+ * or straight in the database.
+ *
+ * Capacity checks that guard a write never read from here, they lock the row instead
+ * (see WarehouseCapacityService).
+ */
+@Service
+public class WarehouseCapacityCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarehouseCapacityCache.class);
+
+    // sequence given to rows loaded from the database, any change event published afterwards wins over it
+    private static final long LOADED = Long.MIN_VALUE;
+
+    private final WarehouseRepository warehouseRepository;
+
+    private final ConcurrentHashMap<Integer, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // true once every warehouse has been loaded, so listings can be answered from memory
+    private volatile boolean complete;
+    private volatile LocalDateTime lastReconciledAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder reconciliations = new LongAdder();
+    private final LongAdder driftCorrections = new LongAdder();
+
+    public WarehouseCapacityCache(WarehouseRepository warehouseRepository) {
+        this.warehouseRepository = warehouseRepository;
+    }
+
+    // capacity of one warehouse, loaded on first use
+    public Snapshot get(Integer warehouseId) {
+        Snapshot cached = snapshots.get(warehouseId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Snapshot loaded = warehouseRepository.findCapacityById(warehouseId)
+            .map(view -> new Snapshot(view, LOADED))
+            .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found with id: " + warehouseId));
+        // an event applied while we were reading is newer than what we read
+        Snapshot existing = snapshots.putIfAbsent(warehouseId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // capacity of every warehouse ordered by id
+    public List<Snapshot> getAll() {
+        if (complete) {
+            hits.increment();
+        } else {
+            misses.increment();
+            reconcile();
+        }
+        List<Snapshot> all = new ArrayList<>(snapshots.values());
+        all.sort(Comparator.comparing(Snapshot::getId));
+        return all;
+    }
+
+    // ids of warehouses at or above the given fill percentage
+    public List<Integer> findNearCapacity(Double thresholdPercent) {
+        return getAll().stream()
+            .filter(snapshot -> snapshot.getCapacityPercentage() >= thresholdPercent)
+            .map(Snapshot::getId)
+            .toList();
+    }
+
+    // stock changed: store the capacity the locked row had when it committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCapacityChanged(WarehouseCapacityChangedEvent event) {
+        writes.increment();
+        Snapshot updated = new Snapshot(event.getWarehouseId(), event.getName(), event.getMaxCapacity(),
+            event.getCurrentCapacity(), event.getStatus(), event.getSequence());
+        // listeners can run out of commit order, keep whichever change was made last
+        snapshots.merge(event.getWarehouseId(), updated,
+            (cached, incoming) -> cached.sequence > incoming.sequence ? cached : incoming);
+    }
+
+    // warehouse created, edited or deleted
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWarehouseChanged(WarehouseChangedEvent event) {
+        switch (event.getChange()) {
+            case CREATED -> {
+                writes.increment();
+                snapshots.putIfAbsent(event.getWarehouseId(), new Snapshot(event.getWarehouseId(), event.getName(),
+                    event.getMaxCapacity(), event.getCurrentCapacity(), event.getStatus(), LOADED));
+            }
+            case UPDATED -> {
+                writes.increment();
+                // current capacity belongs to the trigger, only take the edited columns
+                snapshots.computeIfPresent(event.getWarehouseId(), (id, cached) -> new Snapshot(id, event.getName(),
+                    event.getMaxCapacity(), cached.getCurrentCapacity(), event.getStatus(), cached.sequence));
+            }
+            case DELETED -> {
+                evictions.increment();
+                snapshots.remove(event.getWarehouseId());
+            }
+        }
+    }
+
+    // compare every cached row with the database and correct anything that drifted
+    @Scheduled(initialDelayString = "${batstats.capacity-cache.reconcile-interval:PT1M}",
+               fixedDelayString = "${batstats.capacity-cache.reconcile-interval:PT1M}")
+    public void reconcile() {
+        // the entries as they were before the read; one an event replaced meanwhile is newer than the
+        // row we read and is left alone, whatever sequence that event carried
+        Map<Integer, Snapshot> before = new HashMap<>(snapshots);
+        List<WarehouseCapacityView> rows = warehouseRepository.findAllCapacities();
+        Set<Integer> present = new HashSet<>();
+        int drifted = 0;
+        for (WarehouseCapacityView row : rows) {
+            present.add(row.getId());
+            Snapshot fresh = new Snapshot(row, LOADED);
+            Snapshot cached = before.get(row.getId());
+            if (cached == null) {
+                snapshots.putIfAbsent(row.getId(), fresh);
+            } else if (!cached.sameValues(fresh)) {
+                // replace only succeeds while the entry is still the very object seen before the read
+                if (snapshots.replace(row.getId(), cached, fresh) && complete) {
+                    drifted++;
+                }
+            }
+        }
+        for (Map.Entry<Integer, Snapshot> entry : before.entrySet()) {
+            if (!present.contains(entry.getKey()) && snapshots.remove(entry.getKey(), entry.getValue()) && complete) {
+                drifted++;
+            }
+        }
+        complete = true;
+        lastReconciledAt = LocalDateTime.now();
+        reconciliations.increment();
+        if (drifted > 0) {
+            driftCorrections.add(drifted);
+            logger.warn("Capacity cache corrected {} drifted warehouse rows", drifted);
+        }
+    }
+
+    // same counters as getStats, published through actuator
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("batstats.capacity.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("batstats.capacity.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss").register(registry);
+        FunctionCounter.builder("batstats.capacity.cache.writes", writes, LongAdder::sum).register(registry);
+        FunctionCounter.builder("batstats.capacity.cache.evictions", evictions, LongAdder::sum).register(registry);
+        FunctionCounter.builder("batstats.capacity.cache.drift", driftCorrections, LongAdder::sum)
+            .description("Cached warehouse rows corrected by the reconciliation sweep").register(registry);
+        Gauge.builder("batstats.capacity.cache.size", snapshots, ConcurrentHashMap::size).register(registry);
+    }
+
+    public CapacityCacheStatsDTO getStats() {
+        return new CapacityCacheStatsDTO(hits.sum(), misses.sum(), writes.sum(), evictions.sum(),
+            reconciliations.sum(), driftCorrections.sum(), snapshots.size(), lastReconciledAt);
+    }
+
+    // immutable capacity columns of one warehouse
+    public static class Snapshot implements WarehouseCapacityView {
+
+        private final Integer id;
+        private final String name;
+        private final Integer maxCapacity;
+        private final Integer currentCapacity;
+        private final String status;
+        private final long sequence;
+
+        public Snapshot(Integer id, String name, Integer maxCapacity, Integer currentCapacity, String status,
+                long sequence) {
+            this.id = id;
+            this.name = name;
+            this.maxCapacity = maxCapacity;
+            this.currentCapacity = currentCapacity;
+            this.status = status;
+            this.sequence = sequence;
+        }
+
+        private Snapshot(WarehouseCapacityView view, long sequence) {
+            this(view.getId(), view.getName(), view.getMaxCapacity(), view.getCurrentCapacity(), view.getStatus(),
+                sequence);
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Integer getMaxCapacity() {
+            return maxCapacity;
+        }
+
+        @Override
+        public Integer getCurrentCapacity() {
+            return currentCapacity;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public int getAvailableCapacity() {
+            return maxCapacity - currentCapacity;
+        }
+
+        // same calculation as Warehouse.getCapacityPercentage
+        public Double getCapacityPercentage() {
+            if (maxCapacity == 0) {
+                return 0.0;
+            }
+            return (currentCapacity.doubleValue() / maxCapacity.doubleValue()) * 100;
+        }
+
+        @JsonIgnore
+        public long getSequence() {
+            return sequence;
+        }
+
+        private boolean sameValues(Snapshot other) {
+            return Objects.equals(name, other.name)
+                && Objects.equals(maxCapacity, other.maxCapacity)
+                && Objects.equals(currentCapacity, other.currentCapacity)
+                && Objects.equals(status, other.status);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot [id=" + id + ", currentCapacity=" + currentCapacity + ", maxCapacity=" + maxCapacity
+                    + ", status=" + status + "]";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.skillstormproject1.batstats.services;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.exceptions.WarehouseCapacityExceededException;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+/**
+ * Capacity reservations for anything that adds units to a warehouse.
+ *
+ * Callers lock every warehouse they are about to touch with SELECT ... FOR UPDATE, in id order,
+ * before they load anything else. The capacity check then runs against the locked row, so a
+ * concurrent request can't pass the same check and then fail in the capacity trigger, and two
+ * transfers going in opposite directions always take their locks in the same order.
+ *
+ * Once a caller knows how many units it moved it calls recordChange, which publishes the
+ * capacity the locked row ends up with for WarehouseCapacityCache to apply after commit.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class WarehouseCapacityService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WarehouseCapacityService(WarehouseRepository warehouseRepository, ApplicationEventPublisher eventPublisher) {
+        this.warehouseRepository = warehouseRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // lock one warehouse row and return its capacity
+    public WarehouseCapacityView lock(Integer warehouseId) {
+        return lockAll(List.of(warehouseId)).get(warehouseId);
+    }
+
+    // lock a set of warehouse rows in id order, keyed by warehouse id
+    public Map<Integer, WarehouseCapacityView> lockAll(Collection<Integer> warehouseIds) {
+        TreeSet<Integer> orderedIds = new TreeSet<>(warehouseIds);
+        Map<Integer, WarehouseCapacityView> locked = new LinkedHashMap<>();
+        for (WarehouseCapacityView row : warehouseRepository.lockCapacityRows(orderedIds)) {
+            locked.put(row.getId(), row);
+        }
+        for (Integer id : orderedIds) {
+            if (!locked.containsKey(id)) {
+                throw new ResourceNotFoundException("Warehouse not found with id: " + id);
+            }
+        }
+        return locked;
+    }
+
+    // throw if the locked warehouse can't take the extra units
+    public void requireCapacity(WarehouseCapacityView warehouse, int requiredUnits) {
+        if (warehouse.getAvailableCapacity() < requiredUnits) {
+            throw new WarehouseCapacityExceededException(
+                String.format("Warehouse '%s' has insufficient capacity. Available: %d, Required: %d",
+                    warehouse.getName(), warehouse.getAvailableCapacity(), requiredUnits));
+        }
+    }
+
+    // publish the capacity a locked warehouse will have after this transaction's writes
+    // call once per warehouse with the net units added (positive) or removed (negative)
+    public void recordChange(WarehouseCapacityView warehouse, int unitDelta) {
+        if (unitDelta == 0) {
+            return;
+        }
+        eventPublisher.publishEvent(new WarehouseCapacityChangedEvent(warehouse.getId(), warehouse.getName(),
+            warehouse.getMaxCapacity(), warehouse.getCurrentCapacity() + unitDelta, warehouse.getStatus(),
+            System.nanoTime()));
+    }
+}
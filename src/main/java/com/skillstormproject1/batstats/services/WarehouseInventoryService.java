@@ -1,58 +1,91 @@
 package com.skillstormproject1.batstats.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.BatchTransferResultDTO;
+import com.skillstormproject1.batstats.dtos.TransferRequestDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseLocationDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
 import com.skillstormproject1.batstats.exceptions.DuplicateSerialNumberException;
 import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
 import com.skillstormproject1.batstats.exceptions.WarehouseCapacityExceededException;
-import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.MovementType;
 import com.skillstormproject1.batstats.models.Warehouse;
 import com.skillstormproject1.batstats.models.WarehouseInventory;
+import com.skillstormproject1.batstats.repositories.AddedLocationView;
 import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ItemLocationCountView;
+import com.skillstormproject1.batstats.repositories.LocationWriteView;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
 import com.skillstormproject1.batstats.repositories.WarehouseInventoryRepository;
 import com.skillstormproject1.batstats.repositories.WarehouseRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 @Transactional
 public class WarehouseInventoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(WarehouseInventoryService.class);
 
+    // upper bound on moves in one batch transfer request
+    public static final int MAX_BATCH_TRANSFERS = 10_000;
+
     private final WarehouseInventoryRepository warehouseInventoryRepository;
     private final WarehouseRepository warehouseRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final WarehouseCapacityService warehouseCapacityService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public WarehouseInventoryService(WarehouseInventoryRepository warehouseInventoryRepository,
-            WarehouseRepository warehouseRepository, InventoryItemRepository inventoryItemRepository) {
+            WarehouseRepository warehouseRepository, InventoryItemRepository inventoryItemRepository,
+            WarehouseCapacityService warehouseCapacityService, ApplicationEventPublisher eventPublisher) {
         this.warehouseInventoryRepository = warehouseInventoryRepository;
         this.warehouseRepository = warehouseRepository;
         this.inventoryItemRepository = inventoryItemRepository;
+        this.warehouseCapacityService = warehouseCapacityService;
+        this.eventPublisher = eventPublisher;
     }
 
     // get all items in a warehouse
+    @Transactional(readOnly = true)
     public List<WarehouseInventory> getItemsInWarehouse(Integer warehouseId) {
         return warehouseInventoryRepository.findByWarehouseId(warehouseId);
     }
 
     // get all warehouse locations for an item
+    @Transactional(readOnly = true)
     public List<WarehouseInventory> getLocationsForItem(Integer itemId) {
         return warehouseInventoryRepository.findByInventoryItemId(itemId);
     }
 
+    // get a flat summary of every location for an item
+    @Transactional(readOnly = true)
+    public List<WarehouseLocationDTO> getLocationSummariesForItem(Integer itemId) {
+        return warehouseInventoryRepository.findLocationSummariesForItem(itemId);
+    }
+
     // get total quantity of an item across all warehouses
+    @Transactional(readOnly = true)
     public Integer getTotalQuantityForItem(Integer itemId) {
         Integer total = warehouseInventoryRepository.getTotalQuantityForItem(itemId);
         return total != null ? total : 0;
     }
 
     // check if specific location exists
+    @Transactional(readOnly = true)
     public boolean itemExistsInWarehouse(Integer warehouseId, Integer itemId) {
         return warehouseInventoryRepository
             .existsByWarehouseIdAndInventoryItemId(warehouseId, itemId);
@@ -66,45 +99,68 @@ public class WarehouseInventoryService {
     */
 
     // add an existing item to a warehouse location
-
+    // one insert that skips an existing location, read back through RETURNING
     public WarehouseInventory addItemToWarehouse(AddItemToWarehouseDTO dto) {
-        InventoryItem item = inventoryItemRepository.findById(dto.getInventoryItemId())
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Inventory item not found with id: " + dto.getInventoryItemId()));
-        
-        Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Warehouse not found with id: " + dto.getWarehouseId()));
-        
-        // Check if item already in this warehouse
-        if (warehouseInventoryRepository.existsByWarehouseIdAndInventoryItemId(
-                dto.getWarehouseId(), dto.getInventoryItemId())) {
-            throw new DuplicateSerialNumberException(
-                "Item " + item.getSerialNumber() + " already exists in warehouse " + warehouse.getName());
-        }
-        
-        // Check warehouse capacity
-        if (!warehouse.hasCapacity(dto.getQuantity())) {
-            throw new WarehouseCapacityExceededException(
-                String.format("Warehouse '%s' has insufficient capacity. Available: %d, Required: %d",
-                    warehouse.getName(), warehouse.getAvailableCapacity(), dto.getQuantity()));
+        // lock the warehouse row first, the capacity check below runs against the locked row
+        WarehouseCapacityView capacity = warehouseCapacityService.lock(dto.getWarehouseId());
+        warehouseCapacityService.requireCapacity(capacity, dto.getQuantity());
+        // then the item, so the location count below can't miss an add of it to another warehouse
+        if (inventoryItemRepository.lockById(dto.getInventoryItemId()).isEmpty()) {
+            throw new ResourceNotFoundException("Inventory item not found with id: " + dto.getInventoryItemId());
         }
-        
-        // Create junction table entry
-        WarehouseInventory location = new WarehouseInventory(warehouse, item, dto.getQuantity());
-        WarehouseInventory saved = warehouseInventoryRepository.save(location);
-        
-        logger.info("Added item {} to warehouse {} with quantity {}", 
-            item.getSerialNumber(), warehouse.getName(), dto.getQuantity());
-        
+
+        LocalDateTime now = LocalDateTime.now();
+        AddedLocationView added = warehouseInventoryRepository
+            .insertLocation(capacity.getId(), dto.getInventoryItemId(), dto.getQuantity(), now)
+            .orElseThrow(() -> new DuplicateSerialNumberException(
+                "Item " + dto.getInventoryItemId() + " already exists in warehouse " + capacity.getName()));
+
+        warehouseCapacityService.recordChange(capacity, dto.getQuantity());
+        eventPublisher.publishEvent(new StockChangedEvent(MovementType.ADDED, capacity.getId(),
+            dto.getInventoryItemId(), dto.getQuantity(), dto.getQuantity()));
+
+        // the count was taken before the insert, with the item locked
+        int before = added.getItemLocations().intValue();
+        publishTotals(new InventoryTotalsChangedEvent()
+            .addUnits(added.getCategory(), dto.getQuantity())
+            .itemLocations(before, before + 1));
+
+        logger.info("Added item {} to warehouse {} with quantity {}",
+            dto.getInventoryItemId(), capacity.getName(), dto.getQuantity());
+
         // Database trigger automatically updates warehouse capacity
-        
-        return saved;
+
+        return addedLocation(capacity, added, dto, now);
     }
 
+    // the response built from the locked row and the insert's RETURNING columns, no reload
+    private WarehouseInventory addedLocation(WarehouseCapacityView capacity, AddedLocationView added,
+                                             AddItemToWarehouseDTO dto, LocalDateTime now) {
+        Warehouse warehouse = new Warehouse(capacity.getName(), added.getWarehouseLocation(), capacity.getMaxCapacity());
+        warehouse.setId(capacity.getId());
+        // the trigger added the quantity to the row this request holds locked
+        warehouse.setCurrentCapacity(capacity.getCurrentCapacity() + dto.getQuantity());
+        warehouse.setStatus(capacity.getStatus());
+        warehouse.setCreatedAt(added.getWarehouseCreatedAt());
+        warehouse.setUpdatedAt(added.getWarehouseUpdatedAt());
+
+        // a proxy is enough, the item isn't serialized with its location
+        WarehouseInventory location = new WarehouseInventory(warehouse,
+            inventoryItemRepository.getReferenceById(dto.getInventoryItemId()), added.getQuantity());
+        location.setId(added.getLocationId());
+        location.setCreatedAt(now);
+        location.setUpdatedAt(now);
+        return location;
+    }
 
     // update quantity of an item at a warehouse location
     public WarehouseInventory updateQuantityAtLocation(Integer locationId, Integer newQuantity) {
+        Integer warehouseId = warehouseInventoryRepository.findWarehouseIdByLocationId(locationId)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Warehouse location not found with id: " + locationId));
+        WarehouseCapacityView capacity = warehouseCapacityService.lock(warehouseId);
+
+        // read the location after the lock so the quantity difference is current
         WarehouseInventory location = warehouseInventoryRepository.findById(locationId)
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Warehouse location not found with id: " + locationId));
@@ -112,18 +168,20 @@ public class WarehouseInventoryService {
         int quantityDifference = newQuantity - location.getQuantity();
         
         // If increasing quantity, check capacity
-        if (quantityDifference > 0) {
-            Warehouse warehouse = location.getWarehouse();
-            if (!warehouse.hasCapacity(quantityDifference)) {
-                throw new WarehouseCapacityExceededException(
-                    String.format("Warehouse '%s' has insufficient capacity for additional %d units",
-                        warehouse.getName(), quantityDifference));
-            }
+        if (quantityDifference > 0 && capacity.getAvailableCapacity() < quantityDifference) {
+            throw new WarehouseCapacityExceededException(
+                String.format("Warehouse '%s' has insufficient capacity for additional %d units",
+                    capacity.getName(), quantityDifference));
         }
         
         Integer oldQuantity = location.getQuantity();
         location.setQuantity(newQuantity);
         WarehouseInventory updated = warehouseInventoryRepository.save(location);
+        warehouseCapacityService.recordChange(capacity, quantityDifference);
+        eventPublisher.publishEvent(new StockChangedEvent(MovementType.ADJUSTED, warehouseId,
+            location.getInventoryItem().getId(), newQuantity, quantityDifference));
+        publishTotals(new InventoryTotalsChangedEvent()
+            .addUnits(location.getInventoryItem().getProductType().getCategory(), quantityDifference));
         
         logger.info("Updated location {} quantity from {} to {}", 
             locationId, oldQuantity, newQuantity);
@@ -134,105 +192,251 @@ public class WarehouseInventoryService {
     }
 
 
-    // remove item from a warehouse location entirely 
+    // remove item from a warehouse location entirely
+    // one delete, RETURNING tells what the location held
     public void removeItemFromWarehouse(Integer warehouseId, Integer itemId) {
         logger.info("Attempting to remove item {} from warehouse {}", itemId, warehouseId);
-        
-        WarehouseInventory location = warehouseInventoryRepository
-            .findByWarehouseIdAndInventoryItemId(warehouseId, itemId)
+
+        // same lock as the other mutations so a removal can't interleave with a transfer on this warehouse
+        WarehouseCapacityView capacity = warehouseCapacityService.lock(warehouseId);
+        // a missing item has no location to delete either, the delete reports it
+        inventoryItemRepository.lockById(itemId);
+
+        LocationWriteView removed = warehouseInventoryRepository.deleteLocation(warehouseId, itemId)
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Item not found in specified warehouse"));
-        
-        logger.info("Found location with id {} to delete", location.getId());
-        
-        // Delete the location
-        warehouseInventoryRepository.delete(location);
-        
-        // Flush to ensure immediate database update
-        warehouseInventoryRepository.flush();
-        
-        logger.info("Successfully deleted location {} (item {} from warehouse {})", 
-            location.getId(), itemId, warehouseId);
-        
-        // Verify deletion
-        boolean stillExists = warehouseInventoryRepository.existsById(location.getId());
-        if (stillExists) {
-            logger.error("DELETION FAILED - Location {} still exists after delete!", location.getId());
-        } else {
-            logger.info("Deletion verified - Location {} no longer exists", location.getId());
-        }
-        
+        int quantity = removed.getPreviousQuantity();
+
+        warehouseCapacityService.recordChange(capacity, -quantity);
+        eventPublisher.publishEvent(new StockChangedEvent(MovementType.REMOVED, warehouseId, itemId, 0, -quantity));
+
+        // the count was taken before the delete, with the item locked
+        int before = removed.getItemLocations().intValue();
+        publishTotals(new InventoryTotalsChangedEvent()
+            .addUnits(removed.getCategory(), -quantity)
+            .itemLocations(before, before - 1));
+
+        logger.info("Successfully deleted location {} (item {} from warehouse {})",
+            removed.getLocationId(), itemId, warehouseId);
+
         // Database trigger automatically updates warehouse capacity
     }
-    
+
     // transfer quantity from one warehouse to another
-    public void transferBetweenWarehouses(Integer itemId, Integer sourceWarehouseId, 
+    // one statement takes the units from the source, one upsert puts them into the destination
+    public void transferBetweenWarehouses(Integer itemId, Integer sourceWarehouseId,
                                           Integer destinationWarehouseId, Integer quantity) {
-        logger.info("Transferring {} units of item {} from warehouse {} to warehouse {}", 
+        logger.info("Transferring {} units of item {} from warehouse {} to warehouse {}",
             quantity, itemId, sourceWarehouseId, destinationWarehouseId);
-        
-        // Validate source location
-        WarehouseInventory sourceLocation = warehouseInventoryRepository
-            .findByWarehouseIdAndInventoryItemId(sourceWarehouseId, itemId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Item not found in source warehouse"));
-        
-        if (sourceLocation.getQuantity() < quantity) {
-            throw new IllegalArgumentException(
-                "Insufficient quantity at source. Available: " + sourceLocation.getQuantity());
+
+        if (sourceWarehouseId.equals(destinationWarehouseId)) {
+            throw new IllegalArgumentException("Source and destination warehouse must be different");
         }
-        
-        // Get destination warehouse
-        Warehouse destinationWarehouse = warehouseRepository.findById(destinationWarehouseId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Destination warehouse not found"));
-        
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Transfer quantity must be greater than zero");
+        }
+
+        // lock both warehouse rows (in id order) before reading any quantities
+        Map<Integer, WarehouseCapacityView> locked = warehouseCapacityService.lockAll(
+            List.of(sourceWarehouseId, destinationWarehouseId));
+        // then the item, the location counts have to include every other warehouse's writes of it
+        inventoryItemRepository.lockById(itemId);
+
         // Check destination capacity
-        if (!destinationWarehouse.hasCapacity(quantity)) {
+        if (locked.get(destinationWarehouseId).getAvailableCapacity() < quantity) {
             throw new WarehouseCapacityExceededException(
                 "Destination warehouse has insufficient capacity");
         }
-        
-        // Update source: reduce quantity or remove
-        if (sourceLocation.getQuantity().equals(quantity)) {
-            // Transferring all - remove from source
-            logger.info("Transferring all {} units - removing from source", quantity);
-            warehouseInventoryRepository.delete(sourceLocation);
-        } else {
-            // Transferring partial - reduce quantity
-            Integer newSourceQty = sourceLocation.getQuantity() - quantity;
-            logger.info("Transferring partial - reducing source from {} to {}", 
-                sourceLocation.getQuantity(), newSourceQty);
-            sourceLocation.setQuantity(newSourceQty);
-            warehouseInventoryRepository.save(sourceLocation);
+
+        // Update source: reduce quantity or remove, nothing is written when it holds too few
+        LocalDateTime now = LocalDateTime.now();
+        LocationWriteView source = warehouseInventoryRepository
+            .takeFromLocation(sourceWarehouseId, itemId, quantity, now)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Item not found in source warehouse"));
+        if (source.getPreviousQuantity() < quantity) {
+            throw new IllegalArgumentException(
+                "Insufficient quantity at source. Available: " + source.getPreviousQuantity());
         }
-        
+
         // Update destination: increase quantity or create new location
-        warehouseInventoryRepository
-            .findByWarehouseIdAndInventoryItemId(destinationWarehouseId, itemId)
-            .ifPresentOrElse(
-                // Item already exists at destination - increase quantity
-                destLocation -> {
-                    Integer newDestQty = destLocation.getQuantity() + quantity;
-                    logger.info("Item exists at destination - increasing from {} to {}", 
-                        destLocation.getQuantity(), newDestQty);
-                    destLocation.setQuantity(newDestQty);
-                    warehouseInventoryRepository.save(destLocation);
-                },
-                // Item doesn't exist at destination - create new location
-                () -> {
-                    logger.info("Creating new location at destination with quantity {}", quantity);
-                    InventoryItem item = sourceLocation.getInventoryItem();
-                    WarehouseInventory newLocation = new WarehouseInventory(
-                        destinationWarehouse, item, quantity);
-                    warehouseInventoryRepository.save(newLocation);
-                }
-            );
-        
+        LocationWriteView destination = warehouseInventoryRepository
+            .addToLocation(destinationWarehouseId, itemId, quantity, now);
+        logger.info("Source {} -> {}, destination {} -> {}", source.getPreviousQuantity(), source.getQuantity(),
+            destination.getPreviousQuantity(), destination.getQuantity());
+
+        warehouseCapacityService.recordChange(locked.get(sourceWarehouseId), -quantity);
+        warehouseCapacityService.recordChange(locked.get(destinationWarehouseId), quantity);
+        eventPublisher.publishEvent(new StockChangedEvent(MovementType.TRANSFERRED_OUT, sourceWarehouseId, itemId,
+            source.getQuantity(), -quantity));
+        eventPublisher.publishEvent(new StockChangedEvent(MovementType.TRANSFERRED_IN, destinationWarehouseId, itemId,
+            destination.getQuantity(), quantity));
+
+        // units stay in the same category, only the number of locations can change
+        boolean sourceEmptied = source.getQuantity() == 0;
+        boolean destinationCreated = destination.getPreviousQuantity() == null;
+        if (sourceEmptied != destinationCreated) {
+            // the destination count already reflects the source statement
+            int locations = destination.getItemLocations().intValue() + (destinationCreated ? 1 : 0);
+            int before = locations + (sourceEmptied ? 1 : 0) - (destinationCreated ? 1 : 0);
+            publishTotals(new InventoryTotalsChangedEvent().itemLocations(before, locations));
+        }
+
         logger.info("Transfer completed successfully");
-        
+
         // Database triggers automatically update warehouse capacities
     }
 
-    
+    // move many items in one transaction: plan every move in memory, lock all warehouses once
+    // in id order, then write each touched location once with its net quantity
+    public BatchTransferResultDTO transferBatch(List<TransferRequestDTO> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("Batch transfer needs at least one move");
+        }
+        if (transfers.size() > MAX_BATCH_TRANSFERS) {
+            throw new IllegalArgumentException("Batch transfer is limited to " + MAX_BATCH_TRANSFERS + " moves");
+        }
+
+        Set<Integer> warehouseIds = new HashSet<>();
+        Set<Integer> itemIds = new HashSet<>();
+        for (TransferRequestDTO transfer : transfers) {
+            if (transfer.getItemId() == null || transfer.getSourceWarehouseId() == null
+                    || transfer.getDestinationWarehouseId() == null || transfer.getQuantity() == null) {
+                throw new IllegalArgumentException("Every move needs itemId, sourceWarehouseId, destinationWarehouseId and quantity");
+            }
+            if (transfer.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Transfer quantity must be greater than zero");
+            }
+            if (transfer.getSourceWarehouseId().equals(transfer.getDestinationWarehouseId())) {
+                throw new IllegalArgumentException("Source and destination warehouse must be different");
+            }
+            warehouseIds.add(transfer.getSourceWarehouseId());
+            warehouseIds.add(transfer.getDestinationWarehouseId());
+            itemIds.add(transfer.getItemId());
+        }
+
+        // one lock statement for every warehouse in the batch, always in id order
+        Map<Integer, WarehouseCapacityView> locked = warehouseCapacityService.lockAll(warehouseIds);
+        // then the items, so the location recount after the writes sees every other transaction's moves of them
+        inventoryItemRepository.lockAllById(itemIds);
+
+        // one select for every location the batch could touch
+        Map<Long, WarehouseInventory> existing = new HashMap<>();
+        for (WarehouseInventory location : warehouseInventoryRepository
+                .findByWarehouseIdInAndInventoryItemIdIn(warehouseIds, itemIds)) {
+            existing.put(locationKey(location.getWarehouse().getId(), location.getInventoryItem().getId()), location);
+        }
+
+        // replay the moves against in-memory quantities so later moves see earlier ones
+        Map<Long, Integer> planned = new HashMap<>();
+        existing.forEach((key, location) -> planned.put(key, location.getQuantity()));
+        Map<Integer, Integer> netChange = new HashMap<>();
+        for (TransferRequestDTO transfer : transfers) {
+            long sourceKey = locationKey(transfer.getSourceWarehouseId(), transfer.getItemId());
+            long destinationKey = locationKey(transfer.getDestinationWarehouseId(), transfer.getItemId());
+            int available = planned.getOrDefault(sourceKey, 0);
+            if (available < transfer.getQuantity()) {
+                throw new IllegalArgumentException(String.format(
+                    "Insufficient quantity of item %d in warehouse %d. Available: %d, Requested: %d",
+                    transfer.getItemId(), transfer.getSourceWarehouseId(), available, transfer.getQuantity()));
+            }
+            planned.put(sourceKey, available - transfer.getQuantity());
+            planned.merge(destinationKey, transfer.getQuantity(), Integer::sum);
+            netChange.merge(transfer.getSourceWarehouseId(), -transfer.getQuantity(), Integer::sum);
+            netChange.merge(transfer.getDestinationWarehouseId(), transfer.getQuantity(), Integer::sum);
+        }
+
+        // only the net result per warehouse has to fit
+        netChange.forEach((warehouseId, change) -> {
+            if (change > 0) {
+                warehouseCapacityService.requireCapacity(locked.get(warehouseId), change);
+            }
+        });
+
+        // write decreases first and flush, so the capacity trigger never sees a warehouse
+        // holding the incoming units before the outgoing ones have left
+        int written = 0;
+        // per item: locations created minus locations emptied
+        Map<Integer, Integer> locationChange = new HashMap<>();
+        List<StockChangedEvent> stockChanges = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : planned.entrySet()) {
+            WarehouseInventory location = existing.get(entry.getKey());
+            if (location != null && entry.getValue() < location.getQuantity()) {
+                stockChanges.add(new StockChangedEvent(MovementType.TRANSFERRED_OUT, warehouseIdOf(entry.getKey()),
+                    itemIdOf(entry.getKey()), entry.getValue(), entry.getValue() - location.getQuantity()));
+                if (entry.getValue() == 0) {
+                    locationChange.merge(itemIdOf(entry.getKey()), -1, Integer::sum);
+                    warehouseInventoryRepository.delete(location);
+                } else {
+                    location.setQuantity(entry.getValue());
+                }
+                written++;
+            }
+        }
+        warehouseInventoryRepository.flush();
+
+        for (Map.Entry<Long, Integer> entry : planned.entrySet()) {
+            WarehouseInventory location = existing.get(entry.getKey());
+            if (location == null && entry.getValue() > 0) {
+                WarehouseInventory created = new WarehouseInventory(
+                    warehouseRepository.getReferenceById(warehouseIdOf(entry.getKey())),
+                    inventoryItemRepository.getReferenceById(itemIdOf(entry.getKey())),
+                    entry.getValue());
+                warehouseInventoryRepository.save(created);
+                locationChange.merge(itemIdOf(entry.getKey()), 1, Integer::sum);
+                stockChanges.add(new StockChangedEvent(MovementType.TRANSFERRED_IN, warehouseIdOf(entry.getKey()),
+                    itemIdOf(entry.getKey()), entry.getValue(), entry.getValue()));
+                written++;
+            } else if (location != null && entry.getValue() > location.getQuantity()) {
+                stockChanges.add(new StockChangedEvent(MovementType.TRANSFERRED_IN, warehouseIdOf(entry.getKey()),
+                    itemIdOf(entry.getKey()), entry.getValue(), entry.getValue() - location.getQuantity()));
+                location.setQuantity(entry.getValue());
+                written++;
+            }
+        }
+        warehouseInventoryRepository.flush();
+        netChange.forEach((warehouseId, change) -> warehouseCapacityService.recordChange(locked.get(warehouseId), change));
+        publishLocationChanges(locationChange);
+        stockChanges.forEach(eventPublisher::publishEvent);
+
+        logger.info("Batch transfer applied {} moves across {} warehouses with {} location writes",
+            transfers.size(), warehouseIds.size(), written);
+
+        return new BatchTransferResultDTO(transfers.size(), written, netChange);
+    }
+
+    // recount locations for items whose number of locations moved and publish the transitions
+    private void publishLocationChanges(Map<Integer, Integer> locationChange) {
+        locationChange.values().removeIf(change -> change == 0);
+        if (locationChange.isEmpty()) {
+            return;
+        }
+        InventoryTotalsChangedEvent event = new InventoryTotalsChangedEvent();
+        Map<Integer, Integer> after = new HashMap<>();
+        locationChange.keySet().forEach(itemId -> after.put(itemId, 0));
+        for (ItemLocationCountView row : warehouseInventoryRepository.countLocationsByItemIds(locationChange.keySet())) {
+            after.put(row.getItemId(), row.getLocations().intValue());
+        }
+        after.forEach((itemId, locations) -> event.itemLocations(locations - locationChange.get(itemId), locations));
+        publishTotals(event);
+    }
+
+    private void publishTotals(InventoryTotalsChangedEvent event) {
+        if (!event.isEmpty()) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // pack a warehouse id and item id into one map key
+    private static long locationKey(Integer warehouseId, Integer itemId) {
+        return ((long) warehouseId << 32) | (itemId & 0xFFFFFFFFL);
+    }
+
+    private static Integer warehouseIdOf(long locationKey) {
+        return (int) (locationKey >>> 32);
+    }
+
+    private static Integer itemIdOf(long locationKey) {
+        return (int) locationKey;
+    }
 }
@@ -2,46 +2,87 @@ package com.skillstormproject1.batstats.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.dtos.CapacityCacheStatsDTO;
 import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent.Change;
 import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
 import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
 import com.skillstormproject1.batstats.repositories.WarehouseRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 @Transactional
 public class WarehouseService {
 
     private final WarehouseRepository warehouseRepository;
+    private final WarehouseCapacityCache warehouseCapacityCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkDeleteService bulkDeleteService;
+    private final WarehouseCapacityService warehouseCapacityService;
 
-    public WarehouseService(WarehouseRepository warehouseRepository) {
+    public WarehouseService(WarehouseRepository warehouseRepository, WarehouseCapacityCache warehouseCapacityCache,
+                            ApplicationEventPublisher eventPublisher, BulkDeleteService bulkDeleteService,
+                            WarehouseCapacityService warehouseCapacityService) {
         this.warehouseRepository = warehouseRepository;
+        this.warehouseCapacityCache = warehouseCapacityCache;
+        this.eventPublisher = eventPublisher;
+        this.bulkDeleteService = bulkDeleteService;
+        this.warehouseCapacityService = warehouseCapacityService;
     }
 
     // list of all warehouses
+    @Transactional(readOnly = true)
     public List<Warehouse> getAllWarehouses(){
         return warehouseRepository.findAll();
     }
 
     // find a warehouse by id or throw exception
+    @Transactional(readOnly = true)
     public Warehouse getWarehouseById(Integer id) {
         return warehouseRepository.findById(id).orElseThrow(() -> 
             new ResponseStatusException(HttpStatus.NOT_FOUND, "Warehouse not found with id: " + id));
     }
 
     // list warehouses by status
+    @Transactional(readOnly = true)
     public List<Warehouse> getWarehouseByStatus(String status){
         return warehouseRepository.findByStatus(status);
     }
 
     // list warehouses that are greater than capacity passed 
+    // the percentages come from the capacity cache, only the matching rows are loaded
+    @Transactional(readOnly = true)
     public List<Warehouse> getWarehousesNearCapacity(Double threshold) {
-        return warehouseRepository.findWarehousesNearCapacity(threshold);
+        List<Integer> ids = warehouseCapacityCache.findNearCapacity(threshold);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return warehouseRepository.findAllById(ids);
+    }
+
+    // capacity of every warehouse straight from the capacity cache
+    @Transactional(readOnly = true)
+    public List<WarehouseCapacityCache.Snapshot> getWarehouseCapacities() {
+        return warehouseCapacityCache.getAll();
+    }
+
+    @Transactional(readOnly = true)
+    public WarehouseCapacityCache.Snapshot getWarehouseCapacity(Integer id) {
+        return warehouseCapacityCache.get(id);
+    }
+
+    @Transactional(readOnly = true)
+    public CapacityCacheStatsDTO getCapacityCacheStats() {
+        return warehouseCapacityCache.getStats();
     }
 
     /**
@@ -58,10 +99,20 @@ public class WarehouseService {
         warehouse.setStatus(warehouseDTO.getStatus() != null ? 
             warehouseDTO.getStatus() : "ACTIVE");
         warehouse.setCurrentCapacity(0);
-        return warehouseRepository.save(warehouse);
+        Warehouse saved = warehouseRepository.save(warehouse);
+        eventPublisher.publishEvent(WarehouseChangedEvent.of(Change.CREATED, saved));
+        return saved;
     }
 
+    // the row lock keeps stock from arriving between the check and the new limit
     public Warehouse updateWarehouse(Integer id, WarehouseDTO warehouseDTO) {
+        WarehouseCapacityView locked = warehouseCapacityService.lock(id);
+        Integer maxCapacity = warehouseDTO.getMaxCapacity();
+        if (maxCapacity != null && maxCapacity < locked.getCurrentCapacity()) {
+            throw new IllegalArgumentException(String.format(
+                "Warehouse '%s' already holds %d units, max capacity can't be lowered to %d",
+                locked.getName(), locked.getCurrentCapacity(), maxCapacity));
+        }
         Warehouse existing = getWarehouseById(id);
         existing.setName(warehouseDTO.getName());
         existing.setLocation(warehouseDTO.getLocation());
@@ -69,15 +120,24 @@ public class WarehouseService {
         if (warehouseDTO.getStatus() != null) {
             existing.setStatus(warehouseDTO.getStatus());
         }
-        return warehouseRepository.save(existing);
+        Warehouse saved = warehouseRepository.save(existing);
+        eventPublisher.publishEvent(WarehouseChangedEvent.of(Change.UPDATED, saved));
+        return saved;
     }
 
+    // the locations go in chunks that each commit on their own, so no transaction may be open around this
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteWarehouse(Integer id) {
         if (!warehouseRepository.existsById(id)) {
             throw new ResourceNotFoundException(
                 "Warehouse not found with id: " + id);
         }
-        warehouseRepository.deleteById(id);
-        
+        bulkDeleteService.deleteWarehouse(id);
+    }
+
+    // same delete on a background thread, follow it through the returned job
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteJobDTO startWarehouseDelete(Integer id) {
+        return bulkDeleteService.startWarehouseDelete(id);
     }
 }
@@ -0,0 +1,152 @@
+package com.skillstormproject1.batstats;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+import com.skillstormproject1.batstats.services.InventoryItemService;
+import com.skillstormproject1.batstats.services.ProductTypeService;
+import com.skillstormproject1.batstats.services.WarehouseInventoryService;
+import com.skillstormproject1.batstats.services.WarehouseService;
+
+/**
+ * Fixture shared by the integration tests.
+ *
+ * Warehouses, product types and items are created through the services and deleted the same way
+ * after each test, skipping whatever the test already deleted itself. Runs on the "test" profile,
+ * against the database TestDatabaseInitializer prepares rather than the development one.
+ */
+@ActiveProfiles("test")
+public abstract class InventoryTestSupport {
+
+    @Autowired
+    protected WarehouseService warehouseService;
+
+    @Autowired
+    protected ProductTypeService productTypeService;
+
+    @Autowired
+    protected InventoryItemService inventoryItemService;
+
+    @Autowired
+    protected WarehouseInventoryService warehouseInventoryService;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    // "Ledger" names product types "Ledger Gadget ..." in the category "Ledger Testing"
+    private final String fixtureName;
+
+    private final List<Warehouse> warehouses = new ArrayList<>();
+    private final List<ProductType> productTypes = new ArrayList<>();
+    private final List<InventoryItem> items = new ArrayList<>();
+    private ProductType productType;
+
+    protected InventoryTestSupport(String fixtureName) {
+        this.fixtureName = fixtureName;
+    }
+
+    @AfterEach
+    void deleteFixture() {
+        items.stream()
+            .filter(item -> inventoryItemRepository.existsById(item.getId()))
+            .forEach(item -> inventoryItemService.deleteInventoryItem(item.getId()));
+        items.clear();
+        productTypes.stream()
+            .filter(type -> productTypeRepository.existsById(type.getId()))
+            .forEach(type -> productTypeService.deleteProductType(type.getId()));
+        productTypes.clear();
+        productType = null;
+        warehouses.stream()
+            .filter(warehouse -> warehouseRepository.existsById(warehouse.getId()))
+            .forEach(warehouse -> warehouseService.deleteWarehouse(warehouse.getId()));
+        warehouses.clear();
+    }
+
+    protected Warehouse createWarehouse(String name) {
+        return createWarehouse(name, 1_000);
+    }
+
+    protected Warehouse createWarehouse(String name, int maxCapacity) {
+        Warehouse warehouse = warehouseService.createWarehouse(new WarehouseDTO(name, "Test Bay", maxCapacity, "ACTIVE"));
+        warehouses.add(warehouse);
+        return warehouse;
+    }
+
+    // the product type of items created without one, made on first use
+    protected ProductType productType() {
+        if (productType == null) {
+            productType = createProductType();
+        }
+        return productType;
+    }
+
+    protected ProductType createProductType() {
+        return createProductType(fixtureName + " Testing");
+    }
+
+    protected ProductType createProductType(String category) {
+        ProductType type = new ProductType();
+        type.setName(fixtureName + " Gadget " + System.nanoTime());
+        type.setCategory(category);
+        type.setUnitOfMeasure("box");
+        ProductType created = productTypeService.createProductType(type);
+        productTypes.add(created);
+        return created;
+    }
+
+    // an item of productType() without a location
+    protected InventoryItem createItem() {
+        return track(inventoryItemService.createInventoryItem(new InventoryItemDTO(null, productType().getId())));
+    }
+
+    protected InventoryItem createItem(Warehouse warehouse, int quantity) {
+        return createItem(productType(), warehouse, quantity);
+    }
+
+    protected InventoryItem createItem(ProductType type, Warehouse warehouse, int quantity) {
+        InventoryItemDTO dto = new InventoryItemDTO(null, type.getId());
+        dto.setInitialWarehouseId(warehouse.getId());
+        dto.setInitialQuantity(quantity);
+        return track(inventoryItemService.createInventoryItem(dto));
+    }
+
+    // deletes an item created some other way together with the fixture
+    protected InventoryItem track(InventoryItem item) {
+        items.add(item);
+        return item;
+    }
+
+    // straight from the row the capacity trigger maintains, past every cache
+    protected int currentCapacity(Warehouse warehouse) {
+        return jdbcTemplate.queryForObject(
+            "SELECT current_capacity FROM warehouses WHERE id = ?", Integer.class, warehouse.getId());
+    }
+
+    // ledger rows carry the database clock, so compare against it rather than the JVM's
+    protected LocalDateTime databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", LocalDateTime.class);
+    }
+}
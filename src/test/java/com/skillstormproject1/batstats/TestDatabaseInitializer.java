@@ -0,0 +1,154 @@
+package com.skillstormproject1.batstats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Prepares the database of the "test" profile before a test context uses it.
+ *
+ * The database named in spring.datasource.url is created on the same server if it is missing and
+ * gets the schema, functions and triggers of DB/BatStats-database.sql through pg_restore, like the
+ * benchmark databases. Once Hibernate has added its own tables, DB/migrations is applied. Contexts
+ * without batstats.test-database.prepare (the application itself, the benchmarks) are left alone.
+ */
+public class TestDatabaseInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    // databases already prepared by this JVM, every cached test context shares them
+    private static final Set<String> prepared = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        if (!environment.getProperty("batstats.test-database.prepare", Boolean.class, false)) {
+            return;
+        }
+        String url = environment.getRequiredProperty("spring.datasource.url");
+        String username = environment.getProperty("spring.datasource.username");
+        String password = environment.getProperty("spring.datasource.password");
+        String database = databaseName(url);
+        if (!prepared.add(database)) {
+            return;
+        }
+        try {
+            if (createDatabaseIfMissing(url, username, password, database)) {
+                restoreSchema(url, username, password, database);
+            }
+        } catch (SQLException | IOException ex) {
+            prepared.remove(database);
+            throw new IllegalStateException("Could not create the test database " + database, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while restoring the test database " + database, ex);
+        }
+        // the migrations also touch tables Hibernate creates, so they wait for the schema update
+        context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the factory bean is initialized once Hibernate has built the session factory
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    applyMigrations(context.getBean(DataSource.class), database);
+                }
+                return bean;
+            }
+        });
+    }
+
+    // "jdbc:postgresql://localhost:5432/batstats_test?reWriteBatchedInserts=true" -> "batstats_test"
+    private static String databaseName(String url) {
+        String path = url.replaceFirst("\\?.*$", "");
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static boolean createDatabaseIfMissing(String url, String username, String password, String database)
+            throws SQLException {
+        if (!database.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Test database name must be a plain identifier: " + database);
+        }
+        String adminUrl = url.replaceFirst("/[^/?]*(\\?.*)?$", "/postgres");
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet exists = statement.executeQuery(
+                    "SELECT 1 FROM pg_database WHERE datname = '" + database + "'")) {
+                if (exists.next()) {
+                    return false;
+                }
+            }
+            statement.execute("CREATE DATABASE " + database);
+            return true;
+        }
+    }
+
+    // schema, functions and triggers from the project dump, without its sample rows
+    private static void restoreSchema(String url, String username, String password, String database)
+            throws IOException, InterruptedException, SQLException {
+        String host = url.replaceFirst("^jdbc:postgresql://", "").replaceFirst("/.*$", "");
+        String[] hostAndPort = host.split(":");
+        ProcessBuilder restore = new ProcessBuilder("pg_restore", "--schema-only", "--no-owner",
+            "-h", hostAndPort[0], "-p", hostAndPort.length > 1 ? hostAndPort[1] : "5432",
+            "-U", username, "-d", database, "DB/BatStats-database.sql").inheritIO();
+        restore.environment().put("PGPASSWORD", password);
+        int exit;
+        try {
+            exit = restore.start().waitFor();
+        } catch (IOException ex) {
+            exit = -1;
+        }
+        if (exit != 0) {
+            // without the capacity triggers most tests would fail in confusing ways, start over next run
+            dropDatabase(url, username, password, database);
+            throw new IllegalStateException("pg_restore of DB/BatStats-database.sql into " + database
+                + " failed (exit " + exit + "), is pg_restore on the PATH?");
+        }
+    }
+
+    private static void dropDatabase(String url, String username, String password, String database)
+            throws SQLException {
+        String adminUrl = url.replaceFirst("/[^/?]*(\\?.*)?$", "/postgres");
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + database);
+        }
+    }
+
+    // the migrations are safe to re-run, each JVM applies them once
+    private static void applyMigrations(DataSource dataSource, String database) {
+        Path migrations = Paths.get("DB/migrations");
+        if (!Files.isDirectory(migrations)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(migrations);
+             Connection connection = dataSource.getConnection()) {
+            List<Path> scripts = files.filter(file -> file.toString().endsWith(".sql")).sorted().toList();
+            for (Path script : scripts) {
+                // the whole file goes to the server as one statement: splitting at ; would cut plpgsql bodies apart
+                ScriptUtils.executeSqlScript(connection, new EncodedResource(new FileSystemResource(script)),
+                    false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                    ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+            }
+        } catch (IOException | SQLException ex) {
+            throw new IllegalStateException("Could not apply DB/migrations to the test database " + database, ex);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.skillstormproject1.batstats.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// replica choice only, the positions are recorded by hand instead of read from servers
+class ReplicaLagTrackerTests {
+
+    @Test
+    void readsStayOnThePrimaryUntilAReplicaReportsIn() {
+        ReplicaLagTracker tracker = tracker(2);
+        assertThat(tracker.chooseReplica()).isEqualTo(-1);
+
+        tracker.recordReplayed(1, 0x100);
+        assertThat(tracker.chooseReplica()).isEqualTo(1);
+    }
+
+    @Test
+    void aReplicaBehindTheLastWriteIsSkipped() {
+        ReplicaLagTracker tracker = tracker(2);
+        tracker.recordReplayed(0, 0x100);
+        tracker.recordReplayed(1, 0x200);
+
+        tracker.recordWrite(0x180);
+        for (int i = 0; i < 4; i++) {
+            assertThat(tracker.chooseReplica()).isEqualTo(1);
+        }
+
+        tracker.recordWrite(0x300);
+        assertThat(tracker.chooseReplica()).isEqualTo(-1);
+
+        // caught up again
+        tracker.recordReplayed(0, 0x300);
+        assertThat(tracker.chooseReplica()).isEqualTo(0);
+    }
+
+    @Test
+    void caughtUpReplicasTakeTurns() {
+        ReplicaLagTracker tracker = tracker(3);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordReplayed(i, 0x500);
+        }
+        Set<Integer> chosen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(tracker.chooseReplica());
+        }
+        assertThat(chosen).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void anUnplacedWriteKeepsReadsOnThePrimaryUntilTheNextOne() {
+        ReplicaLagTracker tracker = tracker(1);
+        tracker.recordReplayed(0, 0x500);
+        tracker.recordWrite(Long.MAX_VALUE);
+        assertThat(tracker.chooseReplica()).isEqualTo(-1);
+
+        tracker.recordWrite(0x400);
+        assertThat(tracker.getLastWrite()).isEqualTo(0x400);
+        assertThat(tracker.chooseReplica()).isZero();
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsGoToACaughtUpReplica() {
+        ReplicaLagTracker tracker = tracker(1);
+        tracker.recordReplayed(0, 0x500);
+        tracker.recordWrite(0x400);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(tracker);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.replicaKey(0));
+            // until the replica replays the next write
+            tracker.recordWrite(0x600);
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void walPositionsRoundTrip() {
+        assertThat(ReplicaLagTracker.parseLsn("16/B374D848")).isEqualTo(0x16B374D848L);
+        assertThat(ReplicaLagTracker.formatLsn(0x16B374D848L)).isEqualTo("16/B374D848");
+        assertThat(ReplicaLagTracker.formatLsn(ReplicaLagTracker.parseLsn("0/0"))).isEqualTo("0/0");
+        assertThatThrownBy(() -> ReplicaLagTracker.parseLsn("16B374D848"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ReplicaLagTracker tracker(int replicas) {
+        DataSource[] none = new DataSource[replicas];
+        return new ReplicaLagTracker(null, Arrays.asList(none));
+    }
+}
@@ -0,0 +1,93 @@
+package com.skillstormproject1.batstats.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.events.WarehouseChangedEvent;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.services.TableVersionRegistry;
+
+// the test database doubles as a replica whose replay position is set by hand, the scheduled check stays out
+@SpringBootTest(properties = {
+    "batstats.datasource.replica-urls=${spring.datasource.url}",
+    "batstats.datasource.replica-check-interval=PT1H"
+})
+class ReplicaRoutingAfterCommitTests extends InventoryTestSupport {
+
+    @TestConfiguration
+    static class ObserverConfig {
+
+        @Bean
+        RoutingObserver routingObserver(ReplicaLagTracker replicaLagTracker, TableVersionRegistry tableVersions) {
+            return new RoutingObserver(replicaLagTracker, tableVersions);
+        }
+    }
+
+    // where a read would go at the moment a warehouse change is published, by ETag then current
+    static class RoutingObserver {
+
+        private final ReplicaLagTracker replicaLagTracker;
+        private final TableVersionRegistry tableVersions;
+        private final Map<String, Integer> routedByEtag = new ConcurrentHashMap<>();
+
+        RoutingObserver(ReplicaLagTracker replicaLagTracker, TableVersionRegistry tableVersions) {
+            this.replicaLagTracker = replicaLagTracker;
+            this.tableVersions = tableVersions;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+        public void onWarehouseChanged(WarehouseChangedEvent event) {
+            routedByEtag.put(tableVersions.etag(SyncTable.WAREHOUSES), replicaLagTracker.chooseReplica());
+        }
+    }
+
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
+
+    @Autowired
+    private TableVersionRegistry tableVersions;
+
+    @Autowired
+    private RoutingObserver routingObserver;
+
+    ReplicaRoutingAfterCommitTests() {
+        super("Routing");
+    }
+
+    @Test
+    void readsAfterTheEtagMovesSkipAReplicaWithoutTheWrite() {
+        // caught up with everything written so far
+        replicaLagTracker.recordReplayed(0, currentWalPosition());
+        assertThat(replicaLagTracker.chooseReplica()).isZero();
+        String before = tableVersions.etag(SyncTable.WAREHOUSES);
+
+        Warehouse warehouse = createWarehouse("Routing After Commit");
+
+        // whatever the listener order, no read behind any ETag published for the write went to the stale replica
+        String after = tableVersions.etag(SyncTable.WAREHOUSES);
+        assertThat(after).isNotEqualTo(before);
+        assertThat(routingObserver.routedByEtag).isNotEmpty().doesNotContainValue(0);
+        assertThat(replicaLagTracker.getLastWrite()).isGreaterThan(replicaLagTracker.getReplayed()[0]);
+
+        // once it has replayed the write the replica serves reads again
+        replicaLagTracker.recordReplayed(0, replicaLagTracker.getLastWrite());
+        assertThat(replicaLagTracker.chooseReplica()).isZero();
+        assertThat(warehouseService.getWarehouseById(warehouse.getId()).getName()).isEqualTo("Routing After Commit");
+    }
+
+    private long currentWalPosition() {
+        return ReplicaLagTracker.parseLsn(jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class));
+    }
+}
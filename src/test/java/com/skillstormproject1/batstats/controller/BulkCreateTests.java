@@ -0,0 +1,132 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.BulkCreateResultDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// POST /api/inventory/bulk writes every item and location or nothing at all
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkCreateTests extends InventoryTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    BulkCreateTests() {
+        super("Bulk");
+    }
+
+    @Test
+    void rowsWithAndWithoutALocation() throws Exception {
+        Warehouse first = createWarehouse("Bulk Create A");
+        Warehouse second = createWarehouse("Bulk Create B");
+        String provided = "BLK-" + System.nanoTime();
+
+        String body = bulk(rows(
+            row(provided, first, 5),
+            row(null, null, null),
+            row(null, second, 7),
+            row(null, first, 3)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        BulkCreateResultDTO result = objectMapper.readValue(body, BulkCreateResultDTO.class);
+        List<InventoryItem> created = new ArrayList<>();
+        for (String serialNumber : result.getSerialNumbers()) {
+            created.add(track(inventoryItemService.getInventoryItemBySerialNumber(serialNumber)));
+        }
+
+        assertThat(result.getCreatedCount()).isEqualTo(4);
+        assertThat(result.getLocationCount()).isEqualTo(3);
+        assertThat(result.getSerialNumbers()).hasSize(4).doesNotHaveDuplicates().startsWith(provided);
+        // every location landed on the item of its own row
+        assertThat(quantities(created.get(0))).containsExactly(first.getId() + ":5");
+        assertThat(quantities(created.get(1))).isEmpty();
+        assertThat(quantities(created.get(2))).containsExactly(second.getId() + ":7");
+        assertThat(quantities(created.get(3))).containsExactly(first.getId() + ":3");
+        assertThat(currentCapacity(first)).isEqualTo(8);
+        assertThat(currentCapacity(second)).isEqualTo(7);
+    }
+
+    @Test
+    void duplicateSerialNumbersCreateNothing() throws Exception {
+        Warehouse warehouse = createWarehouse("Bulk Duplicates");
+        String repeated = "BLK-" + System.nanoTime();
+        String fresh = repeated + "-F";
+
+        // twice in the request
+        bulk(rows(row(fresh, warehouse, 1), row(repeated, warehouse, 1), row(repeated, null, null)))
+            .andExpect(status().isConflict());
+
+        // already in the table
+        InventoryItemDTO existing = new InventoryItemDTO(repeated, productType().getId());
+        track(inventoryItemService.createInventoryItem(existing));
+        bulk(rows(row(fresh, warehouse, 1), row(repeated, warehouse, 1)))
+            .andExpect(status().isConflict());
+
+        assertThat(serialCount(fresh)).isZero();
+        assertThat(currentCapacity(warehouse)).isZero();
+    }
+
+    @Test
+    void overCapacityCreatesNothing() throws Exception {
+        Warehouse warehouse = createWarehouse("Bulk Over Capacity", 10);
+        String serialNumber = "BLK-" + System.nanoTime();
+
+        // each row fits on its own, together they don't
+        bulk(rows(row(serialNumber, warehouse, 6), row(null, null, null), row(null, warehouse, 5)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(serialCount(serialNumber)).isZero();
+        assertThat(currentCapacity(warehouse)).isZero();
+    }
+
+    private ResultActions bulk(List<InventoryItemDTO> rows) throws Exception {
+        return mockMvc.perform(post("/api/inventory/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(rows)));
+    }
+
+    private static List<InventoryItemDTO> rows(InventoryItemDTO... rows) {
+        return List.of(rows);
+    }
+
+    private InventoryItemDTO row(String serialNumber, Warehouse warehouse, Integer quantity) {
+        InventoryItemDTO dto = new InventoryItemDTO(serialNumber, productType().getId());
+        dto.setInitialWarehouseId(warehouse != null ? warehouse.getId() : null);
+        dto.setInitialQuantity(quantity);
+        return dto;
+    }
+
+    // "warehouseId:quantity" per location
+    private List<String> quantities(InventoryItem item) {
+        return warehouseInventoryService.getLocationsForItem(item.getId()).stream()
+            .map(location -> location.getWarehouse().getId() + ":" + location.getQuantity())
+            .toList();
+    }
+
+    private int serialCount(String serialNumber) {
+        return jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM inventory_items WHERE serial_number = ?", Integer.class, serialNumber);
+    }
+}
@@ -0,0 +1,97 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.services.ProductTypeService;
+import com.skillstormproject1.batstats.services.WarehouseService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// checks that controller and repository calls show up as meters with their statement, load and cache hit counts
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ControllerMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductTypeService productTypeService;
+
+    @Test
+    void listingWarehousesIsTimedAndCountsStatements() throws Exception {
+        mockMvc.perform(get("/api/warehouses")).andExpect(status().isOk());
+
+        Timer controllerTimer = meterRegistry.find("batstats.controller")
+            .tags("controller", "WarehouseController", "method", "getAllWarehouses", "status", "200")
+            .timer();
+        assertThat(controllerTimer).isNotNull();
+        assertThat(controllerTimer.count()).isPositive();
+
+        DistributionSummary statements = meterRegistry.find("batstats.controller.statements")
+            .tags("controller", "WarehouseController", "method", "getAllWarehouses")
+            .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+
+        // findAll is inherited from JpaRepository, it still has to be tagged with our repository
+        Timer repositoryTimer = meterRegistry.find("batstats.repository")
+            .tags("repository", "WarehouseRepository", "method", "findAll")
+            .timer();
+        assertThat(repositoryTimer).isNotNull();
+    }
+
+    @Test
+    void entityLoadsAndCacheHitsAreCountedPerCall() throws Exception {
+        Warehouse warehouse = warehouseService.createWarehouse(
+            new WarehouseDTO("Metrics Loads", "Test Bay", 10, "ACTIVE"));
+        ProductType type = new ProductType();
+        type.setName("Metrics Gadget " + System.nanoTime());
+        type.setCategory("Metrics Testing");
+        type.setUnitOfMeasure("box");
+        type = productTypeService.createProductType(type);
+        try {
+            // warehouses aren't cached, so this one comes from the database
+            mockMvc.perform(get("/api/warehouses/" + warehouse.getId())).andExpect(status().isOk());
+            DistributionSummary loads = meterRegistry.find("batstats.controller.entity.loads")
+                .tags("controller", "WarehouseController", "method", "getWarehouseById")
+                .summary();
+            assertThat(loads).isNotNull();
+            assertThat(loads.max()).isGreaterThanOrEqualTo(1);
+
+            // product types are, the second read at the latest is a hit
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get("/api/products/" + type.getId())).andExpect(status().isOk());
+            }
+            DistributionSummary hits = meterRegistry.find("batstats.controller.cache.hits")
+                .tags("controller", "ProductTypeController", "method", "getProductTypeById")
+                .summary();
+            assertThat(hits).isNotNull();
+            assertThat(hits.max()).isGreaterThanOrEqualTo(1);
+        } finally {
+            productTypeService.deleteProductType(type.getId());
+            warehouseService.deleteWarehouse(warehouse.getId());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// the lean listing points items at warehouses by id and writes only the requested fields
+@SpringBootTest
+@AutoConfigureMockMvc
+class InventoryListingTests extends InventoryTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Warehouse warehouse;
+    private ProductType productType;
+    private final List<InventoryItem> items = new ArrayList<>();
+
+    InventoryListingTests() {
+        super("Lean");
+    }
+
+    @BeforeEach
+    void seed() {
+        warehouse = createWarehouse("Lean Listing", 10_000);
+        productType = createProductType("Testing");
+        for (int i = 0; i < 3; i++) {
+            items.add(createItem(productType, warehouse, 10));
+        }
+    }
+
+    @Test
+    void warehousesAreWrittenOnceAndReferencedById() throws Exception {
+        String item = "$.items[?(@.id == " + items.get(0).getId() + ")]";
+        mockMvc.perform(get("/api/inventory/lean"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath(item + ".totalQuantity").value(10))
+            .andExpect(jsonPath(item + ".locations[0].warehouseId").value(warehouse.getId()))
+            .andExpect(jsonPath(item + ".locations[0].warehouse").doesNotExist())
+            .andExpect(jsonPath("$.warehouses." + warehouse.getId() + ".name").value("Lean Listing"))
+            .andExpect(jsonPath("$.productTypes." + productType.getId() + ".category").value("Testing"));
+    }
+
+    @Test
+    void fieldsLimitTheItemProperties() throws Exception {
+        mockMvc.perform(get("/api/inventory/lean?fields=id,totalQuantity"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0]", hasKey("totalQuantity")))
+            .andExpect(jsonPath("$.items[0]", not(hasKey("serialNumber"))))
+            .andExpect(jsonPath("$.warehouses").isEmpty());
+
+        mockMvc.perform(get("/api/inventory/lean?fields=id,nope"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,118 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.services.InventoryItemService;
+
+// keyset pages walk the items once in id order, the stream writes the whole table as one array
+@SpringBootTest
+@AutoConfigureMockMvc
+class InventoryPagingTests extends InventoryTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    InventoryPagingTests() {
+        super("Paging");
+    }
+
+    @Test
+    void cursorWalksEveryPageUntilItRunsOut() throws Exception {
+        Warehouse warehouse = createWarehouse("Paging Walk");
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createItem(warehouse, 1).getId());
+        }
+
+        // nothing was created after these, so pages of two give 2, 2 and 1
+        List<Integer> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Integer cursor = created.get(0) - 1;
+        while (cursor != null) {
+            JsonNode page = getJson("/api/inventory/page?after=" + cursor + "&limit=2");
+            page.get("items").forEach(item -> seen.add(item.get("id").asInt()));
+            pageSizes.add(page.get("items").size());
+            boolean hasMore = page.get("hasMore").asBoolean();
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asInt();
+            assertThat(cursor == null).isEqualTo(!hasMore);
+            if (cursor != null) {
+                assertThat(cursor).isEqualTo(seen.get(seen.size() - 1));
+            }
+        }
+
+        assertThat(seen).containsExactlyElementsOf(created);
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+
+        // past the end: an empty page, also without a cursor
+        JsonNode empty = getJson("/api/inventory/page?after=" + created.get(4));
+        assertThat(empty.get("items")).isEmpty();
+        assertThat(empty.get("nextCursor").isNull()).isTrue();
+        assertThat(empty.get("hasMore").asBoolean()).isFalse();
+    }
+
+    @Test
+    void limitOutsideItsBoundsIsRejected() throws Exception {
+        for (int limit : List.of(0, -1, InventoryItemService.MAX_PAGE_SIZE + 1)) {
+            mockMvc.perform(get("/api/inventory/page?limit=" + limit)).andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/api/inventory/page?limit=1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/inventory/page?limit=" + InventoryItemService.MAX_PAGE_SIZE))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void streamWritesEveryItemOnce() throws Exception {
+        Warehouse warehouse = createWarehouse("Paging Stream");
+        List<InventoryItem> created = List.of(createItem(warehouse, 3), createItem(), createItem(warehouse, 4));
+
+        MvcResult started = mockMvc.perform(get("/api/inventory/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        // a single well-formed array with one element per row
+        JsonNode items = objectMapper.readTree(body);
+        assertThat(items.isArray()).isTrue();
+        List<Integer> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asInt()));
+        int rows = jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_items", Integer.class);
+        assertThat(ids).hasSize(rows).doesNotHaveDuplicates().isSorted();
+        assertThat(ids).containsAll(created.stream().map(InventoryItem::getId).toList());
+        for (JsonNode item : items) {
+            if (item.get("id").asInt() == created.get(0).getId()) {
+                assertThat(item.get("serialNumber").asText()).isEqualTo(created.get(0).getSerialNumber());
+            }
+        }
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,108 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// fails if a listing endpoint goes back to one select per row
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ListingQueryCountTests extends InventoryTestSupport {
+
+    // every listing endpoint has to answer in at most this many sql statements
+    private static final long MAX_STATEMENTS = 2;
+
+    private static final int SEEDED_ITEMS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Warehouse firstWarehouse;
+    private ProductType productType;
+    private final List<InventoryItem> items = new ArrayList<>();
+
+    ListingQueryCountTests() {
+        super("Query Count");
+    }
+
+    @BeforeEach
+    void seed() {
+        firstWarehouse = createWarehouse("Query Count A", 10_000);
+        Warehouse secondWarehouse = createWarehouse("Query Count B", 10_000);
+        productType = createProductType("Testing");
+        for (int i = 0; i < SEEDED_ITEMS; i++) {
+            items.add(createItem(productType, i % 2 == 0 ? firstWarehouse : secondWarehouse, 10));
+        }
+    }
+
+    @Test
+    void inventoryListingsStayWithinStatementBudget() throws Exception {
+        assertStatementBudget("/api/inventory");
+        assertStatementBudget("/api/inventory/lean");
+        assertStatementBudget("/api/inventory/page?after=0&limit=3");
+        assertStatementBudget("/api/inventory/search?term=Query Count");
+        assertStatementBudget("/api/inventory/multi-location");
+    }
+
+    @Test
+    void warehouseInventoryListingsStayWithinStatementBudget() throws Exception {
+        Integer itemId = items.get(0).getId();
+        assertStatementBudget("/api/warehouse-inventory/warehouse/" + firstWarehouse.getId());
+        assertStatementBudget("/api/warehouse-inventory/item/" + itemId);
+        assertStatementBudget("/api/warehouse-inventory/item/" + itemId + "/summary");
+    }
+
+    @Test
+    void referenceListingsStayWithinStatementBudget() throws Exception {
+        assertStatementBudget("/api/warehouses");
+        assertStatementBudget("/api/products");
+    }
+
+    @Test
+    void productCatalogIsServedFromTheQueryCache() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/category/Testing")).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/category/Testing")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/" + productType.getId())).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).as("sql statements for cached catalog reads").isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    private void assertStatementBudget(String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount())
+            .as("sql statements for GET %s", url)
+            .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+}
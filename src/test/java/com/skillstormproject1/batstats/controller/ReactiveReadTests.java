@@ -0,0 +1,160 @@
+package com.skillstormproject1.batstats.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+// the /api/v2 streams read over R2DBC, the rows and their order have to be what the JPA endpoints return
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveReadTests extends InventoryTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    ReactiveReadTests() {
+        super("Reactive");
+    }
+
+    @Test
+    void warehouseContentsMatchTheWarehouseListing() throws Exception {
+        Warehouse warehouse = createWarehouse("Reactive Contents");
+        Warehouse other = createWarehouse("Reactive Elsewhere");
+        InventoryItem first = createItem(warehouse, 4);
+        createItem(other, 2);
+        InventoryItem second = createItem(warehouse, 9);
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(second.getId(), other.getId(), 1));
+        InventoryItem third = createItem(warehouse, 1);
+
+        List<JsonNode> streamed = stream("/api/v2/warehouses/" + warehouse.getId() + "/inventory");
+
+        // the v1 listing has no ORDER BY, the stream promises item id order
+        List<String> listed = warehouseInventoryService.getItemsInWarehouse(warehouse.getId()).stream()
+            .sorted(Comparator.comparing(location -> location.getInventoryItem().getId()))
+            .map(ReactiveReadTests::itemAndQuantity)
+            .toList();
+        assertThat(streamed).extracting(row -> row.get("id").asInt() + ":" + row.get("quantity").asInt())
+            .containsExactlyElementsOf(listed)
+            .containsExactly(first.getId() + ":4", second.getId() + ":9", third.getId() + ":1");
+        assertThat(streamed.get(0).get("serialNumber").asText()).isEqualTo(first.getSerialNumber());
+        assertThat(streamed.get(0).get("productTypeName").asText()).isEqualTo(productType().getName());
+        assertThat(streamed.get(0).get("category").asText()).isEqualTo(productType().getCategory());
+    }
+
+    @Test
+    void itemLocationsMatchTheLocationSummary() throws Exception {
+        Warehouse b = createWarehouse("Reactive Locations B");
+        Warehouse a = createWarehouse("Reactive Locations A");
+        Warehouse c = createWarehouse("Reactive Locations C");
+        InventoryItem item = createItem(b, 3);
+        for (Warehouse warehouse : List.of(c, a)) {
+            warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(item.getId(), warehouse.getId(), 5));
+        }
+
+        List<JsonNode> streamed = stream("/api/v2/inventory/" + item.getId() + "/locations");
+        JsonNode summary = getJson("/api/warehouse-inventory/item/" + item.getId() + "/summary");
+
+        // same fields, same rows, by warehouse name
+        List<JsonNode> listed = new ArrayList<>();
+        summary.forEach(listed::add);
+        assertThat(streamed).containsExactlyElementsOf(listed);
+        assertThat(streamed).extracting(row -> row.get("warehouseId").asInt())
+            .containsExactly(a.getId(), b.getId(), c.getId());
+    }
+
+    @Test
+    void searchMatchesTheRankedSearch() throws Exception {
+        String term = "RX" + System.nanoTime();
+        Warehouse warehouse = createWarehouse("Reactive Search");
+        ProductType named = productTypeService.updateProductType(createProductType().getId(), renamed(term + " Kit"));
+        InventoryItem contains = serial(productType(), "Q-" + term + "-Z");
+        InventoryItem byName = serial(named, "NAME" + System.nanoTime());
+        InventoryItem prefix = serial(productType(), term + "-2");
+        InventoryItem exact = serial(productType(), term);
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(prefix.getId(), warehouse.getId(), 6));
+
+        for (int limit : List.of(10, 2)) {
+            String query = "?term=" + term.toLowerCase() + "&limit=" + limit;
+            List<JsonNode> streamed = stream("/api/v2/inventory/search" + query);
+            JsonNode ranked = getJson("/api/inventory/search" + query);
+
+            List<Integer> rankedIds = new ArrayList<>();
+            ranked.forEach(item -> rankedIds.add(item.get("id").asInt()));
+            assertThat(streamed).extracting(row -> row.get("id").asInt()).containsExactlyElementsOf(rankedIds);
+        }
+
+        // one row per item with its total quantity across warehouses
+        List<JsonNode> streamed = stream("/api/v2/inventory/search?term=" + term);
+        assertThat(streamed).extracting(row -> row.get("id").asInt())
+            .containsExactly(exact.getId(), prefix.getId(), byName.getId(), contains.getId());
+        assertThat(streamed).extracting(row -> row.get("quantity").asInt()).containsExactly(0, 6, 0, 0);
+        assertThat(streamed.get(2).get("productTypeName").asText()).isEqualTo(term + " Kit");
+    }
+
+    // runs a v2 request to the end and splits the newline-delimited body into its rows
+    private List<JsonNode> stream(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private InventoryItem serial(ProductType type, String serialNumber) {
+        return track(inventoryItemService.createInventoryItem(new InventoryItemDTO(serialNumber, type.getId())));
+    }
+
+    private ProductType renamed(String name) {
+        ProductType type = new ProductType();
+        type.setName(name);
+        type.setCategory("Reactive Testing");
+        type.setUnitOfMeasure("box");
+        return type;
+    }
+
+    private static String itemAndQuantity(WarehouseInventory location) {
+        return location.getInventoryItem().getId() + ":" + location.getQuantity();
+    }
+}
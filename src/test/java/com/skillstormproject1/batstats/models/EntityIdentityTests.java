@@ -0,0 +1,96 @@
+package com.skillstormproject1.batstats.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.aspect.SqlStatementCounter;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseInventoryRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+// entities hash and compare on their identity only, and neither that nor logging them reads a collection
+@SpringBootTest
+class EntityIdentityTests extends InventoryTestSupport {
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private WarehouseInventoryRepository warehouseInventoryRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    EntityIdentityTests() {
+        super("Identity");
+    }
+
+    @Test
+    void hashHoldsWhenTheIdIsAssigned() {
+        Warehouse unsavedWarehouse = new Warehouse("Identity", "Test Bay", 10);
+        ProductType unsavedType = new ProductType();
+        InventoryItem unsavedItem = new InventoryItem("IDT-000001", unsavedType);
+        WarehouseInventory unsavedLocation = new WarehouseInventory(unsavedWarehouse, unsavedItem, 1);
+        Set<Object> seen = new HashSet<>(List.of(unsavedWarehouse, unsavedType, unsavedItem));
+
+        unsavedWarehouse.setId(41);
+        unsavedType.setId(42);
+        unsavedItem.setId(43);
+
+        assertThat(seen).contains(unsavedWarehouse, unsavedType, unsavedItem);
+        // unsaved entities only equal themselves, saved ones equal every copy of their row
+        assertThat(new Warehouse("Identity", "Test Bay", 10)).isNotEqualTo(new Warehouse("Identity", "Test Bay", 10));
+        Warehouse copy = new Warehouse("Identity", "Elsewhere", 99);
+        copy.setId(41);
+        assertThat(copy).isEqualTo(unsavedWarehouse).hasSameHashCodeAs(unsavedWarehouse);
+        // a copy from before a rename is a different warehouse as far as equals goes
+        Warehouse renamed = new Warehouse("Renamed", "Elsewhere", 99);
+        renamed.setId(41);
+        assertThat(renamed).isNotEqualTo(unsavedWarehouse);
+        assertThat(new InventoryItem("IDT-000001", null)).isEqualTo(unsavedItem);
+        WarehouseInventory sameLocation = new WarehouseInventory(copy, unsavedItem, 7);
+        assertThat(sameLocation).isEqualTo(unsavedLocation).hasSameHashCodeAs(unsavedLocation);
+    }
+
+    @Test
+    void identityAndLoggingRunNoSql() {
+        Warehouse warehouse = createWarehouse("Identity SQL");
+        InventoryItem first = createItem(warehouse, 1);
+        createItem(warehouse, 1);
+        createItem(warehouse, 1);
+        Integer locationId = warehouseInventoryService.getLocationsForItem(first.getId()).get(0).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Warehouse loaded = warehouseRepository.findById(warehouse.getId()).orElseThrow();
+            WarehouseInventory location = warehouseInventoryRepository.findById(locationId).orElseThrow();
+            InventoryItem reference = inventoryItemRepository.getReferenceById(first.getId());
+
+            long before = SqlStatementCounter.current();
+            Set<Object> seen = new HashSet<>(List.of(loaded, location));
+            String logged = loaded + " " + location;
+            assertThat(loaded.equals(location.getWarehouse())).isTrue();
+            assertThat(first.equals(reference)).isTrue();
+            assertThat(SqlStatementCounter.current() - before).isZero();
+
+            assertThat(seen).hasSize(2);
+            assertThat(logged).doesNotContain("inventoryItems");
+            assertThat(Hibernate.isInitialized(loaded.getInventoryItems())).isFalse();
+            assertThat(Hibernate.isInitialized(location.getInventoryItem())).isFalse();
+            assertThat(Hibernate.isInitialized(reference)).isFalse();
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.BulkDeleteJobDTO;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.models.BulkDeleteStatus;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+// warehouses and product types are deleted chunk by chunk, keeping the other warehouses' capacity right
+@SpringBootTest(properties = "batstats.bulk-delete.chunk-size=2")
+class BulkDeleteTests extends InventoryTestSupport {
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductTypeRepository productTypeRepository;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    BulkDeleteTests() {
+        super("Bulk");
+    }
+
+    @Test
+    void warehouseDeleteKeepsTheItems() {
+        Warehouse warehouse = createWarehouse("Bulk Delete Warehouse");
+        ProductType type = createProductType();
+        List<InventoryItem> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createItem(type, warehouse, 10));
+        }
+
+        BulkDeleteJobDTO job = bulkDeleteService.deleteWarehouse(warehouse.getId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteStatus.COMPLETED);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(job.getLocationsDeleted()).isEqualTo(5);
+        assertThat(job.getItemsDeleted()).isZero();
+        assertThat(warehouseRepository.existsById(warehouse.getId())).isFalse();
+        // written by the chunk statements, once each
+        assertThat(movements("warehouse_id", warehouse.getId(), "WAREHOUSE_DELETED")).isEqualTo(5);
+        for (InventoryItem item : created) {
+            assertThat(inventoryItemRepository.existsById(item.getId())).isTrue();
+            assertThat(warehouseInventoryService.getLocationsForItem(item.getId())).isEmpty();
+        }
+    }
+
+    @Test
+    void productTypeDeleteFreesCapacityEverywhere() {
+        Warehouse first = createWarehouse("Bulk Delete A");
+        Warehouse second = createWarehouse("Bulk Delete B");
+        ProductType doomed = createProductType();
+        ProductType kept = createProductType();
+        List<InventoryItem> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            InventoryItem item = createItem(doomed, first, 10);
+            warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(item.getId(), second.getId(), 5));
+            created.add(item);
+        }
+        createItem(kept, first, 7);
+
+        BulkDeleteJobDTO job = bulkDeleteService.deleteProductType(doomed.getId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteStatus.COMPLETED);
+        assertThat(job.getItemsDeleted()).isEqualTo(3);
+        assertThat(job.getLocationsDeleted()).isEqualTo(6);
+        assertThat(productTypeRepository.existsById(doomed.getId())).isFalse();
+        created.forEach(item -> assertThat(inventoryItemRepository.existsById(item.getId())).isFalse());
+        assertThat(movements("product_type_id", doomed.getId(), "ITEM_DELETED")).isEqualTo(6);
+        assertThat(warehouseService.getWarehouseById(first.getId()).getCurrentCapacity()).isEqualTo(7);
+        assertThat(warehouseService.getWarehouseById(second.getId()).getCurrentCapacity()).isZero();
+    }
+
+    @Test
+    void backgroundDeleteReportsProgress() throws InterruptedException {
+        Warehouse warehouse = createWarehouse("Bulk Delete Background");
+        ProductType type = createProductType();
+        for (int i = 0; i < 3; i++) {
+            createItem(type, warehouse, 1);
+        }
+
+        BulkDeleteJobDTO started = warehouseService.startWarehouseDelete(warehouse.getId());
+        BulkDeleteJobDTO job = started;
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (job.getStatus() == BulkDeleteStatus.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            job = bulkDeleteService.getJob(started.getId());
+        }
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeleteStatus.COMPLETED);
+        assertThat(job.getLocationsDeleted()).isEqualTo(3);
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(bulkDeleteService.getJobs()).extracting(BulkDeleteJobDTO::getId).contains(started.getId());
+        assertThat(warehouseRepository.existsById(warehouse.getId())).isFalse();
+
+        assertThatThrownBy(() -> bulkDeleteService.getJob(-1L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void unknownTargetsAreNotFound() {
+        assertThatThrownBy(() -> bulkDeleteService.startWarehouseDelete(Integer.MAX_VALUE))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> bulkDeleteService.startProductTypeDelete(Integer.MAX_VALUE))
+            .isInstanceOf(ResourceNotFoundException.class);
+        // the synchronous delete only finds out once it locks the row
+        assertThatThrownBy(() -> bulkDeleteService.deleteProductType(Integer.MAX_VALUE))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // ledger rows of one movement type for a warehouse or product type
+    private int movements(String column, Integer id, String movementType) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM inventory_movements WHERE " + column
+            + " = ? AND movement_type = ?", Integer.class, id, movementType);
+    }
+}
@@ -0,0 +1,83 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// the statement-level triggers of DB/migrations/004 net multi-row statements per warehouse
+@SpringBootTest
+class CapacityTriggerTests extends InventoryTestSupport {
+
+    private final List<Integer> createdIds = new ArrayList<>();
+
+    CapacityTriggerTests() {
+        super("Trigger");
+    }
+
+    @AfterEach
+    void deleteRawLocations() {
+        // the rows were written behind the services' backs, remove them the same way before the fixture goes
+        createdIds.forEach(id -> jdbcTemplate.update("DELETE FROM warehouse_inventory WHERE inventory_item_id = ?", id));
+        createdIds.clear();
+    }
+
+    @Test
+    void multiRowStatementsMoveCapacityByTheirNetTotal() {
+        Warehouse first = createWarehouse("Trigger First", 1_000);
+        Warehouse second = createWarehouse("Trigger Second", 1_000);
+        List<Integer> itemIds = createItems(4);
+
+        // one statement, four rows over two warehouses
+        jdbcTemplate.update(
+            "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+            "SELECT CASE WHEN n % 2 = 0 THEN ? ELSE ? END, (?::int[])[n], 10 * n, localtimestamp, localtimestamp " +
+            "FROM generate_series(1, 4) AS n",
+            first.getId(), second.getId(), itemIds.toArray(new Integer[0]));
+        assertThat(currentCapacity(first)).isEqualTo(20 + 40);
+        assertThat(currentCapacity(second)).isEqualTo(10 + 30);
+
+        // moving rows between warehouses counts against both sides
+        jdbcTemplate.update("UPDATE warehouse_inventory SET warehouse_id = ? WHERE warehouse_id = ?",
+            first.getId(), second.getId());
+        assertThat(currentCapacity(first)).isEqualTo(100);
+        assertThat(currentCapacity(second)).isZero();
+
+        jdbcTemplate.update("DELETE FROM warehouse_inventory WHERE warehouse_id = ? AND quantity > 20", first.getId());
+        assertThat(currentCapacity(first)).isEqualTo(30);
+    }
+
+    @Test
+    void statementOverCapacityIsRejectedAsAWhole() {
+        Warehouse warehouse = createWarehouse("Trigger Full", 50);
+        List<Integer> itemIds = createItems(3);
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+            "INSERT INTO warehouse_inventory (warehouse_id, inventory_item_id, quantity, created_at, updated_at) " +
+            "SELECT ?, id, 20, localtimestamp, localtimestamp FROM unnest(?::int[]) AS id",
+            warehouse.getId(), itemIds.toArray(new Integer[0])))
+            .isInstanceOf(DataAccessException.class)
+            .hasMessageContaining("Warehouse capacity exceeded");
+        assertThat(currentCapacity(warehouse)).isZero();
+    }
+
+    private List<Integer> createItems(int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            InventoryItem item = createItem();
+            createdIds.add(item.getId());
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,189 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// one sender and small buffers, so a stalled client fills its queue within a few changes
+@SpringBootTest(properties = {
+    "batstats.events.buffer-size=8",
+    "batstats.events.sender-threads=1",
+    "batstats.events.heartbeat-interval=PT1H"
+})
+class ChangeFeedBroadcasterTests extends InventoryTestSupport {
+
+    @Autowired
+    private ChangeFeedBroadcaster broadcaster;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    ChangeFeedBroadcasterTests() {
+        super("Feed");
+    }
+
+    @Test
+    void committedChangesAreDeliveredAndRolledBackOnesAreNot() throws Exception {
+        Connection connection = Connection.open(broadcaster.subscribe().orElseThrow());
+        Warehouse warehouse = createWarehouse("Feed Commit");
+
+        InventoryItem committed = createItem(warehouse, 5);
+        connection.awaitFrame(stockOf(committed));
+
+        InventoryItem unplaced = createItem();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            warehouseInventoryService.addItemToWarehouse(
+                new AddItemToWarehouseDTO(unplaced.getId(), warehouse.getId(), 3));
+            status.setRollbackOnly();
+        });
+
+        // frames arrive in order, once the next commit is through the rolled back one would have been too
+        InventoryItem marker = createItem(warehouse, 1);
+        connection.awaitFrame(stockOf(marker));
+        assertThat(connection.frames).noneMatch(frame -> frame.contains(stockOf(unplaced)));
+
+        connection.close();
+    }
+
+    @Test
+    void completedStreamIsRemoved() throws Exception {
+        int before = broadcaster.getSubscriberCount();
+        Connection connection = Connection.open(broadcaster.subscribe().orElseThrow());
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(before + 1);
+
+        // what the container does when the client disconnects
+        connection.close();
+
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(before);
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsClosed() throws Exception {
+        Connection stalled = Connection.open(broadcaster.subscribe().orElseThrow());
+        int before = broadcaster.getSubscriberCount();
+        stalled.stall();
+        Warehouse warehouse = createWarehouse("Feed Eviction");
+
+        // the only sender hangs in the first send, the queue behind it fills and the stream is dropped
+        for (int i = 0; i < 50 && broadcaster.getSubscriberCount() == before; i++) {
+            createItem(warehouse, 1);
+        }
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(before - 1);
+
+        // the evicted stream still holds the sender, so nobody else gets anything meanwhile
+        Connection waiting = Connection.open(broadcaster.subscribe().orElseThrow());
+        InventoryItem held = createItem(warehouse, 1);
+        Thread.sleep(200);
+        assertThat(waiting.frames).noneMatch(frame -> frame.contains(stockOf(held)));
+
+        // once the socket moves again the evicted stream is completed and the sender goes on
+        stalled.resume();
+        awaitTrue(() -> stalled.completed);
+        waiting.awaitFrame(stockOf(held));
+
+        waiting.close();
+    }
+
+    private static String stockOf(InventoryItem item) {
+        return "\"itemId\":" + item.getId() + ",";
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    // stands in for the servlet response behind an emitter: keeps every frame, and can hang in send like a full socket
+    static final class Connection implements InvocationHandler {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final List<Runnable> completionCallbacks = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch stalled = new CountDownLatch(0);
+        private volatile boolean completed;
+
+        // the emitter's handler type and initialize are package-private, the MVC return value handler calls them
+        static Connection open(SseEmitter emitter) throws Exception {
+            Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+            Connection connection = new Connection();
+            Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[] {handlerType},
+                connection);
+            Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+            initialize.setAccessible(true);
+            initialize.invoke(emitter, handler);
+            return connection;
+        }
+
+        void stall() {
+            stalled = new CountDownLatch(1);
+        }
+
+        void resume() {
+            stalled.countDown();
+        }
+
+        void close() {
+            completionCallbacks.forEach(Runnable::run);
+        }
+
+        void awaitFrame(String fragment) throws InterruptedException {
+            awaitTrue(() -> frames.stream().anyMatch(frame -> frame.contains(fragment)));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "send" -> {
+                    stalled.await();
+                    StringBuilder frame = new StringBuilder();
+                    if (args.length == 1) {
+                        ((Set<DataWithMediaType>) args[0]).forEach(part -> frame.append(part.getData()));
+                    } else {
+                        frame.append(args[0]);
+                    }
+                    frames.add(frame.toString());
+                }
+                case "complete", "completeWithError" -> completed = true;
+                case "onCompletion" -> completionCallbacks.add((Runnable) args[0]);
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "toString" -> {
+                    return "Connection";
+                }
+                default -> {
+                    // timeout and error callbacks are never fired here
+                }
+            }
+            return null;
+        }
+    }
+}
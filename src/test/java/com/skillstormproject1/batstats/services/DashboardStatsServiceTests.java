@@ -0,0 +1,79 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.repositories.CategoryUnitsView;
+import com.skillstormproject1.batstats.repositories.InventoryItemRepository;
+import com.skillstormproject1.batstats.repositories.ItemLocationTotalsView;
+import com.skillstormproject1.batstats.repositories.ProductTypeRepository;
+
+// counts against mocked repositories, with totals events committing in the middle of a count
+class DashboardStatsServiceTests {
+
+    private final InventoryItemRepository inventoryItemRepository = mock(InventoryItemRepository.class);
+    private final ProductTypeRepository productTypeRepository = mock(ProductTypeRepository.class);
+    private final WarehouseCapacityCache warehouseCapacityCache = mock(WarehouseCapacityCache.class);
+    private final DashboardStatsService service =
+        new DashboardStatsService(inventoryItemRepository, productTypeRepository, warehouseCapacityCache);
+
+    DashboardStatsServiceTests() {
+        ItemLocationTotalsView items = mock(ItemLocationTotalsView.class);
+        when(items.getTotalItems()).thenReturn(1L);
+        when(items.getWithoutLocation()).thenReturn(0L);
+        when(items.getMultiLocation()).thenReturn(0L);
+        when(inventoryItemRepository.countItemsByLocationCount()).thenReturn(items);
+        when(productTypeRepository.count()).thenReturn(1L);
+        when(warehouseCapacityCache.getAll()).thenReturn(List.of());
+    }
+
+    @Test
+    void eventDuringTheFirstCountIsNotLost() {
+        // the first count misses a change whose listener runs while it reads, the second sees it
+        List<CategoryUnitsView> before = List.of(units("Weapons", 10));
+        List<CategoryUnitsView> after = List.of(units("Weapons", 15));
+        when(inventoryItemRepository.sumUnitsByCategory())
+            .thenAnswer(invocation -> {
+                service.onTotalsChanged(new InventoryTotalsChangedEvent().addUnits("Weapons", 5));
+                return before;
+            })
+            .thenReturn(after);
+
+        assertThat(service.getDashboard().getTotalUnits()).isEqualTo(15L);
+        assertThat(service.getDashboard().getUnitsByCategory()).containsEntry("Weapons", 15L);
+    }
+
+    @Test
+    void correctionDoesNotOverwriteAnEventFromDuringItsCount() {
+        List<CategoryUnitsView> initial = List.of(units("Weapons", 10));
+        List<CategoryUnitsView> drifted = List.of(units("Weapons", 15));
+        List<CategoryUnitsView> current = List.of(units("Weapons", 18));
+        when(inventoryItemRepository.sumUnitsByCategory()).thenReturn(initial);
+        service.getDashboard();
+        // drift: the database holds 15 but only 4 were applied
+        service.onTotalsChanged(new InventoryTotalsChangedEvent().addUnits("Weapons", 4));
+
+        when(inventoryItemRepository.sumUnitsByCategory())
+            .thenAnswer(invocation -> {
+                service.onTotalsChanged(new InventoryTotalsChangedEvent().addUnits("Weapons", 3));
+                return drifted;
+            })
+            .thenReturn(current);
+        service.verifyAndCorrect();
+
+        assertThat(service.getDashboard().getTotalUnits()).isEqualTo(18L);
+    }
+
+    private CategoryUnitsView units(String category, long units) {
+        CategoryUnitsView row = mock(CategoryUnitsView.class);
+        when(row.getCategory()).thenReturn(category);
+        when(row.getUnits()).thenReturn(units);
+        return row;
+    }
+}
@@ -0,0 +1,93 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.DashboardDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// the kept dashboard totals must match a fresh count after every kind of stock change
+@SpringBootTest
+class DashboardStatsTests extends InventoryTestSupport {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    DashboardStatsTests() {
+        super("Dashboard");
+    }
+
+    @Test
+    void incrementalTotalsMatchAFreshCount() {
+        Warehouse first = createWarehouse("Dashboard A");
+        Warehouse second = createWarehouse("Dashboard B");
+        DashboardDTO before = dashboardStatsService.getDashboard();
+
+        InventoryItem placed = createItem(first, 40);
+        InventoryItem unplaced = createItem();
+
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(placed.getId(), second.getId(), 10));
+        warehouseInventoryService.transferBetweenWarehouses(placed.getId(), first.getId(), second.getId(), 40);
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(unplaced.getId(), first.getId(), 5));
+        warehouseInventoryService.removeItemFromWarehouse(first.getId(), unplaced.getId());
+
+        DashboardDTO after = dashboardStatsService.getDashboard();
+        assertThat(after.getTotalItems()).isEqualTo(before.getTotalItems() + 2);
+        assertThat(after.getTotalUnits()).isEqualTo(before.getTotalUnits() + 50);
+        assertThat(after.getUnitsByCategory()).containsEntry("Dashboard Testing", 50L);
+        assertThat(after.getItemsWithoutLocation()).isEqualTo(before.getItemsWithoutLocation() + 1);
+        assertThat(after.getMultiLocationItems()).isEqualTo(before.getMultiLocationItems());
+        assertThat(dashboardStatsService.verify().getDifferences()).isEmpty();
+    }
+
+    @Test
+    void concurrentAddsOfOneItemCountItOnceAsMultiLocation() throws Exception {
+        Warehouse first = createWarehouse("Dashboard Race A");
+        Warehouse second = createWarehouse("Dashboard Race B");
+        Warehouse third = createWarehouse("Dashboard Race C");
+        List<InventoryItem> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(createItem(first, 1));
+        }
+        DashboardDTO before = dashboardStatsService.getDashboard();
+
+        // both adds of an item start together, each would see one location without the item lock
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (InventoryItem item : items) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> adds = new ArrayList<>();
+                for (Warehouse warehouse : List.of(second, third)) {
+                    adds.add(pool.submit(() -> {
+                        start.await();
+                        return warehouseInventoryService.addItemToWarehouse(
+                            new AddItemToWarehouseDTO(item.getId(), warehouse.getId(), 1));
+                    }));
+                }
+                start.countDown();
+                for (Future<?> add : adds) {
+                    add.get();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        DashboardDTO after = dashboardStatsService.getDashboard();
+        assertThat(after.getMultiLocationItems()).isEqualTo(before.getMultiLocationItems() + items.size());
+        assertThat(dashboardStatsService.verify().getDifferences()).isEmpty();
+    }
+}
@@ -0,0 +1,86 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.SyncDeltaDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.SyncTable;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// ETags move with committed writes and ?since deltas return changed rows and deleted ids
+@SpringBootTest
+class DeltaSyncTests extends InventoryTestSupport {
+
+    @Autowired
+    private TableVersionRegistry tableVersions;
+
+    @Autowired
+    private DeltaSyncService deltaSyncService;
+
+    DeltaSyncTests() {
+        super("Sync");
+    }
+
+    @Test
+    void etagChangesAfterACommittedWrite() {
+        String warehousesTag = tableVersions.etag(SyncTable.WAREHOUSES);
+        assertThat(tableVersions.matches(warehousesTag, warehousesTag)).isTrue();
+        assertThat(tableVersions.matches("W/" + warehousesTag + ", \"other\"", warehousesTag)).isTrue();
+
+        createWarehouse("Sync ETag");
+
+        assertThat(tableVersions.etag(SyncTable.WAREHOUSES)).isNotEqualTo(warehousesTag);
+        assertThat(tableVersions.matches(warehousesTag, tableVersions.etag(SyncTable.WAREHOUSES))).isFalse();
+    }
+
+    @Test
+    void warehouseDeltaHasChangedAndDeletedRows() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        Warehouse kept = createWarehouse("Sync Kept");
+        Warehouse removed = createWarehouse("Sync Removed", 100);
+        warehouseService.deleteWarehouse(removed.getId());
+
+        SyncDeltaDTO<Warehouse> delta = deltaSyncService.getWarehouseChanges(since);
+
+        assertThat(delta.getChanged()).extracting(Warehouse::getId).contains(kept.getId()).doesNotContain(removed.getId());
+        assertThat(delta.getDeleted()).contains(removed.getId());
+        assertThat(delta.getSyncedAt()).isAfterOrEqualTo(since);
+    }
+
+    @Test
+    void removedLocationMarksTheItemChanged() {
+        Warehouse warehouse = createWarehouse("Sync Locations");
+        InventoryItem item = createItem(warehouse, 5);
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+
+        warehouseInventoryService.removeItemFromWarehouse(warehouse.getId(), item.getId());
+
+        SyncDeltaDTO<InventoryItem> delta = deltaSyncService.getInventoryItemChanges(since);
+        assertThat(delta.getChanged()).extracting(InventoryItem::getId).contains(item.getId());
+        assertThat(delta.getDeleted()).doesNotContain(item.getId());
+    }
+
+    @Test
+    void syncedAtTrailsTheDatabaseClock() {
+        LocalDateTime before = databaseTime();
+        SyncDeltaDTO<Warehouse> delta = deltaSyncService.getWarehouseChanges(before.minusMinutes(5));
+        LocalDateTime after = databaseTime();
+
+        // the default 30 second settle window
+        assertThat(delta.getSyncedAt()).isBetween(before.minusSeconds(30), after.minusSeconds(30));
+    }
+
+    @Test
+    void sinceOlderThanTheTombstonesIsRejected() {
+        assertThatThrownBy(() -> deltaSyncService.getProductTypeChanges(LocalDateTime.now().minusYears(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.StockLevelDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.InventoryMovement;
+import com.skillstormproject1.batstats.models.InventorySnapshot;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+// every stock change lands in the ledger and replaying it gives the stock at any earlier moment
+@SpringBootTest(properties = "batstats.ledger.snapshot-settle=PT0S")
+class InventoryLedgerTests extends InventoryTestSupport {
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    InventoryLedgerTests() {
+        super("Ledger");
+    }
+
+    @Test
+    void replayRebuildsEarlierStockLevels() {
+        Warehouse first = createWarehouse("Ledger A");
+        Warehouse second = createWarehouse("Ledger B");
+        InventoryItem item = createItem(first, 40);
+        LocalDateTime afterCreate = databaseTime();
+
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(item.getId(), second.getId(), 10));
+        warehouseInventoryService.transferBetweenWarehouses(item.getId(), first.getId(), second.getId(), 15);
+        WarehouseInventory atSecond = warehouseInventoryService.getLocationsForItem(item.getId()).stream()
+            .filter(location -> location.getWarehouse().getId().equals(second.getId()))
+            .findFirst().orElseThrow();
+        warehouseInventoryService.updateQuantityAtLocation(atSecond.getId(), 30);
+        LocalDateTime afterUpdate = databaseTime();
+
+        // everything so far is folded into a snapshot, the removal below comes after it
+        Optional<InventorySnapshot> snapshot = inventoryLedgerService.takeSnapshot();
+        assertThat(snapshot).isPresent();
+        assertThat(snapshot.get().getCoversThrough()).isAfterOrEqualTo(afterUpdate);
+        warehouseInventoryService.removeItemFromWarehouse(second.getId(), item.getId());
+
+        assertThat(stockAt(afterCreate, item)).containsExactly(level(first, item, 40));
+        assertThat(stockAt(afterUpdate, item)).containsExactly(level(first, item, 25), level(second, item, 30));
+        assertThat(stockAt(null, item)).containsExactly(level(first, item, 25));
+
+        List<MovementType> types = inventoryLedgerService.getMovements(item.getId(), null, 10).stream()
+            .map(InventoryMovement::getMovementType)
+            .toList();
+        assertThat(types).containsExactly(MovementType.REMOVED, MovementType.ADJUSTED, MovementType.TRANSFERRED_IN,
+            MovementType.TRANSFERRED_OUT, MovementType.ADDED, MovementType.ITEM_CREATED);
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoMovements() {
+        Warehouse first = createWarehouse("Ledger Rollback");
+        Warehouse second = createWarehouse("Ledger Rollback B");
+        InventoryItem item = createItem(first, 5);
+
+        // more than the source holds, so the transfer throws and rolls back
+        assertThatThrownBy(() -> warehouseInventoryService.transferBetweenWarehouses(
+            item.getId(), first.getId(), second.getId(), 50))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(inventoryLedgerService.getMovements(item.getId(), null, 10))
+            .extracting(InventoryMovement::getMovementType)
+            .containsExactly(MovementType.ITEM_CREATED);
+    }
+
+    private List<StockLevelDTO> stockAt(LocalDateTime at, InventoryItem item) {
+        return inventoryLedgerService.getStockAt(at, null, item.getId());
+    }
+
+    private StockLevelDTO level(Warehouse warehouse, InventoryItem item, long quantity) {
+        return new StockLevelDTO(warehouse.getId(), item.getId(), quantity);
+    }
+}
@@ -0,0 +1,102 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+
+// ranked search and typeahead against serial numbers and product names made unique per run
+@SpringBootTest
+class InventorySearchTests extends InventoryTestSupport {
+
+    InventorySearchTests() {
+        super("Search");
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsNameBeatsSimilarity() {
+        String term = "RNK" + System.nanoTime();
+        InventoryItem contains = item("X-" + term + "-Z");
+        InventoryItem prefix = item(term + "-2");
+        InventoryItem byName = item(named(term + " Widget"), "NAME" + System.nanoTime());
+        InventoryItem exact = item(term);
+
+        List<Integer> ranked = ids(inventoryItemService.searchItems(term.toLowerCase(), 10));
+
+        assertThat(ranked).containsExactly(exact.getId(), prefix.getId(), byName.getId(), contains.getId());
+    }
+
+    @Test
+    void wildcardsAreSearchedLiterally() {
+        String base = "ESC" + System.nanoTime();
+        InventoryItem underscore = item(base + "_1");
+        item(base + "X1");
+        InventoryItem percent = item(base + "%Z");
+        item(base + "ZZ");
+
+        assertThat(ids(inventoryItemService.searchItems(base + "_1", 10))).containsExactly(underscore.getId());
+        assertThat(ids(inventoryItemService.searchItems(base + "%", 10))).containsExactly(percent.getId());
+        assertThat(inventoryItemService.suggest(base + "_", 10)).containsExactly(base + "_1");
+        assertThat(inventoryItemService.suggest(base + "%", 10)).containsExactly(base + "%Z");
+    }
+
+    @Test
+    void resultsStopAtTheLimit() {
+        String base = "LIM" + System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            item(base + "-" + i);
+        }
+
+        assertThat(inventoryItemService.searchItems(base, 2)).hasSize(2);
+        assertThat(inventoryItemService.searchItems(base, 10)).hasSize(4);
+        // shortest first, then alphabetical
+        assertThat(inventoryItemService.suggest(base, 3)).containsExactly(base + "-0", base + "-1", base + "-2");
+
+        for (int limit : List.of(0, InventoryItemService.MAX_SEARCH_RESULTS + 1)) {
+            assertThatThrownBy(() -> inventoryItemService.searchItems(base, limit))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> inventoryItemService.suggest(base, limit))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void suggestionsMixSerialsAndProductNames() {
+        String base = "SUG" + System.nanoTime();
+        item(base + "-LONG-SERIAL");
+        named(base + " Kit");
+
+        assertThat(inventoryItemService.suggest(base.toLowerCase(), 10))
+            .containsExactly(base + " Kit", base + "-LONG-SERIAL");
+    }
+
+    private InventoryItem item(String serialNumber) {
+        return item(productType(), serialNumber);
+    }
+
+    private InventoryItem item(ProductType type, String serialNumber) {
+        return track(inventoryItemService.createInventoryItem(new InventoryItemDTO(serialNumber, type.getId())));
+    }
+
+    // a fixture product type under the given name
+    private ProductType named(String name) {
+        ProductType type = createProductType();
+        ProductType renamed = new ProductType();
+        renamed.setName(name);
+        renamed.setCategory(type.getCategory());
+        renamed.setUnitOfMeasure(type.getUnitOfMeasure());
+        return productTypeService.updateProductType(type.getId(), renamed);
+    }
+
+    private static List<Integer> ids(List<InventoryItem> items) {
+        return items.stream().map(InventoryItem::getId).toList();
+    }
+}
@@ -0,0 +1,145 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.aspect.SqlStatementCounter;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.exceptions.DuplicateSerialNumberException;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+// add, remove and transfer each write a location in one statement, after the warehouse and item locks
+// SqlStatementCounter only sees Hibernate's statements, not the ledger's JdbcTemplate batch at commit,
+// so the ledger is off rather than left uncounted
+@SpringBootTest(properties = "batstats.ledger.enabled=false")
+class LocationMutationTests extends InventoryTestSupport {
+
+    // warehouse lock, item lock, insert
+    private static final long ADD_STATEMENTS = 3;
+    // warehouse lock, item lock, delete
+    private static final long REMOVE_STATEMENTS = 3;
+    // lock of both warehouses, item lock, source write, destination upsert
+    private static final long TRANSFER_STATEMENTS = 4;
+
+    LocationMutationTests() {
+        super("Mutation");
+    }
+
+    @Test
+    void addWritesOneRow() {
+        Warehouse first = createWarehouse("Mutation Add A");
+        Warehouse second = createWarehouse("Mutation Add B");
+        InventoryItem item = createItem(first, 10);
+
+        long before = SqlStatementCounter.current();
+        WarehouseInventory added = warehouseInventoryService.addItemToWarehouse(
+            new AddItemToWarehouseDTO(item.getId(), second.getId(), 7));
+        assertThat(SqlStatementCounter.current() - before).isLessThanOrEqualTo(ADD_STATEMENTS);
+
+        assertThat(added.getQuantity()).isEqualTo(7);
+        assertThat(added.getWarehouse().getId()).isEqualTo(second.getId());
+        // the response is built without a reload, it still has to match the row
+        Warehouse reloaded = warehouseService.getWarehouseById(second.getId());
+        assertThat(reloaded.getCurrentCapacity()).isEqualTo(7);
+        assertThat(added.getWarehouse().getCurrentCapacity()).isEqualTo(7);
+        assertThat(added.getWarehouse().getLocation()).isEqualTo(reloaded.getLocation());
+        assertThat(added.getWarehouse().getUpdatedAt()).isEqualTo(reloaded.getUpdatedAt());
+
+        assertThatThrownBy(() -> warehouseInventoryService.addItemToWarehouse(
+            new AddItemToWarehouseDTO(item.getId(), second.getId(), 1)))
+            .isInstanceOf(DuplicateSerialNumberException.class);
+        assertThatThrownBy(() -> warehouseInventoryService.addItemToWarehouse(
+            new AddItemToWarehouseDTO(-1, second.getId(), 1)))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void removeDeletesOneRow() {
+        Warehouse warehouse = createWarehouse("Mutation Remove");
+        InventoryItem item = createItem(warehouse, 12);
+
+        long before = SqlStatementCounter.current();
+        warehouseInventoryService.removeItemFromWarehouse(warehouse.getId(), item.getId());
+        assertThat(SqlStatementCounter.current() - before).isLessThanOrEqualTo(REMOVE_STATEMENTS);
+
+        assertThat(warehouseInventoryService.itemExistsInWarehouse(warehouse.getId(), item.getId())).isFalse();
+        assertThat(warehouseService.getWarehouseById(warehouse.getId()).getCurrentCapacity()).isZero();
+
+        assertThatThrownBy(() -> warehouseInventoryService.removeItemFromWarehouse(warehouse.getId(), item.getId()))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void transferUpsertsTheDestination() {
+        Warehouse source = createWarehouse("Mutation Source");
+        Warehouse destination = createWarehouse("Mutation Destination");
+        InventoryItem item = createItem(source, 20);
+
+        // partial: source reduced, destination created
+        long before = SqlStatementCounter.current();
+        warehouseInventoryService.transferBetweenWarehouses(item.getId(), source.getId(), destination.getId(), 8);
+        assertThat(SqlStatementCounter.current() - before).isLessThanOrEqualTo(TRANSFER_STATEMENTS);
+        assertThat(quantityAt(source, item)).isEqualTo(12);
+        assertThat(quantityAt(destination, item)).isEqualTo(8);
+
+        // everything left: source deleted, destination increased
+        before = SqlStatementCounter.current();
+        warehouseInventoryService.transferBetweenWarehouses(item.getId(), source.getId(), destination.getId(), 12);
+        assertThat(SqlStatementCounter.current() - before).isLessThanOrEqualTo(TRANSFER_STATEMENTS);
+        assertThat(warehouseInventoryService.itemExistsInWarehouse(source.getId(), item.getId())).isFalse();
+        assertThat(quantityAt(destination, item)).isEqualTo(20);
+
+        assertThat(warehouseService.getWarehouseById(source.getId()).getCurrentCapacity()).isZero();
+        assertThat(warehouseService.getWarehouseById(destination.getId()).getCurrentCapacity()).isEqualTo(20);
+    }
+
+    @Test
+    void transferOfTooManyUnitsChangesNothing() {
+        Warehouse source = createWarehouse("Mutation Short Source");
+        Warehouse destination = createWarehouse("Mutation Short Destination");
+        InventoryItem item = createItem(source, 5);
+
+        assertThatThrownBy(() -> warehouseInventoryService.transferBetweenWarehouses(
+            item.getId(), source.getId(), destination.getId(), 6))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Available: 5");
+        assertThatThrownBy(() -> warehouseInventoryService.transferBetweenWarehouses(
+            item.getId(), destination.getId(), source.getId(), 1))
+            .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(quantityAt(source, item)).isEqualTo(5);
+        assertThat(warehouseInventoryService.itemExistsInWarehouse(destination.getId(), item.getId())).isFalse();
+    }
+
+    @Test
+    void transferOfNoOrNegativeUnitsChangesNothing() {
+        Warehouse source = createWarehouse("Mutation Zero Source");
+        Warehouse destination = createWarehouse("Mutation Zero Destination");
+        InventoryItem item = createItem(source, 5);
+
+        // a negative move would otherwise add units to the source and take them from nowhere
+        for (int quantity : new int[] {0, -3}) {
+            assertThatThrownBy(() -> warehouseInventoryService.transferBetweenWarehouses(
+                item.getId(), source.getId(), destination.getId(), quantity))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Transfer quantity must be greater than zero");
+        }
+
+        assertThat(quantityAt(source, item)).isEqualTo(5);
+        assertThat(warehouseInventoryService.itemExistsInWarehouse(destination.getId(), item.getId())).isFalse();
+    }
+
+    private int quantityAt(Warehouse warehouse, InventoryItem item) {
+        return warehouseInventoryService.getLocationsForItem(item.getId()).stream()
+            .filter(location -> location.getWarehouse().getId().equals(warehouse.getId()))
+            .mapToInt(WarehouseInventory::getQuantity)
+            .sum();
+    }
+}
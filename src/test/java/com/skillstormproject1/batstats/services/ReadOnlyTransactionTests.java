@@ -0,0 +1,112 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// the read endpoints open read-only transactions, the ones ReplicaRoutingDataSource sends to a replica
+@SpringBootTest
+class ReadOnlyTransactionTests extends InventoryTestSupport {
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        // picked up by the transaction manager like ReplicaLagTracker
+        @Bean
+        TransactionRecorder transactionRecorder() {
+            return new TransactionRecorder();
+        }
+    }
+
+    // read-only flag of every transaction begun on the test thread, by transaction name
+    static class TransactionRecorder implements TransactionExecutionListener {
+
+        private final Map<String, Boolean> readOnly = new ConcurrentHashMap<>();
+        private volatile Thread recording;
+
+        @Override
+        public void beforeBegin(TransactionExecution transaction) {
+            if (Thread.currentThread() == recording) {
+                // a name seen both ways fails the test
+                readOnly.merge(transaction.getTransactionName(), transaction.isReadOnly(), Boolean::logicalAnd);
+            }
+        }
+    }
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private DeltaSyncService deltaSyncService;
+
+    ReadOnlyTransactionTests() {
+        super("ReadOnly");
+    }
+
+    @Test
+    void readMethodsRunInReadOnlyTransactions() {
+        Warehouse warehouse = createWarehouse("ReadOnly Bay");
+        InventoryItem item = createItem(warehouse, 5);
+        LocalDateTime since = databaseTime().minusMinutes(1);
+
+        transactionRecorder.readOnly.clear();
+        transactionRecorder.recording = Thread.currentThread();
+        try {
+            stockHistoryService.getWarehouseHistory(warehouse.getId(), HistoryGranularity.DAY, null, null);
+            stockHistoryService.getProductTypeHistory(productType().getId(), HistoryGranularity.DAY, null, null);
+            inventoryLedgerService.getMovements(item.getId(), null, 10);
+            inventoryLedgerService.getStockAt(null, warehouse.getId(), null);
+            inventoryLedgerService.getSnapshots();
+            dashboardStatsService.getDashboard();
+            dashboardStatsService.verify();
+            deltaSyncService.getWarehouseChanges(since);
+            deltaSyncService.getProductTypeChanges(since);
+            deltaSyncService.getInventoryItemChanges(since);
+        } finally {
+            transactionRecorder.recording = null;
+        }
+
+        List<String> reads = List.of(
+            name(StockHistoryService.class, "getWarehouseHistory"),
+            name(StockHistoryService.class, "getProductTypeHistory"),
+            name(InventoryLedgerService.class, "getMovements"),
+            name(InventoryLedgerService.class, "getStockAt"),
+            name(InventoryLedgerService.class, "getSnapshots"),
+            name(DashboardStatsService.class, "getDashboard"),
+            name(DashboardStatsService.class, "verify"),
+            name(DeltaSyncService.class, "getWarehouseChanges"),
+            name(DeltaSyncService.class, "getProductTypeChanges"),
+            name(DeltaSyncService.class, "getInventoryItemChanges"));
+        assertThat(transactionRecorder.readOnly).containsOnlyKeys(reads);
+        assertThat(transactionRecorder.readOnly).doesNotContainValue(false);
+    }
+
+    private static String name(Class<?> service, String method) {
+        return service.getName() + "." + method;
+    }
+}
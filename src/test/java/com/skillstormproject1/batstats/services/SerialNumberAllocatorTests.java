@@ -0,0 +1,91 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.BulkCreateResultDTO;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.repositories.SerialNumberBlockRepository;
+
+// generated serials step over the ones clients supplied, already reserved or not
+@SpringBootTest(properties = "batstats.serials.block-size=10")
+class SerialNumberAllocatorTests extends InventoryTestSupport {
+
+    @Autowired
+    private SerialNumberAllocator serialNumberAllocator;
+
+    @Autowired
+    private SerialNumberBlockRepository serialNumberBlockRepository;
+
+    private ProductType productType;
+    // a prefix of its own per test, so its first create reserves a fresh block
+    private String prefix;
+
+    SerialNumberAllocatorTests() {
+        super("Serial");
+    }
+
+    @Test
+    void generatedSerialSkipsManualOnesInTheReservedBlock() {
+        createPrefixedProductType();
+        String first = create(null).getSerialNumber();
+        long number = Long.parseLong(first.substring(prefix.length() + 1));
+
+        // the next two numbers sit in the block this node already holds
+        String manualA = serialNumberAllocator.format(prefix, number + 1);
+        String manualB = serialNumberAllocator.format(prefix, number + 2);
+        create(manualA);
+        create(manualB);
+
+        String generated = create(null).getSerialNumber();
+        assertThat(generated).isNotIn(first, manualA, manualB);
+        assertThat(generated).isEqualTo(serialNumberAllocator.format(prefix, number + 3));
+    }
+
+    @Test
+    void bulkCreateSkipsManualSerialsFromTheBatchAndTheTable() {
+        createPrefixedProductType();
+        create(null);
+        // where the next reservation starts, past the block the first create took
+        long next = serialNumberBlockRepository.findById(prefix).orElseThrow().getNextValue();
+        String inTable = serialNumberAllocator.format(prefix, next);
+        String inBatch = serialNumberAllocator.format(prefix, next + 1);
+        create(inTable);
+
+        List<InventoryItemDTO> batch = new ArrayList<>();
+        batch.add(new InventoryItemDTO(inBatch, productType.getId()));
+        for (int i = 0; i < 3; i++) {
+            batch.add(new InventoryItemDTO(null, productType.getId()));
+        }
+        BulkCreateResultDTO result = inventoryItemService.createInventoryItems(batch);
+
+        assertThat(result.getCreatedCount()).isEqualTo(4);
+        assertThat(result.getSerialNumbers()).containsExactly(inBatch,
+            serialNumberAllocator.format(prefix, next + 2), serialNumberAllocator.format(prefix, next + 3),
+            serialNumberAllocator.format(prefix, next + 4));
+    }
+
+    private InventoryItem create(String serialNumber) {
+        return track(inventoryItemService.createInventoryItem(new InventoryItemDTO(serialNumber, productType.getId())));
+    }
+
+    // bulk created items go with the product type
+    private void createPrefixedProductType() {
+        StringBuilder letters = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            letters.append((char) ('A' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        prefix = letters.toString();
+        productType = createProductType(prefix + " Serial Testing");
+    }
+}
@@ -0,0 +1,78 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.skillstormproject1.batstats.dtos.StockAlertDTO;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.models.AlertLevel;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.repositories.WarehouseInventoryRepository;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+
+// stock events whose listeners run in a different order than their transactions made them
+class StockAlertEngineOrderingTests {
+
+    private final StockAlertEngine engine = new StockAlertEngine(mock(WarehouseRepository.class),
+        mock(WarehouseInventoryRepository.class), mock(ApplicationEventPublisher.class),
+        75, 90, 5, 10, 3, 2, 200, Duration.ofMinutes(1));
+
+    @Test
+    void olderQuantityArrivingLateIsDropped() {
+        StockChangedEvent low = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 2, -38);
+        StockChangedEvent refilled = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 40, 38);
+
+        engine.onStockChanged(refilled);
+        engine.onStockChanged(low);
+
+        assertThat(engine.getAlerts(AlertLevel.WARNING)).isEmpty();
+        assertThat(engine.getTransitions(50)).isEmpty();
+    }
+
+    @Test
+    void removedLocationStaysResolved() {
+        StockChangedEvent low = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 2, -38);
+        StockChangedEvent lower = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 1, -1);
+        StockChangedEvent removed = new StockChangedEvent(MovementType.REMOVED, 1, 7, 0, -1);
+
+        engine.onStockChanged(low);
+        assertThat(engine.getAlerts(AlertLevel.WARNING)).extracting(StockAlertDTO::getLevel)
+            .containsExactly(AlertLevel.CRITICAL);
+        engine.onStockChanged(removed);
+        engine.onStockChanged(lower);
+
+        assertThat(engine.getAlerts(AlertLevel.WARNING)).isEmpty();
+    }
+
+    @Test
+    void settledLocationsAreForgotten() {
+        StockAlertEngine settlesAtOnce = new StockAlertEngine(mock(WarehouseRepository.class),
+            mock(WarehouseInventoryRepository.class), mock(ApplicationEventPublisher.class),
+            75, 90, 5, 10, 3, 2, 200, Duration.ZERO);
+        StockChangedEvent late = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 2, -38);
+        settlesAtOnce.onStockChanged(new StockChangedEvent(MovementType.REMOVED, 1, 7, 0, -2));
+        settlesAtOnce.forgetSettledLocations();
+
+        // later than the settle interval allows, nothing is left to hold it back
+        settlesAtOnce.onStockChanged(late);
+        assertThat(settlesAtOnce.getAlerts(AlertLevel.WARNING)).extracting(StockAlertDTO::getItemId)
+            .containsExactly(7);
+    }
+
+    @Test
+    void reclassificationLeavesTheLevelAlone() {
+        StockChangedEvent low = new StockChangedEvent(MovementType.ADJUSTED, 1, 7, 5, -35);
+        engine.onStockChanged(low);
+
+        // carries the quantity read before the adjustment
+        engine.onStockChanged(new StockChangedEvent(MovementType.RECLASSIFIED, 1, 7, 40, 40, 3));
+
+        assertThat(engine.getAlerts(AlertLevel.WARNING)).extracting(StockAlertDTO::getLevel)
+            .containsExactly(AlertLevel.WARNING);
+    }
+}
@@ -0,0 +1,110 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.StockAlertDTO;
+import com.skillstormproject1.batstats.events.AlertTransitionEvent;
+import com.skillstormproject1.batstats.models.AlertKind;
+import com.skillstormproject1.batstats.models.AlertLevel;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+import com.skillstormproject1.batstats.models.WarehouseInventory;
+
+// alert levels follow committed stock changes, with hysteresis on the way back down
+@SpringBootTest(properties = {
+    "batstats.alerts.capacity-warning=75", "batstats.alerts.capacity-critical=90",
+    "batstats.alerts.capacity-clear-margin=5", "batstats.alerts.low-stock-warning=10",
+    "batstats.alerts.low-stock-critical=3", "batstats.alerts.low-stock-clear-margin=2"
+})
+class StockAlertEngineTests extends InventoryTestSupport {
+
+    @Autowired
+    private StockAlertEngine stockAlertEngine;
+
+    StockAlertEngineTests() {
+        super("Alert");
+    }
+
+    @Test
+    void capacityAlertHoldsUntilClearOfTheThreshold() {
+        Warehouse warehouse = createWarehouse("Alert Capacity", 100);
+        InventoryItem item = createItem(warehouse, 80);
+        Integer locationId = locationOf(item).getId();
+        assertThat(capacityLevel(warehouse)).isEqualTo(AlertLevel.WARNING);
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 92);
+        assertThat(capacityLevel(warehouse)).isEqualTo(AlertLevel.CRITICAL);
+
+        // back under 90 but not under 85: still critical
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 87);
+        assertThat(capacityLevel(warehouse)).isEqualTo(AlertLevel.CRITICAL);
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 72);
+        assertThat(capacityLevel(warehouse)).isEqualTo(AlertLevel.WARNING);
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 69);
+        assertThat(capacityLevel(warehouse)).isEqualTo(AlertLevel.OK);
+
+        List<AlertLevel> reached = stockAlertEngine.getTransitions(50).stream()
+            .filter(transition -> transition.getKind() == AlertKind.CAPACITY)
+            .filter(transition -> transition.getWarehouseId().equals(warehouse.getId()))
+            .map(AlertTransitionEvent::getTo)
+            .toList();
+        assertThat(reached).containsExactly(AlertLevel.OK, AlertLevel.WARNING, AlertLevel.CRITICAL, AlertLevel.WARNING);
+    }
+
+    @Test
+    void lowStockAlertFollowsTheLocation() {
+        Warehouse warehouse = createWarehouse("Alert Low Stock", 1_000);
+        InventoryItem item = createItem(warehouse, 40);
+        Integer locationId = locationOf(item).getId();
+        assertThat(lowStockAlert(warehouse, item)).isNull();
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 5);
+        assertThat(lowStockAlert(warehouse, item).getLevel()).isEqualTo(AlertLevel.WARNING);
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 0);
+        assertThat(lowStockAlert(warehouse, item).getLevel()).isEqualTo(AlertLevel.CRITICAL);
+
+        // 11 is above the threshold of 10 but inside the margin
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 11);
+        assertThat(lowStockAlert(warehouse, item).getLevel()).isEqualTo(AlertLevel.WARNING);
+
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 12);
+        assertThat(lowStockAlert(warehouse, item)).isNull();
+
+        // a removed location resolves its alert instead of counting as empty
+        warehouseInventoryService.updateQuantityAtLocation(locationId, 2);
+        warehouseInventoryService.removeItemFromWarehouse(warehouse.getId(), item.getId());
+        assertThat(lowStockAlert(warehouse, item)).isNull();
+    }
+
+    private AlertLevel capacityLevel(Warehouse warehouse) {
+        return stockAlertEngine.getAlerts(AlertLevel.WARNING).stream()
+            .filter(alert -> alert.getKind() == AlertKind.CAPACITY)
+            .filter(alert -> alert.getWarehouseId().equals(warehouse.getId()))
+            .map(StockAlertDTO::getLevel)
+            .findFirst()
+            .orElse(AlertLevel.OK);
+    }
+
+    private StockAlertDTO lowStockAlert(Warehouse warehouse, InventoryItem item) {
+        return stockAlertEngine.getAlerts(AlertLevel.WARNING).stream()
+            .filter(alert -> alert.getKind() == AlertKind.LOW_STOCK)
+            .filter(alert -> alert.getWarehouseId().equals(warehouse.getId()))
+            .filter(alert -> alert.getItemId().equals(item.getId()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    private WarehouseInventory locationOf(InventoryItem item) {
+        return warehouseInventoryService.getLocationsForItem(item.getId()).get(0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.InventoryItemDTO;
+import com.skillstormproject1.batstats.dtos.StockHistoryPointDTO;
+import com.skillstormproject1.batstats.exceptions.ResourceNotFoundException;
+import com.skillstormproject1.batstats.models.HistoryGranularity;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.ProductType;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// the rolled up buckets agree with the stock changes they were built from, rolled up by the tests themselves
+@SpringBootTest(properties = {"batstats.history.rollup-settle=PT0S", "batstats.history.rollup-interval=PT1H"})
+class StockHistoryTests extends InventoryTestSupport {
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    StockHistoryTests() {
+        super("History");
+    }
+
+    @Test
+    void warehouseHistoryFollowsItsStock() {
+        Warehouse first = createWarehouse("History A");
+        Warehouse second = createWarehouse("History B");
+        ProductType type = createProductType();
+        createItem(type, first, 40);
+        InventoryItem moved = createItem(type, first, 10);
+        warehouseInventoryService.transferBetweenWarehouses(moved.getId(), first.getId(), second.getId(), 4);
+        stockHistoryService.rollup();
+
+        StockHistoryPointDTO firstNow = currentBucket(stockHistoryService.getWarehouseHistory(
+            first.getId(), HistoryGranularity.HOUR, null, null));
+        assertThat(firstNow.getClosingUnits()).isEqualTo(46L);
+        assertThat(firstNow.getUnitsIn()).isEqualTo(50L);
+        assertThat(firstNow.getUnitsOut()).isEqualTo(4L);
+        assertThat(firstNow.getMovements()).isEqualTo(3L);
+
+        // the same movements land in every granularity
+        for (HistoryGranularity granularity : HistoryGranularity.values()) {
+            List<StockHistoryPointDTO> points = stockHistoryService.getWarehouseHistory(
+                second.getId(), granularity, null, null);
+            assertThat(currentBucket(points).getClosingUnits()).isEqualTo(4L);
+        }
+
+        // a later rollup builds on the level already stored
+        warehouseInventoryService.transferBetweenWarehouses(moved.getId(), second.getId(), first.getId(), 1);
+        stockHistoryService.rollup();
+        assertThat(currentBucket(stockHistoryService.getWarehouseHistory(
+            second.getId(), HistoryGranularity.DAY, null, null)).getClosingUnits()).isEqualTo(3L);
+    }
+
+    @Test
+    void emptyBucketsCarryTheLevelForward() {
+        Warehouse warehouse = createWarehouse("History Gaps");
+        createItem(warehouse, 7);
+        stockHistoryService.rollup();
+
+        LocalDateTime now = databaseTime();
+        List<StockHistoryPointDTO> points = stockHistoryService.getWarehouseHistory(
+            warehouse.getId(), HistoryGranularity.HOUR, now.minusHours(5), now.plusHours(3));
+
+        // nothing before the item was created, then its level in every later hour
+        assertThat(points).hasSize(9);
+        assertThat(points.get(0).getClosingUnits()).isZero();
+        assertThat(points.subList(5, 9)).extracting(StockHistoryPointDTO::getClosingUnits).containsOnly(7L);
+        assertThat(points.subList(6, 9)).extracting(StockHistoryPointDTO::getMovements).containsOnly(0L);
+    }
+
+    @Test
+    void reclassifiedItemsMoveBetweenProductTypes() {
+        Warehouse warehouse = createWarehouse("History Types");
+        ProductType oldType = createProductType();
+        ProductType newType = createProductType();
+        InventoryItem item = createItem(oldType, warehouse, 12);
+        inventoryItemService.updateInventoryItem(item.getId(), new InventoryItemDTO(null, newType.getId()));
+        stockHistoryService.rollup();
+
+        assertThat(currentBucket(stockHistoryService.getProductTypeHistory(
+            oldType.getId(), HistoryGranularity.DAY, null, null)).getClosingUnits()).isZero();
+        assertThat(currentBucket(stockHistoryService.getProductTypeHistory(
+            newType.getId(), HistoryGranularity.DAY, null, null)).getClosingUnits()).isEqualTo(12L);
+        // the warehouse itself never saw a change in stock
+        assertThat(currentBucket(stockHistoryService.getWarehouseHistory(
+            warehouse.getId(), HistoryGranularity.DAY, null, null)).getClosingUnits()).isEqualTo(12L);
+    }
+
+    @Test
+    void rejectsRangesPastRetention() {
+        Warehouse warehouse = createWarehouse("History Retention");
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(1);
+
+        assertThatThrownBy(() -> stockHistoryService.getWarehouseHistory(
+            warehouse.getId(), HistoryGranularity.HOUR, longAgo, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(stockHistoryService.getWarehouseHistory(
+            warehouse.getId(), HistoryGranularity.MONTH, longAgo, null)).isNotEmpty();
+    }
+
+    @Test
+    void unknownIdsAreNotFound() {
+        // what RestExceptionHandlerAspect turns into a 404
+        assertThatThrownBy(() -> stockHistoryService.getWarehouseHistory(
+            Integer.MAX_VALUE, HistoryGranularity.DAY, null, null))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> stockHistoryService.getProductTypeHistory(
+            Integer.MAX_VALUE, HistoryGranularity.DAY, null, null))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // the newest bucket, the one holding the current time
+    private StockHistoryPointDTO currentBucket(List<StockHistoryPointDTO> points) {
+        return points.get(points.size() - 1);
+    }
+}
@@ -0,0 +1,180 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.BatchTransferResultDTO;
+import com.skillstormproject1.batstats.dtos.DashboardDTO;
+import com.skillstormproject1.batstats.dtos.TransferRequestDTO;
+import com.skillstormproject1.batstats.events.InventoryTotalsChangedEvent;
+import com.skillstormproject1.batstats.events.StockChangedEvent;
+import com.skillstormproject1.batstats.exceptions.WarehouseCapacityExceededException;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.MovementType;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// batches are checked and written by their net result, and either apply whole or not at all
+@SpringBootTest
+@RecordApplicationEvents
+class TransferBatchTests extends InventoryTestSupport {
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    TransferBatchTests() {
+        super("Batch");
+    }
+
+    @Test
+    void chainedMovesOfOneItemAreNetted() {
+        Warehouse a = createWarehouse("Batch Chain A");
+        Warehouse b = createWarehouse("Batch Chain B");
+        Warehouse c = createWarehouse("Batch Chain C");
+        InventoryItem item = createItem(a, 10);
+        DashboardDTO before = dashboardStatsService.getDashboard();
+        events.clear();
+
+        // b holds nothing, so the second move only works after the first
+        BatchTransferResultDTO result = warehouseInventoryService.transferBatch(List.of(
+            new TransferRequestDTO(item.getId(), a.getId(), b.getId(), 10),
+            new TransferRequestDTO(item.getId(), b.getId(), c.getId(), 10)));
+
+        assertThat(result.getTransferCount()).isEqualTo(2);
+        assertThat(result.getLocationsWritten()).isEqualTo(2);
+        assertThat(result.getWarehouseNetChanges())
+            .containsEntry(a.getId(), -10).containsEntry(b.getId(), 0).containsEntry(c.getId(), 10);
+        assertThat(quantities(item)).containsExactly(Map.entry(c.getId(), 10));
+        assertThat(currentCapacity(a)).isZero();
+        assertThat(currentCapacity(b)).isZero();
+        assertThat(currentCapacity(c)).isEqualTo(10);
+
+        // nothing is reported for the warehouse the units only passed through
+        assertThat(events.stream(StockChangedEvent.class))
+            .extracting(StockChangedEvent::getType, StockChangedEvent::getWarehouseId,
+                StockChangedEvent::getQuantity, StockChangedEvent::getDelta)
+            .containsExactlyInAnyOrder(
+                tuple(MovementType.TRANSFERRED_OUT, a.getId(), 0, -10),
+                tuple(MovementType.TRANSFERRED_IN, c.getId(), 10, 10));
+        // still one location, so the totals don't move
+        assertThat(events.stream(InventoryTotalsChangedEvent.class)).isEmpty();
+        assertThat(dashboardStatsService.getDashboard().getMultiLocationItems())
+            .isEqualTo(before.getMultiLocationItems());
+    }
+
+    @Test
+    void splittingAnItemPublishesTheLocationTransition() {
+        Warehouse a = createWarehouse("Batch Split A");
+        Warehouse b = createWarehouse("Batch Split B");
+        Warehouse c = createWarehouse("Batch Split C");
+        InventoryItem item = createItem(a, 10);
+        DashboardDTO before = dashboardStatsService.getDashboard();
+        events.clear();
+
+        warehouseInventoryService.transferBatch(List.of(
+            new TransferRequestDTO(item.getId(), a.getId(), b.getId(), 4),
+            new TransferRequestDTO(item.getId(), a.getId(), c.getId(), 3)));
+
+        assertThat(quantities(item)).containsOnly(
+            Map.entry(a.getId(), 3), Map.entry(b.getId(), 4), Map.entry(c.getId(), 3));
+        assertThat(events.stream(StockChangedEvent.class))
+            .extracting(StockChangedEvent::getType, StockChangedEvent::getWarehouseId,
+                StockChangedEvent::getQuantity, StockChangedEvent::getDelta)
+            .containsExactlyInAnyOrder(
+                tuple(MovementType.TRANSFERRED_OUT, a.getId(), 3, -7),
+                tuple(MovementType.TRANSFERRED_IN, b.getId(), 4, 4),
+                tuple(MovementType.TRANSFERRED_IN, c.getId(), 3, 3));
+        // one location to three: one more multi-location item, units unchanged
+        assertThat(events.stream(InventoryTotalsChangedEvent.class))
+            .singleElement()
+            .satisfies(totals -> {
+                assertThat(totals.getMultiLocationDelta()).isEqualTo(1);
+                assertThat(totals.getWithoutLocationDelta()).isZero();
+                assertThat(totals.getItemDelta()).isZero();
+                assertThat(totals.getUnitsByCategory()).isEmpty();
+            });
+
+        DashboardDTO after = dashboardStatsService.getDashboard();
+        assertThat(after.getMultiLocationItems()).isEqualTo(before.getMultiLocationItems() + 1);
+        assertThat(after.getTotalUnits()).isEqualTo(before.getTotalUnits());
+        assertThat(dashboardStatsService.verify().getDifferences()).isEmpty();
+    }
+
+    @Test
+    void insufficientQuantityPartwayThroughRollsBackTheWholeBatch() {
+        Warehouse a = createWarehouse("Batch Short A");
+        Warehouse b = createWarehouse("Batch Short B");
+        InventoryItem first = createItem(a, 10);
+        InventoryItem second = createItem(a, 5);
+        events.clear();
+
+        // the first two moves are fine on their own, the third asks for more than is left
+        assertThatThrownBy(() -> warehouseInventoryService.transferBatch(List.of(
+            new TransferRequestDTO(first.getId(), a.getId(), b.getId(), 6),
+            new TransferRequestDTO(second.getId(), a.getId(), b.getId(), 5),
+            new TransferRequestDTO(first.getId(), a.getId(), b.getId(), 5))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Available: 4");
+
+        assertThat(quantities(first)).containsExactly(Map.entry(a.getId(), 10));
+        assertThat(quantities(second)).containsExactly(Map.entry(a.getId(), 5));
+        assertThat(currentCapacity(a)).isEqualTo(15);
+        assertThat(currentCapacity(b)).isZero();
+        assertThat(events.stream(StockChangedEvent.class)).isEmpty();
+        assertThat(events.stream(InventoryTotalsChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void onlyTheNetChangeOfAWarehouseHasToFit() {
+        Warehouse a = createWarehouse("Batch Net A");
+        Warehouse full = createWarehouse("Batch Net Full", 10);
+        Warehouse c = createWarehouse("Batch Net C");
+        InventoryItem incoming = createItem(a, 6);
+        InventoryItem outgoing = createItem(full, 10);
+
+        // the full warehouse takes 5 and gives 5, only a move-by-move check would overflow it
+        warehouseInventoryService.transferBatch(List.of(
+            new TransferRequestDTO(incoming.getId(), a.getId(), full.getId(), 5),
+            new TransferRequestDTO(outgoing.getId(), full.getId(), c.getId(), 5)));
+        assertThat(currentCapacity(full)).isEqualTo(10);
+
+        // one more unit in than out no longer fits, and nothing of the batch is written
+        events.clear();
+        assertThatThrownBy(() -> warehouseInventoryService.transferBatch(List.of(
+            new TransferRequestDTO(incoming.getId(), a.getId(), full.getId(), 1),
+            new TransferRequestDTO(outgoing.getId(), c.getId(), a.getId(), 5))))
+            .isInstanceOf(WarehouseCapacityExceededException.class);
+
+        assertThat(quantities(incoming)).containsOnly(Map.entry(a.getId(), 1), Map.entry(full.getId(), 5));
+        assertThat(quantities(outgoing)).containsOnly(Map.entry(full.getId(), 5), Map.entry(c.getId(), 5));
+        assertThat(currentCapacity(a)).isEqualTo(1);
+        assertThat(currentCapacity(full)).isEqualTo(10);
+        assertThat(currentCapacity(c)).isEqualTo(5);
+        assertThat(events.stream(StockChangedEvent.class)).isEmpty();
+    }
+
+    // warehouse id to quantity, straight from the table
+    private Map<Integer, Integer> quantities(InventoryItem item) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT warehouse_id, quantity FROM warehouse_inventory WHERE inventory_item_id = ?",
+            row -> {
+                quantities.put(row.getInt("warehouse_id"), row.getInt("quantity"));
+            },
+            item.getId());
+        return quantities;
+    }
+}
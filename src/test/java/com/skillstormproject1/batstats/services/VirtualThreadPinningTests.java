@@ -0,0 +1,99 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// runs the stock hot paths on virtual threads and fails if one blocks while pinned to its carrier
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadPinningTests extends InventoryTestSupport {
+
+    private static final int THREADS = 200;
+
+    // code we own or sit on while holding a connection, pinning anywhere in here stalls requests
+    private static final List<String> HOT_PATH_PACKAGES = List.of(
+        "com.skillstormproject1.", "com.zaxxer.hikari.", "org.postgresql.");
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    VirtualThreadPinningTests() {
+        super("Pinning");
+    }
+
+    @Test
+    void hotPathsDoNotPinCarrierThreads() throws Exception {
+        Warehouse first = createWarehouse("Pinning A", 100_000);
+        Warehouse second = createWarehouse("Pinning B", 100_000);
+        InventoryItem item = createItem(first, 10_000);
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(item.getId(), second.getId(), 10_000));
+
+        // one pass first so class loading and pool start-up, which may pin, are out of the way
+        runHotPaths(item, first, second, 10);
+
+        ConcurrentLinkedQueue<String> pinned = new ConcurrentLinkedQueue<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                if (event.getStackTrace() == null) {
+                    return;
+                }
+                List<RecordedFrame> frames = event.getStackTrace().getFrames();
+                boolean onHotPath = frames.stream().anyMatch(frame -> HOT_PATH_PACKAGES.stream()
+                    .anyMatch(frame.getMethod().getType().getName()::startsWith));
+                if (onHotPath) {
+                    pinned.add(frames.stream().limit(12)
+                        .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                        .toList().toString());
+                }
+            });
+            recording.startAsync();
+            runHotPaths(item, first, second, THREADS);
+            recording.stop();
+        }
+
+        assertThat(pinned).as("virtual threads pinned on a hot path").isEmpty();
+    }
+
+    // the same kind of work the load test sends: location reads, transfers both ways and the dashboard
+    private void runHotPaths(InventoryItem item, Warehouse first, Warehouse second, int tasks) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                running.add(executor.submit(() -> {
+                    switch (index % 4) {
+                        case 0 -> warehouseInventoryService.getLocationSummariesForItem(item.getId());
+                        case 1 -> warehouseInventoryService.transferBetweenWarehouses(
+                            item.getId(), first.getId(), second.getId(), 1);
+                        case 2 -> warehouseInventoryService.transferBetweenWarehouses(
+                            item.getId(), second.getId(), first.getId(), 1);
+                        default -> dashboardStatsService.getDashboard();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : running) {
+                task.get();
+            }
+        }
+    }
+}
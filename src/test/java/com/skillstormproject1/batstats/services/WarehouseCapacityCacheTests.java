@@ -0,0 +1,57 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.skillstormproject1.batstats.events.WarehouseCapacityChangedEvent;
+import com.skillstormproject1.batstats.repositories.WarehouseCapacityView;
+import com.skillstormproject1.batstats.repositories.WarehouseRepository;
+import com.skillstormproject1.batstats.services.WarehouseCapacityCache.Snapshot;
+
+// the reconcile sweep against a mocked repository, with change events landing in the middle of its read
+class WarehouseCapacityCacheTests {
+
+    private final WarehouseRepository warehouseRepository = mock(WarehouseRepository.class);
+    private final WarehouseCapacityCache cache = new WarehouseCapacityCache(warehouseRepository);
+
+    @Test
+    void eventAppliedDuringTheReadIsKept() {
+        // stamped before the sweep started, committed while it was reading
+        long stampedEarlier = System.nanoTime();
+        when(warehouseRepository.findAllCapacities()).thenReturn(List.of(row(1, 10)));
+        cache.reconcile();
+
+        when(warehouseRepository.findAllCapacities()).thenAnswer(invocation -> {
+            cache.onCapacityChanged(new WarehouseCapacityChangedEvent(1, "North", 100, 25, "ACTIVE", stampedEarlier));
+            return List.of(row(1, 10));
+        });
+        cache.reconcile();
+
+        assertThat(cache.get(1).getCurrentCapacity()).isEqualTo(25);
+    }
+
+    @Test
+    void driftFromBeforeTheReadIsCorrected() {
+        when(warehouseRepository.findAllCapacities()).thenReturn(List.of(row(1, 10), row(2, 0)));
+        cache.reconcile();
+        cache.onCapacityChanged(new WarehouseCapacityChangedEvent(1, "North", 100, 25, "ACTIVE", System.nanoTime()));
+
+        // another node moved it on, and warehouse 2 was deleted straight in the database
+        when(warehouseRepository.findAllCapacities()).thenReturn(List.of(row(1, 40)));
+        cache.reconcile();
+
+        assertThat(cache.getAll()).extracting(Snapshot::getId, Snapshot::getCurrentCapacity)
+            .containsExactly(tuple(1, 40));
+        assertThat(cache.getStats().getDriftCorrections()).isEqualTo(2);
+    }
+
+    private WarehouseCapacityView row(int id, int currentCapacity) {
+        return new Snapshot(id, "North", 100, currentCapacity, "ACTIVE", 0);
+    }
+}
@@ -0,0 +1,166 @@
+package com.skillstormproject1.batstats.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.skillstormproject1.batstats.InventoryTestSupport;
+import com.skillstormproject1.batstats.dtos.AddItemToWarehouseDTO;
+import com.skillstormproject1.batstats.dtos.WarehouseDTO;
+import com.skillstormproject1.batstats.exceptions.WarehouseCapacityExceededException;
+import com.skillstormproject1.batstats.models.InventoryItem;
+import com.skillstormproject1.batstats.models.Warehouse;
+
+// hammers the capacity checks from many threads, checking correctness only: no overfill, no lost units,
+// no deadlocks. 200 transfers are too few to say anything about throughput, TransferBenchmarks measures that
+@SpringBootTest
+class WarehouseCapacityConcurrencyTests extends InventoryTestSupport {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private WarehouseCapacityCache warehouseCapacityCache;
+
+    WarehouseCapacityConcurrencyTests() {
+        super("Concurrency");
+    }
+
+    @Test
+    void concurrentAddsNeverOverfillAWarehouse() throws Exception {
+        Warehouse small = createWarehouse("Concurrency Small", 500);
+        List<InventoryItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(createItem());
+        }
+
+        AtomicInteger added = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        runConcurrently(items.size(), i -> {
+            try {
+                warehouseInventoryService.addItemToWarehouse(
+                    new AddItemToWarehouseDTO(items.get(i).getId(), small.getId(), 10));
+                added.incrementAndGet();
+            } catch (WarehouseCapacityExceededException expected) {
+                // the java check rejected it, which is what we want instead of a trigger failure
+            } catch (Throwable ex) {
+                unexpected.add(ex);
+            }
+        });
+
+        assertThat(unexpected).isEmpty();
+        assertThat(added.get()).isEqualTo(50);
+        assertThat(currentCapacity(small)).isEqualTo(500).isEqualTo(locationTotal(small));
+    }
+
+    @Test
+    void concurrentTransfersLoseNoUnitsAndNeverDeadlock() throws Exception {
+        Warehouse first = createWarehouse("Concurrency A", 1000);
+        Warehouse second = createWarehouse("Concurrency B", 1000);
+        InventoryItem item = createItem(first, 500);
+        warehouseInventoryService.addItemToWarehouse(new AddItemToWarehouseDTO(item.getId(), second.getId(), 500));
+        warehouseCapacityCache.get(first.getId());
+        warehouseCapacityCache.get(second.getId());
+
+        // 200 transfers of 5 units, half in each direction, so the locks are taken from both sides
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        runConcurrently(200, i -> {
+            Warehouse source = i % 2 == 0 ? first : second;
+            Warehouse destination = i % 2 == 0 ? second : first;
+            try {
+                warehouseInventoryService.transferBetweenWarehouses(item.getId(), source.getId(), destination.getId(), 5);
+            } catch (Throwable ex) {
+                failures.add(ex);
+            }
+        });
+
+        assertThat(failures).isEmpty();
+        assertThat(locationTotal(first) + locationTotal(second)).isEqualTo(1000);
+        assertThat(currentCapacity(first)).isEqualTo(locationTotal(first));
+        assertThat(currentCapacity(second)).isEqualTo(locationTotal(second));
+
+        // every commit wrote through to the cache, so it agrees with the trigger without a sweep
+        assertThat(warehouseCapacityCache.get(first.getId()).getCurrentCapacity()).isEqualTo(currentCapacity(first));
+        assertThat(warehouseCapacityCache.get(second.getId()).getCurrentCapacity()).isEqualTo(currentCapacity(second));
+    }
+
+    @Test
+    void loweringMaxCapacityWhileStockArrivesNeverLeavesItOverfull() throws Exception {
+        Warehouse warehouse = createWarehouse("Concurrency Shrink", 1000);
+        List<InventoryItem> items = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            items.add(createItem());
+        }
+
+        // every third task tries to cut the limit to 300 while the others add 10 units each
+        AtomicInteger cuts = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        runConcurrently(items.size(), i -> {
+            try {
+                if (i % 3 == 0) {
+                    warehouseService.updateWarehouse(warehouse.getId(),
+                        new WarehouseDTO(warehouse.getName(), warehouse.getLocation(), 300, "ACTIVE"));
+                    cuts.incrementAndGet();
+                } else {
+                    warehouseInventoryService.addItemToWarehouse(
+                        new AddItemToWarehouseDTO(items.get(i).getId(), warehouse.getId(), 10));
+                }
+            } catch (WarehouseCapacityExceededException | IllegalArgumentException expected) {
+                // either the stock didn't fit under the new limit, or the limit was below the stock
+            } catch (Throwable ex) {
+                unexpected.add(ex);
+            }
+        });
+
+        assertThat(unexpected).isEmpty();
+        int maxCapacity = jdbcTemplate.queryForObject(
+            "SELECT max_capacity FROM warehouses WHERE id = ?", Integer.class, warehouse.getId());
+        assertThat(currentCapacity(warehouse)).isEqualTo(locationTotal(warehouse)).isLessThanOrEqualTo(maxCapacity);
+        assertThat(maxCapacity).isEqualTo(cuts.get() > 0 ? 300 : 1000);
+
+        int stored = currentCapacity(warehouse);
+        assertThatThrownBy(() -> warehouseService.updateWarehouse(warehouse.getId(),
+            new WarehouseDTO(warehouse.getName(), warehouse.getLocation(), stored - 1, "ACTIVE")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private interface Task {
+        void run(int index);
+    }
+
+    private void runConcurrently(int tasks, Task task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private int locationTotal(Warehouse warehouse) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(quantity), 0) FROM warehouse_inventory WHERE warehouse_id = ?",
+            Integer.class, warehouse.getId());
+    }
+}